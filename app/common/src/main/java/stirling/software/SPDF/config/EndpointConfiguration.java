@@ -1,10 +1,12 @@
 package stirling.software.SPDF.config;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
@@ -46,12 +48,22 @@ public class EndpointConfiguration {
     private final ApplicationProperties applicationProperties;
     @Getter private Map<String, Boolean> endpointStatuses = new ConcurrentHashMap<>();
     private Map<String, Set<String>> endpointGroups = new ConcurrentHashMap<>();
-    private Set<String> disabledGroups = new HashSet<>();
+    private Set<String> disabledGroups = ConcurrentHashMap.newKeySet();
     private Map<String, DisableReason> endpointDisableReasons = new ConcurrentHashMap<>();
     private Map<String, DisableReason> groupDisableReasons = new ConcurrentHashMap<>();
     private Map<String, Set<String>> endpointAlternatives = new ConcurrentHashMap<>();
     private final boolean runningProOrHigher;
 
+    /**
+     * Precomputed endpoint -> enabled decisions for every endpoint known to this configuration.
+     * Rebuilt lazily after any change to groups, alternatives or explicit flags and replaced as a
+     * whole, so request-time lookups are a single map read. Endpoints missing from the table are
+     * unknown and therefore enabled.
+     */
+    private volatile Map<String, Boolean> decisionTable;
+
+    private final AtomicLong configurationVersion = new AtomicLong();
+
     public EndpointConfiguration(
             ApplicationProperties applicationProperties,
             @Qualifier("runningProOrHigher") boolean runningProOrHigher) {
@@ -72,6 +84,7 @@ public class EndpointConfiguration {
         String normalized = normalizeEndpoint(endpoint);
         endpointStatuses.put(normalized, true);
         endpointDisableReasons.remove(normalized);
+        invalidateDecisionTable();
         log.debug("Enabled endpoint: {}", normalized);
     }
 
@@ -86,9 +99,50 @@ public class EndpointConfiguration {
         }
         endpointStatuses.put(normalized, false);
         endpointDisableReasons.put(normalized, reason);
+        invalidateDecisionTable();
     }
 
     public boolean isEndpointEnabled(String endpoint) {
+        if (endpoint == null) {
+            return true;
+        }
+        Map<String, Boolean> table = decisionTable;
+        if (table == null) {
+            table = rebuildDecisionTable();
+        }
+        Boolean enabled = table.get(normalizeEndpoint(endpoint));
+        return enabled == null || enabled;
+    }
+
+    private void invalidateDecisionTable() {
+        configurationVersion.incrementAndGet();
+        decisionTable = null;
+    }
+
+    private Map<String, Boolean> rebuildDecisionTable() {
+        long version = configurationVersion.get();
+
+        Set<String> knownEndpoints = new HashSet<>(endpointStatuses.keySet());
+        endpointGroups.values().forEach(knownEndpoints::addAll);
+        knownEndpoints.addAll(endpointAlternatives.keySet());
+
+        Map<String, Boolean> table = new HashMap<>(knownEndpoints.size() * 2);
+        for (String endpoint : knownEndpoints) {
+            table.put(endpoint, evaluateEndpointEnabled(endpoint));
+        }
+        table = Map.copyOf(table);
+
+        // Only publish if nothing changed while building; otherwise the next lookup rebuilds.
+        synchronized (this) {
+            if (configurationVersion.get() == version) {
+                decisionTable = table;
+            }
+        }
+        log.debug("Rebuilt endpoint decision table with {} endpoints", table.size());
+        return table;
+    }
+
+    private boolean evaluateEndpointEnabled(String endpoint) {
         String original = endpoint;
         if (endpoint.startsWith("/")) {
             endpoint = endpoint.substring(1);
@@ -183,11 +237,15 @@ public class EndpointConfiguration {
     }
 
     public void addEndpointToGroup(String group, String endpoint) {
-        endpointGroups.computeIfAbsent(group, k -> new HashSet<>()).add(endpoint);
+        endpointGroups.computeIfAbsent(group, k -> ConcurrentHashMap.newKeySet()).add(endpoint);
+        invalidateDecisionTable();
     }
 
     public void addEndpointAlternative(String endpoint, String toolGroup) {
-        endpointAlternatives.computeIfAbsent(endpoint, k -> new HashSet<>()).add(toolGroup);
+        endpointAlternatives
+                .computeIfAbsent(endpoint, k -> ConcurrentHashMap.newKeySet())
+                .add(toolGroup);
+        invalidateDecisionTable();
     }
 
     public void disableGroup(String group) {
@@ -207,6 +265,7 @@ public class EndpointConfiguration {
             }
         }
         groupDisableReasons.put(group, reason);
+        invalidateDecisionTable();
         // Only cascade to endpoints for *functional* groups
         if (!isToolGroup(group)) {
             Set<String> endpoints = endpointGroups.get(group);
@@ -221,6 +280,7 @@ public class EndpointConfiguration {
             log.debug("Enabling group: {}", group);
         }
         groupDisableReasons.remove(group);
+        invalidateDecisionTable();
         Set<String> endpoints = endpointGroups.get(group);
         if (endpoints != null) {
             endpoints.forEach(this::enableEndpoint);
@@ -24,6 +24,10 @@ import io.swagger.v3.oas.annotations.parameters.RequestBody;
  *   <li>Progress information (see {@link #trackProgress()}) is stored in {@link
  *       stirling.software.common.service.TaskManager TaskManager} and can be polled via <code>
  *       GET /api/v1/general/job/{id}</code>.
+ *   <li>Endpoints taking a single {@code PDFFile} also accept a batch: several {@code fileInputs}
+ *       and/or {@code fileIds}. The endpoint then runs once per file on shared batch workers; a
+ *       synchronous call answers with a ZIP of the results, an asynchronous one with a result file
+ *       per input.
  * </ul>
  *
  * <p>Unless stated otherwise an attribute only affects <em>async</em> execution.
@@ -1,13 +1,23 @@
 package stirling.software.common.aop;
 
+import java.beans.PropertyDescriptor;
 import java.io.IOException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,9 +28,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.common.annotations.AutoJobPostMapping;
+import stirling.software.common.model.api.GeneralFile;
 import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.service.FileStorage;
 import stirling.software.common.service.JobExecutorService;
+import stirling.software.common.service.JobResultCache;
+import stirling.software.common.util.PathMultipartFile;
+import stirling.software.common.util.TempFileManager;
 
 @Aspect
 @Component
@@ -34,6 +48,8 @@ public class AutoJobAspect {
     private final JobExecutorService jobExecutorService;
     private final HttpServletRequest request;
     private final FileStorage fileStorage;
+    private final JobResultCache jobResultCache;
+    private final TempFileManager tempFileManager;
 
     @Around("@annotation(autoJobPostMapping)")
     public Object wrapWithJobExecution(
@@ -59,54 +75,152 @@ public class AutoJobAspect {
                 trackProgress);
 
         // Process arguments in-place to avoid type mismatch issues
-        Object[] args = processArgsInPlace(joinPoint.getArgs(), async);
-
-        // Extract queueable and resourceWeight parameters and validate
-        boolean queueable = autoJobPostMapping.queueable();
-        int resourceWeight = Math.max(1, Math.min(100, autoJobPostMapping.resourceWeight()));
-
-        // Integrate with the JobExecutorService
-        if (retryCount <= 1) {
-            // No retries needed, simple execution
-            return jobExecutorService.runJobGeneric(
-                    async,
-                    () -> {
-                        try {
-                            // Note: Progress tracking is handled in TaskManager/JobExecutorService
-                            // The trackProgress flag controls whether detailed progress is stored
-                            // for REST API queries, not WebSocket notifications
-                            return joinPoint.proceed(args);
-                        } catch (Throwable ex) {
-                            log.error(
-                                    "AutoJobAspect caught exception during job execution: {}",
-                                    ex.getMessage(),
-                                    ex);
-                            // Rethrow RuntimeException as-is to preserve exception type
-                            if (ex instanceof RuntimeException) {
-                                throw (RuntimeException) ex;
+        List<PathMultipartFile> spooledUploads = new ArrayList<>();
+        try {
+            Object[] args = processArgsInPlace(joinPoint.getArgs(), async, spooledUploads);
+
+            int batchIndex = findBatchRequest(args);
+            if (batchIndex >= 0) {
+                return runBatch(joinPoint, args, batchIndex, async, timeout, spooledUploads);
+            }
+
+            String cacheKey = resultCacheKey(args);
+
+            // Extract queueable and resourceWeight parameters and validate
+            boolean queueable = autoJobPostMapping.queueable();
+            int resourceWeight = Math.max(1, Math.min(100, autoJobPostMapping.resourceWeight()));
+
+            // Integrate with the JobExecutorService
+            if (retryCount <= 1) {
+                // No retries needed, simple execution
+                return jobExecutorService.runJobGeneric(
+                        async,
+                        () -> {
+                            try {
+                                // Note: Progress tracking is handled in
+                                // TaskManager/JobExecutorService. The trackProgress flag controls
+                                // whether detailed progress is stored for REST API queries, not
+                                // WebSocket notifications
+                                return joinPoint.proceed(args);
+                            } catch (Throwable ex) {
+                                log.error(
+                                        "AutoJobAspect caught exception during job execution: {}",
+                                        ex.getMessage(),
+                                        ex);
+                                // Rethrow RuntimeException as-is to preserve exception type
+                                if (ex instanceof RuntimeException) {
+                                    throw (RuntimeException) ex;
+                                }
+                                // Wrap checked exceptions - GlobalExceptionHandler will unwrap
+                                // BaseAppException
+                                throw new RuntimeException(ex);
                             }
-                            // Wrap checked exceptions - GlobalExceptionHandler will unwrap
-                            // BaseAppException
-                            throw new RuntimeException(ex);
-                        }
-                    },
-                    timeout,
-                    queueable,
-                    resourceWeight);
-        } else {
-            // Use retry logic
-            return executeWithRetries(
-                    joinPoint,
-                    args,
-                    async,
-                    timeout,
-                    retryCount,
-                    trackProgress,
-                    queueable,
-                    resourceWeight);
+                        },
+                        timeout,
+                        queueable,
+                        resourceWeight,
+                        cacheKey);
+            } else {
+                // Use retry logic
+                return executeWithRetries(
+                        joinPoint,
+                        args,
+                        async,
+                        timeout,
+                        retryCount,
+                        trackProgress,
+                        queueable,
+                        resourceWeight,
+                        cacheKey);
+            }
+        } finally {
+            // Sync jobs are done with their uploads once the response is ready
+            spooledUploads.forEach(upload -> tempFileManager.deleteTempFile(upload.getPath()));
         }
     }
 
+    /**
+     * Runs the endpoint once per file of a batch request (one that carries {@code fileInputs} or
+     * {@code fileIds} instead of a single file), each time with a copy of the request holding just
+     * that file. Results are not cached and failed files are not retried.
+     */
+    private Object runBatch(
+            ProceedingJoinPoint joinPoint,
+            Object[] args,
+            int batchIndex,
+            boolean async,
+            long timeout,
+            List<PathMultipartFile> spooledUploads) {
+        PDFFile batchRequest = (PDFFile) args[batchIndex];
+        List<MultipartFile> inputs = new ArrayList<>();
+        if (batchRequest.getFileInputs() != null) {
+            for (MultipartFile upload : batchRequest.getFileInputs()) {
+                if (upload != null && !upload.isEmpty()) {
+                    inputs.add(async ? persist(upload) : spool(upload, spooledUploads));
+                }
+            }
+        }
+        if (batchRequest.getFileIds() != null) {
+            for (String fileId : batchRequest.getFileIds()) {
+                if (fileId != null && !fileId.isBlank()) {
+                    try {
+                        inputs.add(fileStorage.openFile(fileId.trim()));
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to resolve file by ID: " + fileId, e);
+                    }
+                }
+            }
+        }
+        log.debug(
+                "AutoJobAspect: Running {} as a batch of {}",
+                request.getRequestURI(),
+                inputs.size());
+
+        return jobExecutorService.runBatchJob(
+                async,
+                inputs,
+                input -> {
+                    Object[] itemArgs = args.clone();
+                    itemArgs[batchIndex] = requestForItem(batchRequest, input);
+                    try {
+                        return joinPoint.proceed(itemArgs);
+                    } catch (RuntimeException ex) {
+                        throw ex;
+                    } catch (Throwable ex) {
+                        // Wrap checked exceptions - GlobalExceptionHandler will unwrap
+                        // BaseAppException
+                        throw new RuntimeException(ex);
+                    }
+                },
+                timeout);
+    }
+
+    /** Returns the index of the batch request among the handler arguments, or -1. */
+    static int findBatchRequest(Object[] args) {
+        if (args == null) {
+            return -1;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] instanceof PDFFile pdfFile
+                    && ((pdfFile.getFileInputs() != null && pdfFile.getFileInputs().length > 0)
+                            || (pdfFile.getFileIds() != null && !pdfFile.getFileIds().isEmpty()))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Copies a batch request into a single-file request of the same type for one input. */
+    static PDFFile requestForItem(PDFFile batchRequest, MultipartFile input) {
+        PDFFile itemRequest = BeanUtils.instantiateClass(batchRequest.getClass());
+        BeanUtils.copyProperties(batchRequest, itemRequest);
+        itemRequest.setFileInputs(null);
+        itemRequest.setFileIds(null);
+        itemRequest.setFileId(null);
+        itemRequest.setFileInput(input);
+        return itemRequest;
+    }
+
     private Object executeWithRetries(
             ProceedingJoinPoint joinPoint,
             Object[] args,
@@ -115,7 +229,8 @@ public class AutoJobAspect {
             int maxRetries,
             boolean trackProgress,
             boolean queueable,
-            int resourceWeight)
+            int resourceWeight,
+            String cacheKey)
             throws Exception {
 
         // Keep jobId reference for progress tracking in TaskManager
@@ -233,7 +348,86 @@ public class AutoJobAspect {
                 },
                 timeout,
                 queueable,
-                resourceWeight);
+                resourceWeight,
+                cacheKey);
+    }
+
+    /**
+     * Builds the result cache key for this request, or returns null when the endpoint is not cached
+     * or its inputs cannot be read.
+     */
+    private String resultCacheKey(Object[] args) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (uri == null) {
+            return null;
+        }
+        String endpoint =
+                contextPath != null && uri.startsWith(contextPath)
+                        ? uri.substring(contextPath.length())
+                        : uri;
+        if (!jobResultCache.isEnabledFor(endpoint)) {
+            return null;
+        }
+        try {
+            return jobResultCache.keyFor(endpoint, request.getParameterMap(), collectFiles(args));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Running {} without result cache: {}", endpoint, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Collects the uploaded files of a request from the handler arguments, including those held by
+     * request models, so that files resolved from a fileId are hashed as well.
+     */
+    static Map<String, List<MultipartFile>> collectFiles(Object[] args) {
+        Map<String, List<MultipartFile>> files = new LinkedHashMap<>();
+        if (args == null) {
+            return files;
+        }
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            if (arg == null) {
+                continue;
+            }
+            if (!addFiles(files, "arg" + i, arg)
+                    && arg.getClass().getName().startsWith("stirling.software.")) {
+                BeanWrapper bean = new BeanWrapperImpl(arg);
+                for (PropertyDescriptor property : bean.getPropertyDescriptors()) {
+                    Class<?> type = property.getPropertyType();
+                    if (property.getReadMethod() != null
+                            && type != null
+                            && (MultipartFile.class.isAssignableFrom(type)
+                                    || MultipartFile[].class.isAssignableFrom(type)
+                                    || Collection.class.isAssignableFrom(type))) {
+                        Object value = bean.getPropertyValue(property.getName());
+                        if (value != null) {
+                            addFiles(files, property.getName(), value);
+                        }
+                    }
+                }
+            }
+        }
+        return files;
+    }
+
+    private static boolean addFiles(
+            Map<String, List<MultipartFile>> files, String name, Object value) {
+        if (value instanceof MultipartFile file) {
+            files.computeIfAbsent(name, k -> new ArrayList<>()).add(file);
+        } else if (value instanceof MultipartFile[] array) {
+            files.computeIfAbsent(name, k -> new ArrayList<>()).addAll(Arrays.asList(array));
+        } else if (value instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                if (element instanceof MultipartFile file) {
+                    files.computeIfAbsent(name, k -> new ArrayList<>()).add(file);
+                }
+            }
+        } else {
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -242,9 +436,11 @@ public class AutoJobAspect {
      *
      * @param originalArgs The original arguments
      * @param async Whether this is an async operation
+     * @param spooledUploads Collects the temp files uploads were spooled into, for cleanup
      * @return The original array with processed arguments
      */
-    private Object[] processArgsInPlace(Object[] originalArgs, boolean async) {
+    private Object[] processArgsInPlace(
+            Object[] originalArgs, boolean async, List<PathMultipartFile> spooledUploads) {
         if (originalArgs == null || originalArgs.length == 0) {
             return originalArgs;
         }
@@ -258,7 +454,7 @@ public class AutoJobAspect {
                 if (pdfFile.getFileInput() == null && pdfFile.getFileId() != null) {
                     try {
                         log.debug("Using fileId {} to get file content", pdfFile.getFileId());
-                        MultipartFile file = fileStorage.retrieveFile(pdfFile.getFileId());
+                        MultipartFile file = fileStorage.openFile(pdfFile.getFileId());
                         pdfFile.setFileInput(file);
                     } catch (Exception e) {
                         throw new RuntimeException(
@@ -275,8 +471,8 @@ public class AutoJobAspect {
                         // Store the fileId for later reference
                         pdfFile.setFileId(fileId);
 
-                        // Replace the original MultipartFile with our persistent copy
-                        MultipartFile persistentFile = fileStorage.retrieveFile(fileId);
+                        // Replace the original MultipartFile with a handle on the stored copy
+                        MultipartFile persistentFile = fileStorage.openFile(fileId);
                         pdfFile.setFileInput(persistentFile);
 
                         log.debug("Created persistent file copy with fileId: {}", fileId);
@@ -285,12 +481,53 @@ public class AutoJobAspect {
                                 "Failed to create persistent copy of uploaded file", e);
                     }
                 }
+                // Case 3: For sync requests, spool the upload once so the job can open it
+                // directly
+                else if (pdfFile.getFileInput() != null) {
+                    pdfFile.setFileInput(spool(pdfFile.getFileInput(), spooledUploads));
+                }
+            } else if (arg instanceof GeneralFile generalFile
+                    && !async
+                    && generalFile.getFileInput() != null) {
+                generalFile.setFileInput(spool(generalFile.getFileInput(), spooledUploads));
             }
         }
 
         return originalArgs;
     }
 
+    /** Makes a persistent copy of a batch upload in the file storage, for async processing. */
+    private PathMultipartFile persist(MultipartFile upload) {
+        try {
+            String fileId = fileStorage.storeFile(upload);
+            log.debug(
+                    "Created persistent copy of {} with fileId: {}",
+                    upload.getOriginalFilename(),
+                    fileId);
+            // Keep the upload's name, which the endpoint derives its output name from
+            return new PathMultipartFile(
+                    fileStorage.openFile(fileId).getPath(),
+                    upload.getName(),
+                    upload.getOriginalFilename(),
+                    upload.getContentType());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create persistent copy of uploaded file", e);
+        }
+    }
+
+    private MultipartFile spool(MultipartFile upload, List<PathMultipartFile> spooledUploads) {
+        if (upload instanceof PathMultipartFile) {
+            return upload;
+        }
+        try {
+            PathMultipartFile spooled = tempFileManager.spool(upload);
+            spooledUploads.add(spooled);
+            return spooled;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to spool uploaded file", e);
+        }
+    }
+
     private String getJobIdFromContext() {
         try {
             return (String) request.getAttribute("jobId");
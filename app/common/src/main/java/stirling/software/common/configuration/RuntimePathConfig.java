@@ -23,6 +23,7 @@ import stirling.software.common.model.ApplicationProperties.CustomPaths.Pipeline
 import stirling.software.common.model.ApplicationProperties.System;
 import stirling.software.common.util.ProcessExecutor;
 import stirling.software.common.util.UnoServerPool;
+import stirling.software.common.util.WeasyPrintPool;
 
 @Slf4j
 @Configuration
@@ -138,6 +139,10 @@ public class RuntimePathConfig {
         }
         this.unoServerEndpoints = buildUnoServerEndpoints(processExecutor, libreOfficeLimit);
         ProcessExecutor.setUnoServerPool(new UnoServerPool(this.unoServerEndpoints));
+        if (processExecutor != null && processExecutor.getWeasyPrintPool() != null) {
+            ProcessExecutor.setWeasyPrintPool(
+                    new WeasyPrintPool(this.weasyPrintPath, processExecutor.getWeasyPrintPool()));
+        }
     }
 
     private String resolvePath(String defaultPath, String customPath) {
@@ -0,0 +1,55 @@
+package stirling.software.common.model;
+
+import java.util.List;
+import java.util.Set;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Metadata for one POST API operation, derived from the controller annotations at startup by {@link
+ * stirling.software.common.service.ApiOperationRegistry}.
+ */
+@Value
+@Builder
+public class ApiOperation {
+
+    /** Request path, e.g. {@code /api/v1/general/rotate-pdf}. */
+    String path;
+
+    /** OpenAPI description of the operation. */
+    String description;
+
+    /** Input types declared in the description ({@code Input:PDF}), upper-case. */
+    @Singular List<String> inputTypes;
+
+    /** Output types declared in the description ({@code Output:ZIP}), upper-case. */
+    @Singular List<String> outputTypes;
+
+    /** Operation type code declared in the description ({@code Type:SISO}), or null. */
+    String type;
+
+    /**
+     * Request parameters the OpenAPI document lists for the operation (query, path, header and
+     * cookie parameters, not multipart file parts). A pipeline step has to supply all of them.
+     */
+    @Singular Set<String> parameters;
+
+    /** True when the endpoint is declared with {@code @AutoJobPostMapping}. */
+    boolean autoJob;
+
+    /** Resource weight (1-100) from {@code @AutoJobPostMapping}, or the default weight. */
+    int resourceWeight;
+
+    /** Whether the job may be queued when resources are scarce. */
+    boolean queueable;
+
+    /** Job timeout in milliseconds, negative for the application default. */
+    long timeoutMs;
+
+    /** Multi-input operations (type {@code MI*}) receive all files in one call. */
+    public boolean isMultiInput() {
+        return type != null && type.startsWith("MI");
+    }
+}
@@ -880,6 +880,27 @@ public class ApplicationProperties {
         private TimeoutMinutes timeoutMinutes = new TimeoutMinutes();
         private boolean autoUnoServer = true;
         private List<UnoServerEndpoint> unoServerEndpoints = new ArrayList<>();
+        private WeasyPrintPool weasyPrintPool = new WeasyPrintPool();
+
+        @Data
+        public static class WeasyPrintPool {
+            private boolean enabled = true;
+            private int size;
+            private int maxJobsPerWorker;
+            private int maxWorkerMemoryMb;
+
+            public int getSize() {
+                return size > 0 ? size : 2;
+            }
+
+            public int getMaxJobsPerWorker() {
+                return maxJobsPerWorker > 0 ? maxJobsPerWorker : 100;
+            }
+
+            public int getMaxWorkerMemoryMb() {
+                return maxWorkerMemoryMb > 0 ? maxWorkerMemoryMb : 512;
+            }
+        }
 
         @Data
         public static class UnoServerEndpoint {
@@ -1,5 +1,7 @@
 package stirling.software.common.model.api;
 
+import java.util.List;
+
 import org.springframework.http.MediaType;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -28,9 +30,28 @@ public class PDFFile {
                     "File ID for server-side files (can be used instead of fileInput if job was previously done on file in async mode)")
     private String fileId;
 
+    @Schema(
+            description =
+                    "Batch mode: several input PDF files, each processed separately with the same"
+                            + " options. Use instead of fileInput",
+            format = "binary")
+    private MultipartFile[] fileInputs;
+
+    @Schema(
+            description =
+                    "Batch mode: file IDs of server-side files to process, alongside or instead of"
+                            + " fileInputs")
+    private List<String> fileIds;
+
     @AssertTrue(message = "Either fileInput or fileId must be provided")
     @Schema(hidden = true)
     private boolean isValid() {
+        boolean batch =
+                (fileInputs != null && fileInputs.length > 0)
+                        || (fileIds != null && !fileIds.isEmpty());
+        if (batch) {
+            return fileInput == null && (fileId == null || fileId.trim().isEmpty());
+        }
         return (fileInput != null && (fileId == null || fileId.trim().isEmpty()))
                 || (fileId != null && !fileId.trim().isEmpty() && fileInput == null);
     }
@@ -0,0 +1,188 @@
+package stirling.software.common.service;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.multipart.support.MultipartResolutionDelegate;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.annotations.AutoJobPostMapping;
+import stirling.software.common.model.ApiOperation;
+import stirling.software.common.util.RegexPatternUtils;
+
+/**
+ * In-process registry of the POST API operations, built once from the registered handler methods
+ * and their {@link AutoJobPostMapping}, {@code @*Api} and {@link Operation} annotations. Replaces
+ * fetching and parsing the application's own OpenAPI document for the handful of lookups pipelines
+ * need, so it is available before the HTTP port is open.
+ */
+@Service
+@Slf4j
+public class ApiOperationRegistry implements SmartInitializingSingleton {
+
+    private static final String API_ANNOTATION_PACKAGE = "stirling.software.common.annotations.api";
+    private static final int DEFAULT_RESOURCE_WEIGHT = 50;
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMapping;
+    private final ParameterNameDiscoverer parameterNameDiscoverer =
+            new DefaultParameterNameDiscoverer();
+
+    private volatile Map<String, ApiOperation> operations = Map.of();
+
+    public ApiOperationRegistry(
+            @Qualifier("requestMappingHandlerMapping")
+                    ObjectProvider<RequestMappingHandlerMapping> handlerMapping) {
+        this.handlerMapping = handlerMapping;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        RequestMappingHandlerMapping mapping = handlerMapping.getIfAvailable();
+        if (mapping == null) {
+            log.warn("No request mapping handler mapping available; operation registry is empty");
+            return;
+        }
+        register(mapping.getHandlerMethods());
+    }
+
+    /** Replaces the registry contents with the POST operations among the given handlers. */
+    public void register(Map<RequestMappingInfo, HandlerMethod> handlerMethods) {
+        Map<String, ApiOperation> registered = new HashMap<>();
+        handlerMethods.forEach(
+                (info, handlerMethod) -> {
+                    if (!isApiOperation(info, handlerMethod)) {
+                        return;
+                    }
+                    for (String path : info.getPatternValues()) {
+                        registered.put(path, describe(path, handlerMethod));
+                    }
+                });
+        operations = Map.copyOf(registered);
+        log.debug("Registered {} API operations", operations.size());
+    }
+
+    public Optional<ApiOperation> find(String path) {
+        return Optional.ofNullable(operations.get(path));
+    }
+
+    public Collection<ApiOperation> getOperations() {
+        return operations.values();
+    }
+
+    private boolean isApiOperation(RequestMappingInfo info, HandlerMethod handlerMethod) {
+        if (AnnotatedElementUtils.hasAnnotation(
+                handlerMethod.getMethod(), AutoJobPostMapping.class)) {
+            return true;
+        }
+        if (!info.getMethodsCondition().getMethods().contains(RequestMethod.POST)) {
+            return false;
+        }
+        for (Annotation annotation : handlerMethod.getBeanType().getAnnotations()) {
+            if (API_ANNOTATION_PACKAGE.equals(annotation.annotationType().getPackageName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ApiOperation describe(String path, HandlerMethod handlerMethod) {
+        Method method = handlerMethod.getMethod();
+        Operation operation = AnnotatedElementUtils.findMergedAnnotation(method, Operation.class);
+        String description = operation != null ? operation.description() : "";
+
+        ApiOperation.ApiOperationBuilder builder =
+                ApiOperation.builder().path(path).description(description);
+
+        RegexPatternUtils patterns = RegexPatternUtils.getInstance();
+        forEachGroup(patterns.getApiDocInputTypePattern(), description, builder::inputType);
+        forEachGroup(patterns.getApiDocOutputTypePattern(), description, builder::outputType);
+        Matcher typeMatcher = patterns.getApiDocTypePattern().matcher(description);
+        if (typeMatcher.find()) {
+            builder.type(typeMatcher.group(1));
+        }
+
+        for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+            String name = parameterName(parameter);
+            if (name != null) {
+                builder.parameter(name);
+            }
+        }
+
+        AutoJobPostMapping autoJob =
+                AnnotatedElementUtils.findMergedAnnotation(method, AutoJobPostMapping.class);
+        if (autoJob != null) {
+            builder.autoJob(true)
+                    .resourceWeight(Math.max(1, Math.min(100, autoJob.resourceWeight())))
+                    .queueable(autoJob.queueable())
+                    .timeoutMs(autoJob.timeout());
+        } else {
+            builder.resourceWeight(DEFAULT_RESOURCE_WEIGHT).timeoutMs(-1);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the name under which springdoc lists {@code parameter} in the operation's {@code
+     * parameters}, or null if it is not listed there. Multipart files go into the request body.
+     */
+    private String parameterName(MethodParameter parameter) {
+        String name;
+        RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+        PathVariable pathVariable = parameter.getParameterAnnotation(PathVariable.class);
+        RequestHeader requestHeader = parameter.getParameterAnnotation(RequestHeader.class);
+        CookieValue cookieValue = parameter.getParameterAnnotation(CookieValue.class);
+        if (requestParam != null) {
+            if (MultipartResolutionDelegate.isMultipartArgument(parameter)) {
+                return null;
+            }
+            name = requestParam.name();
+        } else if (pathVariable != null) {
+            name = pathVariable.name();
+        } else if (requestHeader != null) {
+            name = requestHeader.name();
+        } else if (cookieValue != null) {
+            name = cookieValue.name();
+        } else {
+            return null;
+        }
+        if (name.isEmpty()) {
+            parameter.initParameterNameDiscovery(parameterNameDiscoverer);
+            name = parameter.getParameterName();
+        }
+        return name;
+    }
+
+    private static void forEachGroup(Pattern pattern, String text, Consumer<String> consumer) {
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            consumer.accept(matcher.group(1).toUpperCase(Locale.ROOT));
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package stirling.software.common.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.MultipartConfigElement;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.util.ChecksumUtils;
+import stirling.software.common.util.ExceptionUtils;
+
+/**
+ * Chunked, resumable uploads into {@link FileStorage}. A session reserves a file of the announced
+ * size; its chunks may then arrive in any order and are written in place at their offset, each
+ * checked against the checksum the client sent along. A chunk is committed once its checksum
+ * matched, so an interrupted upload resumes by sending only the chunks that are still missing.
+ * Completing the session publishes the file under a file ID that any auto-job endpoint accepts as
+ * {@code fileId}.
+ */
+@Service
+@Slf4j
+public class ChunkedUploadService {
+
+    static final int MIN_CHUNK_SIZE = 256 * 1024;
+    static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+    static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    static final String DEFAULT_ALGORITHM = "SHA-256";
+    private static final Set<String> ALGORITHMS =
+            Set.of("CRC32", "ADLER32", "MD5", "SHA-1", "SHA-256", "SHA-512");
+
+    private final FileStorage fileStorage;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleanupExecutor =
+            Executors.newSingleThreadScheduledExecutor();
+
+    @Value("${stirling.uploadSessionExpiryMinutes:1440}")
+    private int sessionExpiryMinutes = 1440;
+
+    // Carries the configured upload limit, which applies to chunked uploads as well
+    @Autowired(required = false)
+    private MultipartConfigElement multipartConfig;
+
+    public ChunkedUploadService(FileStorage fileStorage) {
+        this.fileStorage = fileStorage;
+
+        // Sessions live only in memory, so the files of uploads cut off by a restart are orphaned
+        long startedAt = System.currentTimeMillis();
+        cleanupExecutor.execute(() -> deleteLeftoverPartialFiles(startedAt));
+        // Abandoned uploads hold disk space, so expire them periodically
+        cleanupExecutor.scheduleAtFixedRate(this::cleanupExpiredSessions, 30, 30, TimeUnit.MINUTES);
+    }
+
+    /**
+     * The state of an upload session
+     *
+     * @param uploadId the session ID
+     * @param totalSize size of the complete file in bytes
+     * @param chunkSize size of every chunk but the last
+     * @param totalChunks number of chunks the file is split into
+     * @param checksumAlgorithm algorithm of the per-chunk checksums
+     * @param committedChunks number of chunks received and verified
+     * @param nextChunk lowest chunk still missing, or -1 when all are committed
+     * @param missingChunks every chunk still missing, in ascending order
+     */
+    public record UploadStatus(
+            String uploadId,
+            long totalSize,
+            int chunkSize,
+            int totalChunks,
+            String checksumAlgorithm,
+            int committedChunks,
+            int nextChunk,
+            List<Integer> missingChunks) {}
+
+    /**
+     * A finished upload
+     *
+     * @param fileId the ID to pass as {@code fileId} to any auto-job endpoint
+     * @param fileSize size of the file in bytes
+     */
+    public record CompletedUpload(String fileId, long fileSize) {}
+
+    private static final class UploadSession {
+        private final String uploadId;
+        private final String fileId;
+        private final long totalSize;
+        private final int chunkSize;
+        private final int totalChunks;
+        private final String algorithm;
+        private final BitSet committed = new BitSet();
+        private final Set<Integer> inFlight = new HashSet<>();
+        private boolean completing = false;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        private UploadSession(
+                String uploadId, String fileId, long totalSize, int chunkSize, String algorithm) {
+            this.uploadId = uploadId;
+            this.fileId = fileId;
+            this.totalSize = totalSize;
+            this.chunkSize = chunkSize;
+            this.totalChunks = (int) ((totalSize + chunkSize - 1) / chunkSize);
+            this.algorithm = algorithm;
+        }
+
+        private long chunkOffset(int index) {
+            return (long) index * chunkSize;
+        }
+
+        private long chunkLength(int index) {
+            return Math.min(chunkSize, totalSize - chunkOffset(index));
+        }
+    }
+
+    /**
+     * Start an upload session and reserve space for the file
+     *
+     * @param totalSize size of the complete file in bytes
+     * @param chunkSize requested chunk size in bytes, or null for the default
+     * @param checksumAlgorithm algorithm of the per-chunk checksums, or null for SHA-256
+     * @return the state of the new session
+     * @throws IllegalArgumentException if the file is larger than the upload limit
+     * @throws IOException if the file cannot be reserved
+     */
+    public UploadStatus createSession(long totalSize, Integer chunkSize, String checksumAlgorithm)
+            throws IOException {
+        if (totalSize <= 0) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument", "Invalid argument: {0}", "totalSize must be positive");
+        }
+        long maxFileSize = multipartConfig != null ? multipartConfig.getMaxFileSize() : -1;
+        if (maxFileSize > 0 && totalSize > maxFileSize) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "totalSize exceeds the upload limit of " + maxFileSize + " bytes");
+        }
+        int size = chunkSize != null ? chunkSize : DEFAULT_CHUNK_SIZE;
+        if (size < MIN_CHUNK_SIZE || size > MAX_CHUNK_SIZE) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "chunkSize must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE);
+        }
+        String algorithm =
+                checksumAlgorithm == null || checksumAlgorithm.isBlank()
+                        ? DEFAULT_ALGORITHM
+                        : checksumAlgorithm.trim().toUpperCase(Locale.ROOT);
+        if (!ALGORITHMS.contains(algorithm)) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "checksumAlgorithm must be one of " + ALGORITHMS);
+        }
+
+        String fileId = fileStorage.createPartialFile(totalSize);
+        UploadSession session =
+                new UploadSession(UUID.randomUUID().toString(), fileId, totalSize, size, algorithm);
+        sessions.put(session.uploadId, session);
+        log.debug(
+                "Started upload {} of {} bytes in {} chunks",
+                session.uploadId,
+                totalSize,
+                session.totalChunks);
+        return status(session);
+    }
+
+    /**
+     * Get the state of an upload session, to find out which chunks still have to be sent
+     *
+     * @throws NoSuchElementException if there is no such session
+     */
+    public UploadStatus getStatus(String uploadId) {
+        return status(requireSession(uploadId));
+    }
+
+    /**
+     * Write one chunk into place. The chunk is streamed from {@code data} straight to its offset in
+     * the file while its checksum is computed, and is committed only if that checksum matches.
+     *
+     * @param uploadId the session ID
+     * @param index zero-based chunk number
+     * @param data the chunk content; not closed by this method
+     * @param expectedChecksum hex checksum of the chunk in the session's algorithm
+     * @return the state of the session after the chunk
+     * @throws NoSuchElementException if there is no such session
+     * @throws IllegalStateException if the same chunk is being uploaded concurrently, or the upload
+     *     is being completed
+     * @throws IOException if the chunk cannot be read or written
+     */
+    public UploadStatus writeChunk(
+            String uploadId, int index, InputStream data, String expectedChecksum)
+            throws IOException {
+        UploadSession session = requireSession(uploadId);
+        if (index < 0 || index >= session.totalChunks) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "chunk index must be between 0 and " + (session.totalChunks - 1));
+        }
+        if (expectedChecksum == null || expectedChecksum.isBlank()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.dataRequired", "{0} must contain at least one value", "checksum");
+        }
+        synchronized (session) {
+            if (sessions.get(uploadId) != session) {
+                throw new NoSuchElementException("Upload not found: " + uploadId);
+            }
+            if (session.completing) {
+                throw new IllegalStateException("Upload " + uploadId + " is being completed");
+            }
+            if (!session.inFlight.add(index)) {
+                throw new IllegalStateException("Chunk " + index + " is already being uploaded");
+            }
+            // Resending a chunk overwrites it, so it only counts once verified again
+            session.committed.clear(index);
+        }
+
+        long length = session.chunkLength(index);
+        try (FileChannel channel =
+                FileChannel.open(
+                        fileStorage.getPartialFilePath(session.fileId), StandardOpenOption.WRITE)) {
+            ChunkWriter writer = new ChunkWriter(data, channel, session.chunkOffset(index), length);
+            String checksum = ChecksumUtils.checksum(writer, session.algorithm);
+            if (writer.written != length) {
+                throw ExceptionUtils.createIllegalArgumentException(
+                        "error.invalidArgument",
+                        "Invalid argument: {0}",
+                        "chunk " + index + " has " + writer.written + " bytes, expected " + length);
+            }
+            if (!checksum.equalsIgnoreCase(expectedChecksum.trim())) {
+                throw ExceptionUtils.createIllegalArgumentException(
+                        "error.invalidArgument",
+                        "Invalid argument: {0}",
+                        "checksum of chunk " + index + " does not match, send it again");
+            }
+            // A committed chunk must survive a crash, as the client will not send it again
+            channel.force(false);
+            synchronized (session) {
+                session.committed.set(index);
+            }
+        } catch (NoSuchFileException e) {
+            // The upload was aborted or expired while the chunk was on its way
+            throw new NoSuchElementException("Upload not found: " + uploadId);
+        } finally {
+            synchronized (session) {
+                session.inFlight.remove(index);
+            }
+            session.lastActivity = System.currentTimeMillis();
+        }
+        return status(session);
+    }
+
+    /**
+     * Finish an upload whose chunks are all committed and publish the file. From the moment the
+     * chunks are checked until the file is published, the session accepts no further chunks, so the
+     * published file is the one that was verified.
+     *
+     * @param uploadId the session ID
+     * @param expectedChecksum optional hex checksum of the whole file in the session's algorithm
+     * @return the ID of the stored file
+     * @throws NoSuchElementException if there is no such session
+     * @throws IllegalStateException if chunks are still being written or the upload is already
+     *     being completed
+     * @throws IOException if the file cannot be verified or published
+     */
+    public CompletedUpload complete(String uploadId, String expectedChecksum) throws IOException {
+        UploadSession session = requireSession(uploadId);
+        synchronized (session) {
+            if (sessions.get(uploadId) != session) {
+                throw new NoSuchElementException("Upload not found: " + uploadId);
+            }
+            if (session.completing) {
+                throw new IllegalStateException("Upload " + uploadId + " is being completed");
+            }
+            if (!session.inFlight.isEmpty()) {
+                throw new IllegalStateException(
+                        "Chunks of upload " + uploadId + " are in progress");
+            }
+            int missing = session.committed.nextClearBit(0);
+            if (missing < session.totalChunks) {
+                throw ExceptionUtils.createIllegalArgumentException(
+                        "error.invalidArgument",
+                        "Invalid argument: {0}",
+                        "upload is incomplete, chunk " + missing + " is missing");
+            }
+            session.completing = true;
+        }
+        boolean published = false;
+        try {
+            if (expectedChecksum != null
+                    && !expectedChecksum.isBlank()
+                    && !ChecksumUtils.matches(
+                            fileStorage.getPartialFilePath(session.fileId),
+                            session.algorithm,
+                            expectedChecksum.trim())) {
+                throw ExceptionUtils.createIllegalArgumentException(
+                        "error.invalidArgument",
+                        "Invalid argument: {0}",
+                        "checksum of the uploaded file does not match");
+            }
+            fileStorage.commitPartialFile(session.fileId);
+            sessions.remove(uploadId, session);
+            published = true;
+        } finally {
+            if (!published) {
+                // Let the client resend chunks or try again
+                synchronized (session) {
+                    session.completing = false;
+                }
+                session.lastActivity = System.currentTimeMillis();
+            }
+        }
+        log.debug("Completed upload {} as file {}", uploadId, session.fileId);
+        return new CompletedUpload(session.fileId, session.totalSize);
+    }
+
+    /**
+     * Abandon an upload and free its space
+     *
+     * @return true if the session existed
+     * @throws IllegalStateException if the upload is being completed
+     */
+    public boolean abort(String uploadId) {
+        UploadSession session = uploadId != null ? sessions.get(uploadId) : null;
+        if (session == null) {
+            return false;
+        }
+        synchronized (session) {
+            if (session.completing) {
+                throw new IllegalStateException("Upload " + uploadId + " is being completed");
+            }
+            if (!sessions.remove(uploadId, session)) {
+                return false;
+            }
+        }
+        fileStorage.deletePartialFile(session.fileId);
+        log.debug("Aborted upload {}", uploadId);
+        return true;
+    }
+
+    /** Remove sessions that have not received a chunk within the expiry time. */
+    void cleanupExpiredSessions() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(sessionExpiryMinutes);
+        for (UploadSession session : sessions.values()) {
+            try {
+                if (session.lastActivity < cutoff && abort(session.uploadId)) {
+                    log.info("Expired abandoned upload {}", session.uploadId);
+                }
+            } catch (IllegalStateException e) {
+                log.debug("Not expiring upload {}: {}", session.uploadId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Delete partial files that were last written before this service started and have no session.
+     */
+    void deleteLeftoverPartialFiles(long startedAt) {
+        Set<String> active =
+                sessions.values().stream()
+                        .map(session -> session.fileId)
+                        .collect(Collectors.toSet());
+        int deleted = fileStorage.deletePartialFilesBefore(startedAt, active);
+        if (deleted > 0) {
+            log.info("Deleted {} partial files of interrupted uploads", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleanupExecutor.shutdownNow();
+    }
+
+    private UploadSession requireSession(String uploadId) {
+        UploadSession session = uploadId != null ? sessions.get(uploadId) : null;
+        if (session == null) {
+            throw new NoSuchElementException("Upload not found: " + uploadId);
+        }
+        return session;
+    }
+
+    private static UploadStatus status(UploadSession session) {
+        List<Integer> missing = new ArrayList<>();
+        int committed;
+        synchronized (session) {
+            committed = session.committed.cardinality();
+            for (int i = session.committed.nextClearBit(0);
+                    i < session.totalChunks;
+                    i = session.committed.nextClearBit(i + 1)) {
+                missing.add(i);
+            }
+        }
+        return new UploadStatus(
+                session.uploadId,
+                session.totalSize,
+                session.chunkSize,
+                session.totalChunks,
+                session.algorithm,
+                committed,
+                missing.isEmpty() ? -1 : missing.get(0),
+                missing);
+    }
+
+    /**
+     * Passes a chunk through to the checksum while writing every byte read to its place in the
+     * file, so the chunk is read once and never held in memory as a whole.
+     */
+    private static final class ChunkWriter extends InputStream {
+        private final InputStream source;
+        private final FileChannel channel;
+        private final long offset;
+        private final long length;
+        private long written;
+
+        private ChunkWriter(InputStream source, FileChannel channel, long offset, long length) {
+            this.source = source;
+            this.channel = channel;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int n = read(single, 0, 1);
+            return n == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int off, int len) throws IOException {
+            int n = source.read(buffer, off, len);
+            if (n <= 0) {
+                return n;
+            }
+            if (written + n > length) {
+                throw ExceptionUtils.createIllegalArgumentException(
+                        "error.invalidArgument",
+                        "Invalid argument: {0}",
+                        "chunk is larger than " + length + " bytes");
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer, off, n);
+            long position = offset + written;
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+            written += n;
+            return n;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.examples.util.DeletingRandomAccessFile;
 import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
 import org.apache.pdfbox.io.ScratchFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -26,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.util.ApplicationContextProvider;
 import stirling.software.common.util.ExceptionUtils;
+import stirling.software.common.util.PathMultipartFile;
 import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.TempFileRegistry;
 
@@ -124,6 +126,42 @@ public class CustomPDFDocumentFactory {
         return doc;
     }
 
+    /**
+     * Loads a PDF from a file that has to outlive the document. {@link #load(Path, boolean)} treats
+     * its input as consumed and deletes it, either once the bytes are in memory or when the
+     * document is closed; this variant leaves the file in place, so further copies can be opened
+     * from it.
+     */
+    public PDDocument loadKeepingFile(Path path, boolean readOnly) throws IOException {
+        if (path == null) {
+            throw ExceptionUtils.createNullArgumentException("File");
+        }
+        long fileSize = Files.size(path);
+        if (fileSize <= SMALL_FILE_THRESHOLD) {
+            return load(Files.readAllBytes(path), readOnly);
+        }
+        log.debug("Loading PDF from kept file, size: {}MB", fileSize / (1024 * 1024));
+
+        PDDocument doc;
+        try {
+            doc =
+                    Loader.loadPDF(
+                            new RandomAccessReadBufferedFile(path.toFile()),
+                            "",
+                            null,
+                            null,
+                            getStreamCacheFunction(fileSize));
+        } catch (IOException e) {
+            ExceptionUtils.logException("PDF loading from file", e);
+            throw ExceptionUtils.handlePdfException(e);
+        }
+        configureResourceCacheIfNeeded(doc, fileSize);
+        if (!readOnly) {
+            postProcessDocument(doc);
+        }
+        return doc;
+    }
+
     /** Load a PDF from byte array with automatic optimization. */
     public PDDocument load(byte[] input) throws IOException {
         return load(input, false);
@@ -216,8 +254,14 @@ public class CustomPDFDocumentFactory {
         return load(pdfFile, false);
     }
 
-    /** Load from a MultipartFile with read-only option */
+    /**
+     * Load from a MultipartFile with read-only option. Uploads that were already spooled to disk
+     * are opened in place rather than copied to another temp file.
+     */
     public PDDocument load(MultipartFile pdfFile, boolean readOnly) throws IOException {
+        if (pdfFile instanceof PathMultipartFile spooled) {
+            return loadKeepingFile(spooled.getPath(), readOnly);
+        }
         return load(pdfFile.getInputStream(), readOnly);
     }
 
@@ -1,17 +1,28 @@
 package stirling.software.common.service;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import stirling.software.common.util.PathMultipartFile;
+
 /**
  * Service for storing and retrieving files with unique file IDs. Used by the AutoJobPostMapping
  * system to handle file references.
@@ -21,11 +32,17 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class FileStorage {
 
+    private static final String PARTIAL_SUFFIX = ".part";
+
     @Value("${stirling.tempDir:/tmp/stirling-files}")
     private String tempDirPath;
 
     private final FileOrUploadService fileOrUploadService;
 
+    // Sizes of uncommitted partial files, which take their space only as they are filled in
+    private final Map<String, Long> partialReservations = new HashMap<>();
+    private long reservedPartialBytes = 0;
+
     /**
      * Store a file and return its unique ID
      *
@@ -69,6 +86,176 @@ public class FileStorage {
         return fileId;
     }
 
+    /**
+     * Store the content of a streaming response body and return its unique ID
+     *
+     * @param body The response body to write
+     * @return The unique ID assigned to the file
+     * @throws IOException If there is an error storing the file
+     */
+    public String storeStreamingBody(StreamingResponseBody body) throws IOException {
+        String fileId = generateFileId();
+        Path filePath = getFilePath(fileId);
+
+        // Ensure the directory exists
+        Files.createDirectories(filePath.getParent());
+
+        try (OutputStream out = Files.newOutputStream(filePath)) {
+            body.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(filePath);
+            throw e;
+        }
+
+        log.debug("Stored streamed response with ID: {}", fileId);
+        return fileId;
+    }
+
+    /**
+     * Reserve a file ID and create a partial file of the given size for it, to be filled in place
+     * (for example by a chunked upload) and then published with {@link #commitPartialFile}. Until
+     * it is committed the file is not visible under its ID. The file is created sparse, so its size
+     * stays reserved against the free disk space until it is committed or deleted.
+     *
+     * @param size The final size of the file in bytes
+     * @return The file ID reserved for the file
+     * @throws IOException If there is not enough space or the file cannot be created
+     */
+    public String createPartialFile(long size) throws IOException {
+        String fileId = generateFileId();
+        Path partialPath = getPartialFilePath(fileId);
+
+        // Ensure the directory exists
+        Files.createDirectories(partialPath.getParent());
+
+        synchronized (partialReservations) {
+            long available =
+                    Files.getFileStore(partialPath.getParent()).getUsableSpace()
+                            - reservedPartialBytes;
+            if (available < size) {
+                throw new IOException(
+                        "Not enough disk space for a file of "
+                                + size
+                                + " bytes ("
+                                + Math.max(available, 0)
+                                + " available)");
+            }
+            partialReservations.put(fileId, size);
+            reservedPartialBytes += size;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(partialPath.toFile(), "rw")) {
+            file.setLength(size);
+        } catch (IOException e) {
+            releasePartialReservation(fileId);
+            Files.deleteIfExists(partialPath);
+            throw e;
+        }
+
+        log.debug("Created partial file of {} bytes with ID: {}", size, fileId);
+        return fileId;
+    }
+
+    /**
+     * Get the location of a partial file created by {@link #createPartialFile}
+     *
+     * @param fileId The ID reserved for the file
+     * @return The path of the partial file
+     */
+    Path getPartialFilePath(String fileId) {
+        return getFilePath(fileId + PARTIAL_SUFFIX);
+    }
+
+    /**
+     * Publish a partial file under its ID, so it can be opened like any stored file
+     *
+     * @param fileId The ID reserved for the file
+     * @throws IOException If the partial file doesn't exist or can't be moved
+     */
+    public void commitPartialFile(String fileId) throws IOException {
+        Path partialPath = getPartialFilePath(fileId);
+        if (!Files.exists(partialPath)) {
+            throw new IOException("Partial file not found with ID: " + fileId);
+        }
+        Files.move(partialPath, getFilePath(fileId), StandardCopyOption.ATOMIC_MOVE);
+        releasePartialReservation(fileId);
+        log.debug("Committed partial file with ID: {}", fileId);
+    }
+
+    /**
+     * Delete a partial file that will not be committed
+     *
+     * @param fileId The ID reserved for the file
+     * @return true if the file was deleted, false otherwise
+     */
+    public boolean deletePartialFile(String fileId) {
+        try {
+            return Files.deleteIfExists(getPartialFilePath(fileId));
+        } catch (IOException e) {
+            log.error("Error deleting partial file with ID: {}", fileId, e);
+            return false;
+        } finally {
+            releasePartialReservation(fileId);
+        }
+    }
+
+    /**
+     * Delete the partial files last modified before {@code cutoffMillis}, except those of {@code
+     * keepFileIds}. Which partial files are in use is only known in memory, so this removes the
+     * ones left behind by a restart or crash.
+     *
+     * @param cutoffMillis Epoch milliseconds; newer partial files are kept
+     * @param keepFileIds IDs of partial files that are still in use
+     * @return The number of files deleted
+     */
+    public int deletePartialFilesBefore(long cutoffMillis, Set<String> keepFileIds) {
+        Path directory = Path.of(tempDirPath).normalize().toAbsolutePath();
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> partials =
+                Files.newDirectoryStream(directory, "*" + PARTIAL_SUFFIX)) {
+            for (Path partial : partials) {
+                String name = partial.getFileName().toString();
+                String fileId = name.substring(0, name.length() - PARTIAL_SUFFIX.length());
+                try {
+                    if (!keepFileIds.contains(fileId)
+                            && Files.getLastModifiedTime(partial).toMillis() < cutoffMillis
+                            && Files.deleteIfExists(partial)) {
+                        releasePartialReservation(fileId);
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not delete leftover partial file {}", partial, e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list partial files in {}", directory, e);
+        }
+        return deleted;
+    }
+
+    /**
+     * Get the number of bytes reserved by partial files that are not yet committed or deleted
+     *
+     * @return The reserved size in bytes
+     */
+    long getReservedPartialBytes() {
+        synchronized (partialReservations) {
+            return reservedPartialBytes;
+        }
+    }
+
+    private void releasePartialReservation(String fileId) {
+        synchronized (partialReservations) {
+            Long size = partialReservations.remove(fileId);
+            if (size != null) {
+                reservedPartialBytes -= size;
+            }
+        }
+    }
+
     /**
      * Retrieve a file by its ID as a MultipartFile
      *
@@ -87,6 +274,24 @@ public class FileStorage {
         return fileOrUploadService.toMockMultipartFile(fileId, fileData);
     }
 
+    /**
+     * Retrieve a file by its ID as a MultipartFile backed by the stored file, without reading it
+     * into memory. The handle stays valid until the file is deleted.
+     *
+     * @param fileId The ID of the file to retrieve
+     * @return The file as a MultipartFile
+     * @throws IOException If the file doesn't exist
+     */
+    public PathMultipartFile openFile(String fileId) throws IOException {
+        Path filePath = getFilePath(fileId);
+
+        if (!Files.exists(filePath)) {
+            throw new IOException("File not found with ID: " + fileId);
+        }
+
+        return new PathMultipartFile(filePath, fileId, fileId, MediaType.APPLICATION_PDF_VALUE);
+    }
+
     /**
      * Retrieve a file by its ID as a byte array
      *
@@ -1,13 +1,26 @@
 package stirling.software.common.service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,13 +29,17 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.common.model.job.JobResponse;
+import stirling.software.common.model.job.ResultFile;
+import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.ExecutorFactory;
+import stirling.software.common.util.JobContext;
 import stirling.software.common.util.RegexPatternUtils;
 
 /** Service for executing jobs asynchronously or synchronously */
@@ -30,17 +47,27 @@ import stirling.software.common.util.RegexPatternUtils;
 @Slf4j
 public class JobExecutorService {
 
+    // Batch inputs processed at once, across all batches
+    static final int BATCH_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    // Entry of a batch ZIP listing the inputs that failed
+    static final String BATCH_ERRORS_ENTRY = "errors.txt";
+
     private final TaskManager taskManager;
     private final FileStorage fileStorage;
     private final HttpServletRequest request;
     private final ResourceMonitor resourceMonitor;
     private final JobQueue jobQueue;
+    // Starts a thread per task, so jobs that wait on tasks of their own cannot starve it
     private final ExecutorService executor = ExecutorFactory.newVirtualOrCachedThreadExecutor();
+    private final Semaphore batchWorkers = new Semaphore(BATCH_WORKERS, true);
     private final long effectiveTimeoutMs;
 
     @Autowired(required = false)
     private JobOwnershipService jobOwnershipService;
 
+    @Autowired(required = false)
+    private JobResultCache jobResultCache;
+
     public JobExecutorService(
             TaskManager taskManager,
             FileStorage fileStorage,
@@ -102,36 +129,52 @@ public class JobExecutorService {
             long customTimeoutMs,
             boolean queueable,
             int resourceWeight) {
-        // Generate base UUID
-        String baseJobId = UUID.randomUUID().toString();
-
-        // Scope job to authenticated user if security is enabled
-        String scopedJobKey = getScopedJobKey(baseJobId);
-
-        log.debug("Generated jobId: {} (base: {})", scopedJobKey, baseJobId);
-
-        // Store the scoped job ID in the request for potential use by other components
-        if (request != null) {
-            request.setAttribute("jobId", scopedJobKey);
-
-            // Also track this job ID in the user's session for authorization purposes
-            // This ensures users can only cancel their own jobs
-            if (request.getSession() != null) {
-                @SuppressWarnings("unchecked")
-                java.util.Set<String> userJobIds =
-                        (java.util.Set<String>) request.getSession().getAttribute("userJobIds");
+        return runJobGeneric(async, work, customTimeoutMs, queueable, resourceWeight, null);
+    }
 
-                if (userJobIds == null) {
-                    userJobIds = new java.util.concurrent.ConcurrentSkipListSet<>();
-                    request.getSession().setAttribute("userJobIds", userJobIds);
+    /**
+     * Run a job either asynchronously or synchronously, reusing an earlier result for the same
+     * input when one is cached
+     *
+     * @param async Whether to run the job asynchronously
+     * @param requestedWork The work to be done
+     * @param customTimeoutMs Custom timeout in milliseconds, or -1 to use the default
+     * @param queueable Whether this job can be queued when system resources are limited
+     * @param resourceWeight The resource weight of this job (1-100)
+     * @param cacheKey Key from {@link JobResultCache#keyFor}, or null to always run the work
+     * @return The response
+     */
+    public ResponseEntity<?> runJobGeneric(
+            boolean async,
+            Supplier<Object> requestedWork,
+            long customTimeoutMs,
+            boolean queueable,
+            int resourceWeight,
+            String cacheKey) {
+        String jobId = registerJobId();
+
+        if (cacheKey != null && jobResultCache != null) {
+            Optional<JobResultCache.CachedResult> cached = jobResultCache.get(cacheKey);
+            if (cached.isPresent()) {
+                log.debug("Serving job {} from the result cache", jobId);
+                ResponseEntity<byte[]> response = cached.get().toResponseEntity();
+                if (!async) {
+                    return response;
                 }
-
-                userJobIds.add(scopedJobKey);
-                log.debug("Added scoped job ID {} to user session", scopedJobKey);
+                taskManager.createTask(jobId);
+                taskManager.addNote(jobId, "Result reused from an identical earlier request");
+                processJobResult(jobId, response);
+                return ResponseEntity.ok().body(new JobResponse<>(true, jobId, null));
             }
         }
-
-        String jobId = scopedJobKey;
+        Supplier<Object> work =
+                cacheKey != null && jobResultCache != null
+                        ? () -> {
+                            Object result = requestedWork.get();
+                            jobResultCache.put(cacheKey, result);
+                            return result;
+                        }
+                        : requestedWork;
 
         // Determine which timeout to use
         long timeoutToUse = customTimeoutMs > 0 ? customTimeoutMs : effectiveTimeoutMs;
@@ -166,8 +209,7 @@ public class JobExecutorService {
                     () -> {
                         try {
                             // Set jobId in ThreadLocal context for the queued job
-                            stirling.software.common.util.JobContext.setJobId(
-                                    capturedJobIdForQueue);
+                            JobContext.setJobId(capturedJobIdForQueue);
                             log.debug(
                                     "Set jobId {} in JobContext for queued job execution",
                                     capturedJobIdForQueue);
@@ -185,7 +227,7 @@ public class JobExecutorService {
                             throw e;
                         } finally {
                             // Clean up ThreadLocal to avoid memory leaks
-                            stirling.software.common.util.JobContext.clear();
+                            JobContext.clear();
                         }
                     };
 
@@ -210,7 +252,7 @@ public class JobExecutorService {
                                     timeoutToUse);
 
                             // Set jobId in ThreadLocal context for the async thread
-                            stirling.software.common.util.JobContext.setJobId(capturedJobId);
+                            JobContext.setJobId(capturedJobId);
                             log.debug(
                                     "Set jobId {} in JobContext for async execution",
                                     capturedJobId);
@@ -226,7 +268,7 @@ public class JobExecutorService {
                             taskManager.setError(jobId, e.getMessage());
                         } finally {
                             // Clean up ThreadLocal to avoid memory leaks
-                            stirling.software.common.util.JobContext.clear();
+                            JobContext.clear();
                         }
                     });
 
@@ -236,7 +278,7 @@ public class JobExecutorService {
                 log.debug("Running sync job with timeout {} ms", timeoutToUse);
 
                 // Make jobId available to downstream components on the worker thread
-                stirling.software.common.util.JobContext.setJobId(jobId);
+                JobContext.setJobId(jobId);
                 log.debug("Set jobId {} in JobContext for sync execution", jobId);
 
                 // Execute with timeout
@@ -275,9 +317,347 @@ public class JobExecutorService {
                 return ResponseEntity.internalServerError()
                         .body(Map.of("error", "Job failed: " + e.getMessage()));
             } finally {
-                stirling.software.common.util.JobContext.clear();
+                JobContext.clear();
+            }
+        }
+    }
+
+    /**
+     * Generate a job ID, scoped to the current user, and record it on the request and in the user's
+     * session
+     *
+     * @return The scoped job ID
+     */
+    private String registerJobId() {
+        // Generate base UUID
+        String baseJobId = UUID.randomUUID().toString();
+
+        // Scope job to authenticated user if security is enabled
+        String scopedJobKey = getScopedJobKey(baseJobId);
+
+        log.debug("Generated jobId: {} (base: {})", scopedJobKey, baseJobId);
+
+        // Store the scoped job ID in the request for potential use by other components
+        if (request != null) {
+            request.setAttribute("jobId", scopedJobKey);
+
+            // Also track this job ID in the user's session for authorization purposes
+            // This ensures users can only cancel their own jobs
+            if (request.getSession() != null) {
+                @SuppressWarnings("unchecked")
+                java.util.Set<String> userJobIds =
+                        (java.util.Set<String>) request.getSession().getAttribute("userJobIds");
+
+                if (userJobIds == null) {
+                    userJobIds = new java.util.concurrent.ConcurrentSkipListSet<>();
+                    request.getSession().setAttribute("userJobIds", userJobIds);
+                }
+
+                userJobIds.add(scopedJobKey);
+                log.debug("Added scoped job ID {} to user session", scopedJobKey);
+            }
+        }
+        return scopedJobKey;
+    }
+
+    /**
+     * Run a single-file operation over many inputs (batch mode). Inputs are processed in parallel
+     * on a number of worker slots shared by all batches, so one large batch cannot claim every
+     * thread, and progress is reported per file. A synchronous batch answers with a ZIP of the
+     * results, streamed from storage; an asynchronous batch completes with one result file per
+     * input. Inputs that fail are reported and skipped, unless all of them fail.
+     *
+     * @param async Whether to run the batch asynchronously
+     * @param inputs The files to process
+     * @param work The operation, applied to each input on its own
+     * @param customTimeoutMs Timeout per input in milliseconds, or -1 to use the default
+     * @return The response
+     */
+    public ResponseEntity<?> runBatchJob(
+            boolean async,
+            List<MultipartFile> inputs,
+            Function<MultipartFile, Object> work,
+            long customTimeoutMs) {
+        if (inputs.isEmpty()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.dataRequired", "{0} must contain at least one value", "fileInputs");
+        }
+        String jobId = registerJobId();
+        long timeoutToUse = customTimeoutMs > 0 ? customTimeoutMs : effectiveTimeoutMs;
+        log.debug(
+                "Running batch job {} over {} files, async: {}, timeout per file: {}ms",
+                jobId,
+                inputs.size(),
+                async,
+                timeoutToUse);
+
+        if (async) {
+            taskManager.createTask(jobId);
+            taskManager.setProgress(jobId, 0, "0 of " + inputs.size() + " files processed");
+            executor.execute(
+                    () -> {
+                        try {
+                            List<BatchItem> items = processBatch(jobId, inputs, work, timeoutToUse);
+                            List<ResultFile> results = new ArrayList<>();
+                            for (BatchItem item : items) {
+                                if (item.result() != null) {
+                                    results.add(item.result());
+                                }
+                            }
+                            if (results.isEmpty()) {
+                                taskManager.setError(
+                                        jobId, "All files failed: " + items.get(0).errorMessage());
+                            } else {
+                                taskManager.setMultipleFileResults(jobId, results);
+                            }
+                        } catch (Exception e) {
+                            log.error("Error executing batch job {}: {}", jobId, e.getMessage(), e);
+                            taskManager.setError(jobId, e.getMessage());
+                        }
+                    });
+            return ResponseEntity.ok().body(new JobResponse<>(true, jobId, null));
+        }
+
+        List<BatchItem> items;
+        try {
+            items = processBatch(null, inputs, work, timeoutToUse);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Job failed: batch was interrupted"));
+        }
+        if (items.stream().allMatch(item -> item.result() == null)) {
+            Exception error = items.get(0).error();
+            if (error instanceof RuntimeException runtimeException) {
+                // Let GlobalExceptionHandler map it to the proper HTTP status
+                throw runtimeException;
+            }
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", "Job failed: " + items.get(0).errorMessage()));
+        }
+        return batchZipResponse(items);
+    }
+
+    /** The outcome of one input of a batch: its stored result, or the error it failed with. */
+    private record BatchItem(String inputName, ResultFile result, Exception error) {
+        String errorMessage() {
+            return error.getMessage() != null ? error.getMessage() : error.getClass().getName();
+        }
+    }
+
+    /**
+     * Process every input of a batch and wait for all of them. A worker slot is taken before each
+     * input is submitted, so a large batch queues on the calling thread rather than parking one
+     * thread per input, and tasks never block on a slot while holding an executor thread.
+     *
+     * @param jobId The async job to report progress to, or null for a sync batch
+     * @return One item per input, in input order
+     */
+    private List<BatchItem> processBatch(
+            String jobId,
+            List<MultipartFile> inputs,
+            Function<MultipartFile, Object> work,
+            long timeoutMs)
+            throws InterruptedException {
+        int total = inputs.size();
+        AtomicInteger finished = new AtomicInteger();
+        List<CompletableFuture<BatchItem>> futures = new ArrayList<>(total);
+        try {
+            for (MultipartFile input : inputs) {
+                batchWorkers.acquire();
+                CompletableFuture<BatchItem> future;
+                try {
+                    future =
+                            CompletableFuture.supplyAsync(
+                                    () -> {
+                                        try {
+                                            BatchItem item =
+                                                    runBatchItem(jobId, input, work, timeoutMs);
+                                            reportBatchProgress(jobId, item, finished, total);
+                                            return item;
+                                        } finally {
+                                            batchWorkers.release();
+                                        }
+                                    },
+                                    executor);
+                } catch (RuntimeException e) {
+                    batchWorkers.release();
+                    throw e;
+                }
+                futures.add(future);
+            }
+
+            List<BatchItem> items = new ArrayList<>(total);
+            // The error listing must not be shadowed by a result of the same name
+            Set<String> names = new HashSet<>(Set.of(BATCH_ERRORS_ENTRY));
+            for (CompletableFuture<BatchItem> future : futures) {
+                BatchItem item = future.get();
+                if (item.result() != null) {
+                    // Several inputs may well produce results of the same name
+                    item.result().setFileName(uniqueName(item.result().getFileName(), names));
+                }
+                items.add(item);
+            }
+            return items;
+        } catch (ExecutionException e) {
+            // runBatchItem reports failures in the item, so this is unexpected
+            throw new IllegalStateException("Batch item failed unexpectedly", e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    private void reportBatchProgress(
+            String jobId, BatchItem item, AtomicInteger finished, int total) {
+        if (jobId == null) {
+            return;
+        }
+        int done = finished.incrementAndGet();
+        if (item.error() != null) {
+            taskManager.addNote(jobId, item.inputName() + " failed: " + item.errorMessage());
+        }
+        taskManager.setProgress(
+                jobId, done * 100 / total, done + " of " + total + " files processed");
+    }
+
+    private BatchItem runBatchItem(
+            String jobId,
+            MultipartFile input,
+            Function<MultipartFile, Object> work,
+            long timeoutMs) {
+        String inputName =
+                input.getOriginalFilename() != null ? input.getOriginalFilename() : input.getName();
+        try {
+            if (jobId != null) {
+                JobContext.setJobId(jobId);
+            }
+            Object result = executeWithTimeout(() -> work.apply(input), timeoutMs);
+            ResultFile stored = storeFileResult(result);
+            if (stored == null) {
+                throw new IllegalStateException(
+                        "Batch mode needs an operation that returns a file");
+            }
+            return new BatchItem(inputName, stored, null);
+        } catch (Exception e) {
+            log.warn("Batch item {} failed: {}", inputName, e.getMessage());
+            return new BatchItem(inputName, null, e);
+        } finally {
+            JobContext.clear();
+        }
+    }
+
+    /**
+     * Answer a sync batch with a ZIP of its results. The results are copied from storage while the
+     * response is written and deleted afterwards; failed inputs are listed in errors.txt.
+     */
+    private ResponseEntity<StreamingResponseBody> batchZipResponse(List<BatchItem> items) {
+        StreamingResponseBody body =
+                out -> {
+                    try (ZipOutputStream zip = new ZipOutputStream(out)) {
+                        StringBuilder errors = new StringBuilder();
+                        for (BatchItem item : items) {
+                            if (item.result() == null) {
+                                errors.append(item.inputName())
+                                        .append(": ")
+                                        .append(item.errorMessage())
+                                        .append('\n');
+                                continue;
+                            }
+                            zip.putNextEntry(new ZipEntry(item.result().getFileName()));
+                            try (InputStream in =
+                                    fileStorage
+                                            .openFile(item.result().getFileId())
+                                            .getInputStream()) {
+                                in.transferTo(zip);
+                            }
+                            zip.closeEntry();
+                        }
+                        if (!errors.isEmpty()) {
+                            zip.putNextEntry(new ZipEntry(BATCH_ERRORS_ENTRY));
+                            zip.write(errors.toString().getBytes(StandardCharsets.UTF_8));
+                            zip.closeEntry();
+                        }
+                    } finally {
+                        for (BatchItem item : items) {
+                            if (item.result() != null) {
+                                fileStorage.deleteFile(item.result().getFileId());
+                            }
+                        }
+                    }
+                };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"batch-results.zip\"")
+                .body(body);
+    }
+
+    private static String uniqueName(String name, Set<String> taken) {
+        String candidate = name;
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        for (int i = 2; !taken.add(candidate); i++) {
+            candidate = stem + " (" + i + ")" + extension;
+        }
+        return candidate;
+    }
+
+    /**
+     * Store a job result that is a file - a byte array, a MultipartFile, or a response carrying
+     * bytes or a streamed body - and describe it
+     *
+     * @param result The result
+     * @return The stored file, or null if the result is not a file
+     * @throws IOException If the result cannot be stored
+     */
+    private ResultFile storeFileResult(Object result) throws IOException {
+        String filename = "result.pdf";
+        String contentType = MediaType.APPLICATION_PDF_VALUE;
+        String fileId;
+        if (result instanceof byte[] bytes) {
+            // Store byte array directly to disk to avoid double memory consumption
+            fileId = fileStorage.storeBytes(bytes, filename);
+        } else if (result instanceof MultipartFile file) {
+            fileId = fileStorage.storeFile(file);
+            filename = file.getOriginalFilename();
+            contentType = file.getContentType();
+        } else if (result instanceof ResponseEntity<?> response
+                && (response.getBody() instanceof byte[]
+                        || response.getBody() instanceof StreamingResponseBody)) {
+            // Take the filename from the content-disposition header if available
+            String dispositionName = response.getHeaders().getContentDisposition().getFilename();
+            if (dispositionName != null && !dispositionName.isBlank()) {
+                filename = dispositionName;
+            }
+            MediaType mediaType = response.getHeaders().getContentType();
+            if (mediaType != null) {
+                contentType = mediaType.toString();
             }
+            // Store the body directly to disk
+            fileId =
+                    response.getBody() instanceof byte[] bytes
+                            ? fileStorage.storeBytes(bytes, filename)
+                            : fileStorage.storeStreamingBody(
+                                    (StreamingResponseBody) response.getBody());
+        } else {
+            return null;
+        }
+
+        long fileSize;
+        try {
+            fileSize = fileStorage.getFileSize(fileId);
+        } catch (IOException e) {
+            fileSize = 0;
         }
+        return ResultFile.builder()
+                .fileId(fileId)
+                .fileName(filename)
+                .contentType(contentType)
+                .fileSize(fileSize)
+                .build();
     }
 
     /**
@@ -288,105 +668,63 @@ public class JobExecutorService {
      */
     private void processJobResult(String jobId, Object result) {
         try {
-            if (result instanceof byte[]) {
-                // Store byte array directly to disk to avoid double memory consumption
-                String fileId = fileStorage.storeBytes((byte[]) result, "result.pdf");
+            ResultFile stored = storeFileResult(result);
+            if (stored != null) {
                 taskManager.setFileResult(
-                        jobId, fileId, "result.pdf", MediaType.APPLICATION_PDF_VALUE);
-                log.debug("Stored byte[] result with fileId: {}", fileId);
-
-                // Let the byte array get collected naturally in the next GC cycle
-                // We don't need to force System.gc() which can be harmful
+                        jobId, stored.getFileId(), stored.getFileName(), stored.getContentType());
+                log.debug("Stored file result with fileId: {}", stored.getFileId());
             } else if (result instanceof ResponseEntity) {
                 ResponseEntity<?> response = (ResponseEntity<?>) result;
                 Object body = response.getBody();
 
-                if (body instanceof byte[]) {
-                    // Extract filename from content-disposition header if available
-                    String filename = "result.pdf";
-                    String contentType = MediaType.APPLICATION_PDF_VALUE;
-
-                    if (response.getHeaders().getContentDisposition() != null) {
-                        String disposition =
-                                response.getHeaders().getContentDisposition().toString();
-                        if (disposition.contains("filename=")) {
-                            filename =
-                                    disposition.substring(
-                                            disposition.indexOf("filename=") + 9,
-                                            disposition.lastIndexOf("\""));
-                        }
-                    }
-
-                    MediaType mediaType = response.getHeaders().getContentType();
-
-                    if (mediaType != null) {
-                        contentType = mediaType.toString();
-                    }
+                // Check if the response body contains a fileId
+                if (body != null && body.toString().contains("fileId")) {
+                    try {
+                        // Try to extract fileId using reflection
+                        java.lang.reflect.Method getFileId = body.getClass().getMethod("getFileId");
+                        String fileId = (String) getFileId.invoke(body);
 
-                    // Store byte array directly to disk
-                    String fileId = fileStorage.storeBytes((byte[]) body, filename);
-                    taskManager.setFileResult(jobId, fileId, filename, contentType);
-                    log.debug("Stored ResponseEntity<byte[]> result with fileId: {}", fileId);
+                        if (fileId != null && !fileId.isEmpty()) {
+                            // Try to get filename and content type
+                            String filename = "result.pdf";
+                            String contentType = MediaType.APPLICATION_PDF_VALUE;
 
-                    // Let the GC handle the memory naturally
-                } else {
-                    // Check if the response body contains a fileId
-                    if (body != null && body.toString().contains("fileId")) {
-                        try {
-                            // Try to extract fileId using reflection
-                            java.lang.reflect.Method getFileId =
-                                    body.getClass().getMethod("getFileId");
-                            String fileId = (String) getFileId.invoke(body);
-
-                            if (fileId != null && !fileId.isEmpty()) {
-                                // Try to get filename and content type
-                                String filename = "result.pdf";
-                                String contentType = MediaType.APPLICATION_PDF_VALUE;
-
-                                try {
-                                    java.lang.reflect.Method getOriginalFileName =
-                                            body.getClass().getMethod("getOriginalFilename");
-                                    String origName = (String) getOriginalFileName.invoke(body);
-                                    if (origName != null && !origName.isEmpty()) {
-                                        filename = origName;
-                                    }
-                                } catch (Exception e) {
-                                    log.debug(
-                                            "Could not get original filename: {}", e.getMessage());
+                            try {
+                                java.lang.reflect.Method getOriginalFileName =
+                                        body.getClass().getMethod("getOriginalFilename");
+                                String origName = (String) getOriginalFileName.invoke(body);
+                                if (origName != null && !origName.isEmpty()) {
+                                    filename = origName;
                                 }
+                            } catch (Exception e) {
+                                log.debug("Could not get original filename: {}", e.getMessage());
+                            }
 
-                                try {
-                                    java.lang.reflect.Method getContentType =
-                                            body.getClass().getMethod("getContentType");
-                                    String ct = (String) getContentType.invoke(body);
-                                    if (ct != null && !ct.isEmpty()) {
-                                        contentType = ct;
-                                    }
-                                } catch (Exception e) {
-                                    log.debug("Could not get content type: {}", e.getMessage());
+                            try {
+                                java.lang.reflect.Method getContentType =
+                                        body.getClass().getMethod("getContentType");
+                                String ct = (String) getContentType.invoke(body);
+                                if (ct != null && !ct.isEmpty()) {
+                                    contentType = ct;
                                 }
+                            } catch (Exception e) {
+                                log.debug("Could not get content type: {}", e.getMessage());
+                            }
 
-                                taskManager.setFileResult(jobId, fileId, filename, contentType);
-                                log.debug("Extracted fileId from response body: {}", fileId);
+                            taskManager.setFileResult(jobId, fileId, filename, contentType);
+                            log.debug("Extracted fileId from response body: {}", fileId);
 
-                                taskManager.setComplete(jobId);
-                                return;
-                            }
-                        } catch (Exception e) {
-                            log.debug(
-                                    "Failed to extract fileId from response body: {}",
-                                    e.getMessage());
+                            taskManager.setComplete(jobId);
+                            return;
                         }
+                    } catch (Exception e) {
+                        log.debug(
+                                "Failed to extract fileId from response body: {}", e.getMessage());
                     }
-
-                    // Store generic result
-                    taskManager.setResult(jobId, body);
                 }
-            } else if (result instanceof MultipartFile file) {
-                String fileId = fileStorage.storeFile(file);
-                taskManager.setFileResult(
-                        jobId, fileId, file.getOriginalFilename(), file.getContentType());
-                log.debug("Stored MultipartFile result with fileId: {}", fileId);
+
+                // Store generic result
+                taskManager.setResult(jobId, body);
             } else {
                 // Check if result has a fileId field
                 if (result != null) {
@@ -529,19 +867,19 @@ public class JobExecutorService {
             throws TimeoutException, Exception {
         // Use the same executor as other async jobs for consistency
         // This ensures all operations run on the same thread pool
-        String currentJobId = stirling.software.common.util.JobContext.getJobId();
+        String currentJobId = JobContext.getJobId();
 
         java.util.concurrent.CompletableFuture<T> future =
                 java.util.concurrent.CompletableFuture.supplyAsync(
                         () -> {
                             if (currentJobId != null) {
-                                stirling.software.common.util.JobContext.setJobId(currentJobId);
+                                JobContext.setJobId(currentJobId);
                             }
                             try {
                                 return supplier.get();
                             } finally {
                                 if (currentJobId != null) {
-                                    stirling.software.common.util.JobContext.clear();
+                                    JobContext.clear();
                                 }
                             }
                         },
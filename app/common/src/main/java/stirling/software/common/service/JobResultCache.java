@@ -0,0 +1,312 @@
+package stirling.software.common.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.util.ChecksumUtils;
+import stirling.software.common.util.LruFileIndex;
+
+/**
+ * Opt-in cache of job results for repeated submissions of the same input. A result is keyed by the
+ * endpoint, the request parameters and the SHA-256 of every uploaded file, and stored in a
+ * size-bounded directory. Entries expire after the configured time to live; the least recently used
+ * ones are evicted first when the directory is full.
+ *
+ * <p>Only endpoints listed in {@code stirling.jobResultCache.endpoints} are cached, since many
+ * operations are not deterministic or depend on state outside the request. Only binary results
+ * ({@code byte[]} or a successful {@code ResponseEntity<byte[]>}) are stored.
+ */
+@Service
+@Slf4j
+public class JobResultCache {
+
+    private static final String ENTRY_SUFFIX = ".result";
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final String WILDCARD = "*";
+    // Request parameters that do not change the result
+    private static final Set<String> IGNORED_PARAMETERS = Set.of("async", "fileId");
+    private static final long MB = 1024L * 1024L;
+
+    private final boolean enabled;
+    private final Set<String> endpoints;
+    private final Duration ttl;
+    private final Path cacheDir;
+    private final LruFileIndex index;
+
+    @Autowired
+    public JobResultCache(
+            @Value("${stirling.jobResultCache.enabled:false}") boolean enabled,
+            @Value("${stirling.jobResultCache.endpoints:}") List<String> endpoints,
+            @Value("${stirling.jobResultCache.ttl:24h}") Duration ttl,
+            @Value("${stirling.jobResultCache.maxDiskMb:1024}") long maxDiskMb,
+            @Value("${stirling.jobResultCache.dir:}") String cacheDir)
+            throws IOException {
+        this(
+                enabled,
+                endpoints,
+                ttl,
+                maxDiskMb * MB,
+                cacheDir == null || cacheDir.isBlank()
+                        ? Paths.get(System.getProperty("java.io.tmpdir"), "stirling-result-cache")
+                        : Paths.get(cacheDir));
+    }
+
+    JobResultCache(
+            boolean enabled, List<String> endpoints, Duration ttl, long maxDiskBytes, Path cacheDir)
+            throws IOException {
+        this.endpoints =
+                endpoints.stream()
+                        .map(String::trim)
+                        .filter(endpoint -> !endpoint.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet());
+        this.enabled = enabled && !this.endpoints.isEmpty();
+        this.ttl = ttl;
+        this.cacheDir = cacheDir;
+        this.index = new LruFileIndex(maxDiskBytes);
+        if (this.enabled) {
+            Files.createDirectories(cacheDir);
+            rebuildIndex();
+            log.info(
+                    "Job result cache enabled for {} in {} (ttl {})",
+                    this.endpoints,
+                    cacheDir,
+                    ttl);
+        }
+    }
+
+    /** A stored result together with the response headers needed to serve it again. */
+    public record CachedResult(byte[] body, String contentType, String contentDisposition) {
+
+        public ResponseEntity<byte[]> toResponseEntity() {
+            ResponseEntity.BodyBuilder builder =
+                    ResponseEntity.ok().contentType(MediaType.parseMediaType(contentType));
+            if (!contentDisposition.isEmpty()) {
+                builder.header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+            }
+            return builder.body(body);
+        }
+    }
+
+    public boolean isEnabledFor(String endpoint) {
+        return enabled && (endpoints.contains(WILDCARD) || endpoints.contains(endpoint));
+    }
+
+    /**
+     * Builds the cache key for a request, or returns null if the endpoint is not cached.
+     *
+     * @param endpoint the request path without the context path
+     * @param parameters the request parameters; names are sorted and values kept in order
+     * @param files the uploaded files by parameter name, in the order they were sent
+     */
+    public String keyFor(
+            String endpoint,
+            Map<String, String[]> parameters,
+            Map<String, List<MultipartFile>> files)
+            throws IOException {
+        if (!isEnabledFor(endpoint)) {
+            return null;
+        }
+        StringBuilder canonical = new StringBuilder(endpoint).append('\n');
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(parameters).entrySet()) {
+            if (IGNORED_PARAMETERS.contains(parameter.getKey())) {
+                continue;
+            }
+            canonical
+                    .append("p:")
+                    .append(parameter.getKey())
+                    .append('=')
+                    .append(
+                            Arrays.stream(parameter.getValue())
+                                    .map(value -> value.replace("\u0000", ""))
+                                    .collect(Collectors.joining("\u0000")))
+                    .append('\n');
+        }
+        for (Map.Entry<String, List<MultipartFile>> part : new TreeMap<>(files).entrySet()) {
+            for (MultipartFile file : part.getValue()) {
+                if (file == null || file.isEmpty()) {
+                    continue;
+                }
+                try (InputStream in = file.getInputStream()) {
+                    canonical
+                            .append("f:")
+                            .append(part.getKey())
+                            .append('=')
+                            .append(ChecksumUtils.checksum(in, "SHA-256"))
+                            .append('\n');
+                }
+            }
+        }
+        return ChecksumUtils.checksum(
+                new ByteArrayInputStream(canonical.toString().getBytes(StandardCharsets.UTF_8)),
+                "SHA-256");
+    }
+
+    /** Returns the stored result for {@code key} unless it is missing or has expired. */
+    public Optional<CachedResult> get(String key) {
+        if (!enabled || key == null) {
+            return Optional.empty();
+        }
+        Path entry = entryPath(key);
+        try {
+            if (isExpired(Files.getLastModifiedTime(entry).toInstant())) {
+                delete(entry);
+                return Optional.empty();
+            }
+            CachedResult result;
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(entry))) {
+                String contentType = in.readUTF();
+                String contentDisposition = in.readUTF();
+                result = new CachedResult(in.readAllBytes(), contentType, contentDisposition);
+            }
+            index.touch(entry);
+            return Optional.of(result);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Discarding unreadable job result cache entry {}", entry, e);
+            delete(entry);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores a job result if it is binary and successful.
+     *
+     * @return true if the result was stored
+     */
+    public boolean put(String key, Object result) {
+        if (!enabled || key == null) {
+            return false;
+        }
+        CachedResult cached = toCachedResult(result);
+        if (cached == null) {
+            return false;
+        }
+        Path entry = entryPath(key);
+        Path partial = null;
+        try {
+            partial = Files.createTempFile(cacheDir, "entry-", PARTIAL_SUFFIX);
+            try (OutputStream file = Files.newOutputStream(partial);
+                    DataOutputStream out = new DataOutputStream(file)) {
+                out.writeUTF(cached.contentType());
+                out.writeUTF(cached.contentDisposition());
+                out.write(cached.body());
+            }
+            Files.move(
+                    partial,
+                    entry,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            for (Path evicted : index.add(entry, Files.size(entry))) {
+                delete(evicted);
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to store job result in cache: {}", e.getMessage());
+            return false;
+        } finally {
+            if (partial != null) {
+                try {
+                    Files.deleteIfExists(partial);
+                } catch (IOException e) {
+                    log.debug("Failed to delete partial cache entry {}", partial);
+                }
+            }
+        }
+    }
+
+    private static CachedResult toCachedResult(Object result) {
+        if (result instanceof byte[] bytes) {
+            return new CachedResult(
+                    bytes,
+                    MediaType.APPLICATION_PDF_VALUE,
+                    "form-data; name=\"attachment\"; filename=\"result.pdf\"");
+        }
+        if (result instanceof ResponseEntity<?> response
+                && response.getStatusCode().is2xxSuccessful()
+                && response.getBody() instanceof byte[] bytes) {
+            MediaType contentType = response.getHeaders().getContentType();
+            String disposition = response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION);
+            return new CachedResult(
+                    bytes,
+                    contentType != null
+                            ? contentType.toString()
+                            : MediaType.APPLICATION_OCTET_STREAM_VALUE,
+                    disposition != null ? disposition : "");
+        }
+        return null;
+    }
+
+    private boolean isExpired(Instant storedAt) {
+        return storedAt.plus(ttl).isBefore(Instant.now());
+    }
+
+    private Path entryPath(String key) {
+        return cacheDir.resolve(key + ENTRY_SUFFIX);
+    }
+
+    private void delete(Path entry) {
+        index.remove(entry);
+        try {
+            Files.deleteIfExists(entry);
+        } catch (IOException e) {
+            log.warn("Failed to delete job result cache entry {}", entry, e);
+        }
+    }
+
+    /** Indexes entries left by an earlier run, dropping expired ones and unfinished writes. */
+    private void rebuildIndex() throws IOException {
+        Map<Path, BasicFileAttributes> entries = new LinkedHashMap<>();
+        List<Path> stale = new ArrayList<>();
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                BasicFileAttributes attributes =
+                        Files.readAttributes(file, BasicFileAttributes.class);
+                if (!file.getFileName().toString().endsWith(ENTRY_SUFFIX)
+                        || isExpired(attributes.lastModifiedTime().toInstant())) {
+                    stale.add(file);
+                } else {
+                    entries.put(file, attributes);
+                }
+            }
+        }
+        stale.forEach(this::delete);
+        entries.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getValue().lastAccessTime()))
+                .forEach(e -> index.add(e.getKey(), e.getValue().size()).forEach(this::delete));
+    }
+}
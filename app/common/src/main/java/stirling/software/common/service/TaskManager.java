@@ -27,9 +27,11 @@ import jakarta.annotation.PreDestroy;
 
 import lombok.extern.slf4j.Slf4j;
 
+import stirling.software.common.model.job.JobProgress;
 import stirling.software.common.model.job.JobResult;
 import stirling.software.common.model.job.JobStats;
 import stirling.software.common.model.job.ResultFile;
+import stirling.software.common.util.JobContext;
 
 /** Manages async tasks and their results */
 @Service
@@ -144,6 +146,21 @@ public class TaskManager {
                 resultFiles.size());
     }
 
+    /**
+     * Record the progress of a running task
+     *
+     * @param jobId The job ID
+     * @param percentComplete How much of the work is done, from 0 to 100
+     * @param message A short description of the current state
+     */
+    public void setProgress(String jobId, int percentComplete, String message) {
+        JobResult jobResult = getOrCreateJobResult(jobId);
+        int percent = Math.max(0, Math.min(100, percentComplete));
+        jobResult.setProgress(
+                new JobProgress(jobId, percent < 100 ? "RUNNING" : "COMPLETED", percent, message));
+        log.debug("Progress for job ID: {}: {}% {}", jobId, percent, message);
+    }
+
     /**
      * Set an error for a task
      *
@@ -212,6 +229,22 @@ public class TaskManager {
         return false;
     }
 
+    /**
+     * Add a note to the job running on the current thread, if there is one. Unlike {@link
+     * #addNote(String, String)} this is silent outside an async job, so it can be used from code
+     * that also runs synchronously.
+     *
+     * @param note The note to add
+     * @return true if the note was added
+     */
+    public boolean addNoteToCurrentJob(String note) {
+        String jobId = JobContext.getJobId();
+        if (jobId == null || !jobResults.containsKey(jobId)) {
+            return false;
+        }
+        return addNote(jobId, note);
+    }
+
     /**
      * Get statistics about all jobs in the system
      *
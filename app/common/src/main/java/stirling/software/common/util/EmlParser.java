@@ -2,8 +2,12 @@ package stirling.software.common.util;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -11,6 +15,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.stream.Collectors;
 
 import org.simplejavamail.api.email.AttachmentResource;
@@ -20,6 +25,10 @@ import org.simplejavamail.converter.EmailConverter;
 
 import jakarta.activation.DataSource;
 import jakarta.mail.Message.RecipientType;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.util.SharedFileInputStream;
 
 import lombok.Data;
 import lombok.experimental.UtilityClass;
@@ -46,7 +55,42 @@ public class EmlParser {
         EmlProcessingUtils.validateEmlInput(emlBytes);
 
         Email email = parseEmail(emlBytes);
-        return buildEmailContent(email, request, customHtmlSanitizer);
+        return buildEmailContent(email, request, customHtmlSanitizer, null);
+    }
+
+    /**
+     * Parses an email stored in a file without loading it into memory. MIME parts are read from the
+     * file as they are needed, and the bodies of regular attachments are decoded straight into temp
+     * files. The returned content owns those files and must be closed.
+     */
+    public EmailContent extractEmailContent(
+            Path emlFile,
+            EmlToPdfRequest request,
+            CustomHtmlSanitizer customHtmlSanitizer,
+            TempFileManager tempFileManager)
+            throws IOException {
+
+        EmlProcessingUtils.validateEmlInput(emlFile);
+
+        if (EmlProcessingUtils.isMsgFile(emlFile)) {
+            // The Outlook parser reads the whole compound file regardless
+            try (InputStream input = Files.newInputStream(emlFile)) {
+                Email email = parseMsg(input);
+                return buildEmailContent(email, request, customHtmlSanitizer, tempFileManager);
+            }
+        }
+
+        // Parts of a message read from a SharedInputStream are views of the file, not copies
+        try (SharedFileInputStream input = new SharedFileInputStream(emlFile.toFile())) {
+            Email email;
+            try {
+                MimeMessage message = new MimeMessage(Session.getInstance(new Properties()), input);
+                email = EmailConverter.mimeMessageToEmail(message, null, false);
+            } catch (MessagingException | RuntimeException e) {
+                throw parseFailure(e);
+            }
+            return buildEmailContent(email, request, customHtmlSanitizer, tempFileManager);
+        }
     }
 
     private Email parseEmail(byte[] emlBytes) throws IOException {
@@ -54,16 +98,7 @@ public class EmlParser {
         try (ByteArrayInputStream input = new ByteArrayInputStream(emlBytes)) {
             Email email;
             if (isMsgFile) {
-                try {
-                    email = EmailConverter.outlookMsgToEmail(input);
-                } catch (Exception e) {
-                    // OLE2 magic bytes match but parsing failed - might be DOC/XLS/other OLE2 file
-                    throw new IOException(
-                            "The file appears to be an OLE2 file (MSG/DOC/XLS) but could not be "
-                                    + "parsed as an Outlook email. Ensure it is a valid .msg file: "
-                                    + e.getMessage(),
-                            e);
-                }
+                email = parseMsg(input);
             } else {
                 email = EmailConverter.emlToEmail(input);
             }
@@ -72,15 +107,34 @@ public class EmlParser {
         } catch (IOException e) {
             throw e; // Re-throw IOException as-is
         } catch (Exception e) {
+            throw parseFailure(e);
+        }
+    }
+
+    private Email parseMsg(InputStream input) throws IOException {
+        try {
+            return EmailConverter.outlookMsgToEmail(input);
+        } catch (Exception e) {
+            // OLE2 magic bytes match but parsing failed - might be DOC/XLS/other OLE2 file
             throw new IOException(
-                    String.format(
-                            "Failed to parse EML file with Simple Java Mail: %s", e.getMessage()),
+                    "The file appears to be an OLE2 file (MSG/DOC/XLS) but could not be "
+                            + "parsed as an Outlook email. Ensure it is a valid .msg file: "
+                            + e.getMessage(),
                     e);
         }
     }
 
+    private IOException parseFailure(Exception e) {
+        return new IOException(
+                String.format("Failed to parse EML file with Simple Java Mail: %s", e.getMessage()),
+                e);
+    }
+
     private EmailContent buildEmailContent(
-            Email email, EmlToPdfRequest request, CustomHtmlSanitizer customHtmlSanitizer)
+            Email email,
+            EmlToPdfRequest request,
+            CustomHtmlSanitizer customHtmlSanitizer,
+            TempFileManager tempFileManager)
             throws IOException {
 
         EmailContent content = new EmailContent();
@@ -113,16 +167,26 @@ public class EmlParser {
         }
 
         List<EmailAttachment> attachments = new ArrayList<>();
-        attachments.addAll(mapResources(email.getEmbeddedImages(), request, true));
-        attachments.addAll(mapResources(email.getAttachments(), request, false));
         content.setAttachments(attachments);
+        try {
+            attachments.addAll(
+                    mapResources(email.getEmbeddedImages(), request, true, tempFileManager));
+            attachments.addAll(
+                    mapResources(email.getAttachments(), request, false, tempFileManager));
+        } catch (IOException | RuntimeException e) {
+            content.close();
+            throw e;
+        }
         content.setAttachmentCount(attachments.size());
 
         return content;
     }
 
     private List<EmailAttachment> mapResources(
-            List<AttachmentResource> resources, EmlToPdfRequest request, boolean embedded)
+            List<AttachmentResource> resources,
+            EmlToPdfRequest request,
+            boolean embedded,
+            TempFileManager tempFileManager)
             throws IOException {
 
         if (resources == null || resources.isEmpty()) {
@@ -145,7 +209,7 @@ public class EmlParser {
             }
 
             EmailAttachment attachment =
-                    toEmailAttachment(resource, request, embedded, unnamedCounter);
+                    toEmailAttachment(resource, request, embedded, unnamedCounter, tempFileManager);
             if (attachment != null) {
                 mapped.add(attachment);
             }
@@ -167,7 +231,11 @@ public class EmlParser {
     }
 
     private EmailAttachment toEmailAttachment(
-            AttachmentResource resource, EmlToPdfRequest request, boolean embedded, int counter)
+            AttachmentResource resource,
+            EmlToPdfRequest request,
+            boolean embedded,
+            int counter,
+            TempFileManager tempFileManager)
             throws IOException {
 
         if (resource == null) {
@@ -201,10 +269,12 @@ public class EmlParser {
         attachment.setContentType(detectedContentType);
 
         // Read data with size limit to prevent OOM
-        ReadResult readResult = readData(dataSource, embedded, request);
+        ReadResult readResult = readData(dataSource, embedded, request, tempFileManager);
         if (readResult != null) {
             attachment.setSizeBytes(readResult.totalSize);
-            if (shouldIncludeAttachmentData(embedded, request, readResult)) {
+            if (readResult.file() != null) {
+                attachment.setDataFile(readResult.file());
+            } else if (shouldIncludeAttachmentData(embedded, request, readResult)) {
                 attachment.setData(readResult.data);
             }
         }
@@ -266,7 +336,11 @@ public class EmlParser {
         };
     }
 
-    private ReadResult readData(DataSource dataSource, boolean embedded, EmlToPdfRequest request)
+    private ReadResult readData(
+            DataSource dataSource,
+            boolean embedded,
+            EmlToPdfRequest request,
+            TempFileManager tempFileManager)
             throws IOException {
         if (dataSource == null) {
             return null;
@@ -275,6 +349,9 @@ public class EmlParser {
         long maxBytes = getMaxAttachmentSizeBytes(request);
 
         try (InputStream input = dataSource.getInputStream()) {
+            if (!embedded && tempFileManager != null) {
+                return spoolData(input, request, maxBytes, tempFileManager);
+            }
             // Embedded images are usually needed for display regardless of size,
             // but regular attachments should be guarded against OOM
             if (!embedded && request != null) {
@@ -291,27 +368,72 @@ public class EmlParser {
                                 "Attachment exceeds size limit: {} bytes (max: {} bytes), skipping",
                                 remainingBytes,
                                 maxBytes);
-                        return new ReadResult(null, remainingBytes);
+                        return new ReadResult(null, remainingBytes, null);
                     }
                     output.write(buffer, 0, bytesRead);
                 }
                 byte[] data = output.toByteArray();
-                return new ReadResult(data, data.length);
+                return new ReadResult(data, data.length, null);
             } else {
                 byte[] data = input.readAllBytes();
-                return new ReadResult(data, data.length);
+                return new ReadResult(data, data.length, null);
             }
         } catch (IOException e) {
             if (embedded) {
                 log.debug(
                         "Failed to read embedded image, using empty placeholder: {}",
                         e.getMessage());
-                return new ReadResult(new byte[0], 0);
+                return new ReadResult(new byte[0], 0, null);
             }
             throw e;
         }
     }
 
+    /**
+     * Decodes an attachment body into a temp file. Attachments that are not going to be embedded
+     * are only measured.
+     */
+    private ReadResult spoolData(
+            InputStream input,
+            EmlToPdfRequest request,
+            long maxBytes,
+            TempFileManager tempFileManager)
+            throws IOException {
+        if (request == null || !request.isIncludeAttachments()) {
+            return new ReadResult(null, countRemainingBytes(input, 0), null);
+        }
+
+        TempFile file = new TempFile(tempFileManager, ".attachment");
+        long totalBytes = 0;
+        boolean tooLarge = false;
+        try (OutputStream output = Files.newOutputStream(file.getPath())) {
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = input.read(buffer)) != -1) {
+                totalBytes += bytesRead;
+                if (totalBytes > maxBytes) {
+                    tooLarge = true;
+                    break;
+                }
+                output.write(buffer, 0, bytesRead);
+            }
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+
+        if (tooLarge) {
+            file.close();
+            long remainingBytes = countRemainingBytes(input, totalBytes);
+            log.debug(
+                    "Attachment exceeds size limit: {} bytes (max: {} bytes), skipping",
+                    remainingBytes,
+                    maxBytes);
+            return new ReadResult(null, remainingBytes, null);
+        }
+        return new ReadResult(null, totalBytes, file);
+    }
+
     private long countRemainingBytes(InputStream input, long alreadyRead) throws IOException {
         long count = alreadyRead;
 
@@ -391,7 +513,7 @@ public class EmlParser {
         return value != null ? value : "";
     }
 
-    private record ReadResult(byte[] data, long totalSize) {
+    private record ReadResult(byte[] data, long totalSize, TempFile file) {
         public ReadResult {
             if (totalSize < 0) {
                 throw new IllegalArgumentException("Size cannot be negative: " + totalSize);
@@ -404,7 +526,7 @@ public class EmlParser {
     }
 
     @Data
-    public class EmailContent {
+    public class EmailContent implements Closeable {
         private String subject;
         private String from;
         private String to;
@@ -436,6 +558,18 @@ public class EmlParser {
                                     .replaceAll("")
                             : null;
         }
+
+        /** Deletes the temp files holding attachment bodies. */
+        @Override
+        public void close() {
+            for (EmailAttachment attachment : attachments) {
+                TempFile dataFile = attachment.getDataFile();
+                if (dataFile != null) {
+                    attachment.setDataFile(null);
+                    dataFile.close();
+                }
+            }
+        }
     }
 
     @Data
@@ -443,6 +577,8 @@ public class EmlParser {
         private String filename;
         private String contentType;
         private byte[] data;
+        // Decoded body of an attachment parsed from a file; used instead of data
+        private TempFile dataFile;
         private boolean embedded;
         private String embeddedFilename;
         private long sizeBytes;
@@ -456,5 +592,16 @@ public class EmlParser {
                 this.sizeBytes = data.length;
             }
         }
+
+        public boolean hasData() {
+            return dataFile != null ? sizeBytes > 0 : data != null && data.length > 0;
+        }
+
+        public InputStream openData() throws IOException {
+            if (dataFile != null) {
+                return Files.newInputStream(dataFile.getPath());
+            }
+            return new ByteArrayInputStream(data != null ? data : new byte[0]);
+        }
     }
 }
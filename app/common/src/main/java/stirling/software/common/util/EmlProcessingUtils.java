@@ -4,6 +4,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Base64;
 import java.util.Locale;
 import java.util.Map;
@@ -72,6 +74,21 @@ public class EmlProcessingUtils {
         }
     }
 
+    /** Validates an email stored in a file; only the beginning of the file is read. */
+    public void validateEmlInput(Path emlFile) throws IOException {
+        validateEmlInput(readHead(emlFile));
+    }
+
+    public boolean isMsgFile(Path file) throws IOException {
+        return isMsgFile(readHead(file));
+    }
+
+    private byte[] readHead(Path file) throws IOException {
+        try (InputStream input = Files.newInputStream(file)) {
+            return input.readNBytes(EML_CHECK_LENGTH);
+        }
+    }
+
     public boolean isMsgFile(byte[] fileBytes) {
         if (fileBytes == null || fileBytes.length < MSG_MAGIC_BYTES.length) {
             return false;
@@ -1,7 +1,10 @@
 package stirling.software.common.util;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import lombok.experimental.UtilityClass;
 
@@ -20,6 +23,70 @@ public class EmlToPdf {
         return EmlProcessingUtils.generateEnhancedEmailHtml(emailContent, request, null);
     }
 
+    /** Converts an email stored in a file to HTML without loading the file into memory. */
+    public static String convertEmlToHtml(
+            Path emlFile, EmlToPdfRequest request, TempFileManager tempFileManager)
+            throws IOException {
+        try (EmlParser.EmailContent emailContent =
+                EmlParser.extractEmailContent(emlFile, request, null, tempFileManager)) {
+            return EmlProcessingUtils.generateEnhancedEmailHtml(emailContent, request, null);
+        }
+    }
+
+    /**
+     * Converts an email stored in a file to PDF. The email is parsed from the file part by part,
+     * attachments are decoded into temp files and embedded from there, and the PDF is written to a
+     * temp file, so neither the email nor its attachments are held in memory as a whole.
+     *
+     * @return the PDF; the caller owns it and must close it
+     */
+    public static TempFile convertEmlToPdf(
+            String weasyprintPath,
+            EmlToPdfRequest request,
+            Path emlFile,
+            CustomPDFDocumentFactory pdfDocumentFactory,
+            TempFileManager tempFileManager,
+            CustomHtmlSanitizer customHtmlSanitizer)
+            throws IOException, InterruptedException {
+
+        try (EmlParser.EmailContent emailContent =
+                EmlParser.extractEmailContent(
+                        emlFile, request, customHtmlSanitizer, tempFileManager)) {
+
+            String htmlContent =
+                    EmlProcessingUtils.generateEnhancedEmailHtml(
+                            emailContent, request, customHtmlSanitizer);
+
+            byte[] pdfBytes =
+                    convertHtmlToPdf(
+                            weasyprintPath,
+                            request,
+                            htmlContent,
+                            tempFileManager,
+                            customHtmlSanitizer);
+
+            TempFile output = new TempFile(tempFileManager, ".pdf");
+            try {
+                if (shouldAttachFiles(emailContent, request)) {
+                    try (OutputStream out = Files.newOutputStream(output.getPath())) {
+                        PdfAttachmentHandler.attachFilesToPdf(
+                                pdfBytes, emailContent.getAttachments(), pdfDocumentFactory, out);
+                    }
+                } else {
+                    Files.write(output.getPath(), pdfBytes);
+                }
+                return output;
+            } catch (IOException | RuntimeException e) {
+                output.close();
+                throw e;
+            }
+        } catch (IOException | InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error converting EML to PDF", e);
+        }
+    }
+
     public static byte[] convertEmlToPdf(
             String weasyprintPath,
             EmlToPdfRequest request,
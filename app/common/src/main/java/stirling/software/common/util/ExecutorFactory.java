@@ -2,6 +2,10 @@ package stirling.software.common.util;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,4 +32,30 @@ public class ExecutorFactory {
 
         return Executors.newCachedThreadPool();
     }
+
+    /**
+     * Creates a pool of at most {@code threads} named daemon threads with an unbounded queue, for
+     * CPU-bound work that is shared by all requests instead of each request starting threads of its
+     * own. Idle threads time out, so an unused pool holds no threads.
+     */
+    public static ExecutorService newBoundedDaemonExecutor(String namePrefix, int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        runnable -> {
+                            Thread thread =
+                                    new Thread(
+                                            runnable,
+                                            namePrefix + "-" + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
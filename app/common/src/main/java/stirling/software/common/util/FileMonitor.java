@@ -7,45 +7,73 @@ import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.file.*;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.stereotype.Component;
 
 import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.common.configuration.RuntimePathConfig;
 
+/**
+ * Watches the pipeline folders with a {@link WatchService} on a dedicated thread. A file counts as
+ * ready once no event has been seen for it for the settle time; listeners registered with {@link
+ * #addListener(Consumer)} are then told which directories gained ready files.
+ */
 @Component
 @Slf4j
-public class FileMonitor {
+public class FileMonitor implements SmartLifecycle {
+
+    static final Duration DEFAULT_SETTLE_TIME = Duration.ofSeconds(2);
+    private static final long IDLE_POLL_MS = 5000;
+    private static final long MIN_POLL_MS = 50;
+    private static final long SHUTDOWN_WAIT_MS = 5000;
 
     private final Map<Path, WatchKey> path2KeyMapping;
-    private final Set<Path> newlyDiscoveredFiles;
-    private final ConcurrentHashMap.KeySetView<Path, Boolean> readyForProcessingFiles;
+    // Files with recent events, mapped to the System.nanoTime() of their latest event
+    private final Map<Path, Long> pendingFiles;
+    private final Set<Path> readyForProcessingFiles;
+    private final List<Consumer<Path>> listeners;
     private final WatchService watchService;
     private final Predicate<Path> pathFilter;
     private final List<Path> rootDirs;
-    private Set<Path> stagingFiles;
+    private final long settleNanos;
+
+    private volatile boolean running;
+    private Thread watcherThread;
 
     /**
-     * @param rootDirectory the root directory to monitor
      * @param pathFilter the filter to apply to the paths, return true if the path should be
      *     monitored, false otherwise
+     * @param runtimePathConfig provides the root directories to monitor
      */
+    @Autowired
     public FileMonitor(
             @Qualifier("directoryFilter") Predicate<Path> pathFilter,
             RuntimePathConfig runtimePathConfig)
             throws IOException {
-        this.newlyDiscoveredFiles = new HashSet<>();
-        this.path2KeyMapping = new HashMap<>();
-        this.stagingFiles = new HashSet<>();
+        this(pathFilter, runtimePathConfig, DEFAULT_SETTLE_TIME);
+    }
+
+    FileMonitor(
+            Predicate<Path> pathFilter, RuntimePathConfig runtimePathConfig, Duration settleTime)
+            throws IOException {
+        this.pendingFiles = new ConcurrentHashMap<>();
+        this.path2KeyMapping = new ConcurrentHashMap<>();
         this.pathFilter = pathFilter;
         this.readyForProcessingFiles = ConcurrentHashMap.newKeySet();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.settleNanos = settleTime.toNanos();
         this.watchService = FileSystems.getDefault().newWatchService();
 
         List<String> watchedFoldersDirs = runtimePathConfig.getPipelineWatchedFoldersPaths();
@@ -53,7 +81,7 @@ public class FileMonitor {
 
         for (String pathStr : watchedFoldersDirs) {
             try {
-                Path path = Path.of(pathStr);
+                Path path = Path.of(pathStr).toAbsolutePath();
                 validRootDirs.add(path);
                 log.info("Monitoring directory: {}", path);
             } catch (Exception e) {
@@ -71,6 +99,18 @@ public class FileMonitor {
         }
     }
 
+    public List<Path> getRootDirs() {
+        return rootDirs;
+    }
+
+    /**
+     * Registers a callback that receives the directory of each batch of newly settled files. It is
+     * invoked on the monitor thread and should hand off any real work.
+     */
+    public void addListener(Consumer<Path> listener) {
+        listeners.add(listener);
+    }
+
     private boolean shouldNotProcess(Path path) {
         return !pathFilter.test(path);
     }
@@ -95,84 +135,141 @@ public class FileMonitor {
         }
     }
 
-    @Scheduled(fixedRate = 5000)
-    public void trackFiles() {
-        /*
-         All files observed changes in the last iteration will be considered as staging files.
-         If those files are not modified in current iteration, they will be considered as ready for processing.
-        */
-        stagingFiles = new HashSet<>(newlyDiscoveredFiles);
-        readyForProcessingFiles.clear();
-
-        if (path2KeyMapping.isEmpty()) {
-            log.warn("Not monitoring any directories; attempting to re-register root paths.");
-            for (Path rootDir : rootDirs) {
-                if (Files.exists(
-                        rootDir)) { // if the root directory exists, re-register the root directory
-                    try {
-                        recursivelyRegisterEntry(rootDir);
-                    } catch (IOException e) {
-                        log.error("unable to register monitoring for {}", rootDir, e);
-                    }
+    private void registerMissingRoots() {
+        for (Path rootDir : rootDirs) {
+            // if the root directory exists, re-register the root directory
+            if (!path2KeyMapping.containsKey(rootDir) && Files.isDirectory(rootDir)) {
+                try {
+                    recursivelyRegisterEntry(rootDir);
+                } catch (IOException e) {
+                    log.error("unable to register monitoring for {}", rootDir, e);
+                }
+            }
+        }
+    }
+
+    private void runWatcher() {
+        while (running) {
+            try {
+                WatchKey key = watchService.poll(nextPollMillis(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    handleKey(key);
                 }
+                trackFiles();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ClosedWatchServiceException e) {
+                break;
+            } catch (RuntimeException e) {
+                log.error("Error while monitoring watched folders", e);
             }
         }
+    }
+
+    private long nextPollMillis() {
+        if (pendingFiles.isEmpty()) {
+            return IDLE_POLL_MS;
+        }
+        long oldest = Collections.min(pendingFiles.values());
+        long remaining = TimeUnit.NANOSECONDS.toMillis(oldest + settleNanos - System.nanoTime());
+        return Math.max(MIN_POLL_MS, remaining);
+    }
+
+    /**
+     * Drains pending watch events without blocking, then releases files that have been quiet for
+     * the settle time and notifies listeners of their directories.
+     */
+    public void trackFiles() {
+        registerMissingRoots();
 
         WatchKey key;
         while ((key = watchService.poll()) != null) {
-            final Path watchingDir = (Path) key.watchable();
-            key.pollEvents()
-                    .forEach(
-                            (evt) -> {
-                                final Path path = (Path) evt.context();
-                                final WatchEvent.Kind<?> kind = evt.kind();
-                                if (shouldNotProcess(path)) return;
-
-                                try {
-                                    if (Files.isDirectory(path)) {
-                                        if (kind == ENTRY_CREATE) {
-                                            handleDirectoryCreation(path);
-                                        }
-                                        /*
-                                         we don't need to handle directory deletion or modification
-                                         - directory deletion will be handled by key.reset()
-                                         - directory modification indicates a new file creation or deletion, which is handled by below
-                                        */
-                                    }
-                                    Path relativePathFromRoot = watchingDir.resolve(path);
-                                    if (kind == ENTRY_CREATE) {
-                                        handleFileCreation(relativePathFromRoot);
-                                    } else if (kind == ENTRY_DELETE) {
-                                        handleFileRemoval(relativePathFromRoot);
-                                    } else if (kind == ENTRY_MODIFY) {
-                                        handleFileModification(relativePathFromRoot);
-                                    }
-                                } catch (Exception e) {
-                                    log.error("Error while processing file: {}", path, e);
-                                }
-                            });
-
-            boolean isKeyValid = key.reset();
-            if (!isKeyValid) { // key is invalid when the directory itself is no longer exists
-                path2KeyMapping.remove((Path) key.watchable());
+            handleKey(key);
+        }
+
+        long now = System.nanoTime();
+        Set<Path> settledDirs = new LinkedHashSet<>();
+        Iterator<Map.Entry<Path, Long>> iterator = pendingFiles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> entry = iterator.next();
+            if (now - entry.getValue() >= settleNanos) {
+                iterator.remove();
+                readyForProcessingFiles.add(entry.getKey());
+                settledDirs.add(entry.getKey().getParent());
+            }
+        }
+
+        for (Path dir : settledDirs) {
+            for (Consumer<Path> listener : listeners) {
+                try {
+                    listener.accept(dir);
+                } catch (RuntimeException e) {
+                    log.error("File monitor listener failed for {}", dir, e);
+                }
             }
         }
-        readyForProcessingFiles.addAll(stagingFiles);
     }
 
-    private void handleDirectoryCreation(Path dir) throws IOException {
-        WatchKey key = dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY);
-        path2KeyMapping.put(dir, key);
+    private void handleKey(WatchKey key) {
+        final Path watchingDir = (Path) key.watchable();
+        for (WatchEvent<?> evt : key.pollEvents()) {
+            final WatchEvent.Kind<?> kind = evt.kind();
+            if (kind == OVERFLOW) {
+                // Events were lost; treat everything in the directory as freshly changed
+                rescanDirectory(watchingDir);
+                continue;
+            }
+            final Path path = watchingDir.resolve((Path) evt.context());
+            if (shouldNotProcess(path)) continue;
+
+            try {
+                if (kind == ENTRY_DELETE) {
+                    handleFileRemoval(path);
+                } else if (Files.isDirectory(path)) {
+                    /*
+                     directory modification indicates a new file creation or deletion, which is
+                     reported separately; a created directory may already contain files
+                    */
+                    if (kind == ENTRY_CREATE) {
+                        recursivelyRegisterEntry(path);
+                    }
+                } else if (kind == ENTRY_CREATE) {
+                    handleFileCreation(path);
+                } else if (kind == ENTRY_MODIFY) {
+                    handleFileModification(path);
+                }
+            } catch (Exception e) {
+                log.error("Error while processing file: {}", path, e);
+            }
+        }
+
+        boolean isKeyValid = key.reset();
+        if (!isKeyValid) { // key is invalid when the directory itself is no longer exists
+            path2KeyMapping.remove(watchingDir);
+        }
+    }
+
+    private void rescanDirectory(Path dir) {
+        try (Stream<Path> entries = Files.list(dir)) {
+            entries.filter(Files::isRegularFile)
+                    .filter(path -> !shouldNotProcess(path))
+                    .forEach(this::handleFileCreation);
+        } catch (IOException e) {
+            log.warn("Unable to rescan {} after event overflow", dir, e);
+        }
     }
 
     private void handleFileRemoval(Path path) {
-        newlyDiscoveredFiles.remove(path);
-        stagingFiles.remove(path);
+        Path absolute = path.toAbsolutePath();
+        pendingFiles.keySet().removeIf(p -> p.startsWith(absolute));
+        readyForProcessingFiles.removeIf(p -> p.startsWith(absolute));
     }
 
     private void handleFileCreation(Path path) {
-        newlyDiscoveredFiles.add(path);
-        stagingFiles.remove(path);
+        Path absolute = path.toAbsolutePath();
+        pendingFiles.put(absolute, System.nanoTime());
+        readyForProcessingFiles.remove(absolute);
     }
 
     private void handleFileModification(Path path) {
@@ -183,21 +280,24 @@ public class FileMonitor {
     /**
      * Check if the file is ready for processing.
      *
-     * <p>A file is ready for processing if it is not being modified for 5000ms.
+     * <p>A file is ready for processing if it has not been modified for the settle time and is not
+     * locked by another process.
      *
      * @param path the path of the file
      * @return true if the file is ready for processing, false otherwise
      */
     public boolean isFileReadyForProcessing(Path path) {
+        Path absolute = path.toAbsolutePath();
+
         // 1. Check FileMonitor's ready list
-        boolean isReady = readyForProcessingFiles.contains(path.toAbsolutePath());
+        boolean isReady = readyForProcessingFiles.contains(absolute);
 
-        // 2. Check last modified timestamp
-        if (!isReady) {
+        // 2. Check last modified timestamp for files the monitor has not seen settle
+        if (!isReady && !pendingFiles.containsKey(absolute)) {
             try {
                 long lastModified = Files.getLastModifiedTime(path).toMillis();
                 long currentTime = System.currentTimeMillis();
-                isReady = (currentTime - lastModified) > 5000;
+                isReady = (currentTime - lastModified) > TimeUnit.NANOSECONDS.toMillis(settleNanos);
             } catch (IOException e) {
                 log.info("Timestamp check failed for {}", path, e);
             }
@@ -222,4 +322,35 @@ public class FileMonitor {
 
         return isReady;
     }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        watcherThread = new Thread(this::runWatcher, "file-monitor");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        Thread watcher = watcherThread;
+        if (watcher != null) {
+            watcher.interrupt();
+            try {
+                watcher.join(SHUTDOWN_WAIT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            watcherThread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
 }
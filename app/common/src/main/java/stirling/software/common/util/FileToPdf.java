@@ -18,7 +18,6 @@ import java.util.zip.ZipOutputStream;
 import io.github.pixee.security.ZipSecurity;
 
 import stirling.software.common.model.api.converters.HTMLToPdfRequest;
-import stirling.software.common.util.ProcessExecutor.ProcessExecutorResult;
 
 public class FileToPdf {
 
@@ -31,55 +30,69 @@ public class FileToPdf {
             CustomHtmlSanitizer customHtmlSanitizer)
             throws IOException, InterruptedException {
 
-        try (TempFile tempOutputFile = new TempFile(tempFileManager, ".pdf")) {
-            try (TempFile tempInputFile =
-                    new TempFile(
-                            tempFileManager,
-                            fileName.toLowerCase(Locale.ROOT).endsWith(".html")
-                                    ? ".html"
-                                    : ".zip")) {
-
-                if (fileName.toLowerCase(Locale.ROOT).endsWith(".html")) {
-                    String sanitizedHtml =
-                            sanitizeHtmlContent(
-                                    new String(fileBytes, StandardCharsets.UTF_8),
-                                    customHtmlSanitizer);
-                    Files.write(
-                            tempInputFile.getPath(),
-                            sanitizedHtml.getBytes(StandardCharsets.UTF_8));
-                } else if (fileName.toLowerCase(Locale.ROOT).endsWith(".zip")) {
-                    Files.write(tempInputFile.getPath(), fileBytes);
-                    sanitizeHtmlFilesInZip(
-                            tempInputFile.getPath(), tempFileManager, customHtmlSanitizer);
-                } else {
-                    throw ExceptionUtils.createHtmlFileRequiredException();
-                }
+        try (TempFile pdf =
+                convertHtmlToPdfFile(
+                        weasyprintPath,
+                        request,
+                        fileBytes,
+                        fileName,
+                        tempFileManager,
+                        customHtmlSanitizer)) {
+            return Files.readAllBytes(pdf.getPath());
+        }
+    }
 
-                List<String> command = new ArrayList<>();
-                command.add(weasyprintPath);
-                command.add("-e");
-                command.add("utf-8");
-                command.add("-v");
-                command.add("--pdf-forms");
-                command.add(tempInputFile.getAbsolutePath());
-                command.add(tempOutputFile.getAbsolutePath());
-
-                ProcessExecutorResult returnCode =
-                        ProcessExecutor.getInstance(ProcessExecutor.Processes.WEASYPRINT)
-                                .runCommandWithOutputHandling(command);
-
-                byte[] pdfBytes = Files.readAllBytes(tempOutputFile.getPath());
-                try {
-                    return pdfBytes;
-                } catch (Exception e) {
-                    pdfBytes = Files.readAllBytes(tempOutputFile.getPath());
-                    if (pdfBytes.length < 1) {
-                        throw e;
-                    }
-                    return pdfBytes;
-                }
-            } // tempInputFile auto-closed
-        } // tempOutputFile auto-closed
+    /**
+     * Converts an HTML file, or a ZIP of HTML and its resources, to a PDF on disk.
+     *
+     * @return the PDF; the caller owns it and must close it
+     */
+    public static TempFile convertHtmlToPdfFile(
+            String weasyprintPath,
+            HTMLToPdfRequest request,
+            byte[] fileBytes,
+            String fileName,
+            TempFileManager tempFileManager,
+            CustomHtmlSanitizer customHtmlSanitizer)
+            throws IOException, InterruptedException {
+
+        TempFile tempOutputFile = new TempFile(tempFileManager, ".pdf");
+        try (TempFile tempInputFile =
+                new TempFile(
+                        tempFileManager,
+                        fileName.toLowerCase(Locale.ROOT).endsWith(".html") ? ".html" : ".zip")) {
+
+            if (fileName.toLowerCase(Locale.ROOT).endsWith(".html")) {
+                String sanitizedHtml =
+                        sanitizeHtmlContent(
+                                new String(fileBytes, StandardCharsets.UTF_8), customHtmlSanitizer);
+                Files.write(
+                        tempInputFile.getPath(), sanitizedHtml.getBytes(StandardCharsets.UTF_8));
+            } else if (fileName.toLowerCase(Locale.ROOT).endsWith(".zip")) {
+                Files.write(tempInputFile.getPath(), fileBytes);
+                sanitizeHtmlFilesInZip(
+                        tempInputFile.getPath(), tempFileManager, customHtmlSanitizer);
+            } else {
+                throw ExceptionUtils.createHtmlFileRequiredException();
+            }
+
+            List<String> command = new ArrayList<>();
+            command.add(weasyprintPath);
+            command.add("-e");
+            command.add("utf-8");
+            command.add("-v");
+            command.add("--pdf-forms");
+            command.add(tempInputFile.getAbsolutePath());
+            command.add(tempOutputFile.getAbsolutePath());
+
+            ProcessExecutor.getInstance(ProcessExecutor.Processes.WEASYPRINT)
+                    .runCommandWithOutputHandling(command);
+
+            return tempOutputFile;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            tempOutputFile.close();
+            throw e;
+        }
     }
 
     private static String sanitizeHtmlContent(
@@ -88,6 +88,17 @@ public class GeneralUtils {
             tempFile = Files.createTempFile(tempDir, "stirling-pdf-", null).toFile();
         }
 
+        if (multipartFile instanceof PathMultipartFile spooled) {
+            // Already on disk: let the file system copy it without going through the heap
+            try {
+                spooled.transferTo(tempFile);
+            } catch (IOException e) {
+                Files.deleteIfExists(tempFile.toPath());
+                throw e;
+            }
+            return tempFile;
+        }
+
         try (InputStream inputStream = multipartFile.getInputStream();
                 FileOutputStream outputStream = new FileOutputStream(tempFile)) {
 
@@ -637,11 +648,7 @@ public class GeneralUtils {
         if (pages == null) {
             return List.of(1); // Default to first page if input is null
         }
-        try {
-            return parsePageList(pages.split(","), totalPages, oneBased);
-        } catch (NumberFormatException e) {
-            return List.of(1); // Default to first page if input is invalid
-        }
+        return PageSelection.compile(pages).toList(totalPages, oneBased);
     }
 
     public List<Integer> parsePageList(String[] pages, int totalPages) {
@@ -649,25 +656,7 @@ public class GeneralUtils {
     }
 
     public List<Integer> parsePageList(String[] pages, int totalPages, boolean oneBased) {
-        List<Integer> result = new ArrayList<>();
-        int offset = oneBased ? 1 : 0;
-        for (String page : pages) {
-            if ("all".equalsIgnoreCase(page)) {
-
-                for (int i = 0; i < totalPages; i++) {
-                    result.add(i + offset);
-                }
-            } else if (page.contains(",")) {
-                // Split the string into parts, could be single pages or ranges
-                String[] parts = page.split(",");
-                for (String part : parts) {
-                    result.addAll(handlePart(part, totalPages, offset));
-                }
-            } else {
-                result.addAll(handlePart(page, totalPages, offset));
-            }
-        }
-        return result;
+        return PageSelection.compile(String.join(",", pages)).toList(totalPages, oneBased);
     }
 
     /*
@@ -788,48 +777,6 @@ public class GeneralUtils {
         return text;
     }
 
-    private List<Integer> handlePart(String part, int totalPages, int offset) {
-        List<Integer> partResult = new ArrayList<>();
-
-        // First check for n-syntax because it should not be processed as a range
-        if (part.contains("n")) {
-            partResult = evaluateNFunc(part, totalPages);
-            // Adjust the results according to the offset
-            for (int i = 0; i < partResult.size(); i++) {
-                int adjustedValue = partResult.get(i) - 1 + offset;
-                partResult.set(i, adjustedValue);
-            }
-        } else if (part.contains("-")) {
-            // Process ranges only if it's not n-syntax
-            String[] rangeParts = part.split("-");
-            try {
-                int start = Integer.parseInt(rangeParts[0]);
-                int end =
-                        (rangeParts.length > 1 && !rangeParts[1].isEmpty())
-                                ? Integer.parseInt(rangeParts[1])
-                                : totalPages;
-                for (int i = start; i <= end; i++) {
-                    if (i >= 1 && i <= totalPages) {
-                        partResult.add(i - 1 + offset);
-                    }
-                }
-            } catch (NumberFormatException e) {
-                log.debug("Invalid range: {}", part);
-            }
-        } else {
-            // This is a single page number
-            try {
-                int pageNum = Integer.parseInt(part.trim());
-                if (pageNum >= 1 && pageNum <= totalPages) {
-                    partResult.add(pageNum - 1 + offset);
-                }
-            } catch (NumberFormatException e) {
-                log.debug("Invalid page number: {}", part);
-            }
-        }
-        return partResult;
-    }
-
     public boolean createDir(String path) {
         Path folder = Paths.get(path);
         if (!Files.exists(folder)) {
@@ -0,0 +1,491 @@
+package stirling.software.common.util;
+
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataFormatImpl;
+import javax.imageio.stream.ImageInputStream;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.multipdf.PDFCloneUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.image.CCITTFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.http.MediaType;
+import org.springframework.web.multipart.MultipartFile;
+import org.w3c.dom.Node;
+
+import io.github.pixee.security.Filenames;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.service.CustomPDFDocumentFactory;
+
+/**
+ * Builds a PDF with one page per image. JPEG, JPEG 2000 and CCITT fax data that needs no transform
+ * is embedded as it is, without decoding; every other image is decoded and compressed on a worker
+ * pool shared by all conversions. Pages are written in input order while only a bounded number of
+ * prepared images is held at any time, and multi-page TIFFs are read one frame at a time.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ImageToPdfBuilder {
+
+    static final int MAX_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int LOOKAHEAD_PER_WORKER = 2;
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+    private static final int SNIFF_LENGTH = 16;
+
+    // Shared by all conversions, so concurrent requests queue for cores
+    private static final ExecutorService EXECUTOR =
+            ExecutorFactory.newBoundedDaemonExecutor("image-to-pdf", MAX_WORKERS);
+
+    private final CustomPDFDocumentFactory pdfDocumentFactory;
+    private final TempFileManager tempFileManager;
+    private final String fitOption;
+    private final boolean autoRotate;
+    private final String colorType;
+
+    /**
+     * An image prepared on a worker thread in its own scratch document, so that workers never touch
+     * the shared output document. It is cloned into the output when its page is written.
+     */
+    private record PreparedImage(PDDocument scratch, PDImageXObject image) implements Closeable {
+
+        PDImageXObject embed(PDDocument document) throws IOException {
+            COSStream copy =
+                    new PDFCloneUtility(document) {}.cloneForNewDocument(image.getCOSObject());
+            return new PDImageXObject(new PDStream(copy), null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            scratch.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ImageTask {
+        PreparedImage prepare(PDDocument scratch) throws IOException;
+    }
+
+    /**
+     * Converts {@code files} to a PDF, one page per image or TIFF frame.
+     *
+     * @param files the images, in page order
+     * @return the PDF; the caller owns it and must close it
+     */
+    public TempFile build(MultipartFile[] files) throws IOException {
+        TempFile output = new TempFile(tempFileManager, ".pdf");
+        List<Path> spooled = new ArrayList<>();
+        try (PDDocument document = pdfDocumentFactory.createNewDocument()) {
+            int pages = writeInOrder(document, files, spooled);
+            document.save(output.getFile());
+            log.debug("Converted {} images to a {} page PDF", files.length, pages);
+            return output;
+        } catch (IOException | RuntimeException e) {
+            output.close();
+            throw e;
+        } finally {
+            spooled.forEach(tempFileManager::deleteTempFile);
+        }
+    }
+
+    /**
+     * Walks the inputs on the calling thread, prepares every image on a worker thread and adds the
+     * pages in input order. At most {@code workers * LOOKAHEAD_PER_WORKER} prepared images wait to
+     * be written at any time.
+     */
+    private int writeInOrder(PDDocument document, MultipartFile[] files, List<Path> spooled)
+            throws IOException {
+        int window = MAX_WORKERS * LOOKAHEAD_PER_WORKER;
+        int written = 0;
+        try (ImageWorkers workers = new ImageWorkers()) {
+            for (MultipartFile file : files) {
+                if (isTiff(file)) {
+                    // Frames are read by index from disk, so spool uploads held elsewhere
+                    PathMultipartFile tiff = tempFileManager.spool(file);
+                    if (tiff != file) {
+                        spooled.add(tiff.getPath());
+                    }
+                    int frames = countFrames(tiff);
+                    for (int i = 0; i < frames; i++) {
+                        int frame = i;
+                        workers.submit(scratch -> prepareFrame(scratch, tiff, frame));
+                        written += writePages(document, workers, window - 1);
+                    }
+                } else {
+                    workers.submit(scratch -> prepareImage(scratch, file));
+                    written += writePages(document, workers, window - 1);
+                }
+            }
+            return written + writePages(document, workers, 0);
+        }
+    }
+
+    /** Writes pages until no more than {@code keep} prepared images are pending. */
+    private int writePages(PDDocument document, ImageWorkers workers, int keep) throws IOException {
+        int written = 0;
+        while (workers.pending() > keep) {
+            try (PreparedImage prepared = workers.next()) {
+                PdfUtils.addImageToDocument(
+                        document, prepared.embed(document), fitOption, autoRotate);
+            }
+            written++;
+        }
+        return written;
+    }
+
+    private PreparedImage prepareImage(PDDocument scratch, MultipartFile file) throws IOException {
+        byte[] header;
+        try (InputStream in = file.getInputStream()) {
+            header = in.readNBytes(SNIFF_LENGTH);
+        }
+        boolean jpeg = isJpeg(header);
+        if (keepsColors()) {
+            if (jpeg && orientation(file) == 0) {
+                try {
+                    return new PreparedImage(
+                            scratch, JPEGFactory.createFromByteArray(scratch, file.getBytes()));
+                } catch (IOException e) {
+                    log.debug("JPEG header not understood, decoding instead: {}", e.getMessage());
+                }
+            }
+            JpxHeader jpx = JpxHeader.read(header, file);
+            if (jpx != null) {
+                return new PreparedImage(scratch, jpx.toImage(scratch, file));
+            }
+        }
+
+        BufferedImage image =
+                ImageProcessingUtils.convertColorType(
+                        ImageProcessingUtils.loadImageWithExifOrientation(file), colorType);
+        // JPEG sources stay lossy, as re-encoding them losslessly only inflates the output
+        boolean lossy =
+                (jpeg || MediaType.IMAGE_JPEG_VALUE.equals(file.getContentType()))
+                        && !"blackwhite".equals(colorType);
+        return new PreparedImage(
+                scratch,
+                lossy
+                        ? JPEGFactory.createFromImage(scratch, image)
+                        : LosslessFactory.createFromImage(scratch, image));
+    }
+
+    private static double orientation(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return ImageProcessingUtils.extractImageOrientation(in);
+        }
+    }
+
+    private PreparedImage prepareFrame(PDDocument scratch, PathMultipartFile tiff, int frame)
+            throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(tiff.getPath().toFile())) {
+            ImageReader reader = tiffReader(in, tiff);
+            try {
+                reader.setInput(in);
+                // Bilevel fax data looks the same in every colour mode, so it is never decoded
+                if (isCcitt(reader.getImageMetadata(frame))) {
+                    PDImageXObject ccitt = extractCcitt(scratch, tiff.getPath(), frame);
+                    if (ccitt != null) {
+                        return new PreparedImage(scratch, ccitt);
+                    }
+                }
+                BufferedImage image =
+                        ImageProcessingUtils.convertColorType(reader.read(frame), colorType);
+                return new PreparedImage(scratch, LosslessFactory.createFromImage(scratch, image));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static PDImageXObject extractCcitt(PDDocument scratch, Path tiff, int frame) {
+        try {
+            return CCITTFactory.createFromFile(scratch, tiff.toFile(), frame);
+        } catch (IOException e) {
+            log.debug("CCITT data of frame {} not extractable, decoding instead", frame, e);
+            return null;
+        }
+    }
+
+    private int countFrames(PathMultipartFile tiff) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(tiff.getPath().toFile())) {
+            ImageReader reader = tiffReader(in, tiff);
+            try {
+                reader.setInput(in, false, true);
+                return reader.getNumImages(true);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader tiffReader(ImageInputStream in, MultipartFile file)
+            throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByFormatName("tiff");
+        if (in == null || !readers.hasNext()) {
+            throw ExceptionUtils.createImageReadException(
+                    String.valueOf(Filenames.toSimpleFileName(file.getOriginalFilename())));
+        }
+        return readers.next();
+    }
+
+    private boolean keepsColors() {
+        return !"greyscale".equals(colorType) && !"blackwhite".equals(colorType);
+    }
+
+    private static boolean isTiff(MultipartFile file) {
+        String filename = Filenames.toSimpleFileName(file.getOriginalFilename());
+        if (filename != null) {
+            String lower = filename.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".tiff") || lower.endsWith(".tif")) {
+                return true;
+            }
+        }
+        return "image/tiff".equals(file.getContentType());
+    }
+
+    private static boolean isJpeg(byte[] header) {
+        return header.length >= 3
+                && (header[0] & 0xFF) == 0xFF
+                && (header[1] & 0xFF) == 0xD8
+                && (header[2] & 0xFF) == 0xFF;
+    }
+
+    static boolean isCcitt(IIOMetadata metadata) {
+        if (metadata == null || !metadata.isStandardMetadataFormatSupported()) {
+            return false;
+        }
+        Node root = metadata.getAsTree(IIOMetadataFormatImpl.standardMetadataFormatName);
+        for (Node node = root.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (!"Compression".equals(node.getNodeName())) {
+                continue;
+            }
+            for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if ("CompressionTypeName".equals(child.getNodeName())) {
+                    Node value = child.getAttributes().getNamedItem("value");
+                    return value != null
+                            && value.getNodeValue().toUpperCase(Locale.ROOT).startsWith("CCITT");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The dimensions of a JPEG 2000 image, read from the JP2 image header box or the codestream SIZ
+     * marker. PDF readers decode JPEG 2000 themselves, so nothing more is needed to embed it.
+     */
+    record JpxHeader(int width, int height, int bitsPerComponent) {
+
+        private static final byte[] JP2_SIGNATURE = {
+            0, 0, 0, 0x0C, 'j', 'P', ' ', ' ', 0x0D, 0x0A, (byte) 0x87, 0x0A
+        };
+        private static final int MAX_HEADER_LENGTH = 64 * 1024;
+
+        static JpxHeader read(byte[] header, MultipartFile file) throws IOException {
+            boolean jp2 = startsWith(header, JP2_SIGNATURE);
+            boolean codestream =
+                    header.length >= 4
+                            && (header[0] & 0xFF) == 0xFF
+                            && (header[1] & 0xFF) == 0x4F
+                            && (header[2] & 0xFF) == 0xFF
+                            && (header[3] & 0xFF) == 0x51;
+            if (!jp2 && !codestream) {
+                return null;
+            }
+            byte[] start;
+            try (InputStream in = file.getInputStream()) {
+                start = in.readNBytes(MAX_HEADER_LENGTH);
+            }
+            return jp2 ? parseJp2(start) : parseCodestream(start, 0);
+        }
+
+        PDImageXObject toImage(PDDocument document, MultipartFile file) throws IOException {
+            try (InputStream in = file.getInputStream()) {
+                // The colour space comes from the JPEG 2000 data itself
+                return new PDImageXObject(
+                        document, in, COSName.JPX_DECODE, width, height, bitsPerComponent, null);
+            }
+        }
+
+        static JpxHeader parseJp2(byte[] data) {
+            int pos = 0;
+            while (pos + 8 <= data.length) {
+                long length = readInt(data, pos) & 0xFFFFFFFFL;
+                String type = new String(data, pos + 4, 4, StandardCharsets.US_ASCII);
+                if ("jp2h".equals(type)) {
+                    pos += 8; // descend into the superbox
+                    continue;
+                }
+                if ("ihdr".equals(type) && pos + 19 <= data.length) {
+                    int height = readInt(data, pos + 8);
+                    int width = readInt(data, pos + 12);
+                    int bits = (data[pos + 18] & 0xFF) == 0xFF ? 8 : (data[pos + 18] & 0x7F) + 1;
+                    return valid(width, height, bits);
+                }
+                if ("jp2c".equals(type)) {
+                    return parseCodestream(data, pos + 8);
+                }
+                if (length < 8) {
+                    return null; // extends to the end of the file, or malformed
+                }
+                pos += (int) Math.min(length, Integer.MAX_VALUE - pos);
+            }
+            return null;
+        }
+
+        static JpxHeader parseCodestream(byte[] data, int pos) {
+            // SOC, then SIZ: marker, Lsiz, Rsiz, Xsiz, Ysiz, XOsiz, YOsiz, ..., Csiz, Ssiz
+            if (pos + 43 > data.length
+                    || (data[pos + 2] & 0xFF) != 0xFF
+                    || (data[pos + 3] & 0xFF) != 0x51) {
+                return null;
+            }
+            int width = readInt(data, pos + 8) - readInt(data, pos + 16);
+            int height = readInt(data, pos + 12) - readInt(data, pos + 20);
+            int bits = (data[pos + 42] & 0x7F) + 1;
+            return valid(width, height, bits);
+        }
+
+        private static JpxHeader valid(int width, int height, int bits) {
+            return width > 0 && height > 0 ? new JpxHeader(width, height, bits) : null;
+        }
+
+        private static boolean startsWith(byte[] data, byte[] prefix) {
+            if (data.length < prefix.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                if (data[i] != prefix[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int readInt(byte[] data, int pos) {
+            return ((data[pos] & 0xFF) << 24)
+                    | ((data[pos + 1] & 0xFF) << 16)
+                    | ((data[pos + 2] & 0xFF) << 8)
+                    | (data[pos + 3] & 0xFF);
+        }
+    }
+
+    /**
+     * The images of one conversion, prepared on the shared executor. A prepared image belongs to
+     * the workers until {@link #next()} hands it out, so closing after a failure releases the
+     * scratch documents of every image that will not be written, including those of tasks that were
+     * still running.
+     */
+    private static final class ImageWorkers implements AutoCloseable {
+        private final ArrayDeque<Future<PreparedImage>> pending = new ArrayDeque<>();
+        private final Set<PreparedImage> unclaimed =
+                Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Object lock = new Object();
+        private int running = 0;
+        private boolean closed = false;
+
+        void submit(ImageTask task) {
+            pending.add(
+                    EXECUTOR.submit(
+                            () -> {
+                                synchronized (lock) {
+                                    if (closed) {
+                                        throw new CancellationException();
+                                    }
+                                    running++;
+                                }
+                                PDDocument scratch = new PDDocument();
+                                try {
+                                    PreparedImage prepared = task.prepare(scratch);
+                                    synchronized (lock) {
+                                        unclaimed.add(prepared);
+                                    }
+                                    return prepared;
+                                } catch (IOException | RuntimeException | Error e) {
+                                    scratch.close();
+                                    throw e;
+                                } finally {
+                                    synchronized (lock) {
+                                        running--;
+                                        lock.notifyAll();
+                                    }
+                                }
+                            }));
+        }
+
+        int pending() {
+            return pending.size();
+        }
+
+        /** Waits for the oldest pending image; the caller owns it and must close it. */
+        PreparedImage next() throws IOException {
+            PreparedImage prepared = ParallelPageWorkers.await(pending.poll(), "Image conversion");
+            synchronized (lock) {
+                unclaimed.remove(prepared);
+            }
+            return prepared;
+        }
+
+        @Override
+        public void close() {
+            synchronized (lock) {
+                closed = true;
+            }
+            for (Future<PreparedImage> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+            // Tasks that are already decoding finish first, so their images can be released too
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_WAIT_SECONDS);
+            List<PreparedImage> leftovers;
+            synchronized (lock) {
+                try {
+                    long remaining;
+                    while (running > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    }
+                    if (running > 0) {
+                        log.warn("Image conversion workers did not stop in time");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                leftovers = new ArrayList<>(unclaimed);
+                unclaimed.clear();
+            }
+            for (PreparedImage prepared : leftovers) {
+                try {
+                    prepared.close();
+                } catch (IOException e) {
+                    log.debug("Could not close scratch document", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package stirling.software.common.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the sizes of the files in a cache directory in least recently used order and decides which
+ * of them have to go to keep the directory under a size limit. The index only does the bookkeeping;
+ * deleting the evicted files is up to the caller.
+ */
+public class LruFileIndex {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Path, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public LruFileIndex(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** Marks a file as recently used. Unknown files are ignored. */
+    public synchronized void touch(Path path) {
+        sizes.get(path);
+    }
+
+    /**
+     * Records a file as the most recently used one and returns the files that must be deleted to
+     * get back under the limit. The file just added is never among them.
+     */
+    public synchronized List<Path> add(Path path, long size) {
+        Long previous = sizes.put(path, size);
+        totalBytes += size - (previous != null ? previous : 0);
+        List<Path> evicted = new ArrayList<>();
+        Iterator<Map.Entry<Path, Long>> iterator = sizes.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<Path, Long> eldest = iterator.next();
+            if (eldest.getKey().equals(path)) {
+                break;
+            }
+            totalBytes -= eldest.getValue();
+            evicted.add(eldest.getKey());
+            iterator.remove();
+        }
+        return evicted;
+    }
+
+    /** Forgets a file the caller has deleted itself. */
+    public synchronized void remove(Path path) {
+        Long size = sizes.remove(path);
+        if (size != null) {
+            totalBytes -= size;
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+}
@@ -0,0 +1,312 @@
+package stirling.software.common.util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A compiled page-selection expression such as {@code "1,3,5-9"}, {@code "all"} or {@code "2n+1"}.
+ *
+ * <p>The expression is parsed once into ranges and arithmetic progressions, which are expanded
+ * against a page count into primitive arrays or a {@link BitSet} without boxing every page. Parsing
+ * follows {@link GeneralUtils#parsePageList(String, int, boolean)}: invalid numbers are skipped,
+ * results keep the order and duplicates of the expression and out-of-range pages are dropped.
+ * Compiled expressions are cached, so tools that receive the same selection repeatedly only parse
+ * it once.
+ */
+@Slf4j
+public final class PageSelection {
+
+    private static final int CACHE_LIMIT = 512;
+
+    private static final Map<String, PageSelection> CACHE = new ConcurrentHashMap<>();
+
+    // an+b and b+an, which are expanded directly instead of being evaluated for every n
+    private static final Pattern LINEAR = Pattern.compile("(\\d*)n([+-]\\d+)?");
+    private static final Pattern LINEAR_OFFSET_FIRST = Pattern.compile("(\\d+)\\+(\\d*)n");
+
+    private final String expression;
+    private final List<Segment> segments;
+    private final List<String> invalidParts;
+
+    private PageSelection(String expression, List<Segment> segments, List<String> invalidParts) {
+        this.expression = expression;
+        this.segments = segments;
+        this.invalidParts = invalidParts;
+    }
+
+    /**
+     * Compiles a comma-separated page-selection expression, reusing a cached result when the same
+     * expression was compiled before.
+     *
+     * @param expression the selection, using one-based page numbers
+     * @return the compiled selection
+     * @throws IllegalArgumentException if the expression is null or contains a malformed n-function
+     */
+    public static PageSelection compile(String expression) {
+        if (expression == null) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "page selection must not be null");
+        }
+        PageSelection cached = CACHE.get(expression);
+        if (cached != null) {
+            return cached;
+        }
+        if (CACHE.size() >= CACHE_LIMIT) {
+            CACHE.clear();
+        }
+        return CACHE.computeIfAbsent(expression, PageSelection::parse);
+    }
+
+    /**
+     * Checks that every part of the expression is {@code all}, a page number, a range or an
+     * n-function.
+     *
+     * @throws IllegalArgumentException naming the parts that cannot be parsed
+     */
+    public static void validate(String expression) {
+        PageSelection selection = compile(expression);
+        if (!selection.invalidParts.isEmpty() || selection.segments.isEmpty()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "invalid page selection '"
+                            + (selection.invalidParts.isEmpty()
+                                    ? expression
+                                    : String.join(",", selection.invalidParts))
+                            + "'");
+        }
+    }
+
+    /** Returns whether {@link #validate(String)} accepts the expression. */
+    public static boolean isValid(String expression) {
+        try {
+            validate(expression);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /** Drops all cached expressions. */
+    static void clearCache() {
+        CACHE.clear();
+    }
+
+    private static PageSelection parse(String expression) {
+        List<Segment> segments = new ArrayList<>();
+        List<String> invalidParts = new ArrayList<>();
+        for (String rawPart : expression.split(",")) {
+            // Spaces around commas are common in typed selections, such as "1, 3-5"
+            String part = rawPart.trim();
+            Segment segment = parsePart(part);
+            if (segment != null) {
+                segments.add(segment);
+            } else {
+                log.debug("Invalid page selection part: {}", part);
+                invalidParts.add(part);
+            }
+        }
+        return new PageSelection(expression, List.copyOf(segments), List.copyOf(invalidParts));
+    }
+
+    private static Segment parsePart(String part) {
+        if ("all".equalsIgnoreCase(part)) {
+            return new Range(1, Integer.MAX_VALUE);
+        }
+        // n-syntax first, so that "n-1" is not taken for a range
+        if (part.contains("n")) {
+            return parseFunction(part);
+        }
+        try {
+            if (part.contains("-")) {
+                String[] rangeParts = part.split("-");
+                int start = Integer.parseInt(rangeParts[0]);
+                int end =
+                        (rangeParts.length > 1 && !rangeParts[1].isEmpty())
+                                ? Integer.parseInt(rangeParts[1])
+                                : Integer.MAX_VALUE;
+                return new Range(start, end);
+            }
+            int page = Integer.parseInt(part);
+            return new Range(page, page);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Segment parseFunction(String part) {
+        if (part.isBlank()
+                || !RegexPatternUtils.getInstance()
+                        .getMathExpressionPattern()
+                        .matcher(part.trim())
+                        .matches()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "invalid expression format '" + part + "'");
+        }
+        String compact = part.replace(" ", "");
+        try {
+            Matcher linear = LINEAR.matcher(compact);
+            Matcher offsetFirst = LINEAR_OFFSET_FIRST.matcher(compact);
+            Progression progression = null;
+            if (linear.matches()) {
+                progression = progression(linear.group(1), linear.group(2));
+            } else if (offsetFirst.matches()) {
+                progression = progression(offsetFirst.group(2), offsetFirst.group(1));
+            }
+            if (progression != null) {
+                return progression;
+            }
+        } catch (NumberFormatException e) {
+            // Coefficients beyond int range are left to the general evaluator
+        }
+        return new Function(part);
+    }
+
+    private static Progression progression(String factor, String offset) {
+        int a = factor.isEmpty() ? 1 : Integer.parseInt(factor);
+        int b = offset == null ? 0 : Integer.parseInt(offset);
+        // A zero factor repeats one page for every n, which is left to the evaluator
+        return a > 0 ? new Progression(a, b) : null;
+    }
+
+    /** Returns the original expression. */
+    public String expression() {
+        return expression;
+    }
+
+    /**
+     * Expands the selection in expression order, including duplicates.
+     *
+     * @param totalPages the number of pages in the document
+     * @param oneBased whether to return one-based page numbers instead of zero-based indexes
+     */
+    public int[] toArray(int totalPages, boolean oneBased) {
+        IntStream.Builder pages = IntStream.builder();
+        int offset = oneBased ? 1 : 0;
+        for (Segment segment : segments) {
+            segment.forEach(totalPages, index -> pages.add(index + offset));
+        }
+        return pages.build().toArray();
+    }
+
+    /**
+     * Expands the selection into a mutable list, as returned by {@link
+     * GeneralUtils#parsePageList(String, int, boolean)}.
+     */
+    public List<Integer> toList(int totalPages, boolean oneBased) {
+        int[] pages = toArray(totalPages, oneBased);
+        List<Integer> result = new ArrayList<>(pages.length);
+        for (int page : pages) {
+            result.add(page);
+        }
+        return result;
+    }
+
+    /**
+     * Expands the selection into a set of zero-based page indexes, dropping order and duplicates.
+     *
+     * @param totalPages the number of pages in the document
+     */
+    public BitSet toBitSet(int totalPages) {
+        BitSet pages = new BitSet(Math.max(totalPages, 0));
+        for (Segment segment : segments) {
+            segment.addTo(pages, totalPages);
+        }
+        return pages;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /** One comma-separated part of the expression, producing zero-based page indexes. */
+    private sealed interface Segment permits Range, Progression, Function {
+
+        void forEach(int totalPages, IntConsumer action);
+
+        default void addTo(BitSet pages, int totalPages) {
+            forEach(totalPages, pages::set);
+        }
+    }
+
+    /** One-based pages {@code start..end}, clamped to the document. */
+    private record Range(int start, int end) implements Segment {
+
+        @Override
+        public void forEach(int totalPages, IntConsumer action) {
+            int last = Math.min(end, totalPages);
+            for (int page = Math.max(start, 1); page <= last; page++) {
+                action.accept(page - 1);
+            }
+        }
+
+        @Override
+        public void addTo(BitSet pages, int totalPages) {
+            int first = Math.max(start, 1);
+            int last = Math.min(end, totalPages);
+            if (first <= last) {
+                pages.set(first - 1, last);
+            }
+        }
+    }
+
+    /** One-based pages {@code a*n+b} for {@code n = 1..totalPages} with a positive factor. */
+    private record Progression(int a, int b) implements Segment {
+
+        @Override
+        public void forEach(int totalPages, IntConsumer action) {
+            long first = Math.max(1, Math.floorDiv(1L - b + a - 1, a));
+            long last = Math.min(totalPages, Math.floorDiv((long) totalPages - b, a));
+            for (long n = first; n <= last; n++) {
+                action.accept((int) (a * n + b - 1));
+            }
+        }
+    }
+
+    /**
+     * Any other n-function, evaluated with {@link GeneralUtils#evaluateNFunc(String, int)}. The
+     * result for the last page count is kept, since documents of one size are usually processed
+     * together.
+     */
+    private static final class Function implements Segment {
+
+        private final String expression;
+        private volatile Evaluated last;
+
+        Function(String expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        public void forEach(int totalPages, IntConsumer action) {
+            Evaluated evaluated = last;
+            if (evaluated == null || evaluated.totalPages() != totalPages) {
+                int[] pages =
+                        GeneralUtils.evaluateNFunc(expression, totalPages).stream()
+                                .mapToInt(Integer::intValue)
+                                .toArray();
+                evaluated = new Evaluated(totalPages, pages);
+                last = evaluated;
+            }
+            for (int page : evaluated.pages()) {
+                action.accept(page - 1);
+            }
+        }
+
+        private record Evaluated(int totalPages, int[] pages) {}
+    }
+}
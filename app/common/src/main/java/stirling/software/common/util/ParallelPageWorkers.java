@@ -0,0 +1,179 @@
+package stirling.software.common.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.service.CustomPDFDocumentFactory;
+
+/**
+ * Runs page work of one request in parallel, each task on its own copy of the document since PDFBox
+ * documents are not thread-safe. The caller's document is the first of {@link #documents()}; the
+ * others are read-only copies opened from the source file. Tasks of all requests share one bounded
+ * executor, so concurrent requests queue for cores instead of each starting threads of their own.
+ *
+ * <p>Closing cancels tasks that have not finished, waits for running ones to leave their document
+ * and then closes the copies.
+ */
+@Slf4j
+public final class ParallelPageWorkers implements AutoCloseable {
+
+    public static final int MAX_WORKERS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final long SHUTDOWN_WAIT_SECONDS = 30;
+
+    private static final ExecutorService EXECUTOR =
+            ExecutorFactory.newBoundedDaemonExecutor("pdf-page-worker", MAX_WORKERS);
+
+    private final List<PDDocument> documents;
+    private final List<Future<?>> tasks = new ArrayList<>();
+    private final Object lock = new Object();
+    private int running = 0;
+    private boolean closed = false;
+
+    private ParallelPageWorkers(List<PDDocument> documents) {
+        this.documents = documents;
+    }
+
+    /**
+     * Number of workers worth using for {@code pageCount} pages, when another copy of the document
+     * only pays off with at least {@code minPagesPerWorker} pages for each worker.
+     */
+    public static int workerCount(int pageCount, int minPagesPerWorker) {
+        return Math.max(1, Math.min(MAX_WORKERS, pageCount / minPagesPerWorker));
+    }
+
+    /**
+     * Prepares {@code workers} documents: {@code document} itself and read-only copies of {@code
+     * source} for the rest.
+     *
+     * @param document an open document loaded from {@code source}; stays open on close
+     */
+    public static ParallelPageWorkers open(
+            CustomPDFDocumentFactory pdfDocumentFactory,
+            PDDocument document,
+            Path source,
+            int workers)
+            throws IOException {
+        List<PDDocument> documents = new ArrayList<>(workers);
+        documents.add(document);
+        ParallelPageWorkers pageWorkers = new ParallelPageWorkers(documents);
+        try {
+            for (int w = 1; w < workers; w++) {
+                documents.add(pdfDocumentFactory.loadKeepingFile(source, true));
+            }
+        } catch (IOException | RuntimeException e) {
+            pageWorkers.close();
+            throw e;
+        }
+        return pageWorkers;
+    }
+
+    /** The documents to hand to the tasks, one per worker; the first is the caller's. */
+    public List<PDDocument> documents() {
+        return Collections.unmodifiableList(documents);
+    }
+
+    /** Runs {@code task} on the shared executor. */
+    public <T> Future<T> submit(Callable<T> task) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Page workers are closed");
+            }
+            Future<T> future =
+                    EXECUTOR.submit(
+                            () -> {
+                                synchronized (lock) {
+                                    if (closed) {
+                                        throw new CancellationException();
+                                    }
+                                    running++;
+                                }
+                                try {
+                                    return task.call();
+                                } finally {
+                                    synchronized (lock) {
+                                        running--;
+                                        lock.notifyAll();
+                                    }
+                                }
+                            });
+            tasks.add(future);
+            return future;
+        }
+    }
+
+    /**
+     * Waits for a result, rethrowing what the task threw.
+     *
+     * @param failure describes the work in the exception thrown for other checked failures
+     */
+    public static <T> T await(Future<T> future, String failure) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(failure + " was interrupted", e);
+        } catch (CancellationException e) {
+            throw new IOException(failure + " was cancelled", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(failure + " failed", cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        List<Future<?>> submitted;
+        synchronized (lock) {
+            closed = true;
+            submitted = new ArrayList<>(tasks);
+        }
+        for (Future<?> task : submitted) {
+            task.cancel(true);
+        }
+        // Running tasks may still be inside a page; let them leave before their documents close
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_WAIT_SECONDS);
+        synchronized (lock) {
+            try {
+                long remaining;
+                while (running > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                }
+                if (running > 0) {
+                    log.warn("Page workers did not stop in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (PDDocument copy : documents.subList(1, documents.size())) {
+            try {
+                copy.close();
+            } catch (IOException e) {
+                log.warn("Failed to close worker document", e);
+            }
+        }
+    }
+}
@@ -2,12 +2,12 @@ package stirling.software.common.util;
 
 import static stirling.software.common.util.AttachmentUtils.setCatalogViewerPreferences;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -23,6 +23,11 @@ import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessStreamCache;
+import org.apache.pdfbox.io.ScratchFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentCatalog;
 import org.apache.pdfbox.pdmodel.PDDocumentNameDictionary;
@@ -67,13 +72,39 @@ public class PdfAttachmentHandler {
             return pdfBytes;
         }
 
-        try (PDDocument document = pdfDocumentFactory.load(pdfBytes);
-                ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        attachFilesToPdf(pdfBytes, attachments, pdfDocumentFactory, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Embeds the attachments into the PDF and writes the result to {@code output}. Attachments
+     * whose bodies are in temp files are copied through a file-backed stream cache, so they are
+     * never held in memory as a whole.
+     */
+    public static void attachFilesToPdf(
+            byte[] pdfBytes,
+            List<EmlParser.EmailAttachment> attachments,
+            CustomPDFDocumentFactory pdfDocumentFactory,
+            OutputStream output)
+            throws IOException {
+
+        boolean fileBacked =
+                attachments != null
+                        && attachments.stream()
+                                .anyMatch(attachment -> attachment.getDataFile() != null);
 
-            List<MultipartFile> multipartAttachments = new ArrayList<>(attachments.size());
-            for (int i = 0; i < attachments.size(); i++) {
+        try (ScratchFile attachmentCache =
+                        fileBacked
+                                ? new ScratchFile(MemoryUsageSetting.setupTempFileOnly())
+                                : null;
+                PDDocument document = pdfDocumentFactory.load(pdfBytes)) {
+
+            List<MultipartFile> multipartAttachments =
+                    new ArrayList<>(attachments != null ? attachments.size() : 0);
+            for (int i = 0; attachments != null && i < attachments.size(); i++) {
                 EmlParser.EmailAttachment attachment = attachments.get(i);
-                if (attachment.getData() != null && attachment.getData().length > 0) {
+                if (attachment.hasData()) {
                     String embeddedFilename =
                             attachment.getFilename() != null
                                     ? attachment.getFilename()
@@ -86,14 +117,13 @@ public class PdfAttachmentHandler {
             if (!multipartAttachments.isEmpty()) {
                 Map<Integer, String> indexToFilenameMap =
                         addAttachmentsToDocumentWithMapping(
-                                document, multipartAttachments, attachments);
+                                document, multipartAttachments, attachments, attachmentCache);
                 setCatalogViewerPreferences(document, PageMode.USE_ATTACHMENTS);
                 addAttachmentAnnotationsToDocumentWithMapping(
                         document, attachments, indexToFilenameMap);
             }
 
-            document.save(outputStream);
-            return outputStream.toByteArray();
+            document.save(output);
         } catch (RuntimeException e) {
             throw new IOException(
                     "Invalid PDF structure or processing error: " + e.getMessage(), e);
@@ -125,32 +155,31 @@ public class PdfAttachmentHandler {
 
             @Override
             public boolean isEmpty() {
-                return attachment.getData() == null || attachment.getData().length == 0;
+                return !attachment.hasData();
             }
 
             @Override
             public long getSize() {
-                return attachment.getData() != null ? attachment.getData().length : 0;
+                return attachment.hasData() ? attachment.getSizeBytes() : 0;
             }
 
             @Override
-            public byte @NotNull [] getBytes() {
-                return attachment.getData() != null ? attachment.getData() : new byte[0];
+            public byte @NotNull [] getBytes() throws IOException {
+                try (InputStream input = attachment.openData()) {
+                    return input.readAllBytes();
+                }
             }
 
             @Override
-            public @NotNull InputStream getInputStream() {
-                byte[] data = attachment.getData();
-                return new ByteArrayInputStream(data != null ? data : new byte[0]);
+            public @NotNull InputStream getInputStream() throws IOException {
+                return attachment.openData();
             }
 
             @Override
             public void transferTo(@NotNull File dest) throws IOException, IllegalStateException {
-                try (FileOutputStream fos = new FileOutputStream(dest)) {
-                    byte[] data = attachment.getData();
-                    if (data != null) {
-                        fos.write(data);
-                    }
+                try (InputStream input = attachment.openData();
+                        FileOutputStream fos = new FileOutputStream(dest)) {
+                    input.transferTo(fos);
                 }
             }
         };
@@ -335,7 +364,8 @@ public class PdfAttachmentHandler {
     private static Map<Integer, String> addAttachmentsToDocumentWithMapping(
             PDDocument document,
             List<MultipartFile> attachments,
-            List<EmlParser.EmailAttachment> originalAttachments)
+            List<EmlParser.EmailAttachment> originalAttachments,
+            RandomAccessStreamCache attachmentCache)
             throws IOException {
 
         PDDocumentCatalog catalog = document.getDocumentCatalog();
@@ -380,7 +410,7 @@ public class PdfAttachmentHandler {
 
             indexToFilenameMap.put(i, uniqueFilename);
 
-            PDEmbeddedFile embeddedFile = new PDEmbeddedFile(document, attachment.getInputStream());
+            PDEmbeddedFile embeddedFile = createEmbeddedFile(document, attachment, attachmentCache);
             embeddedFile.setSize((int) attachment.getSize());
 
             GregorianCalendar currentTime = new GregorianCalendar();
@@ -408,6 +438,24 @@ public class PdfAttachmentHandler {
         return indexToFilenameMap;
     }
 
+    private static PDEmbeddedFile createEmbeddedFile(
+            PDDocument document, MultipartFile attachment, RandomAccessStreamCache attachmentCache)
+            throws IOException {
+        if (attachmentCache == null) {
+            try (InputStream input = attachment.getInputStream()) {
+                return new PDEmbeddedFile(document, input);
+            }
+        }
+        COSStream stream = new COSStream(attachmentCache);
+        try (InputStream input = attachment.getInputStream();
+                OutputStream output = stream.createRawOutputStream()) {
+            input.transferTo(output);
+        }
+        PDEmbeddedFile embeddedFile = new PDEmbeddedFile(stream);
+        stream.setItem(COSName.TYPE, COSName.EMBEDDED_FILE);
+        return embeddedFile;
+    }
+
     private static void addAttachmentAnnotationsToDocumentWithMapping(
             PDDocument document,
             List<EmlParser.EmailAttachment> attachments,
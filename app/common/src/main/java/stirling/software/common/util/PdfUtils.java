@@ -6,7 +6,7 @@ import java.awt.image.RenderedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.regex.Matcher;
@@ -83,11 +83,11 @@ public class PdfUtils {
     }
 
     public boolean hasImages(PDDocument document, String pagesToCheck) throws IOException {
-        String[] pageOrderArr = pagesToCheck.split(",");
-        List<Integer> pageList =
-                GeneralUtils.parsePageList(pageOrderArr, document.getNumberOfPages());
+        BitSet pageList = PageSelection.compile(pagesToCheck).toBitSet(document.getNumberOfPages());
 
-        for (int pageNumber : pageList) {
+        for (int pageNumber = pageList.nextSetBit(0);
+                pageNumber >= 0;
+                pageNumber = pageList.nextSetBit(pageNumber + 1)) {
             PDPage page = document.getPage(pageNumber);
             if (hasImagesOnPage(page)) {
                 return true;
@@ -99,11 +99,12 @@ public class PdfUtils {
 
     public boolean hasText(PDDocument document, String pageNumbersToCheck, String phrase)
             throws IOException {
-        String[] pageOrderArr = pageNumbersToCheck.split(",");
-        List<Integer> pageList =
-                GeneralUtils.parsePageList(pageOrderArr, document.getNumberOfPages());
+        BitSet pageList =
+                PageSelection.compile(pageNumbersToCheck).toBitSet(document.getNumberOfPages());
 
-        for (int pageNumber : pageList) {
+        for (int pageNumber = pageList.nextSetBit(0);
+                pageNumber >= 0;
+                pageNumber = pageList.nextSetBit(pageNumber + 1)) {
             PDPage page = document.getPage(pageNumber);
             if (hasTextOnPage(page, phrase)) {
                 return true;
@@ -213,122 +214,59 @@ public class PdfUtils {
 
                     writer.dispose();
                 } else {
-                    // Combine all images into a single big image
-
-                    // Calculate the combined image dimensions
+                    // Combine all pages into a single tall image. Page sizes are computed up
+                    // front from the crop boxes so that only one rendered page is held at a time.
                     int maxWidth = 0;
-                    int totalHeight = 0;
-
-                    BufferedImage pdfSizeImage = null;
-                    int pdfSizeImageIndex = -1;
-
-                    // Using a map to store the rendered dimensions of each page size
-                    // to avoid rendering the same page sizes multiple times
-                    HashMap<PdfRenderSettingsKey, PdfImageDimensionValue> pageSizes =
-                            new HashMap<>();
+                    long totalHeight = 0;
                     for (int i = 0; i < pageCount; ++i) {
-                        final int pageIndex = i;
-                        PDPage page = document.getPage(i);
-                        PDRectangle mediaBox = page.getMediaBox();
-                        int rotation = page.getRotation();
-                        PdfRenderSettingsKey settings =
-                                new PdfRenderSettingsKey(
-                                        mediaBox.getWidth(), mediaBox.getHeight(), rotation);
-                        PdfImageDimensionValue dimension = pageSizes.get(settings);
-                        if (dimension == null) {
-                            // Render the image to get the dimensions
-                            try {
-                                // Validate dimensions before rendering
-                                ExceptionUtils.validateRenderingDimensions(
-                                        page, pageIndex + 1, DPI);
+                        Dimension size = renderedPageSize(document.getPage(i), DPI);
+                        maxWidth = Math.max(maxWidth, size.width);
+                        totalHeight += size.height;
+                    }
+                    if (totalHeight > Integer.MAX_VALUE) {
+                        throw ExceptionUtils.createIllegalArgumentException(
+                                "error.combinedImageTooLarge",
+                                "The {0} pages combined into one image at {1} DPI exceed the"
+                                        + " maximum image height. Please try a lower DPI value"
+                                        + " or fewer pages.",
+                                pageCount,
+                                DPI);
+                    }
 
-                                pdfSizeImage =
-                                        ExceptionUtils.handleOomRendering(
-                                                pageIndex + 1,
-                                                DPI,
-                                                () ->
-                                                        pdfRenderer.renderImageWithDPI(
-                                                                pageIndex, DPI, colorType));
-                            } catch (IllegalArgumentException e) {
-                                if (e.getMessage() != null
-                                        && e.getMessage()
-                                                .contains("Maximum size of image exceeded")) {
-                                    throw ExceptionUtils.createIllegalArgumentException(
-                                            "error.pageTooBigExceedsArray",
-                                            "PDF page {0} is too large to render at {1} DPI. The"
-                                                    + " resulting image would exceed Java's maximum"
-                                                    + " array size. Please try a lower DPI value"
-                                                    + " (recommended: 150 or less).",
-                                            i + 1,
-                                            DPI);
-                                }
-                                throw e;
-                            }
-                            pdfSizeImageIndex = i;
-                            dimension =
-                                    new PdfImageDimensionValue(
-                                            pdfSizeImage.getWidth(), pdfSizeImage.getHeight());
-                            pageSizes.put(settings, dimension);
-                            if (pdfSizeImage.getWidth() > maxWidth) {
-                                maxWidth = pdfSizeImage.getWidth();
+                    if ("png".equalsIgnoreCase(imageType)) {
+                        // Encode rows as each page is rendered instead of building the full raster
+                        try (StreamingPngWriter pngWriter =
+                                new StreamingPngWriter(baos, maxWidth, (int) totalHeight)) {
+                            for (int i = 0; i < pageCount; ++i) {
+                                BufferedImage pageImage =
+                                        renderPageForImage(
+                                                pdfRenderer, document, i, DPI, colorType);
+                                pngWriter.writeImage(pageImage);
+                                pageImage.flush();
                             }
                         }
-                        totalHeight += dimension.height();
-                    }
-
-                    // Create a new BufferedImage to store the combined images
-                    BufferedImage combined =
-                            prepareImageForPdfToImage(maxWidth, totalHeight, imageType);
-                    Graphics g = combined.getGraphics();
-
-                    int currentHeight = 0;
-                    BufferedImage pageImage;
-
-                    // Check if the first image is the last rendered image
-                    boolean firstImageAlreadyRendered = pdfSizeImageIndex == 0;
+                    } else {
+                        // Other formats need the whole raster for their ImageIO writer
+                        BufferedImage combined =
+                                prepareImageForPdfToImage(maxWidth, (int) totalHeight, imageType);
+                        Graphics g = combined.getGraphics();
+                        int currentHeight = 0;
+                        for (int i = 0; i < pageCount; ++i) {
+                            BufferedImage pageImage =
+                                    renderPageForImage(pdfRenderer, document, i, DPI, colorType);
 
-                    for (int i = 0; i < pageCount; ++i) {
-                        final int pageIndex = i;
-                        if (firstImageAlreadyRendered && i == 0) {
-                            pageImage = pdfSizeImage;
-                        } else {
-                            try {
-                                // Validate dimensions before rendering
-                                ExceptionUtils.validateRenderingDimensions(
-                                        document.getPage(pageIndex), pageIndex + 1, DPI);
+                            // Calculate the x-coordinate to center the image
+                            int x = (maxWidth - pageImage.getWidth()) / 2;
 
-                                pageImage =
-                                        ExceptionUtils.handleOomRendering(
-                                                pageIndex + 1,
-                                                DPI,
-                                                () ->
-                                                        pdfRenderer.renderImageWithDPI(
-                                                                pageIndex, DPI, colorType));
-                            } catch (IllegalArgumentException e) {
-                                if (e.getMessage() != null
-                                        && e.getMessage()
-                                                .contains("Maximum size of image exceeded")) {
-                                    throw ExceptionUtils.createIllegalArgumentException(
-                                            "error.pageTooBigForDpi",
-                                            "PDF page {0} is too large to render at {1} DPI. Please"
-                                                    + " try a lower DPI value (recommended: 150 or"
-                                                    + " less).",
-                                            i + 1,
-                                            DPI);
-                                }
-                                throw e;
-                            }
+                            g.drawImage(pageImage, x, currentHeight, null);
+                            currentHeight += pageImage.getHeight();
+                            pageImage.flush();
                         }
+                        g.dispose();
 
-                        // Calculate the x-coordinate to center the image
-                        int x = (maxWidth - pageImage.getWidth()) / 2;
-
-                        g.drawImage(pageImage, x, currentHeight, null);
-                        currentHeight += pageImage.getHeight();
+                        // Write the image to the output stream
+                        ImageIO.write(combined, imageType, baos);
                     }
-
-                    // Write the image to the output stream
-                    ImageIO.write(combined, imageType, baos);
                 }
 
                 // Log that the image was successfully written to the byte array
@@ -455,6 +393,55 @@ public class PdfUtils {
         }
     }
 
+    /**
+     * Renders one page for image export, translating oversized-page failures into a user-facing
+     * error.
+     */
+    private BufferedImage renderPageForImage(
+            PDFRenderer pdfRenderer,
+            PDDocument document,
+            int pageIndex,
+            int dpi,
+            ImageType colorType)
+            throws IOException {
+        try {
+            // Validate dimensions before rendering
+            ExceptionUtils.validateRenderingDimensions(
+                    document.getPage(pageIndex), pageIndex + 1, dpi);
+
+            return ExceptionUtils.handleOomRendering(
+                    pageIndex + 1,
+                    dpi,
+                    () -> pdfRenderer.renderImageWithDPI(pageIndex, dpi, colorType));
+        } catch (IllegalArgumentException e) {
+            if (e.getMessage() != null
+                    && e.getMessage().contains("Maximum size of image exceeded")) {
+                throw ExceptionUtils.createIllegalArgumentException(
+                        "error.pageTooBigForDpi",
+                        "PDF page {0} is too large to render at {1} DPI. Please try a lower DPI"
+                                + " value (recommended: 150 or less).",
+                        pageIndex + 1,
+                        dpi);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Pixel size {@link PDFRenderer#renderImageWithDPI} produces for a page, computed from the crop
+     * box and rotation without rendering.
+     */
+    private Dimension renderedPageSize(PDPage page, int dpi) {
+        PDRectangle cropBox = page.getCropBox();
+        float scale = dpi / 72f;
+        int width = (int) Math.max(Math.floor(cropBox.getWidth() * scale), 1);
+        int height = (int) Math.max(Math.floor(cropBox.getHeight() * scale), 1);
+        int rotation = page.getRotation();
+        return rotation == 90 || rotation == 270
+                ? new Dimension(height, width)
+                : new Dimension(width, height);
+    }
+
     private BufferedImage prepareImageForPdfToImage(int maxWidth, int height, String imageType) {
         BufferedImage combined;
         if ("png".equalsIgnoreCase(imageType)) {
@@ -678,10 +665,4 @@ public class PdfUtils {
         // Checks if the actual page size matches the expected page size
         return actualPageWidth == expectedPageWidth && actualPageHeight == expectedPageHeight;
     }
-
-    /** Key for storing the dimensions of a rendered image in a map. */
-    private record PdfRenderSettingsKey(float mediaBoxWidth, float mediaBoxHeight, int rotation) {}
-
-    /** Value for storing the dimensions of a rendered image in a map. */
-    private record PdfImageDimensionValue(int width, int height) {}
 }
@@ -5,16 +5,19 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.github.pixee.security.BoundedLineReader;
 
@@ -30,6 +33,7 @@ public class ProcessExecutor {
     private static final Map<Processes, ProcessExecutor> instances = new ConcurrentHashMap<>();
     private static ApplicationProperties applicationProperties = new ApplicationProperties();
     private static volatile UnoServerPool unoServerPool;
+    private static volatile WeasyPrintPool weasyPrintPool;
     private final Semaphore semaphore;
     private final boolean liveUpdates;
     private long timeoutDuration;
@@ -189,6 +193,14 @@ public class ProcessExecutor {
         unoServerPool = pool;
     }
 
+    public static void setWeasyPrintPool(WeasyPrintPool pool) {
+        WeasyPrintPool previous = weasyPrintPool;
+        weasyPrintPool = pool;
+        if (previous != null && previous != pool) {
+            previous.shutdown();
+        }
+    }
+
     public ProcessExecutorResult runCommandWithOutputHandling(List<String> command)
             throws IOException, InterruptedException {
         return runCommandWithOutputHandling(command, null);
@@ -196,6 +208,18 @@ public class ProcessExecutor {
 
     public ProcessExecutorResult runCommandWithOutputHandling(
             List<String> command, File workingDirectory) throws IOException, InterruptedException {
+        return runCommandWithOutputHandling(command, workingDirectory, null);
+    }
+
+    /**
+     * Runs a command while {@code stdinWriter} feeds its standard input from a separate thread.
+     * Standard input is closed once the writer returns. The writer blocks when the process is not
+     * reading, which gives natural backpressure; if it fails, the command fails even when the
+     * process exits cleanly on the truncated input.
+     */
+    public ProcessExecutorResult runCommandWithOutputHandling(
+            List<String> command, File workingDirectory, StdinWriter stdinWriter)
+            throws IOException, InterruptedException {
         String messages = "";
         int exitCode = 1;
         UnoServerPool.UnoServerLease unoLease = null;
@@ -212,6 +236,13 @@ public class ProcessExecutor {
         try {
 
             validateCommand(commandToRun);
+            if (shouldUseWeasyPrintPool(workingDirectory, stdinWriter)) {
+                WeasyPrintPool.Job job = WeasyPrintPool.Job.fromCommand(commandToRun);
+                if (job != null && weasyPrintPool.render(job, timeoutDuration)) {
+                    log.info("Rendered {} on a pooled WeasyPrint worker", job.input());
+                    return new ProcessExecutorResult(0, "");
+                }
+            }
             log.info("Running command: {}", String.join(" ", commandToRun));
             ProcessBuilder processBuilder = new ProcessBuilder(commandToRun);
 
@@ -274,6 +305,24 @@ public class ProcessExecutor {
             errorReaderThread.start();
             outputReaderThread.start();
 
+            AtomicReference<Exception> stdinFailure = new AtomicReference<>();
+            Thread stdinWriterThread = null;
+            if (stdinWriter != null) {
+                stdinWriterThread =
+                        new Thread(
+                                () -> {
+                                    try (OutputStream stdin = process.getOutputStream()) {
+                                        stdinWriter.write(stdin);
+                                    } catch (Exception e) {
+                                        stdinFailure.set(e);
+                                    }
+                                },
+                                "process-stdin-" + processType.name().toLowerCase(Locale.ROOT));
+                // Must not keep the JVM alive if a process hangs during shutdown
+                stdinWriterThread.setDaemon(true);
+                stdinWriterThread.start();
+            }
+
             // Wait for the conversion process to complete
             boolean finished = process.waitFor(timeoutDuration, TimeUnit.MINUTES);
 
@@ -283,12 +332,31 @@ public class ProcessExecutor {
                 // Interrupt the reader threads
                 errorReaderThread.interrupt();
                 outputReaderThread.interrupt();
+                if (stdinWriterThread != null) {
+                    stdinWriterThread.interrupt();
+                }
                 throw new IOException("Process timeout exceeded.");
             }
             exitCode = process.exitValue();
             // Wait for the reader threads to finish
             errorReaderThread.join();
             outputReaderThread.join();
+            if (stdinWriterThread != null) {
+                stdinWriterThread.join();
+                // A broken pipe usually means the process died first; its own error is more
+                // useful then, so only surface I/O failures when the process claims success
+                Exception failure = stdinFailure.get();
+                if (failure instanceof RuntimeException runtimeFailure) {
+                    throw runtimeFailure;
+                }
+                if (failure != null && (exitCode == 0 || !(failure instanceof IOException))) {
+                    throw failure instanceof IOException ioFailure
+                            ? ioFailure
+                            : new IOException(
+                                    "Failed to write process input: " + failure.getMessage(),
+                                    failure);
+                }
+            }
 
             boolean isQpdf =
                     commandToRun != null
@@ -344,6 +412,14 @@ public class ProcessExecutor {
         return new ProcessExecutorResult(exitCode, messages);
     }
 
+    private boolean shouldUseWeasyPrintPool(File workingDirectory, StdinWriter stdinWriter) {
+        return processType == Processes.WEASYPRINT
+                && weasyPrintPool != null
+                && weasyPrintPool.isAvailable()
+                && workingDirectory == null
+                && stdinWriter == null;
+    }
+
     private boolean shouldUseUnoServerPool(List<String> command) {
         if (processType != Processes.LIBRE_OFFICE || unoServerPool == null) {
             return false;
@@ -523,6 +599,12 @@ public class ProcessExecutor {
         // For relative paths, trust that PATH resolution will work or fail appropriately
     }
 
+    /** Writes the standard input of a process started by {@link ProcessExecutor}. */
+    @FunctionalInterface
+    public interface StdinWriter {
+        void write(OutputStream stdin) throws Exception;
+    }
+
     public enum Processes {
         LIBRE_OFFICE,
         PDFTOHTML,
@@ -0,0 +1,251 @@
+package stirling.software.common.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an RGBA PNG of known dimensions row by row, so a tall image made of many stacked pages can
+ * be encoded without holding its full raster in memory. Images are appended with {@link
+ * #writeImage(BufferedImage)}, horizontally centred and clipped to the canvas width; rows that are
+ * never written are left transparent.
+ */
+public class StreamingPngWriter implements Closeable {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int IDAT_CHUNK_SIZE = 64 * 1024;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_PAETH = 4;
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+    private final Deflater deflater;
+    private final DeflaterOutputStream idat;
+
+    private byte[] previousRow;
+    private byte[] currentRow;
+    private final byte[] filteredRow;
+    private final byte[] bestRow;
+    private final int[] argb;
+    private int rowsWritten;
+    private boolean finished;
+
+    public StreamingPngWriter(OutputStream out, int width, int height) throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("PNG dimensions must be positive");
+        }
+        if ((long) width * BYTES_PER_PIXEL + 1 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("PNG row too wide: " + width);
+        }
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        int rowBytes = width * BYTES_PER_PIXEL;
+        this.previousRow = new byte[rowBytes];
+        this.currentRow = new byte[rowBytes];
+        this.filteredRow = new byte[rowBytes];
+        this.bestRow = new byte[rowBytes];
+        this.argb = new int[width];
+
+        out.write(SIGNATURE);
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream data = new DataOutputStream(header);
+        data.writeInt(width);
+        data.writeInt(height);
+        data.writeByte(8); // bit depth
+        data.writeByte(6); // colour type: truecolour with alpha
+        data.writeByte(0); // compression: deflate
+        data.writeByte(0); // filter method: adaptive
+        data.writeByte(0); // no interlace
+        writeChunk("IHDR", header.toByteArray(), header.size());
+
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        this.idat = new DeflaterOutputStream(new IdatOutputStream(), deflater, IDAT_CHUNK_SIZE);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * Appends the rows of {@code image} below the rows already written. Rows beyond the declared
+     * height are dropped.
+     */
+    public void writeImage(BufferedImage image) throws IOException {
+        int imageWidth = Math.min(image.getWidth(), width);
+        int srcX = Math.max(0, (image.getWidth() - width) / 2);
+        int dstX = Math.max(0, (width - image.getWidth()) / 2);
+        int rows = Math.min(image.getHeight(), height - rowsWritten);
+        for (int y = 0; y < rows; y++) {
+            image.getRGB(srcX, y, imageWidth, 1, argb, 0, imageWidth);
+            Arrays.fill(currentRow, (byte) 0);
+            int offset = dstX * BYTES_PER_PIXEL;
+            for (int x = 0; x < imageWidth; x++) {
+                int pixel = argb[x];
+                currentRow[offset++] = (byte) (pixel >>> 16);
+                currentRow[offset++] = (byte) (pixel >>> 8);
+                currentRow[offset++] = (byte) pixel;
+                currentRow[offset++] = (byte) (pixel >>> 24);
+            }
+            writeRow();
+        }
+    }
+
+    /** Pads any remaining rows with transparent pixels and writes the end of the image. */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        while (rowsWritten < height) {
+            Arrays.fill(currentRow, (byte) 0);
+            writeRow();
+        }
+        idat.finish();
+        idat.flush();
+        writeChunk("IEND", new byte[0], 0);
+        out.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeRow() throws IOException {
+        // Adaptive filtering with the minimum-sum-of-absolute-differences heuristic
+        int bestFilter = FILTER_NONE;
+        long bestSum = filter(FILTER_NONE, bestRow);
+        for (int type : new int[] {FILTER_SUB, FILTER_UP, FILTER_PAETH}) {
+            long sum = filter(type, filteredRow);
+            if (sum < bestSum) {
+                bestSum = sum;
+                bestFilter = type;
+                System.arraycopy(filteredRow, 0, bestRow, 0, filteredRow.length);
+            }
+        }
+        idat.write(bestFilter);
+        idat.write(bestRow);
+
+        byte[] swap = previousRow;
+        previousRow = currentRow;
+        currentRow = swap;
+        rowsWritten++;
+    }
+
+    private long filter(int type, byte[] target) {
+        long sum = 0;
+        for (int i = 0; i < currentRow.length; i++) {
+            int raw = currentRow[i] & 0xFF;
+            int left = i >= BYTES_PER_PIXEL ? currentRow[i - BYTES_PER_PIXEL] & 0xFF : 0;
+            int up = previousRow[i] & 0xFF;
+            int predicted =
+                    switch (type) {
+                        case FILTER_SUB -> left;
+                        case FILTER_UP -> up;
+                        case FILTER_PAETH ->
+                                paeth(
+                                        left,
+                                        up,
+                                        i >= BYTES_PER_PIXEL
+                                                ? previousRow[i - BYTES_PER_PIXEL] & 0xFF
+                                                : 0);
+                        default -> 0;
+                    };
+            byte value = (byte) (raw - predicted);
+            target[i] = value;
+            sum += Math.abs((int) value);
+        }
+        return sum;
+    }
+
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        DataOutputStream chunk = new DataOutputStream(out);
+        chunk.writeInt(length);
+        chunk.write(typeBytes);
+        chunk.write(data, 0, length);
+        chunk.writeInt((int) crc.getValue());
+    }
+
+    /** Buffers compressed data and emits it as a sequence of IDAT chunks. */
+    private class IdatOutputStream extends OutputStream {
+
+        private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+        private int count;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                int n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushChunk();
+        }
+
+        private void flushChunk() throws IOException {
+            if (count > 0) {
+                writeChunk("IDAT", buffer, count);
+                count = 0;
+            }
+        }
+    }
+}
@@ -102,6 +102,34 @@ public class TempFileManager {
         return registry.register(tempFile);
     }
 
+    /**
+     * Spool an uploaded file into a registered temporary file and return a handle to it. The part
+     * is handed to {@link MultipartFile#transferTo(File)}, which lets the servlet container move an
+     * upload it already buffered on disk instead of copying it. Files that are already spooled are
+     * returned as they are.
+     *
+     * <p>The original part must not be read again afterwards, since its content may have been
+     * moved. Delete the spooled file with {@link #deleteTempFile(Path)} once it is no longer
+     * needed.
+     *
+     * @param multipartFile The uploaded file
+     * @return A handle to the spooled file
+     * @throws IOException If an I/O error occurs
+     */
+    public PathMultipartFile spool(MultipartFile multipartFile) throws IOException {
+        if (multipartFile instanceof PathMultipartFile spooled) {
+            return spooled;
+        }
+        File tempFile = createTempFile(".upload");
+        try {
+            multipartFile.transferTo(tempFile);
+        } catch (IOException | RuntimeException e) {
+            deleteTempFile(tempFile);
+            throw e;
+        }
+        return PathMultipartFile.of(tempFile.toPath(), multipartFile);
+    }
+
     /**
      * Delete a temporary file and unregister it from the registry.
      *
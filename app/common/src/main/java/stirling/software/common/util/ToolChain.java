@@ -0,0 +1,191 @@
+package stirling.software.common.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs a sequence of file-to-file processing stages (external tools such as qpdf or Ghostscript, or
+ * in-process PDFBox passes) over one document. Each stage writes straight into a fresh temp file
+ * that becomes the next stage's input, so nothing is copied back over the previous file, and an
+ * intermediate file is deleted as soon as the stage after it has succeeded. Stages that report they
+ * left the document unchanged, or whose precondition says there is nothing to do, are skipped
+ * without touching the current file.
+ *
+ * <p>Every stage's timing and size delta is recorded and passed to the note sink, which callers
+ * normally wire to the job notes of the running task.
+ *
+ * <p>PDF readers need random access to their input, so stages hand over complete files rather than
+ * pipes; tools that can stream (for example reading an image from stdin) should do so inside their
+ * stage via {@link ProcessExecutor.StdinWriter}.
+ */
+@Slf4j
+public class ToolChain implements AutoCloseable {
+
+    private final TempFileManager tempFileManager;
+    private final String suffix;
+    private final Consumer<String> notes;
+    private final Path input;
+    private final List<StageReport> reports = new ArrayList<>();
+
+    private TempFile currentTempFile;
+
+    /**
+     * @param tempFileManager creates the intermediate files
+     * @param input the first stage's input; never modified or deleted by the chain
+     * @param suffix file suffix for intermediate files, e.g. {@code .pdf}
+     * @param notes receives one line per stage; may be null
+     */
+    public ToolChain(
+            TempFileManager tempFileManager, Path input, String suffix, Consumer<String> notes) {
+        this.tempFileManager = tempFileManager;
+        this.input = input;
+        this.suffix = suffix;
+        this.notes = notes;
+    }
+
+    /** A stage reading {@code input} and writing its result to {@code output}. */
+    @FunctionalInterface
+    public interface Stage {
+        /**
+         * @return false if the stage found nothing to change; {@code output} is then discarded and
+         *     the chain carries on with {@code input}
+         */
+        boolean apply(Path input, Path output) throws IOException, InterruptedException;
+    }
+
+    /** Decides up front whether a stage would have any effect on its input. */
+    @FunctionalInterface
+    public interface Precondition {
+        boolean test(Path input) throws IOException;
+    }
+
+    public enum Outcome {
+        APPLIED,
+        UNCHANGED,
+        SKIPPED,
+        FAILED
+    }
+
+    /** Timing and size delta of one stage. Sizes are -1 when unknown. */
+    public record StageReport(
+            String name, Outcome outcome, long durationMillis, long inputBytes, long outputBytes) {
+
+        public String toNote() {
+            return switch (outcome) {
+                case SKIPPED -> name + ": skipped, nothing to do";
+                case UNCHANGED ->
+                        String.format(Locale.ROOT, "%s: no changes (%d ms)", name, durationMillis);
+                case FAILED ->
+                        String.format(Locale.ROOT, "%s: failed after %d ms", name, durationMillis);
+                case APPLIED ->
+                        String.format(
+                                Locale.ROOT,
+                                "%s: %s -> %s (%+.1f%%) in %d ms",
+                                name,
+                                GeneralUtils.formatBytes(inputBytes),
+                                GeneralUtils.formatBytes(outputBytes),
+                                inputBytes > 0
+                                        ? (outputBytes - inputBytes) * 100.0 / inputBytes
+                                        : 0.0,
+                                durationMillis);
+            };
+        }
+    }
+
+    /** The output of the last stage that changed the document, or the original input. */
+    public Path current() {
+        return currentTempFile != null ? currentTempFile.getPath() : input;
+    }
+
+    public Path getInput() {
+        return input;
+    }
+
+    public List<StageReport> getReports() {
+        return List.copyOf(reports);
+    }
+
+    /** Runs {@code stage} on the current file. */
+    public boolean run(String name, Stage stage) throws IOException, InterruptedException {
+        return run(name, null, stage);
+    }
+
+    /**
+     * Runs {@code stage} on the current file unless {@code precondition} says it would have no
+     * effect.
+     *
+     * @return true if the stage produced a new current file
+     */
+    public boolean run(String name, Precondition precondition, Stage stage)
+            throws IOException, InterruptedException {
+        Path stageInput = current();
+        if (precondition != null && !precondition.test(stageInput)) {
+            record(new StageReport(name, Outcome.SKIPPED, 0, -1, -1));
+            return false;
+        }
+
+        long inputBytes = Files.size(stageInput);
+        long start = System.nanoTime();
+        TempFile output = new TempFile(tempFileManager, suffix);
+        boolean changed;
+        try {
+            changed = stage.apply(stageInput, output.getPath());
+            if (changed && (!Files.exists(output.getPath()) || Files.size(output.getPath()) == 0)) {
+                throw new IOException(name + " did not produce any output");
+            }
+        } catch (IOException | InterruptedException | RuntimeException | Error e) {
+            output.close();
+            record(new StageReport(name, Outcome.FAILED, elapsedMillis(start), inputBytes, -1));
+            throw e;
+        }
+
+        long duration = elapsedMillis(start);
+        if (!changed) {
+            output.close();
+            record(new StageReport(name, Outcome.UNCHANGED, duration, inputBytes, inputBytes));
+            return false;
+        }
+
+        if (currentTempFile != null) {
+            currentTempFile.close();
+        }
+        currentTempFile = output;
+        record(
+                new StageReport(
+                        name, Outcome.APPLIED, duration, inputBytes, Files.size(output.getPath())));
+        return true;
+    }
+
+    /** Deletes the current intermediate file, if any. Read {@link #current()} before closing. */
+    @Override
+    public void close() {
+        if (currentTempFile != null) {
+            currentTempFile.close();
+            currentTempFile = null;
+        }
+    }
+
+    private void record(StageReport report) {
+        reports.add(report);
+        String note = report.toNote();
+        log.info("{}", note);
+        if (notes != null) {
+            try {
+                notes.accept(note);
+            } catch (RuntimeException e) {
+                log.debug("Could not record tool chain note: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
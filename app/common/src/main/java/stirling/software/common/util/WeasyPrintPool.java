@@ -0,0 +1,466 @@
+package stirling.software.common.util;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.model.ApplicationProperties;
+
+/**
+ * Keeps long-lived WeasyPrint workers so HTML conversions do not pay the Python interpreter and
+ * font-config start-up for every document. A worker is a Python process running the same
+ * interpreter as the {@code weasyprint} command; it imports WeasyPrint once and then renders jobs
+ * read as JSON lines from its standard input, writing the PDF straight to the requested output file
+ * and answering with one JSON line on standard output.
+ *
+ * <p>Workers are started on first use and recycled after a number of jobs or once their resident
+ * memory grows past a limit. They exit by themselves when their standard input closes, so they do
+ * not outlive the application. If no worker can be started, for instance because the configured
+ * {@code weasyprint} is not a Python script, the pool disables itself and callers run the command
+ * line tool instead.
+ */
+@Slf4j
+public class WeasyPrintPool {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final long STARTUP_TIMEOUT_SECONDS = 60;
+
+    // Protocol output goes to a copy of the original stdout; anything else printed by WeasyPrint
+    // or native libraries ends up on stderr
+    static final String WORKER_SCRIPT =
+            """
+            import json, os, sys
+            try:
+                import resource
+            except ImportError:
+                resource = None
+            proto = os.fdopen(os.dup(1), "w", encoding="utf-8", buffering=1)
+            os.dup2(2, 1)
+            sys.stdout = sys.stderr
+            from weasyprint import HTML
+            proto.write(json.dumps({"ready": True}) + "\\n")
+            for line in sys.stdin:
+                if not line.strip():
+                    continue
+                try:
+                    job = json.loads(line)
+                    HTML(filename=job["input"], encoding=job.get("encoding"),
+                         base_url=job.get("baseUrl")).write_pdf(
+                        job["output"], pdf_forms=job.get("pdfForms", False))
+                    reply = {"ok": True}
+                except Exception as e:
+                    reply = {"ok": False, "error": "%s: %s" % (type(e).__name__, e)}
+                if resource is not None:
+                    reply["rssKb"] = resource.getrusage(resource.RUSAGE_SELF).ru_maxrss
+                proto.write(json.dumps(reply) + "\\n")
+            """;
+
+    private final String weasyPrintPath;
+    private final int maxJobsPerWorker;
+    private final long maxWorkerMemoryKb;
+    private final Semaphore permits;
+    private final BlockingQueue<Worker> idleWorkers = new LinkedBlockingQueue<>();
+    private final AtomicInteger startedWorkers = new AtomicInteger();
+    private volatile List<String> workerCommand;
+    private volatile boolean disabled;
+
+    public WeasyPrintPool(
+            String weasyPrintPath, ApplicationProperties.ProcessExecutor.WeasyPrintPool settings) {
+        this.weasyPrintPath = weasyPrintPath;
+        this.disabled = !settings.isEnabled();
+        this.permits = new Semaphore(settings.getSize());
+        this.maxJobsPerWorker = settings.getMaxJobsPerWorker();
+        this.maxWorkerMemoryKb = settings.getMaxWorkerMemoryMb() * 1024L;
+    }
+
+    WeasyPrintPool(List<String> workerCommand, int size, int maxJobsPerWorker, long maxMemoryKb) {
+        this.weasyPrintPath = null;
+        this.workerCommand = List.copyOf(workerCommand);
+        this.permits = new Semaphore(size);
+        this.maxJobsPerWorker = maxJobsPerWorker;
+        this.maxWorkerMemoryKb = maxMemoryKb;
+    }
+
+    public boolean isAvailable() {
+        return !disabled;
+    }
+
+    int startedWorkers() {
+        return startedWorkers.get();
+    }
+
+    int idleWorkers() {
+        return idleWorkers.size();
+    }
+
+    /**
+     * Renders {@code job} on a pooled worker.
+     *
+     * @return {@code false} if the pool is not available and the job was not run, in which case the
+     *     caller should fall back to the command line tool
+     * @throws IOException if the worker failed to render the document or did not answer in time
+     */
+    public boolean render(Job job, long timeoutMinutes) throws IOException, InterruptedException {
+        if (disabled) {
+            return false;
+        }
+        permits.acquire();
+        try {
+            Worker worker = idleWorkers.poll();
+            if (worker == null) {
+                worker = startWorker();
+                if (worker == null) {
+                    return false;
+                }
+            }
+            JsonNode reply = null;
+            try {
+                reply = worker.render(job, timeoutMinutes);
+            } finally {
+                if (reply != null && worker.isReusable(reply) && !disabled) {
+                    idleWorkers.offer(worker);
+                    // A shutdown that drained the idle workers just before the offer missed it
+                    if (disabled && idleWorkers.remove(worker)) {
+                        worker.destroy();
+                    }
+                } else {
+                    worker.destroy();
+                }
+            }
+            if (!reply.path("ok").asBoolean(false)) {
+                throw new IOException(
+                        "WeasyPrint conversion failed: " + reply.path("error").asText(""));
+            }
+            return true;
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Stops all idle workers. Busy workers are stopped when their current job finishes. */
+    public void shutdown() {
+        disabled = true;
+        Worker worker;
+        while ((worker = idleWorkers.poll()) != null) {
+            worker.destroy();
+        }
+    }
+
+    private Worker startWorker() throws InterruptedException {
+        List<String> command = resolveWorkerCommand();
+        if (command == null) {
+            disable("the WeasyPrint interpreter could not be determined from " + weasyPrintPath);
+            return null;
+        }
+        Worker worker = null;
+        try {
+            worker = new Worker(new ProcessBuilder(command).start());
+            if (worker.awaitReady()) {
+                int started = startedWorkers.incrementAndGet();
+                log.debug("Started WeasyPrint worker #{}", started);
+                return worker;
+            }
+            disable("the worker did not start: " + worker.lastErrorLine());
+        } catch (IOException e) {
+            disable("the worker could not be launched: " + e.getMessage());
+        }
+        if (worker != null) {
+            worker.destroy();
+        }
+        return null;
+    }
+
+    private void disable(String reason) {
+        if (!disabled) {
+            disabled = true;
+            log.warn("WeasyPrint worker pool disabled, using the command line tool: {}", reason);
+        }
+    }
+
+    private List<String> resolveWorkerCommand() {
+        if (workerCommand == null) {
+            List<String> interpreter = findInterpreter(weasyPrintPath);
+            if (interpreter == null) {
+                return null;
+            }
+            List<String> command = new ArrayList<>(interpreter);
+            command.add("-c");
+            command.add(WORKER_SCRIPT);
+            workerCommand = List.copyOf(command);
+        }
+        return workerCommand;
+    }
+
+    /** Reads the interpreter from the shebang line of the {@code weasyprint} entry point script. */
+    static List<String> findInterpreter(String weasyPrintPath) {
+        Path script = locate(weasyPrintPath);
+        if (script == null) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(script, StandardCharsets.UTF_8)) {
+            String firstLine = reader.readLine();
+            if (firstLine == null || !firstLine.startsWith("#!")) {
+                return null;
+            }
+            List<String> interpreter =
+                    Arrays.stream(firstLine.substring(2).trim().split("\\s+"))
+                            .filter(part -> !part.isEmpty())
+                            .toList();
+            if (interpreter.isEmpty()
+                    || interpreter.stream()
+                            .noneMatch(part -> part.toLowerCase(Locale.ROOT).contains("python"))) {
+                return null;
+            }
+            return interpreter;
+        } catch (IOException | RuntimeException e) {
+            // Binary launchers (e.g. weasyprint.exe) cannot be decoded; they have no shebang
+            return null;
+        }
+    }
+
+    private static Path locate(String executable) {
+        if (executable == null || executable.isBlank()) {
+            return null;
+        }
+        if (executable.contains("/") || executable.contains("\\")) {
+            Path path = Path.of(executable);
+            return Files.isRegularFile(path) ? path : null;
+        }
+        String pathVariable = System.getenv("PATH");
+        if (pathVariable == null) {
+            return null;
+        }
+        for (String directory : pathVariable.split(java.io.File.pathSeparator)) {
+            if (directory.isBlank()) {
+                continue;
+            }
+            Path candidate = Path.of(directory, executable);
+            if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One conversion. Only the plain file-to-file form of the WeasyPrint command line is pooled;
+     * anything else keeps running through the command line tool.
+     *
+     * @param input the HTML file to render
+     * @param output where the PDF is written
+     * @param encoding the input encoding, or {@code null} to detect it
+     * @param baseUrl base for relative URLs, or {@code null} for the directory of {@code input}
+     * @param pdfForms whether to create PDF forms from HTML form elements
+     */
+    public record Job(
+            String input, String output, String encoding, String baseUrl, boolean pdfForms) {
+
+        /**
+         * Maps a WeasyPrint command line ({@code weasyprint [options] input output}) to a job.
+         *
+         * @return the job, or {@code null} if the command uses anything the pool does not support
+         */
+        public static Job fromCommand(List<String> command) {
+            String encoding = null;
+            String baseUrl = null;
+            boolean pdfForms = false;
+            List<String> positional = new ArrayList<>(2);
+            for (int i = 1; i < command.size(); i++) {
+                String arg = command.get(i);
+                switch (arg) {
+                    case "-e", "--encoding" -> {
+                        if (++i >= command.size()) {
+                            return null;
+                        }
+                        encoding = command.get(i);
+                    }
+                    case "-u", "--base-url" -> {
+                        if (++i >= command.size()) {
+                            return null;
+                        }
+                        baseUrl = command.get(i);
+                    }
+                    case "--pdf-forms" -> pdfForms = true;
+                    case "-v", "--verbose" -> {
+                        // Worker output is not shown, verbosity makes no difference
+                    }
+                    default -> {
+                        if (arg.startsWith("-")) {
+                            return null;
+                        }
+                        positional.add(arg);
+                    }
+                }
+            }
+            if (positional.size() != 2) {
+                return null;
+            }
+            String input = positional.get(0);
+            String output = positional.get(1);
+            // ZIP archives and relative paths are left to the command line tool
+            if (input.toLowerCase(Locale.ROOT).endsWith(".zip")
+                    || !Path.of(input).isAbsolute()
+                    || !Path.of(output).isAbsolute()) {
+                return null;
+            }
+            return new Job(input, output, encoding, baseUrl, pdfForms);
+        }
+
+        String toJson() throws IOException {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("input", input);
+            json.put("output", output);
+            json.put("encoding", encoding);
+            json.put("baseUrl", baseUrl);
+            json.put("pdfForms", pdfForms);
+            return objectMapper.writeValueAsString(json);
+        }
+    }
+
+    private class Worker {
+
+        private final Process process;
+        private final BufferedWriter stdin;
+        private final BlockingQueue<String> replies = new LinkedBlockingQueue<>();
+        private volatile String lastErrorLine = "";
+        private int jobs;
+
+        Worker(Process process) {
+            this.process = process;
+            this.stdin =
+                    new BufferedWriter(
+                            new OutputStreamWriter(
+                                    process.getOutputStream(), StandardCharsets.UTF_8));
+            startReader(
+                    "weasyprint-worker-out",
+                    new BufferedReader(
+                            new InputStreamReader(
+                                    process.getInputStream(), StandardCharsets.UTF_8)),
+                    true);
+            startReader(
+                    "weasyprint-worker-err",
+                    new BufferedReader(
+                            new InputStreamReader(
+                                    process.getErrorStream(), StandardCharsets.UTF_8)),
+                    false);
+        }
+
+        private void startReader(String name, BufferedReader reader, boolean protocol) {
+            Thread thread =
+                    new Thread(
+                            () -> {
+                                try (reader) {
+                                    String line;
+                                    while ((line = reader.readLine()) != null) {
+                                        if (protocol) {
+                                            replies.offer(line);
+                                        } else if (!line.isBlank()) {
+                                            lastErrorLine = line;
+                                            log.debug("WeasyPrint worker: {}", line);
+                                        }
+                                    }
+                                } catch (IOException e) {
+                                    log.debug("WeasyPrint worker stream closed", e);
+                                }
+                            },
+                            name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        boolean awaitReady() throws InterruptedException {
+            String line = replies.poll(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (line == null) {
+                return false;
+            }
+            try {
+                return objectMapper.readTree(line).path("ready").asBoolean(false);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        String lastErrorLine() {
+            return lastErrorLine;
+        }
+
+        /** Sends the job and waits for the worker's reply. */
+        JsonNode render(Job job, long timeoutMinutes) throws IOException, InterruptedException {
+            stdin.write(job.toJson());
+            stdin.newLine();
+            stdin.flush();
+            jobs++;
+
+            // Poll in slices so a crashed worker is noticed without waiting for the timeout
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(timeoutMinutes);
+            String line = null;
+            while (line == null && System.nanoTime() < deadline) {
+                line = replies.poll(1, TimeUnit.SECONDS);
+                if (line == null && !process.isAlive()) {
+                    // The reader may still be handing over the last line
+                    line = replies.poll(1, TimeUnit.SECONDS);
+                    break;
+                }
+            }
+            if (line == null) {
+                throw new IOException(
+                        process.isAlive()
+                                ? "Process timeout exceeded."
+                                : "WeasyPrint worker exited: " + lastErrorLine);
+            }
+            return objectMapper.readTree(line);
+        }
+
+        /** Whether the worker can take another job after answering with {@code reply}. */
+        boolean isReusable(JsonNode reply) {
+            if (jobs >= maxJobsPerWorker) {
+                log.debug("Recycling WeasyPrint worker after {} jobs", jobs);
+                return false;
+            }
+            long rssKb = reply.path("rssKb").asLong(0);
+            if (maxWorkerMemoryKb > 0 && rssKb > maxWorkerMemoryKb) {
+                log.debug("Recycling WeasyPrint worker using {} KB", rssKb);
+                return false;
+            }
+            return process.isAlive();
+        }
+
+        void destroy() {
+            try {
+                // Closing stdin ends the worker loop; force it only if it does not stop
+                stdin.close();
+            } catch (IOException e) {
+                log.debug("Failed to close WeasyPrint worker input", e);
+            }
+            try {
+                if (!process.waitFor(2, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
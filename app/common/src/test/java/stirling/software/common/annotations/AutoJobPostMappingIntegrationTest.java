@@ -5,11 +5,18 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -20,6 +27,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -27,8 +35,12 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import stirling.software.common.aop.AutoJobAspect;
 import stirling.software.common.model.api.PDFFile;
+import stirling.software.common.model.api.converters.EmlToPdfRequest;
 import stirling.software.common.service.FileStorage;
 import stirling.software.common.service.JobExecutorService;
+import stirling.software.common.service.JobResultCache;
+import stirling.software.common.util.PathMultipartFile;
+import stirling.software.common.util.TempFileManager;
 
 @ExtendWith(MockitoExtension.class)
 class AutoJobPostMappingIntegrationTest {
@@ -41,9 +53,15 @@ class AutoJobPostMappingIntegrationTest {
 
     @Mock private FileStorage fileStorage;
 
+    @Mock private JobResultCache jobResultCache;
+
+    @Mock private TempFileManager tempFileManager;
+
     @BeforeEach
     void setUp() {
-        autoJobAspect = new AutoJobAspect(jobExecutorService, request, fileStorage);
+        autoJobAspect =
+                new AutoJobAspect(
+                        jobExecutorService, request, fileStorage, jobResultCache, tempFileManager);
     }
 
     @Mock private ProceedingJoinPoint joinPoint;
@@ -75,11 +93,16 @@ class AutoJobPostMappingIntegrationTest {
         when(autoJobPostMapping.queueable()).thenReturn(true);
         when(autoJobPostMapping.resourceWeight()).thenReturn(75);
 
-        MultipartFile mockFile = mock(MultipartFile.class);
-        when(fileStorage.retrieveFile("test-file-id")).thenReturn(mockFile);
+        PathMultipartFile mockFile = mock(PathMultipartFile.class);
+        when(fileStorage.openFile("test-file-id")).thenReturn(mockFile);
 
         when(jobExecutorService.runJobGeneric(
-                        anyBoolean(), any(Supplier.class), anyLong(), anyBoolean(), anyInt()))
+                        anyBoolean(),
+                        any(Supplier.class),
+                        anyLong(),
+                        anyBoolean(),
+                        anyInt(),
+                        any()))
                 .thenReturn(ResponseEntity.ok("success"));
 
         // When
@@ -94,7 +117,8 @@ class AutoJobPostMappingIntegrationTest {
                         workCaptor.capture(),
                         timeoutCaptor.capture(),
                         queueableCaptor.capture(),
-                        resourceWeightCaptor.capture());
+                        resourceWeightCaptor.capture(),
+                        isNull());
 
         assertTrue(asyncCaptor.getValue(), "Async should be true");
         assertEquals(60000L, timeoutCaptor.getValue(), "Timeout should be 60000ms");
@@ -123,7 +147,12 @@ class AutoJobPostMappingIntegrationTest {
 
         // Mock jobExecutorService to execute the work immediately
         when(jobExecutorService.runJobGeneric(
-                        anyBoolean(), any(Supplier.class), anyLong(), anyBoolean(), anyInt()))
+                        anyBoolean(),
+                        any(Supplier.class),
+                        anyLong(),
+                        anyBoolean(),
+                        anyInt(),
+                        any()))
                 .thenAnswer(
                         invocation -> {
                             Supplier<Object> work = invocation.getArgument(1);
@@ -152,11 +181,16 @@ class AutoJobPostMappingIntegrationTest {
         when(autoJobPostMapping.retryCount()).thenReturn(1);
 
         when(fileStorage.storeFile(any(MultipartFile.class))).thenReturn("stored-file-id");
-        when(fileStorage.retrieveFile("stored-file-id")).thenReturn(mock(MultipartFile.class));
+        when(fileStorage.openFile("stored-file-id")).thenReturn(mock(PathMultipartFile.class));
 
         // Mock job executor to return a successful response
         when(jobExecutorService.runJobGeneric(
-                        anyBoolean(), any(Supplier.class), anyLong(), anyBoolean(), anyInt()))
+                        anyBoolean(),
+                        any(Supplier.class),
+                        anyLong(),
+                        anyBoolean(),
+                        anyInt(),
+                        any()))
                 .thenReturn(ResponseEntity.ok("success"));
 
         // When
@@ -171,6 +205,130 @@ class AutoJobPostMappingIntegrationTest {
 
         // Verify storage operations
         verify(fileStorage).storeFile(any(MultipartFile.class));
-        verify(fileStorage).retrieveFile("stored-file-id");
+        verify(fileStorage).openFile("stored-file-id");
+    }
+
+    @Test
+    void shouldPassResultCacheKeyForCachedEndpoints() throws Throwable {
+        // Given
+        MultipartFile upload = mock(MultipartFile.class);
+        PathMultipartFile input = spooledFile("in.pdf");
+        PDFFile pdfFile = new PDFFile();
+        pdfFile.setFileInput(upload);
+        Map<String, String[]> parameters = Map.of("level", new String[] {"5"});
+
+        when(joinPoint.getArgs()).thenReturn(new Object[] {pdfFile});
+        when(request.getParameter("async")).thenReturn("false");
+        when(request.getRequestURI()).thenReturn("/app/api/v1/misc/compress-pdf");
+        when(request.getContextPath()).thenReturn("/app");
+        when(request.getParameterMap()).thenReturn(parameters);
+        when(autoJobPostMapping.retryCount()).thenReturn(1);
+        when(tempFileManager.spool(upload)).thenReturn(input);
+        when(jobResultCache.isEnabledFor("/api/v1/misc/compress-pdf")).thenReturn(true);
+        when(jobResultCache.keyFor(
+                        "/api/v1/misc/compress-pdf",
+                        parameters,
+                        Map.of("fileInput", List.of(input))))
+                .thenReturn("cache-key");
+        when(jobExecutorService.runJobGeneric(
+                        anyBoolean(),
+                        any(Supplier.class),
+                        anyLong(),
+                        anyBoolean(),
+                        anyInt(),
+                        eq("cache-key")))
+                .thenReturn(ResponseEntity.ok("cached"));
+
+        // When
+        Object result = autoJobAspect.wrapWithJobExecution(joinPoint, autoJobPostMapping);
+
+        // Then
+        assertEquals(ResponseEntity.ok("cached"), result);
+    }
+
+    @Test
+    void shouldSpoolSyncUploadsAndDeleteThemAfterTheJob() throws Throwable {
+        // Given
+        MultipartFile upload = mock(MultipartFile.class);
+        PathMultipartFile spooled = spooledFile("upload.pdf");
+        PDFFile pdfFile = new PDFFile();
+        pdfFile.setFileInput(upload);
+
+        when(joinPoint.getArgs()).thenReturn(new Object[] {pdfFile});
+        when(request.getParameter("async")).thenReturn("false");
+        when(autoJobPostMapping.retryCount()).thenReturn(1);
+        when(tempFileManager.spool(upload)).thenReturn(spooled);
+        when(jobExecutorService.runJobGeneric(
+                        anyBoolean(),
+                        any(Supplier.class),
+                        anyLong(),
+                        anyBoolean(),
+                        anyInt(),
+                        any()))
+                .thenAnswer(
+                        invocation -> {
+                            // The job sees the spooled file, not the original part
+                            assertSame(spooled, pdfFile.getFileInput());
+                            return ResponseEntity.ok("done");
+                        });
+
+        // When
+        Object result = autoJobAspect.wrapWithJobExecution(joinPoint, autoJobPostMapping);
+
+        // Then
+        assertEquals(ResponseEntity.ok("done"), result);
+        verify(tempFileManager).deleteTempFile(spooled.getPath());
+        verify(fileStorage, never()).storeFile(any(MultipartFile.class));
+    }
+
+    private static PathMultipartFile spooledFile(String name) {
+        return new PathMultipartFile(
+                Path.of("spooled-" + name), "fileInput", name, MediaType.APPLICATION_PDF_VALUE);
+    }
+
+    @Test
+    void shouldRunBatchRequestsOncePerFile() throws Throwable {
+        // Given
+        EmlToPdfRequest batchRequest = new EmlToPdfRequest();
+        batchRequest.setIncludeAttachments(true);
+        batchRequest.setFileIds(List.of("id-1", "id-2"));
+        Object[] args = {batchRequest, "other-arg"};
+
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(request.getParameter("async")).thenReturn("false");
+        PathMultipartFile first = mock(PathMultipartFile.class);
+        PathMultipartFile second = mock(PathMultipartFile.class);
+        when(fileStorage.openFile("id-1")).thenReturn(first);
+        when(fileStorage.openFile("id-2")).thenReturn(second);
+        when(jobExecutorService.runBatchJob(anyBoolean(), any(), any(), anyLong()))
+                .thenAnswer(invocation -> ResponseEntity.ok("zip"));
+        when(joinPoint.proceed(any())).thenReturn(ResponseEntity.ok("item"));
+
+        // When
+        Object result = autoJobAspect.wrapWithJobExecution(joinPoint, autoJobPostMapping);
+
+        // Then
+        assertEquals(ResponseEntity.ok("zip"), result);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MultipartFile>> inputs = ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Function<MultipartFile, Object>> work =
+                ArgumentCaptor.forClass(Function.class);
+        verify(jobExecutorService)
+                .runBatchJob(eq(false), inputs.capture(), work.capture(), anyLong());
+        assertEquals(List.of(first, second), inputs.getValue());
+        verify(jobExecutorService, never())
+                .runJobGeneric(anyBoolean(), any(), anyLong(), anyBoolean(), anyInt(), any());
+
+        // Each item runs the endpoint with a single-file copy of the request
+        work.getValue().apply(second);
+        ArgumentCaptor<Object[]> itemArgs = ArgumentCaptor.forClass(Object[].class);
+        verify(joinPoint).proceed(itemArgs.capture());
+        EmlToPdfRequest itemRequest = (EmlToPdfRequest) itemArgs.getValue()[0];
+        assertSame(second, itemRequest.getFileInput());
+        assertTrue(itemRequest.isIncludeAttachments());
+        assertNull(itemRequest.getFileIds());
+        assertEquals("other-arg", itemArgs.getValue()[1]);
+        assertEquals(List.of("id-1", "id-2"), batchRequest.getFileIds());
     }
 }
@@ -0,0 +1,123 @@
+package stirling.software.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+import stirling.software.common.annotations.AutoJobPostMapping;
+import stirling.software.common.annotations.api.GeneralApi;
+import stirling.software.common.model.ApiOperation;
+
+class ApiOperationRegistryTest {
+
+    private ApiOperationRegistry registry;
+
+    @GeneralApi
+    static class SampleApiController {
+        @AutoJobPostMapping(value = "/rotate", resourceWeight = 120, queueable = true)
+        @Operation(description = "Rotates pages. Input:PDF Output:PDF Type:SISO")
+        public void rotate() {}
+
+        @AutoJobPostMapping("/merge")
+        @Operation(description = "Merges files. Input:PDF Output:PDF Type:MISO")
+        public void merge(
+                @RequestParam("sortType") String sortType,
+                @RequestParam(name = "optional", required = false) String optional,
+                @RequestParam(name = "withDefault", defaultValue = "x") String withDefault,
+                @RequestParam("fileInput") MultipartFile[] files) {}
+
+        @PostMapping("/plain")
+        @Operation(description = "Input:PDF Output:ZIP Output:IMAGE Type:SIMO")
+        public void plain() {}
+    }
+
+    static class NonApiController {
+        @PostMapping("/internal")
+        public void internal() {}
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<RequestMappingHandlerMapping> provider = mock(ObjectProvider.class);
+        registry = new ApiOperationRegistry(provider);
+
+        Map<RequestMappingInfo, HandlerMethod> handlers = new LinkedHashMap<>();
+        SampleApiController api = new SampleApiController();
+        put(handlers, api, "rotate", "/api/v1/general/rotate");
+        put(handlers, api, "merge", "/api/v1/general/merge");
+        put(handlers, api, "plain", "/api/v1/general/plain");
+        put(handlers, new NonApiController(), "internal", "/internal");
+        registry.register(handlers);
+    }
+
+    @Test
+    void registersAnnotatedOperationsOnly() {
+        assertEquals(3, registry.getOperations().size());
+        assertTrue(registry.find("/internal").isEmpty());
+    }
+
+    @Test
+    void readsTypesFromDescription() {
+        ApiOperation plain = registry.find("/api/v1/general/plain").orElseThrow();
+        assertEquals(List.of("PDF"), plain.getInputTypes());
+        assertEquals(List.of("ZIP", "IMAGE"), plain.getOutputTypes());
+        assertEquals("SIMO", plain.getType());
+        assertFalse(plain.isMultiInput());
+        assertFalse(plain.isAutoJob());
+
+        assertTrue(registry.find("/api/v1/general/merge").orElseThrow().isMultiInput());
+    }
+
+    @Test
+    void readsAutoJobSettingsAndClampsWeight() {
+        ApiOperation rotate = registry.find("/api/v1/general/rotate").orElseThrow();
+        assertTrue(rotate.isAutoJob());
+        assertTrue(rotate.isQueueable());
+        assertEquals(100, rotate.getResourceWeight());
+    }
+
+    @Test
+    void listsRequestParamsButNotFileParts() {
+        ApiOperation merge = registry.find("/api/v1/general/merge").orElseThrow();
+        assertEquals(Set.of("sortType", "optional", "withDefault"), merge.getParameters());
+    }
+
+    private void put(
+            Map<RequestMappingInfo, HandlerMethod> handlers,
+            Object bean,
+            String methodName,
+            String path)
+            throws NoSuchMethodException {
+        Method method = null;
+        for (Method candidate : bean.getClass().getMethods()) {
+            if (candidate.getName().equals(methodName)) {
+                method = candidate;
+            }
+        }
+        if (method == null) {
+            throw new NoSuchMethodException(methodName);
+        }
+        handlers.put(
+                RequestMappingInfo.paths(path).methods(RequestMethod.POST).build(),
+                new HandlerMethod(bean, method));
+    }
+}
@@ -0,0 +1,226 @@
+package stirling.software.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.MultipartConfigElement;
+
+import stirling.software.common.util.ChecksumUtils;
+
+class ChunkedUploadServiceTest {
+
+    private static final int CHUNK = ChunkedUploadService.MIN_CHUNK_SIZE;
+
+    @TempDir Path tempDir;
+
+    private FileStorage fileStorage;
+    private ChunkedUploadService service;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() {
+        fileStorage = new FileStorage(mock(FileOrUploadService.class));
+        ReflectionTestUtils.setField(fileStorage, "tempDirPath", tempDir.toString());
+        service = new ChunkedUploadService(fileStorage);
+
+        // Two full chunks and a short last one
+        content = new byte[CHUNK * 2 + 1000];
+        new Random(42).nextBytes(content);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void uploadsChunksOutOfOrderAndPublishesTheFile() throws IOException {
+        ChunkedUploadService.UploadStatus created =
+                service.createSession(content.length, CHUNK, null);
+        String uploadId = created.uploadId();
+        assertEquals(3, created.totalChunks());
+        assertEquals(List.of(0, 1, 2), created.missingChunks());
+
+        send(uploadId, 2);
+        send(uploadId, 0);
+        ChunkedUploadService.UploadStatus status = send(uploadId, 1);
+        assertEquals(3, status.committedChunks());
+        assertEquals(-1, status.nextChunk());
+
+        ChunkedUploadService.CompletedUpload completed =
+                service.complete(uploadId, checksum(content));
+
+        assertEquals(content.length, completed.fileSize());
+        assertArrayEquals(content, fileStorage.openFile(completed.fileId()).getBytes());
+        assertThrows(NoSuchElementException.class, () -> service.getStatus(uploadId));
+    }
+
+    @Test
+    void rejectsCorruptChunkAndResumesFromTheMissingOne() throws IOException {
+        String uploadId = service.createSession(content.length, CHUNK, "sha-256").uploadId();
+        send(uploadId, 0);
+
+        byte[] corrupted = chunk(1);
+        corrupted[10] ^= 1;
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        service.writeChunk(
+                                uploadId,
+                                1,
+                                new ByteArrayInputStream(corrupted),
+                                checksum(chunk(1))));
+
+        ChunkedUploadService.UploadStatus status = service.getStatus(uploadId);
+        assertEquals(1, status.committedChunks());
+        assertEquals(1, status.nextChunk());
+        assertThrows(IllegalArgumentException.class, () -> service.complete(uploadId, null));
+
+        send(uploadId, 1);
+        send(uploadId, 2);
+        String fileId = service.complete(uploadId, null).fileId();
+        assertArrayEquals(content, fileStorage.retrieveBytes(fileId));
+    }
+
+    @Test
+    void rejectsChunksOfTheWrongLength() throws IOException {
+        String uploadId = service.createSession(content.length, CHUNK, "CRC32").uploadId();
+        byte[] tooShort = Arrays.copyOf(chunk(0), CHUNK - 1);
+        byte[] tooLong = Arrays.copyOf(chunk(2), 1001);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        service.writeChunk(
+                                uploadId,
+                                0,
+                                new ByteArrayInputStream(tooShort),
+                                ChecksumUtils.checksum(
+                                        new ByteArrayInputStream(tooShort), "CRC32")));
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        service.writeChunk(
+                                uploadId,
+                                2,
+                                new ByteArrayInputStream(tooLong),
+                                ChecksumUtils.checksum(
+                                        new ByteArrayInputStream(tooLong), "CRC32")));
+        assertEquals(0, service.getStatus(uploadId).committedChunks());
+    }
+
+    @Test
+    void rejectsFilesOverTheUploadLimit() throws IOException {
+        ReflectionTestUtils.setField(
+                service,
+                "multipartConfig",
+                new MultipartConfigElement(null, CHUNK * 2L, CHUNK * 2L, 0));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.createSession(content.length, CHUNK, null));
+        assertEquals(2, service.createSession(CHUNK * 2L, CHUNK, null).totalChunks());
+    }
+
+    @Test
+    void abortDeletesTheReservedFile() throws IOException {
+        String uploadId = service.createSession(content.length, CHUNK, null).uploadId();
+        send(uploadId, 0);
+
+        assertTrue(service.abort(uploadId));
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+        assertFalse(service.abort(uploadId));
+    }
+
+    @Test
+    void rejectsChunksAndAbortWhileCompleting() throws IOException {
+        String uploadId = service.createSession(content.length, CHUNK, null).uploadId();
+        send(uploadId, 0);
+        send(uploadId, 1);
+        send(uploadId, 2);
+        Map<?, ?> sessions = (Map<?, ?>) ReflectionTestUtils.getField(service, "sessions");
+        Object session = sessions.get(uploadId);
+        ReflectionTestUtils.setField(session, "completing", true);
+
+        assertThrows(IllegalStateException.class, () -> send(uploadId, 1));
+        assertThrows(IllegalStateException.class, () -> service.abort(uploadId));
+        assertThrows(IllegalStateException.class, () -> service.complete(uploadId, null));
+
+        ReflectionTestUtils.setField(session, "completing", false);
+        String fileId = service.complete(uploadId, checksum(content)).fileId();
+        assertArrayEquals(content, fileStorage.openFile(fileId).getBytes());
+        assertThrows(NoSuchElementException.class, () -> send(uploadId, 1));
+    }
+
+    @Test
+    void acceptsChunksAgainAfterFailedCompletion() throws IOException {
+        String uploadId = service.createSession(content.length, CHUNK, null).uploadId();
+        send(uploadId, 0);
+        send(uploadId, 1);
+        send(uploadId, 2);
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.complete(uploadId, checksum(new byte[] {1})));
+
+        assertEquals(3, send(uploadId, 2).committedChunks());
+        assertEquals(content.length, service.complete(uploadId, null).fileSize());
+    }
+
+    @Test
+    void deletesPartialFilesLeftByEarlierRuns() throws IOException {
+        Path leftover = tempDir.resolve("leftover.part");
+        Files.write(leftover, new byte[] {1, 2, 3});
+        Files.setLastModifiedTime(leftover, FileTime.fromMillis(0));
+        String uploadId = service.createSession(content.length, CHUNK, null).uploadId();
+
+        service.deleteLeftoverPartialFiles(System.currentTimeMillis() + 60_000);
+
+        assertFalse(Files.exists(leftover));
+        send(uploadId, 0);
+        assertEquals(1, service.getStatus(uploadId).committedChunks());
+    }
+
+    @Test
+    void rejectsInvalidSessions() {
+        assertThrows(IllegalArgumentException.class, () -> service.createSession(0, null, null));
+        assertThrows(IllegalArgumentException.class, () -> service.createSession(100, 1024, null));
+        assertThrows(
+                IllegalArgumentException.class, () -> service.createSession(100, null, "ROT13"));
+    }
+
+    private ChunkedUploadService.UploadStatus send(String uploadId, int index) throws IOException {
+        byte[] chunk = chunk(index);
+        return service.writeChunk(
+                uploadId, index, new ByteArrayInputStream(chunk), checksum(chunk));
+    }
+
+    private byte[] chunk(int index) {
+        int from = index * CHUNK;
+        return Arrays.copyOfRange(content, from, Math.min(content.length, from + CHUNK));
+    }
+
+    private static String checksum(byte[] data) throws IOException {
+        return ChecksumUtils.checksum(new ByteArrayInputStream(data), "SHA-256");
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 
 import stirling.software.common.model.api.PDFFile;
+import stirling.software.common.util.PathMultipartFile;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -109,6 +110,39 @@ class CustomPDFDocumentFactoryTest {
         }
     }
 
+    @Test
+    void testLoadKeepingFileLeavesSmallFileInPlace() throws IOException {
+        File file = writeTempFile(inflatePdf(basePdfBytes, 1));
+        try (PDDocument doc = factory.loadKeepingFile(file.toPath(), true)) {
+            assertNotNull(doc);
+        }
+        assertTrue(file.exists());
+    }
+
+    @Test
+    void testLoadKeepingFileLeavesLargeFileInPlaceAfterClose() throws IOException {
+        File file = writeTempFile(inflatePdf(basePdfBytes, 20));
+        try (PDDocument doc = factory.loadKeepingFile(file.toPath(), true)) {
+            assertTrue(doc.getNumberOfPages() > 0);
+        }
+        assertTrue(file.exists());
+        Files.delete(file.toPath());
+    }
+
+    @Test
+    void testLoadSpooledUploadOpensFileInPlace() throws IOException {
+        File file = writeTempFile(inflatePdf(basePdfBytes, 20));
+        PathMultipartFile upload =
+                new PathMultipartFile(
+                        file.toPath(), "fileInput", "doc.pdf", MediaType.APPLICATION_PDF_VALUE);
+        try (PDDocument doc = factory.load(upload, true)) {
+            assertTrue(doc.getNumberOfPages() > 0);
+            Assertions.assertEquals(StrategyType.MIXED, factory.lastStrategyUsed);
+        }
+        assertTrue(file.exists());
+        Files.delete(file.toPath());
+    }
+
     @Test
     void testLoadFromStringPath() throws IOException {
         File file = writeTempFile(inflatePdf(basePdfBytes, 5));
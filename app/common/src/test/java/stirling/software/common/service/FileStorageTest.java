@@ -17,6 +17,8 @@ import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import stirling.software.common.util.PathMultipartFile;
+
 class FileStorageTest {
 
     @TempDir Path tempDir;
@@ -98,6 +100,29 @@ class FileStorageTest {
         verify(fileOrUploadService).toMockMultipartFile(eq(fileId), eq(fileContent));
     }
 
+    @Test
+    void testOpenFile() throws IOException {
+        // Arrange
+        byte[] fileContent = "Test PDF content".getBytes();
+        String fileId = "test-file-5";
+        Path filePath = tempDir.resolve(fileId);
+        Files.write(filePath, fileContent);
+
+        // Act
+        PathMultipartFile result = fileStorage.openFile(fileId);
+
+        // Assert
+        assertEquals(filePath.toAbsolutePath(), result.getPath());
+        assertEquals(fileContent.length, result.getSize());
+        assertArrayEquals(fileContent, result.getBytes());
+        verifyNoInteractions(fileOrUploadService);
+    }
+
+    @Test
+    void testOpenFile_FileNotFound() {
+        assertThrows(IOException.class, () -> fileStorage.openFile("non-existent-file"));
+    }
+
     @Test
     void testRetrieveBytes() throws IOException {
         // Arrange
@@ -185,4 +210,18 @@ class FileStorageTest {
         // Assert
         assertFalse(result);
     }
+
+    @Test
+    void testPartialFilesReserveSpaceUntilCommittedOrDeleted() throws IOException {
+        // Act
+        String committed = fileStorage.createPartialFile(1000);
+        String deleted = fileStorage.createPartialFile(500);
+
+        // Assert
+        assertEquals(1500, fileStorage.getReservedPartialBytes());
+        fileStorage.commitPartialFile(committed);
+        assertEquals(500, fileStorage.getReservedPartialBytes());
+        assertTrue(fileStorage.deletePartialFile(deleted));
+        assertEquals(0, fileStorage.getReservedPartialBytes());
+    }
 }
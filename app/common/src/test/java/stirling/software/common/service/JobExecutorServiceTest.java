@@ -1,20 +1,36 @@
 package stirling.software.common.service;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,12 +40,19 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
 
 import stirling.software.common.model.job.JobResponse;
+import stirling.software.common.model.job.ResultFile;
+import stirling.software.common.util.PathMultipartFile;
 
 @ExtendWith(MockitoExtension.class)
 class JobExecutorServiceTest {
@@ -207,4 +230,204 @@ class JobExecutorServiceTest {
             assertInstanceOf(TimeoutException.class, e.getCause());
         }
     }
+
+    @Test
+    void shouldServeCachedResultWithoutRunningWork() throws Exception {
+        // Given
+        JobResultCache cache = Mockito.mock(JobResultCache.class);
+        ReflectionTestUtils.setField(jobExecutorService, "jobResultCache", cache);
+        byte[] cachedBytes = {1, 2, 3};
+        when(cache.get("key"))
+                .thenReturn(
+                        Optional.of(
+                                new JobResultCache.CachedResult(
+                                        cachedBytes, "application/pdf", "")));
+        Supplier<Object> work =
+                () -> {
+                    throw new AssertionError("work must not run on a cache hit");
+                };
+
+        // When
+        ResponseEntity<?> response =
+                jobExecutorService.runJobGeneric(false, work, -1, false, 50, "key");
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(cachedBytes, (byte[]) response.getBody());
+    }
+
+    @Test
+    void shouldStoreResultOnCacheMiss() throws Exception {
+        // Given
+        JobResultCache cache = Mockito.mock(JobResultCache.class);
+        ReflectionTestUtils.setField(jobExecutorService, "jobResultCache", cache);
+        when(cache.get("key")).thenReturn(Optional.empty());
+        byte[] result = {4, 5, 6};
+
+        // When
+        jobExecutorService.runJobGeneric(false, () -> result, -1, false, 50, "key");
+
+        // Then
+        verify(cache).put("key", result);
+    }
+
+    @Test
+    void shouldZipSyncBatchResultsInInputOrder() throws Exception {
+        // Given
+        Map<String, byte[]> stored = stubFileStorage();
+        List<MultipartFile> inputs =
+                List.of(upload("a.pdf"), upload("bad.pdf"), upload("a.pdf"), upload("b.pdf"));
+
+        // When
+        ResponseEntity<?> response =
+                jobExecutorService.runBatchJob(false, inputs, this::processUpload, -1);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, String> entries = zipEntries(response);
+        assertEquals(
+                List.of("a.pdf", "a (2).pdf", "b.pdf", "errors.txt"),
+                List.copyOf(entries.keySet()));
+        assertEquals("processed b.pdf", entries.get("b.pdf"));
+        assertTrue(entries.get("errors.txt").contains("bad.pdf: unreadable"));
+        // Results are removed from storage once streamed
+        for (String fileId : stored.keySet()) {
+            verify(fileStorage).deleteFile(fileId);
+        }
+    }
+
+    @Test
+    void shouldKeepErrorListingApartFromResultNamedLikeIt() throws Exception {
+        // Given
+        stubFileStorage();
+        List<MultipartFile> inputs = List.of(upload("errors.txt"), upload("bad.pdf"));
+
+        // When
+        ResponseEntity<?> response =
+                jobExecutorService.runBatchJob(false, inputs, this::processUpload, -1);
+
+        // Then
+        Map<String, String> entries = zipEntries(response);
+        assertEquals(List.of("errors (2).txt", "errors.txt"), List.copyOf(entries.keySet()));
+        assertEquals("processed errors.txt", entries.get("errors (2).txt"));
+        assertTrue(entries.get("errors.txt").contains("bad.pdf: unreadable"));
+    }
+
+    @Test
+    void shouldRunNoMoreBatchInputsAtOnceThanWorkerSlots() throws Exception {
+        // Given
+        stubFileStorage();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<MultipartFile> inputs = new ArrayList<>();
+        for (int i = 0; i < JobExecutorService.BATCH_WORKERS * 3; i++) {
+            inputs.add(upload("file" + i + ".pdf"));
+        }
+
+        // When
+        jobExecutorService.runBatchJob(
+                false,
+                inputs,
+                input -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    return processUpload(input);
+                },
+                -1);
+
+        // Then
+        assertTrue(peak.get() <= JobExecutorService.BATCH_WORKERS);
+    }
+
+    @Test
+    void shouldCompleteAsyncBatchWithResultPerFile() throws Exception {
+        // Given
+        stubFileStorage();
+        List<MultipartFile> inputs = List.of(upload("a.pdf"), upload("b.pdf"), upload("bad.pdf"));
+
+        // When
+        ResponseEntity<?> response =
+                jobExecutorService.runBatchJob(true, inputs, this::processUpload, -1);
+
+        // Then
+        assertInstanceOf(JobResponse.class, response.getBody());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ResultFile>> results = ArgumentCaptor.forClass(List.class);
+        verify(taskManager, timeout(5000)).setMultipleFileResults(anyString(), results.capture());
+        assertEquals(
+                List.of("a.pdf", "b.pdf"),
+                results.getValue().stream().map(ResultFile::getFileName).toList());
+        verify(taskManager).setProgress(anyString(), eq(100), eq("3 of 3 files processed"));
+        verify(taskManager).addNote(anyString(), eq("bad.pdf failed: unreadable"));
+    }
+
+    @Test
+    void shouldFailSyncBatchWhenEveryFileFails() {
+        List<MultipartFile> inputs = List.of(upload("bad.pdf"));
+
+        IllegalArgumentException e =
+                assertThrows(
+                        IllegalArgumentException.class,
+                        () ->
+                                jobExecutorService.runBatchJob(
+                                        false, inputs, this::processUpload, -1));
+        assertEquals("unreadable", e.getMessage());
+    }
+
+    private Object processUpload(MultipartFile input) {
+        if (input.getOriginalFilename().startsWith("bad")) {
+            throw new IllegalArgumentException("unreadable");
+        }
+        return ResponseEntity.ok()
+                .header(
+                        HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + input.getOriginalFilename() + "\"")
+                .body(("processed " + input.getOriginalFilename()).getBytes(UTF_8));
+    }
+
+    private static Map<String, String> zipEntries(ResponseEntity<?> response) throws Exception {
+        ByteArrayOutputStream zipBytes = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(zipBytes);
+
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip =
+                new ZipInputStream(new ByteArrayInputStream(zipBytes.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private Map<String, byte[]> stubFileStorage() throws Exception {
+        Map<String, byte[]> stored = new ConcurrentHashMap<>();
+        when(fileStorage.storeBytes(any(), anyString()))
+                .thenAnswer(
+                        invocation -> {
+                            String fileId = UUID.randomUUID().toString();
+                            stored.put(fileId, invocation.getArgument(0));
+                            return fileId;
+                        });
+        lenient()
+                .when(fileStorage.openFile(anyString()))
+                .thenAnswer(
+                        invocation -> {
+                            PathMultipartFile file = Mockito.mock(PathMultipartFile.class);
+                            byte[] content = stored.get((String) invocation.getArgument(0));
+                            when(file.getInputStream())
+                                    .thenReturn(new ByteArrayInputStream(content));
+                            return file;
+                        });
+        return stored;
+    }
+
+    private static MultipartFile upload(String name) {
+        return new MockMultipartFile("fileInputs", name, "application/pdf", new byte[] {1});
+    }
 }
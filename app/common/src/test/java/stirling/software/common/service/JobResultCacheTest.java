@@ -0,0 +1,131 @@
+package stirling.software.common.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+class JobResultCacheTest {
+
+    private static final String ENDPOINT = "/api/v1/misc/compress-pdf";
+
+    @TempDir Path cacheDir;
+
+    @Test
+    void keyFor_dependsOnInputsButNotOnParameterOrder() throws IOException {
+        JobResultCache cache = newCache(Duration.ofHours(1), 1024 * 1024);
+        Map<String, List<MultipartFile>> files = Map.of("fileInput", List.of(file("abc")));
+
+        String key =
+                cache.keyFor(
+                        ENDPOINT,
+                        Map.of("level", new String[] {"5"}, "grayscale", new String[] {"false"}),
+                        files);
+
+        assertEquals(
+                key,
+                cache.keyFor(
+                        ENDPOINT,
+                        Map.of(
+                                "grayscale", new String[] {"false"},
+                                "async", new String[] {"true"},
+                                "level", new String[] {"5"}),
+                        files));
+        assertNotEquals(
+                key,
+                cache.keyFor(
+                        ENDPOINT,
+                        Map.of("level", new String[] {"6"}, "grayscale", new String[] {"false"}),
+                        files));
+        assertNotEquals(
+                key,
+                cache.keyFor(
+                        ENDPOINT,
+                        Map.of("level", new String[] {"5"}, "grayscale", new String[] {"false"}),
+                        Map.of("fileInput", List.of(file("abd")))));
+    }
+
+    @Test
+    void keyFor_onlyForEnabledEndpoints() throws IOException {
+        JobResultCache cache = newCache(Duration.ofHours(1), 1024 * 1024);
+        assertNull(cache.keyFor("/api/v1/misc/ocr-pdf", Map.of(), Map.of()));
+
+        JobResultCache disabled =
+                new JobResultCache(false, List.of(ENDPOINT), Duration.ofHours(1), 1024, cacheDir);
+        assertNull(disabled.keyFor(ENDPOINT, Map.of(), Map.of()));
+    }
+
+    @Test
+    void putAndGet_roundTripBinaryResponses() throws IOException {
+        JobResultCache cache = newCache(Duration.ofHours(1), 1024 * 1024);
+        ResponseEntity<byte[]> response =
+                ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_PDF)
+                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"a.pdf\"")
+                        .body(new byte[] {1, 2, 3});
+
+        assertTrue(cache.put("k1", response));
+        assertFalse(cache.put("k2", ResponseEntity.ok("not binary")));
+        assertFalse(cache.put("k3", ResponseEntity.badRequest().body(new byte[] {1})));
+
+        ResponseEntity<byte[]> cached = cache.get("k1").orElseThrow().toResponseEntity();
+        assertArrayEquals(new byte[] {1, 2, 3}, cached.getBody());
+        assertEquals(MediaType.APPLICATION_PDF, cached.getHeaders().getContentType());
+        assertEquals(
+                "attachment; filename=\"a.pdf\"",
+                cached.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertTrue(cache.get("k2").isEmpty());
+    }
+
+    @Test
+    void get_dropsExpiredEntries() throws IOException {
+        JobResultCache cache = newCache(Duration.ofMinutes(10), 1024 * 1024);
+        cache.put("old", new byte[] {1});
+        Files.setLastModifiedTime(
+                cacheDir.resolve("old.result"),
+                FileTime.from(Instant.now().minus(Duration.ofMinutes(11))));
+
+        assertTrue(cache.get("old").isEmpty());
+        assertFalse(Files.exists(cacheDir.resolve("old.result")));
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedEntries() throws IOException {
+        JobResultCache cache = newCache(Duration.ofHours(1), 2500);
+        cache.put("a", new byte[1000]);
+        cache.put("b", new byte[1000]);
+        cache.get("a");
+        cache.put("c", new byte[1000]);
+
+        assertTrue(cache.get("a").isPresent());
+        assertTrue(cache.get("b").isEmpty());
+        assertTrue(cache.get("c").isPresent());
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            assertEquals(2, entries.count());
+        }
+    }
+
+    private JobResultCache newCache(Duration ttl, long maxBytes) throws IOException {
+        return new JobResultCache(true, List.of(ENDPOINT), ttl, maxBytes, cacheDir);
+    }
+
+    private static MockMultipartFile file(String content) {
+        return new MockMultipartFile(
+                "fileInput", "in.pdf", MediaType.APPLICATION_PDF_VALUE, content.getBytes());
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import stirling.software.common.model.job.JobResult;
 import stirling.software.common.model.job.JobStats;
 import stirling.software.common.model.job.ResultFile;
+import stirling.software.common.util.JobContext;
 
 class TaskManagerTest {
 
@@ -310,4 +311,31 @@ class TaskManagerTest {
         // Assert
         assertFalse(result);
     }
+
+    @Test
+    void testAddNoteToCurrentJob() {
+        String jobId = "test-job-9";
+        taskManager.createTask(jobId);
+
+        JobContext.setJobId(jobId);
+        try {
+            assertTrue(taskManager.addNoteToCurrentJob("Stage done"));
+        } finally {
+            JobContext.clear();
+        }
+
+        assertEquals(1, taskManager.getJobResult(jobId).getNotes().size());
+    }
+
+    @Test
+    void testAddNoteToCurrentJob_OutsideJob() {
+        assertFalse(taskManager.addNoteToCurrentJob("Stage done"));
+
+        JobContext.setJobId("not-tracked");
+        try {
+            assertFalse(taskManager.addNoteToCurrentJob("Stage done"));
+        } finally {
+            JobContext.clear();
+        }
+    }
 }
@@ -10,24 +10,32 @@ import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Base64;
 import java.util.Locale;
 
+import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDEmbeddedFilesNameTreeNode;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.filespecification.PDComplexFileSpecification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import stirling.software.common.model.ApplicationProperties;
 import stirling.software.common.model.api.converters.EmlToPdfRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.service.SsrfProtectionService;
@@ -766,6 +774,132 @@ class EmlToPdfTest {
         }
     }
 
+    @Nested
+    @DisplayName("File-backed Parsing")
+    class FileBackedParsingTests {
+
+        @TempDir Path tempDir;
+
+        private TempFileManager tempFileManager() {
+            ApplicationProperties properties = new ApplicationProperties();
+            properties.getSystem().getTempFileManagement().setBaseTmpDir(tempDir.toString());
+            return new TempFileManager(new TempFileRegistry(), properties);
+        }
+
+        private Path writeEml(String emlContent) throws IOException {
+            Path emlFile = tempDir.resolve("mail.eml");
+            Files.writeString(emlFile, emlContent, StandardCharsets.UTF_8);
+            return emlFile;
+        }
+
+        @Test
+        @DisplayName("Should decode attachments into temp files that are deleted on close")
+        void spoolAttachmentsToTempFiles() throws IOException {
+            String emlContent =
+                    createMultipartEmailWithAttachment(
+                            "sender@example.com",
+                            "recipient@example.com",
+                            "File Backed",
+                            "Body text",
+                            "----=_Part_FileBacked_1234567890",
+                            "notes.txt",
+                            "attachment body");
+
+            Path dataPath;
+            try (EmlParser.EmailContent content =
+                    EmlParser.extractEmailContent(
+                            writeEml(emlContent),
+                            createRequestWithAttachments(),
+                            customHtmlSanitizer,
+                            tempFileManager())) {
+                assertEquals("File Backed", content.getSubject());
+                assertEquals(1, content.getAttachments().size());
+
+                EmlParser.EmailAttachment attachment = content.getAttachments().get(0);
+                assertEquals("notes.txt", attachment.getFilename());
+                assertNull(attachment.getData());
+                assertNotNull(attachment.getDataFile());
+                assertTrue(attachment.hasData());
+                try (InputStream data = attachment.openData()) {
+                    assertEquals(
+                            "attachment body",
+                            new String(data.readAllBytes(), StandardCharsets.UTF_8));
+                }
+                dataPath = attachment.getDataFile().getPath();
+                assertTrue(Files.exists(dataPath));
+            }
+            assertFalse(Files.exists(dataPath));
+        }
+
+        @Test
+        @DisplayName("Should render the same HTML as the in-memory parser")
+        void matchInMemoryHtml() throws IOException {
+            String emlContent =
+                    createMultipartEmailWithAttachment(
+                            "sender@example.com",
+                            "recipient@example.com",
+                            "Same Output",
+                            "Body text",
+                            "----=_Part_SameOutput_1234567890",
+                            "report.csv",
+                            "a,b,c");
+            EmlToPdfRequest request = createRequestWithAttachments();
+
+            String fromBytes =
+                    EmlToPdf.convertEmlToHtml(emlContent.getBytes(StandardCharsets.UTF_8), request);
+            String fromFile =
+                    EmlToPdf.convertEmlToHtml(writeEml(emlContent), request, tempFileManager());
+
+            assertEquals(fromBytes, fromFile);
+        }
+
+        @Test
+        @DisplayName("Should embed file-backed attachments into the PDF")
+        void embedFileBackedAttachments() throws IOException {
+            String emlContent =
+                    createMultipartEmailWithAttachment(
+                            "sender@example.com",
+                            "recipient@example.com",
+                            "Embed",
+                            "Body text",
+                            "----=_Part_Embed_1234567890",
+                            "data.bin",
+                            "embedded payload");
+
+            byte[] pdfBytes;
+            try (PDDocument document = new PDDocument()) {
+                document.addPage(new PDPage());
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                document.save(baos);
+                pdfBytes = baos.toByteArray();
+            }
+            CustomPDFDocumentFactory factory = mock(CustomPDFDocumentFactory.class);
+            when(factory.load(any(byte[].class)))
+                    .thenAnswer(invocation -> Loader.loadPDF((byte[]) invocation.getArgument(0)));
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (EmlParser.EmailContent content =
+                    EmlParser.extractEmailContent(
+                            writeEml(emlContent),
+                            createRequestWithAttachments(),
+                            customHtmlSanitizer,
+                            tempFileManager())) {
+                PdfAttachmentHandler.attachFilesToPdf(
+                        pdfBytes, content.getAttachments(), factory, output);
+            }
+
+            try (PDDocument result = Loader.loadPDF(output.toByteArray())) {
+                PDEmbeddedFilesNameTreeNode embeddedFiles =
+                        result.getDocumentCatalog().getNames().getEmbeddedFiles();
+                PDComplexFileSpecification spec = embeddedFiles.getNames().get("data.bin");
+                assertNotNull(spec);
+                assertEquals(
+                        "embedded payload",
+                        new String(spec.getEmbeddedFile().toByteArray(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
     // Helper methods
     private static String getTimestamp() {
         java.time.ZonedDateTime fixedDateTime =
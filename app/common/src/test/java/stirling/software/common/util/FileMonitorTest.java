@@ -8,8 +8,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -191,4 +195,41 @@ class FileMonitorTest {
         boolean isReady = fileMonitor.isFileReadyForProcessing(testDir);
         assertFalse(isReady, "A directory should not be considered ready for processing");
     }
+
+    @Test
+    void testNotifiesListenerOnceFilesSettle() throws Exception {
+        FileMonitor monitor =
+                new FileMonitor(pathFilter, runtimePathConfig, Duration.ofMillis(200));
+        Path folder = Files.createDirectory(tempDir.resolve("pipeline-a"));
+        BlockingQueue<Path> settled = new LinkedBlockingQueue<>();
+        monitor.addListener(settled::add);
+
+        monitor.start();
+        try {
+            // Give the watcher a moment to register the existing folders
+            Thread.sleep(300);
+            Path dropped = folder.resolve("dropped.pdf");
+            Files.write(dropped, "pdf content".getBytes());
+
+            assertEquals(folder.toAbsolutePath(), settled.poll(10, TimeUnit.SECONDS));
+            assertTrue(monitor.isFileReadyForProcessing(dropped));
+        } finally {
+            monitor.stop();
+        }
+        assertFalse(monitor.isRunning());
+    }
+
+    @Test
+    void testFileIsNotReadyWhileEventsAreStillArriving() throws Exception {
+        FileMonitor monitor = new FileMonitor(pathFilter, runtimePathConfig, Duration.ofHours(1));
+        Path folder = Files.createDirectory(tempDir.resolve("pipeline-b"));
+        Path existing = folder.resolve("old.pdf");
+        Files.write(existing, "pdf content".getBytes());
+        Files.setLastModifiedTime(existing, FileTime.from(Instant.now().minusSeconds(7200)));
+
+        // Registration marks existing files as pending until they settle
+        monitor.trackFiles();
+
+        assertFalse(monitor.isFileReadyForProcessing(existing));
+    }
 }
@@ -0,0 +1,39 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_isExactForSmallCardinalities() {
+        HyperLogLog sketch = new HyperLogLog(10);
+        assertEquals(0, sketch.estimate());
+
+        for (int i = 0; i < 5; i++) {
+            sketch.offer("session-" + i);
+            sketch.offer("session-" + i);
+        }
+
+        assertEquals(5, sketch.estimate());
+    }
+
+    @Test
+    void estimate_staysWithinErrorBoundsForLargeCardinalities() {
+        HyperLogLog sketch = new HyperLogLog(10);
+        int distinct = 100_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.offer("session-" + i);
+        }
+
+        // Standard error is about 3.3% at this precision; allow three times that
+        assertEquals(distinct, sketch.estimate(), distinct * 0.1);
+    }
+
+    @Test
+    void constructor_rejectsUnsupportedPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(17));
+    }
+}
@@ -0,0 +1,249 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.PdfMetadataService;
+
+class ImageToPdfBuilderTest {
+
+    @TempDir Path tempDir;
+
+    @Test
+    void build_embedsJpegWithoutReencoding() throws IOException {
+        byte[] jpeg = encode(image(64, 48, Color.BLUE, BufferedImage.TYPE_INT_RGB), "jpg");
+
+        try (PDDocument pdf = build("color", file("photo.jpg", "image/jpeg", jpeg))) {
+            PDImageXObject image = firstImage(pdf.getPage(0));
+            assertEquals(COSName.DCT_DECODE, image.getCOSObject().getItem(COSName.FILTER));
+            try (InputStream raw = image.getCOSObject().createRawInputStream()) {
+                assertArrayEquals(jpeg, raw.readAllBytes());
+            }
+        }
+    }
+
+    @Test
+    void build_decodesJpegWhenColorsChange() throws IOException {
+        byte[] jpeg = encode(image(64, 48, Color.RED, BufferedImage.TYPE_INT_RGB), "jpg");
+
+        try (PDDocument pdf = build("greyscale", file("photo.jpg", "image/jpeg", jpeg))) {
+            PDImageXObject image = firstImage(pdf.getPage(0));
+            assertEquals(COSName.DCT_DECODE, image.getCOSObject().getItem(COSName.FILTER));
+            assertEquals(1, image.getColorSpace().getNumberOfComponents());
+        }
+    }
+
+    @Test
+    void build_writesPagesInInputOrder() throws IOException {
+        // More images than the look-ahead window, so pages are written while others decode
+        int count = ImageToPdfBuilder.MAX_WORKERS * 2 + 5;
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] png = encode(image(10 + i, 20, Color.GREEN, BufferedImage.TYPE_INT_ARGB), "png");
+            files.add(file("img" + i + ".png", "image/png", png));
+        }
+
+        try (PDDocument pdf = build("color", files.toArray(MultipartFile[]::new))) {
+            assertEquals(count, pdf.getNumberOfPages());
+            for (int i = 0; i < count; i++) {
+                assertEquals(10 + i, (int) pdf.getPage(i).getMediaBox().getWidth());
+                assertEquals(
+                        COSName.FLATE_DECODE,
+                        firstImage(pdf.getPage(i)).getCOSObject().getItem(COSName.FILTER));
+            }
+        }
+    }
+
+    @Test
+    void build_failsOnUnreadableImageAndStaysUsable() throws IOException {
+        List<MultipartFile> files = new ArrayList<>();
+        files.add(file("broken.png", "image/png", new byte[] {1, 2, 3}));
+        for (int i = 0; i < ImageToPdfBuilder.MAX_WORKERS * 2; i++) {
+            files.add(pngFile(20, 20));
+        }
+
+        assertThrows(Exception.class, () -> build("color", files.toArray(MultipartFile[]::new)));
+
+        try (PDDocument pdf = build("color", pngFile(30, 40))) {
+            assertEquals(1, pdf.getNumberOfPages());
+        }
+    }
+
+    @Test
+    void build_readsEveryTiffFrame() throws IOException {
+        byte[] tiff =
+                tiff(
+                        "Deflate",
+                        image(30, 40, Color.RED, BufferedImage.TYPE_INT_RGB),
+                        image(50, 60, Color.GREEN, BufferedImage.TYPE_INT_RGB),
+                        image(70, 80, Color.BLUE, BufferedImage.TYPE_INT_RGB));
+
+        try (PDDocument pdf =
+                build("color", file("scan.tiff", "image/tiff", tiff), pngFile(90, 100))) {
+            assertEquals(4, pdf.getNumberOfPages());
+            int[] widths = {30, 50, 70, 90};
+            for (int i = 0; i < widths.length; i++) {
+                assertEquals(widths[i], (int) pdf.getPage(i).getMediaBox().getWidth());
+            }
+        }
+    }
+
+    @Test
+    void build_passesCcittFramesThrough() throws IOException {
+        byte[] tiff =
+                tiff(
+                        "CCITT T.6",
+                        image(200, 100, Color.WHITE, BufferedImage.TYPE_BYTE_BINARY),
+                        image(100, 200, Color.WHITE, BufferedImage.TYPE_BYTE_BINARY));
+
+        try (PDDocument pdf = build("color", file("fax.tif", "image/tiff", tiff))) {
+            assertEquals(2, pdf.getNumberOfPages());
+            for (int i = 0; i < 2; i++) {
+                PDImageXObject image = firstImage(pdf.getPage(i));
+                assertEquals(COSName.CCITTFAX_DECODE, image.getCOSObject().getItem(COSName.FILTER));
+                assertEquals(i == 0 ? 200 : 100, image.getWidth());
+                assertNotNull(image.getImage());
+            }
+        }
+    }
+
+    @Test
+    void build_passesJpeg2000CodestreamThrough() throws IOException {
+        byte[] codestream = new byte[64];
+        // SOC, SIZ with a 120x80 image at offset 0, one 8-bit component
+        int[] header = {
+            0xFF, 0x4F, 0xFF, 0x51, 0x00, 0x29, 0x00, 0x00, 0, 0, 0, 120, 0, 0, 0, 80, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 120, 0, 0, 0, 80, 0, 0, 0, 0, 0, 0, 0, 0, 0x00, 0x01, 0x07
+        };
+        for (int i = 0; i < header.length; i++) {
+            codestream[i] = (byte) header[i];
+        }
+
+        try (PDDocument pdf = build("color", file("scan.j2k", "image/jp2", codestream))) {
+            PDImageXObject image = firstImage(pdf.getPage(0));
+            assertEquals(COSName.JPX_DECODE, image.getCOSObject().getItem(COSName.FILTER));
+            assertEquals(120, image.getWidth());
+            assertEquals(80, image.getHeight());
+        }
+    }
+
+    @Test
+    void jpxHeader_readsJp2ImageHeaderBox() {
+        ByteArrayOutputStream jp2 = new ByteArrayOutputStream();
+        jp2.writeBytes(
+                new byte[] {0, 0, 0, 0x0C, 'j', 'P', ' ', ' ', 0x0D, 0x0A, (byte) 0x87, 0x0A});
+        jp2.writeBytes(new byte[] {0, 0, 0, 0x14, 'f', 't', 'y', 'p'});
+        jp2.writeBytes(new byte[12]);
+        jp2.writeBytes(new byte[] {0, 0, 0, 0x1E, 'j', 'p', '2', 'h'});
+        jp2.writeBytes(new byte[] {0, 0, 0, 0x16, 'i', 'h', 'd', 'r'});
+        jp2.writeBytes(new byte[] {0, 0, 0x01, 0x00, 0, 0, 0x02, 0x00, 0, 3, 7, 7, 0, 0});
+
+        ImageToPdfBuilder.JpxHeader header =
+                ImageToPdfBuilder.JpxHeader.parseJp2(jp2.toByteArray());
+
+        assertEquals(new ImageToPdfBuilder.JpxHeader(512, 256, 8), header);
+    }
+
+    private PDDocument build(String colorType, MultipartFile... files) throws IOException {
+        ImageToPdfBuilder builder =
+                new ImageToPdfBuilder(
+                        factory(), tempFileManager(), "fitDocumentToImage", false, colorType);
+        try (TempFile pdf = builder.build(files)) {
+            return factory().load(pdf.getFile());
+        }
+    }
+
+    private static PDImageXObject firstImage(PDPage page) throws IOException {
+        for (COSName name : page.getResources().getXObjectNames()) {
+            if (page.getResources().getXObject(name) instanceof PDImageXObject image) {
+                return image;
+            }
+        }
+        throw new AssertionError("Page has no image");
+    }
+
+    private static MockMultipartFile file(String name, String contentType, byte[] content) {
+        return new MockMultipartFile("fileInput", name, contentType, content);
+    }
+
+    private static MockMultipartFile pngFile(int width, int height) throws IOException {
+        return file(
+                "extra.png",
+                "image/png",
+                encode(image(width, height, Color.ORANGE, BufferedImage.TYPE_INT_RGB), "png"));
+    }
+
+    private static BufferedImage image(int width, int height, Color color, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.setColor(Color.BLACK);
+        g.drawLine(0, 0, width - 1, height - 1);
+        g.dispose();
+        return image;
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(ImageIO.write(image, format, out));
+        return out.toByteArray();
+    }
+
+    private static byte[] tiff(String compression, BufferedImage... frames) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("tiff").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionType(compression);
+            writer.prepareWriteSequence(null);
+            for (BufferedImage frame : frames) {
+                writer.writeToSequence(new IIOImage(frame, null, null), param);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private TempFileManager tempFileManager() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSystem().getTempFileManagement().setBaseTmpDir(tempDir.toString());
+        return new TempFileManager(new TempFileRegistry(), properties);
+    }
+
+    private static CustomPDFDocumentFactory factory() {
+        PdfMetadataService meta =
+                new PdfMetadataService(new ApplicationProperties(), "label", false, null);
+        return new CustomPDFDocumentFactory(meta);
+    }
+}
@@ -0,0 +1,104 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PageSelectionTest {
+
+    @Test
+    void toArray_keepsOrderAndDuplicates() {
+        PageSelection selection = PageSelection.compile("5,1-3,2,all");
+
+        assertArrayEquals(new int[] {4, 0, 1, 2, 1, 0, 1, 2, 3, 4}, selection.toArray(5, false));
+        assertArrayEquals(new int[] {5, 1, 2, 3, 2, 1, 2, 3, 4, 5}, selection.toArray(5, true));
+    }
+
+    @Test
+    void toArray_clampsRangesAndSkipsInvalidParts() {
+        PageSelection selection = PageSelection.compile("0-2,4-,x,9,3- 4, 3");
+
+        assertArrayEquals(new int[] {1, 2, 4, 5, 6, 3}, selection.toArray(6, true));
+    }
+
+    @Test
+    void toArray_expandsLinearFunctionsBeyondEvaluatorLimit() {
+        int totalPages = 1_000_000;
+
+        int[] odd = PageSelection.compile("2n-1").toArray(totalPages, true);
+        int[] offsetFirst = PageSelection.compile("3 + 2n").toArray(totalPages, true);
+
+        assertEquals(totalPages / 2, odd.length);
+        assertEquals(1, odd[0]);
+        assertEquals(totalPages - 1, odd[odd.length - 1]);
+        assertEquals(5, offsetFirst[0]);
+        assertEquals(totalPages - 1, offsetFirst[offsetFirst.length - 1]);
+    }
+
+    @Test
+    void toArray_matchesEvaluatorForLinearFunctions() {
+        for (String expression : new String[] {"n", "4n", "4n-1", "n+1", "3+2n", "2n-7", "1+n"}) {
+            List<Integer> expected = GeneralUtils.evaluateNFunc(expression, 20);
+
+            int[] pages = PageSelection.compile(expression).toArray(20, true);
+
+            assertEquals(expected, Arrays.stream(pages).boxed().toList(), expression);
+        }
+    }
+
+    @Test
+    void toArray_evaluatesOtherFunctions() {
+        assertArrayEquals(new int[] {2, 6}, PageSelection.compile("(n-1)(n-2)").toArray(9, true));
+        assertArrayEquals(new int[] {3, 3, 3}, PageSelection.compile("0n+3").toArray(3, true));
+    }
+
+    @Test
+    void toBitSet_dropsOrderAndDuplicates() {
+        BitSet pages = PageSelection.compile("7,1-3,2,2n").toBitSet(8);
+
+        assertEquals(BitSet.valueOf(new long[] {0b11101111}), pages);
+    }
+
+    @Test
+    void toList_isMutable() {
+        List<Integer> pages = PageSelection.compile("3,1").toList(3, false);
+
+        pages.sort(null);
+
+        assertEquals(List.of(0, 2), pages);
+    }
+
+    @Test
+    void compile_reusesCachedSelections() {
+        PageSelection.clearCache();
+
+        assertSame(PageSelection.compile("1,3-5"), PageSelection.compile("1,3-5"));
+    }
+
+    @Test
+    void compile_acceptsSpacesAroundCommas() {
+        PageSelection selection = PageSelection.compile("1, 3-5 , 2n ,all");
+
+        assertTrue(PageSelection.isValid("1, 3-5"));
+        assertTrue(PageSelection.isValid("1, all"));
+        assertArrayEquals(
+                new int[] {1, 3, 4, 5, 2, 4, 6, 1, 2, 3, 4, 5, 6}, selection.toArray(6, true));
+    }
+
+    @Test
+    void validate_rejectsUnparseableParts() {
+        assertTrue(PageSelection.isValid("1,3-5,2n+1,all"));
+        assertFalse(PageSelection.isValid(""));
+        assertFalse(PageSelection.isValid("1,abc"));
+        assertFalse(PageSelection.isValid("2n+x"));
+        assertFalse(PageSelection.isValid(null));
+
+        IllegalArgumentException e =
+                assertThrows(IllegalArgumentException.class, () -> PageSelection.validate("1,z"));
+        assertTrue(e.getMessage().contains("z"));
+    }
+}
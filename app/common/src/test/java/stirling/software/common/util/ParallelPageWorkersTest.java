@@ -0,0 +1,117 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.PdfMetadataService;
+
+class ParallelPageWorkersTest {
+
+    @TempDir Path tempDir;
+
+    private CustomPDFDocumentFactory factory;
+    private Path source;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        factory =
+                new CustomPDFDocumentFactory(
+                        new PdfMetadataService(new ApplicationProperties(), "label", false, null));
+        source = tempDir.resolve("source.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            document.addPage(new PDPage());
+            document.save(source.toFile());
+        }
+    }
+
+    @Test
+    void workerCount_needsEnoughPagesPerWorker() {
+        assertEquals(1, ParallelPageWorkers.workerCount(0, 8));
+        assertEquals(1, ParallelPageWorkers.workerCount(15, 8));
+        assertEquals(
+                Math.min(2, ParallelPageWorkers.MAX_WORKERS),
+                ParallelPageWorkers.workerCount(16, 8));
+        assertEquals(ParallelPageWorkers.MAX_WORKERS, ParallelPageWorkers.workerCount(100_000, 8));
+    }
+
+    @Test
+    void runsTasksOnCopiesAndKeepsCallerDocumentOpen() throws Exception {
+        try (PDDocument document = factory.loadKeepingFile(source, true)) {
+            List<PDDocument> documents;
+            try (ParallelPageWorkers workers =
+                    ParallelPageWorkers.open(factory, document, source, 3)) {
+                documents = workers.documents();
+                assertEquals(3, documents.size());
+                assertSame(document, documents.get(0));
+
+                Future<Integer> pages = workers.submit(() -> documents.get(2).getNumberOfPages());
+                assertEquals(2, ParallelPageWorkers.await(pages, "Counting"));
+            }
+
+            assertEquals(2, document.getNumberOfPages());
+            assertThrows(
+                    IOException.class,
+                    () -> documents.get(1).save(tempDir.resolve("x.pdf").toFile()));
+        }
+    }
+
+    @Test
+    void closeWaitsForRunningTasks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        try (PDDocument document = factory.loadKeepingFile(source, true)) {
+            ParallelPageWorkers workers = ParallelPageWorkers.open(factory, document, source, 2);
+            workers.submit(
+                    () -> {
+                        started.countDown();
+                        // Ignores the interrupt from cancel, like a page that is being parsed
+                        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+                        while (System.nanoTime() < end) {
+                            Thread.onSpinWait();
+                        }
+                        finished.set(true);
+                        return null;
+                    });
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            workers.close();
+
+            assertTrue(finished.get());
+            assertThrows(IllegalStateException.class, () -> workers.submit(() -> null));
+        }
+    }
+
+    @Test
+    void awaitRethrowsTaskFailure() throws Exception {
+        try (PDDocument document = factory.loadKeepingFile(source, true);
+                ParallelPageWorkers workers =
+                        ParallelPageWorkers.open(factory, document, source, 1)) {
+            Future<Object> failing =
+                    workers.submit(
+                            () -> {
+                                throw new IOException("broken page");
+                            });
+
+            IOException e =
+                    assertThrows(
+                            IOException.class, () -> ParallelPageWorkers.await(failing, "Work"));
+            assertEquals("broken page", e.getMessage());
+        }
+    }
+}
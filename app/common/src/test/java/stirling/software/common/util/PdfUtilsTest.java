@@ -733,4 +733,37 @@ public class PdfUtilsTest {
         int rgb = img.getRGB(img.getWidth() / 2, img.getHeight() / 2) & 0x00FFFFFF;
         assertEquals(0xFFFFFF, rgb, "Background pixel should be white");
     }
+
+    @Test
+    @DisplayName("convertFromPdf: singleImage=true PNG stacks mixed page sizes and rotations")
+    void convertFromPdf_singleImagePng_mixedPageSizes() throws Exception {
+        byte[] pdfBytes;
+        PdfMetadataService meta =
+                new PdfMetadataService(new ApplicationProperties(), "label", false, null);
+        CustomPDFDocumentFactory factory = new CustomPDFDocumentFactory(meta);
+        try (PDDocument doc = new PDDocument()) {
+            doc.addPage(new PDPage(PDRectangle.A4));
+            PDPage rotated = new PDPage(PDRectangle.A5);
+            rotated.setRotation(90);
+            doc.addPage(rotated);
+            doc.addPage(new PDPage(PDRectangle.A6));
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            doc.save(baos);
+            pdfBytes = baos.toByteArray();
+        }
+
+        byte[] imageBytes =
+                PdfUtils.convertFromPdf(
+                        factory, pdfBytes, "PNG", ImageType.RGB, true, 72, "mixed.pdf", false);
+
+        BufferedImage img = ImageIO.read(new ByteArrayInputStream(imageBytes));
+        assertNotNull(img);
+        // At 72 DPI A4 renders 595x841, rotated A5 595x419 and A6 297x419
+        assertEquals(595, img.getWidth());
+        assertEquals(841 + 419 + 419, img.getHeight());
+        // Rendered pages are opaque white, margins beside the narrow page are transparent
+        assertEquals(0xFFFFFFFF, img.getRGB(10, 10));
+        assertEquals(0, img.getRGB(10, 841 + 419 + 10) >>> 24);
+        assertEquals(0xFFFFFFFF, img.getRGB(297, 841 + 419 + 10));
+    }
 }
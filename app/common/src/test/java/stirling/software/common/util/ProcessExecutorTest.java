@@ -83,4 +83,29 @@ public class ProcessExecutorTest {
                 errorMessage.contains("invalid characters"),
                 "Unexpected error message: " + errorMessage);
     }
+
+    @Test
+    public void testRunCommandWithStdinWriter() throws IOException, InterruptedException {
+        ProcessExecutor.ProcessExecutorResult result =
+                processExecutor.runCommandWithOutputHandling(
+                        List.of("wc", "-c"), null, stdin -> stdin.write(new byte[100_000]));
+
+        assertEquals(0, result.getRc());
+        assertEquals("100000", result.getMessages().trim());
+    }
+
+    @Test
+    public void testRunCommandWithFailingStdinWriter() {
+        // The process exits cleanly on the truncated input, but the command must still fail
+        assertThrows(
+                IllegalStateException.class,
+                () ->
+                        processExecutor.runCommandWithOutputHandling(
+                                List.of("wc", "-c"),
+                                null,
+                                stdin -> {
+                                    stdin.write(1);
+                                    throw new IllegalStateException("render failed");
+                                }));
+    }
 }
@@ -0,0 +1,88 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+
+class StreamingPngWriterTest {
+
+    @Test
+    void stacksImagesCentredAndPadsRemainingRowsTransparent() throws IOException {
+        BufferedImage wide = filled(40, 10, Color.RED, BufferedImage.TYPE_INT_RGB);
+        BufferedImage narrow = filled(20, 5, Color.BLUE, BufferedImage.TYPE_BYTE_GRAY);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingPngWriter writer = new StreamingPngWriter(out, 40, 20)) {
+            writer.writeImage(wide);
+            writer.writeImage(narrow);
+            assertEquals(15, writer.getRowsWritten());
+        }
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertNotNull(decoded);
+        assertEquals(40, decoded.getWidth());
+        assertEquals(20, decoded.getHeight());
+
+        assertEquals(wide.getRGB(0, 0), decoded.getRGB(0, 0));
+        assertEquals(wide.getRGB(39, 9), decoded.getRGB(39, 9));
+        // Narrow image is centred with transparent margins
+        assertEquals(0, decoded.getRGB(5, 12) >>> 24);
+        assertEquals(narrow.getRGB(0, 0), decoded.getRGB(10, 12));
+        assertEquals(narrow.getRGB(19, 4), decoded.getRGB(29, 14));
+        assertEquals(0, decoded.getRGB(30, 12) >>> 24);
+        // Unwritten rows are transparent
+        assertEquals(0, decoded.getRGB(20, 19) >>> 24);
+    }
+
+    @Test
+    void preservesGradientAcrossFilterTypes() throws IOException {
+        BufferedImage gradient = new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < gradient.getHeight(); y++) {
+            for (int x = 0; x < gradient.getWidth(); x++) {
+                gradient.setRGB(x, y, ((x * 7 + y) & 0xFF) << 24 | (x & 0xFF) << 16 | y << 8 | 77);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingPngWriter writer = new StreamingPngWriter(out, 300, 200)) {
+            writer.writeImage(gradient);
+        }
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        for (int y = 0; y < gradient.getHeight(); y++) {
+            for (int x = 0; x < gradient.getWidth(); x++) {
+                assertEquals(gradient.getRGB(x, y), decoded.getRGB(x, y), "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void dropsRowsBeyondDeclaredHeight() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (StreamingPngWriter writer = new StreamingPngWriter(out, 10, 4)) {
+            writer.writeImage(filled(10, 6, Color.GREEN, BufferedImage.TYPE_INT_RGB));
+            assertEquals(4, writer.getRowsWritten());
+        }
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(4, decoded.getHeight());
+    }
+
+    private static BufferedImage filled(int width, int height, Color color, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,154 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.PdfMetadataService;
+
+class ToolChainTest {
+
+    @TempDir Path tempDir;
+
+    private TempFileManager tempFileManager;
+    private Path input;
+    private final List<String> notes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempFileManager = mock(TempFileManager.class);
+        when(tempFileManager.createTempFile(anyString()))
+                .thenAnswer(
+                        inv -> Files.createTempFile(tempDir, "stage", inv.getArgument(0)).toFile());
+        when(tempFileManager.deleteTempFile(any(File.class)))
+                .thenAnswer(inv -> Files.deleteIfExists(((File) inv.getArgument(0)).toPath()));
+        input = Files.writeString(tempDir.resolve("input.txt"), "0123456789");
+    }
+
+    @Test
+    void stagesFeedEachOtherAndDropIntermediates() throws Exception {
+        Path firstOutput;
+        try (ToolChain chain = new ToolChain(tempFileManager, input, ".txt", notes::add)) {
+            assertTrue(chain.run("trim", (in, out) -> copyShortened(in, out, 4)));
+            firstOutput = chain.current();
+            assertEquals("012345", Files.readString(firstOutput));
+
+            assertTrue(chain.run("trim again", (in, out) -> copyShortened(in, out, 2)));
+            assertEquals("0123", Files.readString(chain.current()));
+            assertFalse(Files.exists(firstOutput), "intermediate deleted after next stage");
+            assertTrue(Files.exists(input), "input is never deleted");
+
+            List<ToolChain.StageReport> reports = chain.getReports();
+            assertEquals(2, reports.size());
+            assertEquals(ToolChain.Outcome.APPLIED, reports.get(0).outcome());
+            assertEquals(10, reports.get(0).inputBytes());
+            assertEquals(6, reports.get(0).outputBytes());
+        }
+        assertEquals(2, notes.size());
+        assertTrue(notes.get(0).startsWith("trim: 10 B -> 6 B (-40.0%)"), notes.get(0));
+    }
+
+    @Test
+    void unchangedAndSkippedStagesKeepCurrentFile() throws Exception {
+        try (ToolChain chain = new ToolChain(tempFileManager, input, ".txt", notes::add)) {
+            assertFalse(chain.run("no-op", (in, out) -> false));
+            assertFalse(chain.run("never", in -> false, (in, out) -> fail("must not run")));
+            assertEquals(input, chain.current());
+
+            assertEquals(
+                    List.of(ToolChain.Outcome.UNCHANGED, ToolChain.Outcome.SKIPPED),
+                    chain.getReports().stream().map(ToolChain.StageReport::outcome).toList());
+        }
+        assertEquals("never: skipped, nothing to do", notes.get(1));
+    }
+
+    @Test
+    void inspectingStagesLeaveSmallPdfForTheNextStage() throws Exception {
+        CustomPDFDocumentFactory factory =
+                new CustomPDFDocumentFactory(
+                        new PdfMetadataService(new ApplicationProperties(), "label", false, null));
+        Path pdf = tempDir.resolve("small.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            document.save(pdf.toFile());
+        }
+
+        try (ToolChain chain = new ToolChain(tempFileManager, pdf, ".pdf", null)) {
+            // Like image compression on a document without images: open, look, change nothing
+            assertFalse(
+                    chain.run(
+                            "images",
+                            (in, out) -> {
+                                try (PDDocument document = factory.loadKeepingFile(in, false)) {
+                                    return document.getNumberOfPages() == 0;
+                                }
+                            }));
+            assertFalse(
+                    chain.run(
+                            "image cleanup",
+                            in -> {
+                                try (PDDocument document = factory.loadKeepingFile(in, true)) {
+                                    return document.getNumberOfPages() == 0;
+                                }
+                            },
+                            (in, out) -> fail("must not run")));
+            assertTrue(Files.exists(chain.current()), "inspected input is still there");
+
+            assertTrue(
+                    chain.run(
+                            "copy",
+                            (in, out) -> {
+                                Files.copy(in, out, StandardCopyOption.REPLACE_EXISTING);
+                                return true;
+                            }));
+            try (PDDocument result = factory.loadKeepingFile(chain.current(), true)) {
+                assertEquals(1, result.getNumberOfPages());
+            }
+        }
+    }
+
+    @Test
+    void failedStageIsReportedAndRethrown() throws Exception {
+        try (ToolChain chain = new ToolChain(tempFileManager, input, ".txt", null)) {
+            chain.run("trim", (in, out) -> copyShortened(in, out, 1));
+            Path current = chain.current();
+
+            IOException error =
+                    assertThrows(
+                            IOException.class,
+                            () ->
+                                    chain.run(
+                                            "broken",
+                                            (in, out) -> {
+                                                throw new IOException("tool crashed");
+                                            }));
+            assertEquals("tool crashed", error.getMessage());
+            assertEquals(current, chain.current());
+            assertEquals(ToolChain.Outcome.FAILED, chain.getReports().get(1).outcome());
+
+            assertThrows(IOException.class, () -> chain.run("silent", (in, out) -> true));
+        }
+    }
+
+    private static boolean copyShortened(Path in, Path out, int drop) throws IOException {
+        String content = Files.readString(in);
+        Files.writeString(out, content.substring(0, content.length() - drop));
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package stirling.software.common.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WeasyPrintPoolTest {
+
+    // Stands in for the Python worker: answers every job line with success
+    private static final String FAKE_WORKER =
+            "echo '{\"ready\":true}'; while read line; do echo '{\"ok\":true,\"rssKb\":1}'; done";
+
+    @TempDir Path tempDir;
+
+    @Test
+    void jobFromCommand_parsesFileToFileConversion() {
+        String input = tempDir.resolve("in.html").toString();
+        String output = tempDir.resolve("out.pdf").toString();
+
+        WeasyPrintPool.Job job =
+                WeasyPrintPool.Job.fromCommand(
+                        List.of("weasyprint", "-e", "utf-8", "-v", "--pdf-forms", input, output));
+
+        assertEquals(new WeasyPrintPool.Job(input, output, "utf-8", null, true), job);
+    }
+
+    @Test
+    void jobFromCommand_keepsBaseUrl() {
+        String input = tempDir.resolve("in.html").toString();
+        String output = tempDir.resolve("out.pdf").toString();
+
+        WeasyPrintPool.Job job =
+                WeasyPrintPool.Job.fromCommand(
+                        List.of(
+                                "weasyprint",
+                                input,
+                                "--base-url",
+                                "https://example.com",
+                                "--pdf-forms",
+                                output));
+
+        assertNotNull(job);
+        assertEquals("https://example.com", job.baseUrl());
+    }
+
+    @Test
+    void jobFromCommand_rejectsUnsupportedCommands() {
+        String output = tempDir.resolve("out.pdf").toString();
+        String zip = tempDir.resolve("site.zip").toString();
+        String html = tempDir.resolve("in.html").toString();
+
+        assertNull(WeasyPrintPool.Job.fromCommand(List.of("weasyprint", zip, output)));
+        assertNull(WeasyPrintPool.Job.fromCommand(List.of("weasyprint", "in.html", output)));
+        assertNull(
+                WeasyPrintPool.Job.fromCommand(
+                        List.of("weasyprint", "--presentational-hints", html, output)));
+        assertNull(WeasyPrintPool.Job.fromCommand(List.of("weasyprint", html)));
+    }
+
+    @Test
+    void render_reusesWorkerAndRecyclesAfterMaxJobs() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        WeasyPrintPool pool = new WeasyPrintPool(List.of("/bin/sh", "-c", FAKE_WORKER), 1, 3, 0);
+        try {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(pool.render(job(), 1));
+            }
+            // Jobs 1-3 on the first worker, 4-5 on its replacement
+            assertEquals(2, pool.startedWorkers());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void render_stopsBusyWorkerAfterShutdown() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        String slowWorker =
+                "echo '{\"ready\":true}'; while read line; do sleep 0.3;"
+                        + " echo '{\"ok\":true,\"rssKb\":1}'; done";
+        WeasyPrintPool pool = new WeasyPrintPool(List.of("/bin/sh", "-c", slowWorker), 1, 10, 0);
+        CompletableFuture<Boolean> rendered =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return pool.render(job(), 1);
+                            } catch (IOException | InterruptedException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pool.startedWorkers() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        pool.shutdown();
+
+        assertTrue(rendered.get(10, TimeUnit.SECONDS));
+        assertEquals(0, pool.idleWorkers());
+        assertFalse(pool.render(job(), 1));
+    }
+
+    @Test
+    void render_reportsConversionErrors() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        String failingWorker =
+                "echo '{\"ready\":true}'; while read line; do echo '{\"ok\":false,\"error\":\"bad"
+                        + " html\"}'; done";
+        WeasyPrintPool pool = new WeasyPrintPool(List.of("/bin/sh", "-c", failingWorker), 1, 10, 0);
+        try {
+            IOException e = assertThrows(IOException.class, () -> pool.render(job(), 1));
+            assertTrue(e.getMessage().contains("bad html"));
+            assertTrue(pool.isAvailable());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void render_disablesPoolWhenWorkerCannotStart() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        WeasyPrintPool pool = new WeasyPrintPool(List.of("/bin/sh", "-c", "exit 1"), 1, 10, 0);
+
+        assertFalse(pool.render(job(), 1));
+        assertFalse(pool.isAvailable());
+        assertFalse(pool.render(job(), 1));
+    }
+
+    @Test
+    void findInterpreter_readsShebangOfPythonScripts() throws IOException {
+        Path script = tempDir.resolve("weasyprint");
+        Files.writeString(script, "#!/opt/venv/bin/python3\nimport sys\n");
+        assertEquals(
+                List.of("/opt/venv/bin/python3"),
+                WeasyPrintPool.findInterpreter(script.toString()));
+
+        Path envScript = tempDir.resolve("weasyprint-env");
+        Files.writeString(envScript, "#!/usr/bin/env python3\n");
+        assertEquals(
+                List.of("/usr/bin/env", "python3"),
+                WeasyPrintPool.findInterpreter(envScript.toString()));
+
+        Path shellScript = tempDir.resolve("weasyprint-sh");
+        Files.writeString(shellScript, "#!/bin/sh\nexec weasyprint \"$@\"\n");
+        assertNull(WeasyPrintPool.findInterpreter(shellScript.toString()));
+        assertNull(WeasyPrintPool.findInterpreter(tempDir.resolve("missing").toString()));
+    }
+
+    private WeasyPrintPool.Job job() {
+        return new WeasyPrintPool.Job(
+                tempDir.resolve("in.html").toString(),
+                tempDir.resolve("out.pdf").toString(),
+                "utf-8",
+                null,
+                true);
+    }
+}
@@ -0,0 +1,90 @@
+package stirling.software.SPDF.config;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.CharacterEncodingFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import stirling.software.common.model.ApplicationProperties;
+
+/**
+ * Measures the per-request cost of endpoint enablement checks, on their own and behind a servlet
+ * filter chain. Run with {@code ./gradlew :stirling-pdf:jmh -PjmhIncludes=EndpointInterceptor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EndpointInterceptorBenchmark {
+
+    @Param({"/api/v1/general/remove-pages", "/api/v1/convert/pdf/img", "/api/v1/misc/compress-pdf"})
+    public String uri;
+
+    private EndpointConfiguration endpointConfiguration;
+    private EndpointInterceptor interceptor;
+    private CharacterEncodingFilter encodingFilter;
+    private HttpServlet dispatcher;
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        endpointConfiguration = new EndpointConfiguration(new ApplicationProperties(), true);
+        // Mirror a typical container where some tools are missing
+        endpointConfiguration.disableGroup("qpdf", EndpointConfiguration.DisableReason.DEPENDENCY);
+        endpointConfiguration.disableGroup(
+                "LibreOffice", EndpointConfiguration.DisableReason.DEPENDENCY);
+        endpointConfiguration.disableEndpoint("remove-pages");
+
+        interceptor = new EndpointInterceptor(endpointConfiguration);
+        encodingFilter = new CharacterEncodingFilter("UTF-8", true);
+        dispatcher =
+                new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse resp)
+                            throws ServletException, IOException {
+                        try {
+                            interceptor.preHandle(req, resp, null);
+                        } catch (Exception e) {
+                            throw new ServletException(e);
+                        }
+                    }
+                };
+
+        request = new MockHttpServletRequest("POST", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uri);
+    }
+
+    @Benchmark
+    public boolean isEndpointEnabled() {
+        return endpointConfiguration.isEndpointEnabled("compress-pdf");
+    }
+
+    @Benchmark
+    public boolean interceptor() throws Exception {
+        return interceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    @Benchmark
+    public int filterChainAndInterceptor() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(dispatcher, encodingFilter).doFilter(request, response);
+        return response.getStatus();
+    }
+}
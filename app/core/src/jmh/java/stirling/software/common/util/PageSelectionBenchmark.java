@@ -0,0 +1,43 @@
+package stirling.software.common.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures expanding page selections for large documents, as a boxed list and as the primitive
+ * forms the tools use. Run with {@code ./gradlew :stirling-pdf:jmh -PjmhIncludes=PageSelection}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSelectionBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int totalPages;
+
+    @Param({"1-50,100-,7", "2n+1", "all"})
+    public String expression;
+
+    @Benchmark
+    public List<Integer> parsePageList() {
+        return GeneralUtils.parsePageList(expression, totalPages, false);
+    }
+
+    @Benchmark
+    public int[] toArray() {
+        return PageSelection.compile(expression).toArray(totalPages, false);
+    }
+
+    @Benchmark
+    public int toBitSet() {
+        return PageSelection.compile(expression).toBitSet(totalPages).cardinality();
+    }
+}
@@ -1,7 +1,11 @@
 package stirling.software.SPDF.config;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -16,31 +20,20 @@ public class EndpointInterceptor implements HandlerInterceptor {
 
     private final EndpointConfiguration endpointConfiguration;
 
+    /**
+     * Endpoint names resolved per handler mapping pattern. The set of patterns is fixed by the
+     * registered controllers, so this only grows until every mapping has been hit once.
+     */
+    private final Map<String, String> endpointNamesByPattern = new ConcurrentHashMap<>();
+
     @Override
     public boolean preHandle(
             HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
-        String requestURI = request.getRequestURI();
-        boolean isEnabled;
-
-        // Extract the specific endpoint name (e.g: /api/v1/general/remove-pages -> remove-pages)
-        if (requestURI.contains("/api/v1") && requestURI.split("/").length > 4) {
-
-            String[] requestURIParts = requestURI.split("/");
-            String requestEndpoint;
-
-            // Endpoint: /api/v1/convert/pdf/img becomes pdf-to-img
-            if ("convert".equals(requestURIParts[3]) && requestURIParts.length > 5) {
-                requestEndpoint = requestURIParts[4] + "-to-" + requestURIParts[5];
-            } else {
-                requestEndpoint = requestURIParts[4];
-            }
-
-            log.debug("Request endpoint: {}", requestEndpoint);
-            isEnabled = endpointConfiguration.isEndpointEnabled(requestEndpoint);
-            log.debug("Is endpoint enabled: {}", isEnabled);
-        } else {
-            isEnabled = endpointConfiguration.isEndpointEnabled(requestURI);
+        String requestEndpoint = resolveEndpointName(request);
+        boolean isEnabled = endpointConfiguration.isEndpointEnabled(requestEndpoint);
+        if (log.isDebugEnabled()) {
+            log.debug("Request endpoint: {}, enabled: {}", requestEndpoint, isEnabled);
         }
 
         if (!isEnabled) {
@@ -49,4 +42,34 @@ public class EndpointInterceptor implements HandlerInterceptor {
         }
         return true;
     }
+
+    private String resolveEndpointName(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Patterns with path variables or wildcards can map to several endpoint names, so only
+        // literal patterns are cached.
+        if (pattern instanceof String mappingPattern
+                && mappingPattern.indexOf('{') < 0
+                && mappingPattern.indexOf('*') < 0) {
+            return endpointNamesByPattern.computeIfAbsent(
+                    mappingPattern, EndpointInterceptor::toEndpointName);
+        }
+        return toEndpointName(request.getRequestURI());
+    }
+
+    /**
+     * Extracts the endpoint name from an API path (e.g. /api/v1/general/remove-pages ->
+     * remove-pages, /api/v1/convert/pdf/img -> pdf-to-img). Non-API paths are returned unchanged.
+     */
+    static String toEndpointName(String requestURI) {
+        if (requestURI.contains("/api/v1")) {
+            String[] requestURIParts = requestURI.split("/");
+            if (requestURIParts.length > 4) {
+                if ("convert".equals(requestURIParts[3]) && requestURIParts.length > 5) {
+                    return requestURIParts[4] + "-to-" + requestURIParts[5];
+                }
+                return requestURIParts[4];
+            }
+        }
+        return requestURI;
+    }
 }
@@ -15,7 +15,8 @@ public class MetricsConfig {
         return new MeterFilter() {
             @Override
             public MeterFilterReply accept(Meter.Id id) {
-                if ("http.requests".equals(id.getName())) {
+                // The request counter and its latency and payload size histograms
+                if (id.getName().startsWith("http.requests")) {
                     return MeterFilterReply.NEUTRAL;
                 }
                 return MeterFilterReply.DENY;
@@ -4,9 +4,7 @@ import java.io.IOException;
 
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.HandlerMapping;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -16,33 +14,42 @@ import jakarta.servlet.http.HttpSession;
 
 import lombok.RequiredArgsConstructor;
 
+import stirling.software.SPDF.service.RequestMetricsService;
 import stirling.software.common.util.RequestUriUtils;
 
 @Component
 @RequiredArgsConstructor
 public class MetricsFilter extends OncePerRequestFilter {
 
-    private final MeterRegistry meterRegistry;
+    private final RequestMetricsService requestMetricsService;
 
     @Override
     protected void doFilterInternal(
             HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String uri = request.getRequestURI();
+        if (!RequestUriUtils.isTrackableResource(request.getContextPath(), uri)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if (RequestUriUtils.isTrackableResource(request.getContextPath(), uri)) {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Tag with the matched route template, never the raw URI, to keep the number of
+            // meters bounded
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route =
+                    pattern != null ? pattern.toString() : RequestMetricsService.UNMATCHED_ROUTE;
             HttpSession session = request.getSession(false);
             String sessionId = (session != null) ? session.getId() : "no-session";
-            Counter counter =
-                    Counter.builder("http.requests")
-                            .tag("session", sessionId)
-                            .tag("method", request.getMethod())
-                            .tag("uri", uri)
-                            .register(meterRegistry);
-
-            counter.increment();
+            requestMetricsService.record(
+                    request.getMethod(),
+                    route,
+                    sessionId,
+                    System.nanoTime() - start,
+                    Math.max(0, request.getContentLengthLong()));
         }
-
-        filterChain.doFilter(request, response);
     }
 }
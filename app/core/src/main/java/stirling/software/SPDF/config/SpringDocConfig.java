@@ -28,7 +28,8 @@ public class SpringDocConfig {
                         "/api/v1/proprietary/ui-data/**",
                         "/api/v1/info/**",
                         "/api/v1/general/job/**",
-                        "/api/v1/general/files/**")
+                        "/api/v1/general/files/**",
+                        "/api/v1/general/uploads/**")
                 .addOpenApiCustomizer(pdfFileOneOfCustomizer)
                 .addOpenApiCustomizer(
                         openApi -> {
@@ -75,7 +76,8 @@ public class SpringDocConfig {
                         "/api/v1/proprietary/ui-data/**",
                         "/api/v1/info/**",
                         "/api/v1/general/job/**",
-                        "/api/v1/general/files/**")
+                        "/api/v1/general/files/**",
+                        "/api/v1/general/uploads/**")
                 .addOpenApiCustomizer(
                         openApi -> {
                             openApi.info(
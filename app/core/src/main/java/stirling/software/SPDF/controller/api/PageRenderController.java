@@ -0,0 +1,150 @@
+package stirling.software.SPDF.controller.api;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.apache.pdfbox.rendering.ImageType;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import lombok.RequiredArgsConstructor;
+
+import stirling.software.SPDF.service.PageRenderCacheService;
+import stirling.software.SPDF.service.PageRenderCacheService.DocumentInfo;
+import stirling.software.SPDF.service.PageRenderCacheService.PageKey;
+import stirling.software.common.util.GeneralUtils;
+
+/**
+ * Serves page thumbnails and previews from {@link PageRenderCacheService}. Page images are
+ * addressed by the document's content hash, so their URLs never change meaning and browsers and
+ * proxies may cache them indefinitely; conditional and range requests are answered by Spring from
+ * the ETag and the image resource.
+ */
+@RestController
+@RequestMapping("/api/v1/page-renders")
+@Tag(
+        name = "Page Renders",
+        description = "Cached page images for thumbnails and previews of uploaded PDFs.")
+@RequiredArgsConstructor
+public class PageRenderController {
+
+    // Pages rendered up front when the caller does not say which pages are on screen
+    private static final int DEFAULT_VISIBLE_PAGES = 4;
+
+    private final PageRenderCacheService pageRenderCacheService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Register a PDF for page rendering",
+            description =
+                    "Stores the PDF under its SHA-256 and starts rendering the visible pages in the"
+                            + " background. Returns the document id used in page URLs."
+                            + " Input:PDF Output:JSON Type:SISO")
+    public ResponseEntity<Map<String, Object>> register(
+            @RequestParam("fileInput") MultipartFile fileInput,
+            @Parameter(description = "Pages on screen, most important first, e.g. 3,4,2,5-8")
+                    @RequestParam(value = "visiblePages", required = false)
+                    String visiblePages,
+            @RequestParam(value = "dpi", defaultValue = "96") int dpi,
+            @Parameter(description = "color, greyscale or blackwhite")
+                    @RequestParam(value = "colorType", defaultValue = "color")
+                    String colorType)
+            throws IOException {
+        ImageType imageType = PageRenderCacheService.parseColorType(colorType);
+        DocumentInfo document = pageRenderCacheService.register(fileInput);
+        pageRenderCacheService.schedulePages(
+                document.documentId(),
+                pageIndexes(visiblePages, document.pageCount()),
+                dpi,
+                imageType);
+        return ResponseEntity.ok(
+                Map.of(
+                        "documentId", document.documentId(),
+                        "pageCount", document.pageCount()));
+    }
+
+    @PostMapping("/{documentId}/prefetch")
+    @Operation(
+            summary = "Prioritise pages of a registered PDF",
+            description =
+                    "Queues background renders for the given pages ahead of anything requested"
+                            + " earlier, e.g. after the user scrolled.")
+    public ResponseEntity<Void> prefetch(
+            @PathVariable String documentId,
+            @RequestParam(value = "visiblePages", required = false) String visiblePages,
+            @RequestParam(value = "dpi", defaultValue = "96") int dpi,
+            @RequestParam(value = "colorType", defaultValue = "color") String colorType)
+            throws IOException {
+        ImageType imageType = PageRenderCacheService.parseColorType(colorType);
+        Optional<Integer> pageCount = pageRenderCacheService.pageCount(documentId);
+        if (pageCount.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        pageRenderCacheService.schedulePages(
+                documentId, pageIndexes(visiblePages, pageCount.get()), dpi, imageType);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping(value = "/{documentId}/pages/{pageNumber}", produces = MediaType.IMAGE_PNG_VALUE)
+    @Operation(
+            summary = "Get a rendered page",
+            description =
+                    "Returns the page as PNG, rendering it first if needed. Supports If-None-Match"
+                            + " and Range requests.")
+    public ResponseEntity<Resource> getPage(
+            @PathVariable String documentId,
+            @Parameter(description = "1-based page number") @PathVariable int pageNumber,
+            @RequestParam(value = "dpi", defaultValue = "96") int dpi,
+            @RequestParam(value = "colorType", defaultValue = "color") String colorType,
+            WebRequest webRequest)
+            throws IOException {
+        PageKey key =
+                new PageKey(
+                        documentId,
+                        pageNumber - 1,
+                        dpi,
+                        PageRenderCacheService.parseColorType(colorType));
+        if (pageRenderCacheService.pageCount(documentId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // The ETag only depends on the key, so revalidation never needs the image itself
+        if (webRequest.checkNotModified(key.etag())) {
+            return null;
+        }
+        Optional<byte[]> png = pageRenderCacheService.getPage(key);
+        if (png.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .eTag(key.etag())
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                .contentType(MediaType.IMAGE_PNG)
+                .body(new ByteArrayResource(png.get()));
+    }
+
+    private static List<Integer> pageIndexes(String visiblePages, int pageCount) {
+        if (visiblePages == null || visiblePages.isBlank()) {
+            return IntStream.range(0, Math.min(DEFAULT_VISIBLE_PAGES, pageCount)).boxed().toList();
+        }
+        return GeneralUtils.parsePageList(visiblePages, pageCount, false);
+    }
+}
@@ -2,7 +2,7 @@ package stirling.software.SPDF.controller.api;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Locale;
 
@@ -27,6 +27,7 @@ import stirling.software.common.annotations.api.GeneralApi;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
+import stirling.software.common.util.PageSelection;
 import stirling.software.common.util.WebResponseUtils;
 
 @GeneralApi
@@ -48,20 +49,18 @@ public class RearrangePagesPDFController {
             throws IOException {
 
         MultipartFile pdfFile = request.getFileInput();
+        request.validatePageNumbers();
         String pagesToDelete = request.getPageNumbers();
 
         try (PDDocument document = pdfDocumentFactory.load(pdfFile)) {
 
-            // Split the page order string into an array of page numbers or range of numbers
-            String[] pageOrderArr = pagesToDelete.split(",");
+            // Each page is removed once, from the back so the remaining indexes stay valid
+            BitSet pagesToRemove =
+                    PageSelection.compile(pagesToDelete).toBitSet(document.getNumberOfPages());
 
-            List<Integer> pagesToRemove =
-                    GeneralUtils.parsePageList(pageOrderArr, document.getNumberOfPages(), false);
-
-            Collections.sort(pagesToRemove);
-
-            for (int i = pagesToRemove.size() - 1; i >= 0; i--) {
-                int pageIndex = pagesToRemove.get(i);
+            for (int pageIndex = pagesToRemove.length() - 1;
+                    pageIndex >= 0;
+                    pageIndex = pagesToRemove.previousSetBit(pageIndex - 1)) {
                 document.removePage(pageIndex);
             }
             return WebResponseUtils.pdfDocToWebResponse(
@@ -4,7 +4,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.*;
-import java.util.stream.IntStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -34,6 +33,7 @@ import stirling.software.common.annotations.api.GeneralApi;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
+import stirling.software.common.util.PageSelection;
 import stirling.software.common.util.TempFile;
 import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.WebResponseUtils;
@@ -67,7 +67,7 @@ public class SplitPdfBySectionsController {
                         .orElse(SplitTypes.SPLIT_ALL);
 
         try (PDDocument sourceDocument = pdfDocumentFactory.load(file)) {
-            Set<Integer> pagesToSplit =
+            BitSet pagesToSplit =
                     getPagesToSplit(pageNumbers, splitMode, sourceDocument.getNumberOfPages());
 
             // Process the PDF based on split parameters
@@ -85,7 +85,7 @@ public class SplitPdfBySectionsController {
                     for (int pageIndex = 0;
                             pageIndex < sourceDocument.getNumberOfPages();
                             pageIndex++) {
-                        if (pagesToSplit.contains(pageIndex)) {
+                        if (pagesToSplit.get(pageIndex)) {
                             addSplitPageToTarget(
                                     sourceDocument,
                                     pageIndex,
@@ -108,7 +108,7 @@ public class SplitPdfBySectionsController {
                             pageIndex < sourceDocument.getNumberOfPages();
                             pageIndex++) {
                         int pageNum = pageIndex + 1;
-                        if (pagesToSplit.contains(pageIndex)) {
+                        if (pagesToSplit.get(pageIndex)) {
                             for (int i = 0; i < horiz; i++) {
                                 for (int j = 0; j < verti; j++) {
                                     try (PDDocument subDoc =
@@ -279,9 +279,7 @@ public class SplitPdfBySectionsController {
     }
 
     // Based on the mode, get the pages that need to be split and return the pages set
-    private Set<Integer> getPagesToSplit(String pageNumbers, SplitTypes splitMode, int totalPages) {
-        Set<Integer> pagesToSplit = new HashSet<>();
-
+    private BitSet getPagesToSplit(String pageNumbers, SplitTypes splitMode, int totalPages) {
         switch (splitMode) {
             case CUSTOM:
                 if (pageNumbers == null || pageNumbers.isBlank()) {
@@ -291,33 +289,32 @@ public class SplitPdfBySectionsController {
                             "page numbers",
                             "custom");
                 }
-                String[] pageOrderArr = pageNumbers.split(",");
-                List<Integer> pageListToSplit =
-                        GeneralUtils.parsePageList(pageOrderArr, totalPages, false);
-                pagesToSplit.addAll(pageListToSplit);
-                break;
+                PageSelection.validate(pageNumbers);
+                return PageSelection.compile(pageNumbers).toBitSet(totalPages);
 
             case SPLIT_ALL:
-                pagesToSplit.addAll(IntStream.range(0, totalPages).boxed().toList());
-                break;
+                return pageRange(0, totalPages);
 
             case SPLIT_ALL_EXCEPT_FIRST:
-                pagesToSplit.addAll(IntStream.range(1, totalPages).boxed().toList());
-                break;
+                return pageRange(1, totalPages);
 
             case SPLIT_ALL_EXCEPT_LAST:
-                pagesToSplit.addAll(IntStream.range(0, totalPages - 1).boxed().toList());
-                break;
+                return pageRange(0, totalPages - 1);
 
             case SPLIT_ALL_EXCEPT_FIRST_AND_LAST:
-                pagesToSplit.addAll(IntStream.range(1, totalPages - 1).boxed().toList());
-                break;
+                return pageRange(1, totalPages - 1);
 
             default:
                 throw ExceptionUtils.createIllegalArgumentException(
                         "error.invalidFormat", "Invalid {0} format: {1}", "split mode", splitMode);
         }
+    }
 
-        return pagesToSplit;
+    private static BitSet pageRange(int fromIndex, int toIndex) {
+        BitSet pages = new BitSet();
+        if (fromIndex < toIndex) {
+            pages.set(fromIndex, toIndex);
+        }
+        return pages;
     }
 }
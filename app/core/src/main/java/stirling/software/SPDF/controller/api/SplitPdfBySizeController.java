@@ -63,15 +63,11 @@ public class SplitPdfBySizeController {
             Path managedZipPath = zipTempFile.getPath();
             log.debug("Created temporary managed zip file: {}", managedZipPath);
             try {
-                log.debug("Reading input file bytes");
-                byte[] pdfBytes = file.getBytes();
-                log.debug("Successfully read {} bytes from input file", pdfBytes.length);
-
                 log.debug("Creating ZIP output stream");
                 try (ZipOutputStream zipOut =
                         new ZipOutputStream(Files.newOutputStream(managedZipPath))) {
-                    log.debug("Loading PDF document");
-                    try (PDDocument sourceDocument = pdfDocumentFactory.load(pdfBytes)) {
+                    log.debug("Loading PDF document of {} bytes", file.getSize());
+                    try (PDDocument sourceDocument = pdfDocumentFactory.load(file)) {
                         log.debug(
                                 "Successfully loaded PDF with {} pages",
                                 sourceDocument.getNumberOfPages());
@@ -2,6 +2,8 @@ package stirling.software.SPDF.controller.api.converters;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Locale;
 
 import org.jetbrains.annotations.NotNull;
@@ -26,6 +28,8 @@ import stirling.software.common.model.api.converters.EmlToPdfRequest;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.CustomHtmlSanitizer;
 import stirling.software.common.util.EmlToPdf;
+import stirling.software.common.util.PathMultipartFile;
+import stirling.software.common.util.TempFile;
 import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.WebResponseUtils;
 
@@ -48,7 +52,7 @@ public class ConvertEmlToPDF {
                             + " with extensive customization options. Features include font settings,"
                             + " image constraints, display modes, attachment handling, and HTML debug"
                             + " output. Input: EML or MSG file, Output: PDF or HTML file. Type: SISO")
-    public ResponseEntity<byte[]> convertEmlToPdf(@ModelAttribute EmlToPdfRequest request) {
+    public ResponseEntity<?> convertEmlToPdf(@ModelAttribute EmlToPdfRequest request) {
 
         MultipartFile inputFile = request.getFileInput();
         String originalFilename = inputFile.getOriginalFilename();
@@ -76,12 +80,16 @@ public class ConvertEmlToPDF {
 
         String baseFilename = Filenames.toSimpleFileName(originalFilename); // Use Filenames utility
 
+        PathMultipartFile spooled = null;
         try {
-            byte[] fileBytes = inputFile.getBytes();
+            // Parse from disk; uploads arrive spooled unless the request bypassed the job aspect
+            spooled = tempFileManager.spool(inputFile);
+            Path emlFile = spooled.getPath();
 
             if (request.isDownloadHtml()) {
                 try {
-                    String htmlContent = EmlToPdf.convertEmlToHtml(fileBytes, request);
+                    String htmlContent =
+                            EmlToPdf.convertEmlToHtml(emlFile, request, tempFileManager);
                     log.info("Successfully converted email to HTML: {}", originalFilename);
                     return WebResponseUtils.bytesToWebResponse(
                             htmlContent.getBytes(StandardCharsets.UTF_8),
@@ -98,26 +106,31 @@ public class ConvertEmlToPDF {
 
             // Convert EML/MSG to PDF with enhanced options
             try {
-                byte[] pdfBytes =
+                TempFile pdfFile =
                         EmlToPdf.convertEmlToPdf(
                                 runtimePathConfig.getWeasyPrintPath(),
                                 request,
-                                fileBytes,
-                                originalFilename,
+                                emlFile,
                                 pdfDocumentFactory,
                                 tempFileManager,
                                 customHtmlSanitizer);
 
-                if (pdfBytes == null || pdfBytes.length == 0) {
-                    log.error("PDF conversion failed - empty output for {}", originalFilename);
-                    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                            .body(
-                                    "PDF conversion failed - empty output"
-                                            .getBytes(StandardCharsets.UTF_8));
+                try {
+                    if (Files.size(pdfFile.getPath()) == 0) {
+                        pdfFile.close();
+                        log.error("PDF conversion failed - empty output for {}", originalFilename);
+                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                                .body(
+                                        "PDF conversion failed - empty output"
+                                                .getBytes(StandardCharsets.UTF_8));
+                    }
+                    log.info("Successfully converted email to PDF: {}", originalFilename);
+                    // The response deletes the file once it has been sent
+                    return WebResponseUtils.pdfFileToWebResponse(pdfFile, baseFilename + ".pdf");
+                } catch (IOException | RuntimeException e) {
+                    pdfFile.close();
+                    throw e;
                 }
-                log.info("Successfully converted email to PDF: {}", originalFilename);
-                return WebResponseUtils.bytesToWebResponse(
-                        pdfBytes, baseFilename + ".pdf", MediaType.APPLICATION_PDF);
 
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -148,6 +161,11 @@ public class ConvertEmlToPDF {
             log.error("File processing error for email to PDF: {}", originalFilename, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("File processing error".getBytes(StandardCharsets.UTF_8));
+        } finally {
+            // Spooled uploads handed in by the job aspect are cleaned up by the aspect
+            if (spooled != null && spooled != inputFile) {
+                tempFileManager.deleteTempFile(spooled.getPath());
+            }
         }
     }
 
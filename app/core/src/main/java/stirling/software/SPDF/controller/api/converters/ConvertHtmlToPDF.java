@@ -1,9 +1,11 @@
 package stirling.software.SPDF.controller.api.converters;
 
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.github.pixee.security.Filenames;
 import io.swagger.v3.oas.annotations.Operation;
@@ -37,7 +39,7 @@ public class ConvertHtmlToPDF {
             description =
                     "This endpoint takes an HTML or ZIP file input and converts it to a PDF format."
                             + " Input:HTML Output:PDF Type:SISO")
-    public ResponseEntity<byte[]> HtmlToPdf(@ModelAttribute HTMLToPdfRequest request)
+    public ResponseEntity<StreamingResponseBody> HtmlToPdf(@ModelAttribute HTMLToPdfRequest request)
             throws Exception {
         MultipartFile fileInput = request.getFileInput();
 
@@ -52,8 +54,8 @@ public class ConvertHtmlToPDF {
                     "error.fileFormatRequired", "File must be in {0} format", ".html or .zip");
         }
 
-        byte[] pdfBytes =
-                FileToPdf.convertHtmlToPdf(
+        TempFile pdf =
+                FileToPdf.convertHtmlToPdfFile(
                         runtimePathConfig.getWeasyPrintPath(),
                         request,
                         fileInput.getBytes(),
@@ -61,10 +63,18 @@ public class ConvertHtmlToPDF {
                         tempFileManager,
                         customHtmlSanitizer);
 
-        pdfBytes = pdfDocumentFactory.createNewBytesBasedOnOldDocument(pdfBytes);
+        // Re-save with the default metadata, keeping the PDF on disk
+        TempFile output = new TempFile(tempFileManager, ".pdf");
+        try (pdf;
+                PDDocument document = pdfDocumentFactory.load(pdf.getFile())) {
+            document.save(output.getFile());
+        } catch (Exception e) {
+            output.close();
+            throw e;
+        }
 
         String outputFilename = GeneralUtils.generateFilename(originalFilename, ".pdf");
 
-        return WebResponseUtils.bytesToWebResponse(pdfBytes, outputFilename);
+        return WebResponseUtils.pdfFileToWebResponse(output, outputFilename);
     }
 }
@@ -45,12 +45,14 @@ import stirling.software.common.util.CbzUtils;
 import stirling.software.common.util.CheckProgramInstall;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
+import stirling.software.common.util.ImageToPdfBuilder;
 import stirling.software.common.util.PdfToCbrUtils;
 import stirling.software.common.util.PdfToCbzUtils;
 import stirling.software.common.util.PdfUtils;
 import stirling.software.common.util.ProcessExecutor;
 import stirling.software.common.util.ProcessExecutor.ProcessExecutorResult;
 import stirling.software.common.util.RegexPatternUtils;
+import stirling.software.common.util.TempFile;
 import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.WebResponseUtils;
 
@@ -240,7 +242,7 @@ public class ConvertImgPDFController {
                     "This endpoint converts one or more images to a PDF file. Users can specify"
                             + " whether to stretch the images to fit the PDF page, and whether to"
                             + " automatically rotate the images. Input:Image Output:PDF Type:MISO")
-    public ResponseEntity<byte[]> convertToPdf(@ModelAttribute ConvertToPdfRequest request)
+    public ResponseEntity<?> convertToPdf(@ModelAttribute ConvertToPdfRequest request)
             throws IOException {
         MultipartFile[] file = request.getFileInput();
         String fitOption = request.getFitOption();
@@ -253,11 +255,17 @@ public class ConvertImgPDFController {
         if (fitOption == null || fitOption.isEmpty()) {
             fitOption = "fillPage";
         }
-        // Convert the file to PDF and get the resulting bytes
-        byte[] bytes =
-                PdfUtils.imageToPdf(file, fitOption, autoRotate, colorType, pdfDocumentFactory);
-        return WebResponseUtils.bytesToWebResponse(
-                bytes,
+        // Convert the images to a PDF on disk and stream it back
+        TempFile pdf =
+                new ImageToPdfBuilder(
+                                pdfDocumentFactory,
+                                tempFileManager,
+                                fitOption,
+                                autoRotate,
+                                colorType)
+                        .build(file);
+        return WebResponseUtils.pdfFileToWebResponse(
+                pdf,
                 GeneralUtils.generateFilename(file[0].getOriginalFilename(), "_converted.pdf"));
     }
 
@@ -3,6 +3,7 @@ package stirling.software.SPDF.controller.api.converters;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.commonmark.Extension;
 import org.commonmark.ext.gfm.tables.TableBlock;
 import org.commonmark.ext.gfm.tables.TablesExtension;
@@ -14,6 +15,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.github.pixee.security.Filenames;
 import io.swagger.v3.oas.annotations.Operation;
@@ -46,8 +48,8 @@ public class ConvertMarkdownToPdf {
             description =
                     "This endpoint takes a Markdown file input, converts it to HTML, and then to"
                             + " PDF format. Input:MARKDOWN Output:PDF Type:SISO")
-    public ResponseEntity<byte[]> markdownToPdf(@ModelAttribute GeneralFile generalFile)
-            throws Exception {
+    public ResponseEntity<StreamingResponseBody> markdownToPdf(
+            @ModelAttribute GeneralFile generalFile) throws Exception {
         MultipartFile fileInput = generalFile.getFileInput();
 
         if (fileInput == null) {
@@ -74,17 +76,25 @@ public class ConvertMarkdownToPdf {
 
         String htmlContent = renderer.render(document);
 
-        byte[] pdfBytes =
-                FileToPdf.convertHtmlToPdf(
+        TempFile pdf =
+                FileToPdf.convertHtmlToPdfFile(
                         runtimePathConfig.getWeasyPrintPath(),
                         null,
                         htmlContent.getBytes(),
                         "converted.html",
                         tempFileManager,
                         customHtmlSanitizer);
-        pdfBytes = pdfDocumentFactory.createNewBytesBasedOnOldDocument(pdfBytes);
+        // Re-save with the default metadata, keeping the PDF on disk
+        TempFile output = new TempFile(tempFileManager, ".pdf");
+        try (pdf;
+                PDDocument pdfDocument = pdfDocumentFactory.load(pdf.getFile())) {
+            pdfDocument.save(output.getFile());
+        } catch (Exception e) {
+            output.close();
+            throw e;
+        }
         String outputFilename = GeneralUtils.generateFilename(originalFilename, ".pdf");
-        return WebResponseUtils.bytesToWebResponse(pdfBytes, outputFilename);
+        return WebResponseUtils.pdfFileToWebResponse(output, outputFilename);
     }
 }
 
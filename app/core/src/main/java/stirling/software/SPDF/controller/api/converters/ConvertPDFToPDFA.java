@@ -89,9 +89,12 @@ import stirling.software.SPDF.model.api.converters.PdfToPdfARequest;
 import stirling.software.common.annotations.AutoJobPostMapping;
 import stirling.software.common.annotations.api.ConvertApi;
 import stirling.software.common.configuration.RuntimePathConfig;
+import stirling.software.common.service.TaskManager;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.ProcessExecutor;
 import stirling.software.common.util.ProcessExecutor.ProcessExecutorResult;
+import stirling.software.common.util.TempFileManager;
+import stirling.software.common.util.ToolChain;
 import stirling.software.common.util.WebResponseUtils;
 
 @ConvertApi
@@ -102,6 +105,8 @@ public class ConvertPDFToPDFA {
     private static final Pattern NON_PRINTABLE_ASCII = Pattern.compile("[^\\x20-\\x7E]");
     private final RuntimePathConfig runtimePathConfig;
     private final stirling.software.SPDF.service.VeraPDFService veraPDFService;
+    private final TempFileManager tempFileManager;
+    private final TaskManager taskManager;
 
     private static final String ICC_RESOURCE_PATH = "/icc/sRGB2014.icc";
     private static final int PDFA_COMPATIBILITY_POLICY = 1;
@@ -1520,73 +1525,100 @@ public class ConvertPDFToPDFA {
 
     private byte[] convertWithGhostscript(Path inputPdf, Path workingDir, PdfaProfile profile)
             throws IOException, InterruptedException {
-        Path outputPdf = workingDir.resolve("gs_output.pdf");
         ColorProfiles colorProfiles = prepareColorProfiles(workingDir);
         Path pdfaDefFile = createPdfaDefFile(workingDir, colorProfiles, profile);
 
-        // Preprocess PDF for PDF/A compliance using the sanitizer
-        // We add a white background to ensure transparency is flattened correctly against white
-        // instead of black, addressing common PDF/A conversion issues.
-        Path sanitizedInputPdf = sanitizePdfWithPdfBox(inputPdf, true);
-        Path preprocessedPdf = sanitizedInputPdf != null ? sanitizedInputPdf : inputPdf;
+        try (ToolChain chain =
+                new ToolChain(
+                        tempFileManager, inputPdf, ".pdf", taskManager::addNoteToCurrentJob)) {
+            // Preprocess PDF for PDF/A compliance using the sanitizer
+            // We add a white background to ensure transparency is flattened correctly against
+            // white instead of black, addressing common PDF/A conversion issues.
+            runOptionalStage(
+                    chain,
+                    "PDFBox sanitization",
+                    (in, out) -> {
+                        sanitizeDocument(in, out, true);
+                        return true;
+                    });
+
+            boolean qpdfAvailable = isQpdfAvailable();
+
+            // For PDF/A-1, clean CIDSet issues that may cause validation failures
+            boolean cidSetCleaned =
+                    qpdfAvailable
+                            && profile.getPart() == 1
+                            && runOptionalStage(
+                                    chain,
+                                    "QPDF CIDSet cleanup",
+                                    (in, out) ->
+                                            runQpdf(
+                                                    in,
+                                                    out,
+                                                    "--remove-unreferenced-resources=yes",
+                                                    "--normalize-content=y",
+                                                    "--object-streams=preserve"));
+
+            // Normalize PDF with qpdf before Ghostscript conversion to ensure proper font program
+            // handling; the CIDSet cleanup already normalizes content, so a second pass is a no-op
+            if (qpdfAvailable) {
+                runOptionalStage(
+                        chain,
+                        "QPDF normalization",
+                        in -> !cidSetCleaned,
+                        (in, out) ->
+                                runQpdf(
+                                        in,
+                                        out,
+                                        "--normalize-content=y",
+                                        "--object-streams=preserve"));
+            }
+
+            chain.run(
+                    "Ghostscript " + profile.getDisplayName(),
+                    (in, out) -> {
+                        List<String> command =
+                                buildGhostscriptCommand(
+                                        in, out, colorProfiles, workingDir, profile, pdfaDefFile);
+
+                        log.info("Running Ghostscript command: {}", String.join(" ", command));
+
+                        ProcessExecutorResult result =
+                                ProcessExecutor.getInstance(ProcessExecutor.Processes.GHOSTSCRIPT)
+                                        .runCommandWithOutputHandling(command);
+
+                        if (result.getRc() != 0) {
+                            log.error("Ghostscript failed with output: {}", result.getMessages());
+                            throw new IOException("Ghostscript exited with code " + result.getRc());
+                        }
 
-        // For PDF/A-1, clean CIDSet issues that may cause validation failures
-        if (profile.getPart() == 1) {
-            Path cidSetCleaned = cleanCidSetWithQpdf(preprocessedPdf);
-            if (cidSetCleaned != null) {
-                preprocessedPdf = cidSetCleaned;
-            }
+                        if (!Files.exists(out) || Files.size(out) == 0) {
+                            throw new IOException("Ghostscript did not produce an output file");
+                        }
+                        return true;
+                    });
+
+            return Files.readAllBytes(chain.current());
         }
+    }
 
-        // Normalize PDF with qpdf before Ghostscript conversion to ensure proper font program
-        // handling
-        Path normalizedInputPdf = normalizePdfWithQpdf(preprocessedPdf);
-        Path inputForGs = (normalizedInputPdf != null) ? normalizedInputPdf : preprocessedPdf;
+    /** Runs a preprocessing stage whose failure only means the document goes on unchanged. */
+    private static boolean runOptionalStage(ToolChain chain, String name, ToolChain.Stage stage)
+            throws InterruptedException {
+        return runOptionalStage(chain, name, null, stage);
+    }
 
+    private static boolean runOptionalStage(
+            ToolChain chain,
+            String name,
+            ToolChain.Precondition precondition,
+            ToolChain.Stage stage)
+            throws InterruptedException {
         try {
-            List<String> command =
-                    buildGhostscriptCommand(
-                            inputForGs, outputPdf, colorProfiles, workingDir, profile, pdfaDefFile);
-
-            log.info("Running Ghostscript command: {}", String.join(" ", command));
-
-            ProcessExecutorResult result =
-                    ProcessExecutor.getInstance(ProcessExecutor.Processes.GHOSTSCRIPT)
-                            .runCommandWithOutputHandling(command);
-
-            if (result.getRc() != 0) {
-                log.error("Ghostscript failed with output: {}", result.getMessages());
-                throw new IOException("Ghostscript exited with code " + result.getRc());
-            }
-
-            if (!Files.exists(outputPdf)) {
-                throw new IOException("Ghostscript did not produce an output file");
-            }
-
-            return Files.readAllBytes(outputPdf);
-        } finally {
-            // Clean up temporary files
-            if (normalizedInputPdf != null && !normalizedInputPdf.equals(preprocessedPdf)) {
-                try {
-                    Files.deleteIfExists(normalizedInputPdf);
-                } catch (IOException e) {
-                    log.debug("Failed to delete temporary normalized file", e);
-                }
-            }
-            if (preprocessedPdf != null && !preprocessedPdf.equals(inputPdf)) {
-                try {
-                    Files.deleteIfExists(preprocessedPdf);
-                } catch (IOException e) {
-                    log.debug("Failed to delete temporary sanitized or CIDSet cleaned file", e);
-                }
-            }
-            if (sanitizedInputPdf != null && !sanitizedInputPdf.equals(inputPdf)) {
-                try {
-                    Files.deleteIfExists(sanitizedInputPdf);
-                } catch (IOException e) {
-                    log.debug("Failed to delete temporary sanitized file", e);
-                }
-            }
+            return chain.run(name, precondition, stage);
+        } catch (IOException e) {
+            log.warn("{} failed, proceeding without it: {}", name, e.getMessage());
+            return false;
         }
     }
 
@@ -1636,81 +1668,47 @@ public class ConvertPDFToPDFA {
         return outputFiles[0].toPath();
     }
 
-    private Path normalizePdfWithQpdf(Path inputPdf) {
+    private boolean isQpdfAvailable() {
         try {
             ProcessExecutorResult checkResult =
                     ProcessExecutor.getInstance(ProcessExecutor.Processes.QPDF)
                             .runCommandWithOutputHandling(Arrays.asList("qpdf", "--version"));
-
-            if (checkResult.getRc() != 0) {
-                log.debug("QPDF not available");
-                return null;
-            }
-
-            Path normalizedPdf =
-                    inputPdf.getParent().resolve("normalized_" + inputPdf.getFileName().toString());
-
-            List<String> command =
-                    Arrays.asList(
-                            "qpdf",
-                            "--normalize-content=y",
-                            "--object-streams=preserve",
-                            inputPdf.toAbsolutePath().toString(),
-                            normalizedPdf.toAbsolutePath().toString());
-
-            ProcessExecutorResult result =
-                    ProcessExecutor.getInstance(ProcessExecutor.Processes.QPDF)
-                            .runCommandWithOutputHandling(command);
-
-            if (result.getRc() == 0 && Files.exists(normalizedPdf)) {
-                log.info("PDF normalized with QPDF to fix font programs and CIDSet issues");
-                return normalizedPdf;
-            }
-            return null;
-
+            return checkResult.getRc() == 0;
         } catch (Exception e) {
-            log.debug("QPDF normalization error: {}", e.getMessage());
-            return null;
+            log.debug("QPDF not available: {}", e.getMessage());
+            return false;
         }
     }
 
-    private Path cleanCidSetWithQpdf(Path inputPdf) {
-        try {
-            ProcessExecutorResult checkResult =
-                    ProcessExecutor.getInstance(ProcessExecutor.Processes.QPDF)
-                            .runCommandWithOutputHandling(Arrays.asList("qpdf", "--version"));
-
-            if (checkResult.getRc() != 0) {
-                log.debug("QPDF not available for CIDSet cleaning");
-                return null;
-            }
-
-            Path cleanedPdf =
-                    inputPdf.getParent()
-                            .resolve("cidset_cleaned_" + inputPdf.getFileName().toString());
-
-            // Use QPDF to remove problematic CIDSet entries that may be incomplete
-            List<String> command =
-                    Arrays.asList(
-                            "qpdf",
-                            "--remove-unreferenced-resources=yes",
-                            "--normalize-content=y",
-                            "--object-streams=preserve",
-                            inputPdf.toAbsolutePath().toString(),
-                            cleanedPdf.toAbsolutePath().toString());
+    private static boolean runQpdf(Path inputPdf, Path outputPdf, String... options)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("qpdf");
+        command.addAll(Arrays.asList(options));
+        command.add(inputPdf.toAbsolutePath().toString());
+        command.add(outputPdf.toAbsolutePath().toString());
 
-            ProcessExecutorResult result =
-                    ProcessExecutor.getInstance(ProcessExecutor.Processes.QPDF)
-                            .runCommandWithOutputHandling(command);
+        ProcessExecutorResult result =
+                ProcessExecutor.getInstance(ProcessExecutor.Processes.QPDF)
+                        .runCommandWithOutputHandling(command);
+        if (result.getRc() != 0 || !Files.exists(outputPdf)) {
+            throw new IOException("qpdf exited with code " + result.getRc());
+        }
+        return true;
+    }
 
-            if (result.getRc() == 0 && Files.exists(cleanedPdf)) {
-                log.info("PDF CIDSet cleaned with QPDF");
-                return cleanedPdf;
-            }
+    private Path normalizePdfWithQpdf(Path inputPdf) {
+        if (!isQpdfAvailable()) {
             return null;
-
+        }
+        Path normalizedPdf =
+                inputPdf.getParent().resolve("normalized_" + inputPdf.getFileName().toString());
+        try {
+            runQpdf(inputPdf, normalizedPdf, "--normalize-content=y", "--object-streams=preserve");
+            log.info("PDF normalized with QPDF to fix font programs and CIDSet issues");
+            return normalizedPdf;
         } catch (Exception e) {
-            log.debug("QPDF CIDSet cleaning error: {}", e.getMessage());
+            log.debug("QPDF normalization error: {}", e.getMessage());
             return null;
         }
     }
@@ -5,20 +5,31 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-
-import javax.imageio.ImageIO;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.ImageType;
@@ -32,6 +43,8 @@ import org.springframework.web.multipart.MultipartFile;
 import io.github.pixee.security.Filenames;
 import io.swagger.v3.oas.annotations.Operation;
 
+import jakarta.annotation.PreDestroy;
+
 import lombok.RequiredArgsConstructor;
 
 import stirling.software.SPDF.model.api.converters.PdfToVideoRequest;
@@ -42,9 +55,8 @@ import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ApplicationContextProvider;
 import stirling.software.common.util.CheckProgramInstall;
 import stirling.software.common.util.ExceptionUtils;
+import stirling.software.common.util.ExecutorFactory;
 import stirling.software.common.util.ProcessExecutor;
-import stirling.software.common.util.ProcessExecutor.ProcessExecutorResult;
-import stirling.software.common.util.TempDirectory;
 import stirling.software.common.util.TempFile;
 import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.WebResponseUtils;
@@ -54,6 +66,10 @@ import stirling.software.common.util.WebResponseUtils;
 public class ConvertPdfToVideoController {
 
     private static final Set<String> SUPPORTED_FORMATS = Set.of("mp4", "webm");
+    private static final int RENDER_THREADS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    // Rendered frames allowed to queue up ahead of ffmpeg
+    private static final int FRAME_LOOKAHEAD = RENDER_THREADS + 2;
     private static final Map<String, String> RESOLUTION_FILTERS =
             Map.of(
                     "ORIGINAL", "scale=trunc(iw/2)*2:trunc(ih/2)*2,setsar=1",
@@ -64,6 +80,11 @@ public class ConvertPdfToVideoController {
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final TempFileManager tempFileManager;
 
+    // Shared by all requests, so concurrent conversions queue for render threads instead of each
+    // starting a pool of its own
+    private final ExecutorService renderExecutor =
+            ExecutorFactory.newBoundedDaemonExecutor("video-frame", RENDER_THREADS);
+
     @AutoJobPostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, value = "/pdf/video")
     @Operation(
             summary = "Convert PDF to Video Slideshow",
@@ -134,28 +155,38 @@ public class ConvertPdfToVideoController {
                         : originalPdfFileName;
 
         try (TempFile inputTempFile = new TempFile(tempFileManager, ".pdf");
-                TempDirectory framesDirectory = new TempDirectory(tempFileManager);
                 TempFile outputVideo = new TempFile(tempFileManager, "." + format)) {
 
             inputFile.transferTo(inputTempFile.getFile());
 
-            generateFrames(
-                    inputTempFile.getPath(),
-                    framesDirectory.getPath(),
-                    dpi,
-                    opacity,
-                    watermarkText,
-                    isWatermarkEnabled);
-
-            DecimalFormat decimalFormat =
-                    new DecimalFormat("0.######", DecimalFormatSymbols.getInstance(Locale.ROOT));
-            String frameRate = decimalFormat.format(1.0d / secondsPerPage);
-            List<String> command = buildFfmpegCommand(format, resolution, frameRate, outputVideo);
-
-            ProcessExecutorResult result =
-                    ProcessExecutor.getInstance(ProcessExecutor.Processes.FFMPEG)
-                            .runCommandWithOutputHandling(
-                                    command, framesDirectory.getPath().toFile());
+            Consumer<BufferedImage> decorator =
+                    isWatermarkEnabled
+                            ? image -> applyWatermark(image, opacity, watermarkText)
+                            : image -> {};
+            try (FrameStream frames =
+                    new FrameStream(
+                            pdfDocumentFactory,
+                            renderExecutor,
+                            inputTempFile.getFile(),
+                            dpi,
+                            decorator)) {
+                DecimalFormat decimalFormat =
+                        new DecimalFormat(
+                                "0.######", DecimalFormatSymbols.getInstance(Locale.ROOT));
+                String frameRate = decimalFormat.format(1.0d / secondsPerPage);
+                List<String> command =
+                        buildFfmpegCommand(
+                                format,
+                                resolution,
+                                frameRate,
+                                frames.getWidth(),
+                                frames.getHeight(),
+                                outputVideo);
+
+                // Frames are piped to ffmpeg as raw RGB instead of round-tripping through PNGs
+                ProcessExecutor.getInstance(ProcessExecutor.Processes.FFMPEG)
+                        .runCommandWithOutputHandling(command, null, frames::writeTo);
+            }
 
             byte[] videoBytes = Files.readAllBytes(outputVideo.getPath());
             MediaType mediaType = getMediaType(format);
@@ -164,47 +195,6 @@ public class ConvertPdfToVideoController {
         }
     }
 
-    private void generateFrames(
-            Path inputPdf,
-            Path outputDir,
-            int dpi,
-            float opacity,
-            String watermarkText,
-            boolean isWatermarkEnabled)
-            throws IOException {
-        try (PDDocument document = pdfDocumentFactory.load(inputPdf.toFile())) {
-            PDFRenderer renderer = new PDFRenderer(document);
-            renderer.setSubsamplingAllowed(true);
-            int pageCount = document.getNumberOfPages();
-            if (pageCount == 0) {
-                throw ExceptionUtils.createIllegalArgumentException(
-                        "error.invalidFormat", "Invalid {0} format: {1}", "PDF", "no pages");
-            }
-            for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
-                final int currentPageIndex = pageIndex;
-
-                // Validate dimensions BEFORE attempting to render to prevent OOM
-                ExceptionUtils.validateRenderingDimensions(
-                        document.getPage(currentPageIndex), currentPageIndex + 1, dpi);
-
-                BufferedImage image =
-                        ExceptionUtils.handleOomRendering(
-                                currentPageIndex + 1,
-                                dpi,
-                                () ->
-                                        renderer.renderImageWithDPI(
-                                                currentPageIndex, dpi, ImageType.RGB));
-                if (isWatermarkEnabled) {
-                    applyWatermark(image, opacity, watermarkText);
-                }
-                Path framePath =
-                        outputDir.resolve(
-                                String.format(Locale.ROOT, "frame_%05d.png", pageIndex + 1));
-                ImageIO.write(image, "png", framePath.toFile());
-            }
-        }
-    }
-
     private void applyWatermark(BufferedImage image, float opacity, String watermarkText) {
         Graphics2D graphics = image.createGraphics();
         try {
@@ -242,14 +232,27 @@ public class ConvertPdfToVideoController {
     }
 
     private List<String> buildFfmpegCommand(
-            String format, String resolution, String frameRate, TempFile outputVideo) {
+            String format,
+            String resolution,
+            String frameRate,
+            int width,
+            int height,
+            TempFile outputVideo) {
         List<String> command = new ArrayList<>();
         command.add("ffmpeg");
         command.add("-y");
+        command.addAll(
+                List.of(
+                        "-f",
+                        "rawvideo",
+                        "-pixel_format",
+                        "rgb24",
+                        "-video_size",
+                        width + "x" + height));
         command.add("-framerate");
         command.add(frameRate);
         command.add("-i");
-        command.add("frame_%05d.png");
+        command.add("pipe:0");
         command.add("-vf");
         command.add(
                 RESOLUTION_FILTERS.getOrDefault(resolution, RESOLUTION_FILTERS.get("ORIGINAL")));
@@ -280,6 +283,223 @@ public class ConvertPdfToVideoController {
         return 500;
     }
 
+    /**
+     * Renders the pages of a PDF as fixed-size RGB24 video frames. Pages are rendered on the shared
+     * render executor, each render with its own copy of the document since PDFBox documents are not
+     * thread safe, and at most {@link #FRAME_LOOKAHEAD} frames are held ahead of the writer. The
+     * frame size is that of the first page; other pages are scaled to fit and letterboxed.
+     */
+    private static final class FrameStream implements Closeable {
+
+        private final List<PDDocument> documents = new ArrayList<>();
+        private final ExecutorService executor;
+        private final BlockingQueue<RenderSlot> slots;
+        private final int dpi;
+        private final Consumer<BufferedImage> decorator;
+        private final int pageCount;
+        private final int width;
+        private final int height;
+        private byte[] firstFrame;
+
+        private record RenderSlot(PDDocument document, PDFRenderer renderer) {}
+
+        FrameStream(
+                CustomPDFDocumentFactory pdfDocumentFactory,
+                ExecutorService executor,
+                File pdf,
+                int dpi,
+                Consumer<BufferedImage> decorator)
+                throws IOException {
+            this.executor = executor;
+            this.dpi = dpi;
+            this.decorator = decorator;
+            try {
+                PDDocument document = pdfDocumentFactory.load(pdf);
+                documents.add(document);
+                pageCount = document.getNumberOfPages();
+                if (pageCount == 0) {
+                    throw ExceptionUtils.createIllegalArgumentException(
+                            "error.invalidFormat", "Invalid {0} format: {1}", "PDF", "no pages");
+                }
+                int workers = Math.min(RENDER_THREADS, pageCount);
+                slots = new ArrayBlockingQueue<>(workers);
+                slots.add(newSlot(document));
+                for (int i = 1; i < workers; i++) {
+                    PDDocument copy = pdfDocumentFactory.load(pdf);
+                    documents.add(copy);
+                    slots.add(newSlot(copy));
+                }
+
+                // The first page fixes the frame size for the raw stream
+                BufferedImage first = render(slots.peek(), 0);
+                width = first.getWidth();
+                height = first.getHeight();
+                firstFrame = toFrame(first);
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        private static RenderSlot newSlot(PDDocument document) {
+            PDFRenderer renderer = new PDFRenderer(document);
+            renderer.setSubsamplingAllowed(true);
+            return new RenderSlot(document, renderer);
+        }
+
+        int getWidth() {
+            return width;
+        }
+
+        int getHeight() {
+            return height;
+        }
+
+        void writeTo(OutputStream out) throws IOException, InterruptedException {
+            Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+            try {
+                int next = 0;
+                while (next < pageCount && inFlight.size() < FRAME_LOOKAHEAD) {
+                    inFlight.add(submit(next++));
+                }
+                while (!inFlight.isEmpty()) {
+                    byte[] frame = await(inFlight.poll());
+                    // Blocks while ffmpeg is busy, which in turn holds back rendering
+                    out.write(frame);
+                    if (next < pageCount) {
+                        inFlight.add(submit(next++));
+                    }
+                }
+                out.flush();
+            } finally {
+                for (Future<byte[]> frame : inFlight) {
+                    frame.cancel(true);
+                }
+            }
+        }
+
+        private Future<byte[]> submit(int pageIndex) {
+            if (pageIndex == 0) {
+                byte[] frame = firstFrame;
+                firstFrame = null;
+                return CompletableFuture.completedFuture(frame);
+            }
+            return executor.submit(
+                    () -> {
+                        RenderSlot slot = slots.take();
+                        try {
+                            return toFrame(render(slot, pageIndex));
+                        } finally {
+                            // Never blocks, and unlike put() still returns the slot when the
+                            // render was cancelled
+                            slots.add(slot);
+                        }
+                    });
+        }
+
+        private static byte[] await(Future<byte[]> frame) throws IOException, InterruptedException {
+            try {
+                return frame.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException ioException) {
+                    throw ioException;
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new IOException("Failed to render video frame", cause);
+            }
+        }
+
+        private BufferedImage render(RenderSlot slot, int pageIndex) throws IOException {
+            // Validate dimensions BEFORE attempting to render to prevent OOM
+            ExceptionUtils.validateRenderingDimensions(
+                    slot.document().getPage(pageIndex), pageIndex + 1, dpi);
+
+            BufferedImage image =
+                    ExceptionUtils.handleOomRendering(
+                            pageIndex + 1,
+                            dpi,
+                            () ->
+                                    slot.renderer()
+                                            .renderImageWithDPI(pageIndex, dpi, ImageType.RGB));
+            decorator.accept(image);
+            return image;
+        }
+
+        /** Converts a page image to packed RGB24 at the frame size. */
+        private byte[] toFrame(BufferedImage image) {
+            BufferedImage source = image;
+            if (image.getWidth() != width || image.getHeight() != height) {
+                source = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = source.createGraphics();
+                try {
+                    graphics.setRenderingHint(
+                            RenderingHints.KEY_INTERPOLATION,
+                            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    double scale =
+                            Math.min(
+                                    (double) width / image.getWidth(),
+                                    (double) height / image.getHeight());
+                    int scaledWidth = (int) Math.round(image.getWidth() * scale);
+                    int scaledHeight = (int) Math.round(image.getHeight() * scale);
+                    graphics.drawImage(
+                            image,
+                            (width - scaledWidth) / 2,
+                            (height - scaledHeight) / 2,
+                            scaledWidth,
+                            scaledHeight,
+                            null);
+                } finally {
+                    graphics.dispose();
+                }
+            }
+
+            byte[] frame = new byte[width * height * 3];
+            int[] row = new int[width];
+            int offset = 0;
+            for (int y = 0; y < height; y++) {
+                source.getRGB(0, y, width, 1, row, 0, width);
+                for (int x = 0; x < width; x++) {
+                    int pixel = row[x];
+                    frame[offset++] = (byte) (pixel >> 16);
+                    frame[offset++] = (byte) (pixel >> 8);
+                    frame[offset++] = (byte) pixel;
+                }
+            }
+            return frame;
+        }
+
+        @Override
+        public void close() {
+            // A cancelled render that already started still holds its slot; wait for it to hand
+            // the slot back before closing the document under it
+            try {
+                for (int i = 0; i < documents.size(); i++) {
+                    if (slots == null || slots.poll(30, TimeUnit.SECONDS) == null) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (PDDocument document : documents) {
+                try {
+                    document.close();
+                } catch (IOException e) {
+                    // Nothing useful to do; the document is discarded either way
+                }
+            }
+            documents.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
     private MediaType getMediaType(String format) {
         return switch (format) {
             case "webm" -> MediaType.valueOf("video/webm");
@@ -1,10 +1,12 @@
 package stirling.software.SPDF.controller.api.converters;
 
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -28,15 +30,13 @@ import lombok.extern.slf4j.Slf4j;
 import stirling.software.SPDF.config.swagger.CsvConversionResponse;
 import stirling.software.SPDF.model.api.PDFWithPageNums;
 import stirling.software.SPDF.pdf.FlexibleCSVWriter;
+import stirling.software.SPDF.service.TableExtractionService;
 import stirling.software.common.annotations.AutoJobPostMapping;
 import stirling.software.common.annotations.api.ConvertApi;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.GeneralUtils;
-
-import technology.tabula.ObjectExtractor;
-import technology.tabula.Page;
-import technology.tabula.Table;
-import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+import stirling.software.common.util.TempFile;
+import stirling.software.common.util.TempFileManager;
 
 @ConvertApi
 @Slf4j
@@ -44,6 +44,8 @@ import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
 public class ExtractCSVController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
+    private final TableExtractionService tableExtractionService;
+    private final TempFileManager tempFileManager;
 
     @AutoJobPostMapping(value = "/pdf/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @CsvConversionResponse
@@ -54,53 +56,45 @@ public class ExtractCSVController {
                             + " Input:PDF Output:CSV Type:SISO")
     public ResponseEntity<?> pdfToCsv(@ModelAttribute PDFWithPageNums request) throws Exception {
         String baseName = getBaseName(request.getFileInput().getOriginalFilename());
-        List<CsvEntry> csvEntries = new ArrayList<>();
-
-        try (PDDocument document = pdfDocumentFactory.load(request)) {
-            List<Integer> pages = request.getPageNumbersList(document, true);
-            SpreadsheetExtractionAlgorithm sea = new SpreadsheetExtractionAlgorithm();
-            CSVFormat format =
-                    CSVFormat.EXCEL.builder().setEscape('"').setQuoteMode(QuoteMode.ALL).build();
-
-            for (int pageNum : pages) {
-                try (ObjectExtractor extractor = new ObjectExtractor(document)) {
-                    log.info("{}", pageNum);
-                    Page page = extractor.extract(pageNum);
-                    List<Table> tables = sea.extract(page);
-
-                    for (int i = 0; i < tables.size(); i++) {
-                        StringWriter sw = new StringWriter();
-                        FlexibleCSVWriter csvWriter = new FlexibleCSVWriter(format);
-                        csvWriter.write(sw, Collections.singletonList(tables.get(i)));
-
-                        String entryName = generateEntryName(baseName, pageNum, i + 1);
-                        csvEntries.add(new CsvEntry(entryName, sw.toString()));
-                    }
+        CSVFormat format =
+                CSVFormat.EXCEL.builder().setEscape('"').setQuoteMode(QuoteMode.ALL).build();
+
+        try (TempFile pdfFile = new TempFile(tempFileManager, ".pdf");
+                TempFile zipFile = new TempFile(tempFileManager, ".zip")) {
+            request.getFileInput().transferTo(pdfFile.getFile());
+
+            try (PDDocument document = pdfDocumentFactory.loadKeepingFile(pdfFile.getPath(), true);
+                    CsvArchive archive = new CsvArchive(zipFile.getPath())) {
+                List<Integer> pages = request.getPageNumbersList(document, true);
+                tableExtractionService.extractTables(
+                        document,
+                        pdfFile.getPath(),
+                        pages,
+                        (pageNum, tables) -> {
+                            for (int i = 0; i < tables.size(); i++) {
+                                StringWriter sw = new StringWriter();
+                                FlexibleCSVWriter csvWriter = new FlexibleCSVWriter(format);
+                                csvWriter.write(sw, Collections.singletonList(tables.get(i)));
+                                archive.add(
+                                        new CsvEntry(
+                                                generateEntryName(baseName, pageNum, i + 1),
+                                                sw.toString()));
+                            }
+                        });
+
+                if (archive.getEntryCount() == 0) {
+                    return ResponseEntity.noContent().build();
+                } else if (archive.getEntryCount() == 1) {
+                    return createCsvResponse(archive.getFirstEntry(), baseName);
+                } else {
+                    archive.finish();
+                    return createZipResponse(Files.readAllBytes(zipFile.getPath()), baseName);
                 }
             }
-
-            if (csvEntries.isEmpty()) {
-                return ResponseEntity.noContent().build();
-            } else if (csvEntries.size() == 1) {
-                return createCsvResponse(csvEntries.get(0), baseName);
-            } else {
-                return createZipResponse(csvEntries, baseName);
-            }
         }
     }
 
-    private ResponseEntity<byte[]> createZipResponse(List<CsvEntry> entries, String baseName)
-            throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (ZipOutputStream zipOut = new ZipOutputStream(baos)) {
-            for (CsvEntry entry : entries) {
-                ZipEntry zipEntry = new ZipEntry(entry.filename());
-                zipOut.putNextEntry(zipEntry);
-                zipOut.write(entry.content().getBytes(StandardCharsets.UTF_8));
-                zipOut.closeEntry();
-            }
-        }
-
+    private ResponseEntity<byte[]> createZipResponse(byte[] zipBytes, String baseName) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentDisposition(
                 ContentDisposition.builder("attachment")
@@ -108,7 +102,7 @@ public class ExtractCSVController {
                         .build());
         headers.setContentType(MediaType.parseMediaType("application/zip"));
 
-        return ResponseEntity.ok().headers(headers).body(baos.toByteArray());
+        return ResponseEntity.ok().headers(headers).body(zipBytes);
     }
 
     private ResponseEntity<String> createCsvResponse(CsvEntry entry, String baseName) {
@@ -131,4 +125,61 @@ public class ExtractCSVController {
     }
 
     private record CsvEntry(String filename, String content) {}
+
+    /**
+     * Collects CSV entries as pages complete. A lone entry is kept in memory so it can be returned
+     * as plain CSV; from the second entry on, everything is streamed into a ZIP file on disk.
+     */
+    private static final class CsvArchive implements Closeable {
+
+        private final Path zipPath;
+        private ZipOutputStream zipOut;
+        private CsvEntry firstEntry;
+        private int entryCount;
+
+        CsvArchive(Path zipPath) {
+            this.zipPath = zipPath;
+        }
+
+        void add(CsvEntry entry) throws IOException {
+            entryCount++;
+            if (entryCount == 1) {
+                firstEntry = entry;
+                return;
+            }
+            if (zipOut == null) {
+                zipOut =
+                        new ZipOutputStream(
+                                new BufferedOutputStream(Files.newOutputStream(zipPath)));
+                write(firstEntry);
+            }
+            write(entry);
+        }
+
+        int getEntryCount() {
+            return entryCount;
+        }
+
+        CsvEntry getFirstEntry() {
+            return firstEntry;
+        }
+
+        void finish() throws IOException {
+            if (zipOut != null) {
+                zipOut.close();
+                zipOut = null;
+            }
+        }
+
+        private void write(CsvEntry entry) throws IOException {
+            zipOut.putNextEntry(new ZipEntry(entry.filename()));
+            zipOut.write(entry.content().getBytes(StandardCharsets.UTF_8));
+            zipOut.closeEntry();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+    }
 }
@@ -8,7 +8,6 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
@@ -50,12 +49,14 @@ import stirling.software.common.annotations.AutoJobPostMapping;
 import stirling.software.common.annotations.api.MiscApi;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.service.LineArtConversionService;
+import stirling.software.common.service.TaskManager;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.ProcessExecutor;
 import stirling.software.common.util.ProcessExecutor.ProcessExecutorResult;
 import stirling.software.common.util.TempFile;
 import stirling.software.common.util.TempFileManager;
+import stirling.software.common.util.ToolChain;
 import stirling.software.common.util.WebResponseUtils;
 
 @MiscApi
@@ -66,6 +67,7 @@ public class CompressController {
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final EndpointConfiguration endpointConfiguration;
     private final TempFileManager tempFileManager;
+    private final TaskManager taskManager;
 
     @Autowired(required = false)
     private LineArtConversionService lineArtConversionService;
@@ -338,10 +340,18 @@ public class CompressController {
         }
     }
 
-    public TempFile compressImagesInPDF(
-            Path pdfFile, double scaleFactor, float jpegQuality, boolean convertToGrayscale)
-            throws Exception {
-        TempFile newCompressedPDF = tempFileManager.createManagedTempFile(".pdf");
+    /**
+     * Recompresses the images of {@code pdfFile} into {@code outputFile}.
+     *
+     * @return false if no image could be made smaller, in which case nothing is written
+     */
+    public boolean compressImagesInPDF(
+            Path pdfFile,
+            Path outputFile,
+            double scaleFactor,
+            float jpegQuality,
+            boolean convertToGrayscale)
+            throws IOException {
         long originalFileSize = Files.size(pdfFile);
         log.info(
                 "Starting image compression with scale factor: {}, JPEG quality: {}, grayscale: {}"
@@ -351,9 +361,13 @@ public class CompressController {
                 convertToGrayscale,
                 GeneralUtils.formatBytes(originalFileSize));
 
-        try (PDDocument doc = pdfDocumentFactory.load(pdfFile)) {
+        try (PDDocument doc = pdfDocumentFactory.loadKeepingFile(pdfFile, false)) {
             // Find all unique images in the document
             Map<ImageIdentity, List<ImageReference>> uniqueImages = findImages(doc);
+            if (uniqueImages.isEmpty()) {
+                log.info("No images found, skipping image compression");
+                return false;
+            }
 
             // Get statistics
             CompressionStats stats = new CompressionStats();
@@ -365,31 +379,22 @@ public class CompressController {
                     createCompressedImages(
                             doc, uniqueImages, scaleFactor, jpegQuality, convertToGrayscale, stats);
 
-            // Replace all instances with compressed versions
-            replaceImages(doc, uniqueImages, compressedVersions);
-
             // Log compression statistics
             logCompressionStats(stats, originalFileSize);
+            if (compressedVersions.isEmpty()) {
+                return false;
+            }
+
+            // Replace all instances with compressed versions
+            replaceImages(doc, uniqueImages, compressedVersions);
 
             // Free memory before saving
             compressedVersions.clear();
             uniqueImages.clear();
 
-            log.info("Saving compressed PDF to {}", newCompressedPDF.getPath());
-            doc.save(newCompressedPDF.getAbsolutePath());
-
-            // Log overall file size reduction
-            long compressedFileSize = Files.size(newCompressedPDF.getPath());
-            double overallReduction = 100.0 - ((compressedFileSize * 100.0) / originalFileSize);
-            log.info(
-                    "Overall PDF compression: {} → {} (reduced by {}%)",
-                    GeneralUtils.formatBytes(originalFileSize),
-                    GeneralUtils.formatBytes(compressedFileSize),
-                    String.format(Locale.ROOT, "%.1f", overallReduction));
-            return newCompressedPDF;
-        } catch (Exception e) {
-            newCompressedPDF.close();
-            throw e;
+            log.info("Saving compressed PDF to {}", outputFile);
+            doc.save(outputFile.toFile());
+            return true;
         }
     }
 
@@ -951,179 +956,187 @@ public class CompressController {
             autoMode = true;
         }
 
-        List<TempFile> tempFiles = new ArrayList<>();
-
-        // Create initial input file
-        TempFile originalTempFile = tempFileManager.createManagedTempFile(".pdf");
-        tempFiles.add(originalTempFile);
-        Path originalFile = originalTempFile.getPath();
-        inputFile.transferTo(originalTempFile.getFile());
-        long inputFileSize = Files.size(originalFile);
+        try (TempFile originalTempFile = tempFileManager.createManagedTempFile(".pdf")) {
+            Path originalFile = originalTempFile.getPath();
+            inputFile.transferTo(originalTempFile.getFile());
+            long inputFileSize = Files.size(originalFile);
+
+            try (ToolChain chain =
+                    new ToolChain(
+                            tempFileManager,
+                            originalFile,
+                            ".pdf",
+                            taskManager::addNoteToCurrentJob)) {
+                return runOptimization(
+                        request,
+                        chain,
+                        inputFileSize,
+                        optimizeLevel,
+                        autoMode,
+                        expectedOutputSize,
+                        Boolean.TRUE.equals(convertToGrayscale),
+                        Boolean.TRUE.equals(convertToLineArt),
+                        lineArtThreshold,
+                        lineArtEdgeLevel);
+            }
+        }
+    }
 
-        TempFile currentTempFile = tempFileManager.createManagedTempFile(".pdf");
-        tempFiles.add(currentTempFile);
-        Path currentFile = currentTempFile.getPath();
-        Files.copy(originalFile, currentFile, StandardCopyOption.REPLACE_EXISTING);
+    private ResponseEntity<byte[]> runOptimization(
+            OptimizePdfRequest request,
+            ToolChain chain,
+            long inputFileSize,
+            Integer optimizeLevel,
+            boolean autoMode,
+            long expectedOutputSize,
+            boolean convertToGrayscale,
+            boolean convertToLineArt,
+            Double lineArtThreshold,
+            Integer lineArtEdgeLevel)
+            throws IOException, InterruptedException {
+        if (autoMode) {
+            double sizeReductionRatio = expectedOutputSize / (double) inputFileSize;
+            optimizeLevel = determineOptimizeLevel(sizeReductionRatio);
+        }
 
-        try {
-            if (autoMode) {
-                double sizeReductionRatio = expectedOutputSize / (double) inputFileSize;
-                optimizeLevel = determineOptimizeLevel(sizeReductionRatio);
+        if (convertToLineArt) {
+            if (lineArtConversionService == null) {
+                throw new ResponseStatusException(
+                        HttpStatus.FORBIDDEN,
+                        "Line art conversion is unavailable - ImageMagick service not found");
             }
+            if (!isImageMagickEnabled()) {
+                throw new IOException(
+                        "ImageMagick is not enabled but line art conversion was requested");
+            }
+            double thresholdValue =
+                    lineArtThreshold == null ? 55d : Math.min(100d, Math.max(0d, lineArtThreshold));
+            int edgeLevel =
+                    lineArtEdgeLevel == null ? 1 : Math.min(3, Math.max(1, lineArtEdgeLevel));
+            chain.run(
+                    "Line art conversion",
+                    (in, out) -> applyLineArtConversion(in, out, thresholdValue, edgeLevel));
+        }
 
-            if (Boolean.TRUE.equals(convertToLineArt)) {
-                if (lineArtConversionService == null) {
-                    throw new ResponseStatusException(
-                            HttpStatus.FORBIDDEN,
-                            "Line art conversion is unavailable - ImageMagick service not found");
-                }
-                if (!isImageMagickEnabled()) {
-                    throw new IOException(
-                            "ImageMagick is not enabled but line art conversion was requested");
+        boolean sizeMet = false;
+        boolean imageCompressionApplied = false;
+
+        while (!sizeMet && optimizeLevel <= 9) {
+            int level = optimizeLevel;
+            // Apply external compression first
+            boolean ghostscriptSuccess = false;
+
+            if (isGhostscriptEnabled() && level >= 6) {
+                try {
+                    chain.run(
+                            "Ghostscript (level " + level + ")",
+                            (in, out) -> applyGhostscriptCompression(request, level, in, out));
+                    log.info("Ghostscript compression applied successfully");
+                    ghostscriptSuccess = true;
+                } catch (ExceptionUtils.GhostscriptException e) {
+                    // Critical Ghostscript errors should be propagated
+                    log.error("Ghostscript encountered a critical error: {}", e.getMessage());
+                    throw e;
+                } catch (IOException e) {
+                    log.warn(
+                            "Ghostscript compression failed, continuing with other methods: {}",
+                            e.getMessage());
                 }
-                double thresholdValue =
-                        lineArtThreshold == null
-                                ? 55d
-                                : Math.min(100d, Math.max(0d, lineArtThreshold));
-                int edgeLevel =
-                        lineArtEdgeLevel == null ? 1 : Math.min(3, Math.max(1, lineArtEdgeLevel));
-                currentFile =
-                        applyLineArtConversion(currentFile, tempFiles, thresholdValue, edgeLevel);
             }
 
-            boolean sizeMet = false;
-            boolean imageCompressionApplied = false;
-
-            while (!sizeMet && optimizeLevel <= 9) {
-                // Apply external compression first
-                boolean ghostscriptSuccess = false;
-
-                if (isGhostscriptEnabled() && optimizeLevel >= 6) {
-                    try {
-                        applyGhostscriptCompression(request, optimizeLevel, currentFile);
-                        log.info("Ghostscript compression applied successfully");
-                        ghostscriptSuccess = true;
-                    } catch (ExceptionUtils.GhostscriptException e) {
-                        // Critical Ghostscript errors should be propagated
-                        log.error("Ghostscript encountered a critical error: {}", e.getMessage());
-                        throw e;
-                    } catch (IOException e) {
-                        log.warn(
-                                "Ghostscript compression failed, continuing with other methods: {}",
-                                e.getMessage());
-                    }
+            // Always apply QPDF when enabled to recompress/optimize structure
+            if (isQpdfEnabled()) {
+                try {
+                    chain.run(
+                            "QPDF (level " + level + ")",
+                            (in, out) -> applyQpdfCompression(request, level, in, out));
+                    log.info("QPDF compression applied successfully");
+                } catch (IOException e) {
+                    log.warn("QPDF compression failed: {}", e.getMessage());
                 }
+            } else if (!ghostscriptSuccess) {
+                log.info("No external compression tools available, using image compression only");
+            }
 
-                // Always apply QPDF when enabled to recompress/optimize structure
-                if (isQpdfEnabled()) {
-                    try {
-                        applyQpdfCompression(request, optimizeLevel, currentFile);
-                        log.info("QPDF compression applied successfully");
-                    } catch (IOException e) {
-                        log.warn("QPDF compression failed: {}", e.getMessage());
-                    }
-                } else if (!ghostscriptSuccess) {
-                    log.info(
-                            "No external compression tools available, using image compression"
-                                    + " only");
-                }
+            // Skip image compression if Ghostscript succeeded
+            if (ghostscriptSuccess) {
+                imageCompressionApplied = true;
+            }
 
-                // Skip image compression if Ghostscript succeeded
-                if (ghostscriptSuccess) {
-                    imageCompressionApplied = true;
-                }
+            // Apply image compression for levels 4+ only if Ghostscript didn't run
+            if ((level >= 4 || convertToGrayscale) && !imageCompressionApplied) {
+                // Use different scale factors based on level
+                double scaleFactor = getScaleFactorForLevel(level);
+                // Use JPEG quality settings based on optimization level
+                float jpegQuality = getJpegQualityForLevel(level);
 
-                // Apply image compression for levels 4+ only if Ghostscript didn't run
-                if ((optimizeLevel >= 4 || Boolean.TRUE.equals(convertToGrayscale))
-                        && !imageCompressionApplied) {
-                    // Use different scale factors based on level
-                    double scaleFactor = getScaleFactorForLevel(optimizeLevel);
-                    // Use JPEG quality settings based on optimization level
-                    float jpegQuality = getJpegQualityForLevel(optimizeLevel);
+                log.info(
+                        "Applying image compression with scale factor: {} and JPEG quality: {}",
+                        scaleFactor,
+                        jpegQuality);
+                chain.run(
+                        "Image compression (level " + level + ")",
+                        (in, out) ->
+                                compressImagesInPDF(
+                                        in, out, scaleFactor, jpegQuality, convertToGrayscale));
+                imageCompressionApplied = true;
+            }
 
-                    log.info(
-                            "Applying image compression with scale factor: {} and JPEG quality: {}",
-                            scaleFactor,
-                            jpegQuality);
-                    TempFile compressedImageFile =
-                            compressImagesInPDF(
-                                    currentFile,
-                                    scaleFactor,
-                                    jpegQuality,
-                                    Boolean.TRUE.equals(convertToGrayscale));
-
-                    tempFiles.add(compressedImageFile);
-                    currentFile = compressedImageFile.getPath();
-                    imageCompressionApplied = true;
-                }
+            // Check if target size reached or not in auto mode
+            long outputFileSize = Files.size(chain.current());
+            if (outputFileSize <= expectedOutputSize || !autoMode) {
+                sizeMet = true;
+            } else {
+                int newOptimizeLevel =
+                        incrementOptimizeLevel(level, outputFileSize, expectedOutputSize);
 
-                // Check if target size reached or not in auto mode
-                long outputFileSize = Files.size(currentFile);
-                if (outputFileSize <= expectedOutputSize || !autoMode) {
+                // Check if we can't increase the level further
+                if (newOptimizeLevel == level) {
+                    log.info("Maximum optimization level reached without meeting target size.");
                     sizeMet = true;
                 } else {
-                    int newOptimizeLevel =
-                            incrementOptimizeLevel(
-                                    optimizeLevel, outputFileSize, expectedOutputSize);
-
-                    // Check if we can't increase the level further
-                    if (newOptimizeLevel == optimizeLevel) {
-                        log.info("Maximum optimization level reached without meeting target size.");
-                        sizeMet = true;
-                    } else {
-                        // Reset flags for next iteration with higher optimization level
-                        imageCompressionApplied = false;
-                        optimizeLevel = newOptimizeLevel;
-                    }
+                    // Reset flags for next iteration with higher optimization level
+                    imageCompressionApplied = false;
+                    optimizeLevel = newOptimizeLevel;
                 }
             }
+        }
 
-            // Use original if optimized file is somehow larger or currentFile is invalid
-            if (!Files.exists(currentFile)) {
-                log.warn("Optimized file missing or invalid. Using the original file instead.");
-                currentFile = originalFile;
-            }
-            long finalFileSize = Files.size(currentFile);
-            if (finalFileSize >= inputFileSize) {
-                log.warn(
-                        "Optimized file is larger than the original. Using the original file"
-                                + " instead.");
-                currentFile = originalFile;
-            }
+        // Use original if optimized file is somehow larger or currentFile is invalid
+        Path currentFile = chain.current();
+        if (!Files.exists(currentFile)) {
+            log.warn("Optimized file missing or invalid. Using the original file instead.");
+            currentFile = chain.getInput();
+        }
+        long finalFileSize = Files.size(currentFile);
+        if (finalFileSize >= inputFileSize) {
+            log.warn(
+                    "Optimized file is larger than the original. Using the original file instead.");
+            currentFile = chain.getInput();
+        }
 
-            String outputFilename =
-                    GeneralUtils.generateFilename(
-                            inputFile.getOriginalFilename(), "_Optimized.pdf");
+        String outputFilename =
+                GeneralUtils.generateFilename(
+                        request.getFileInput().getOriginalFilename(), "_Optimized.pdf");
 
-            try {
-                try (PDDocument document = pdfDocumentFactory.load(currentFile.toFile())) {
-                    return WebResponseUtils.pdfDocToWebResponse(document, outputFilename);
-                }
-            } catch (IOException e) {
-                throw ExceptionUtils.handlePdfException(e, "PDF optimization");
-            }
-
-        } finally {
-            // Clean up all temporary files
-            for (TempFile tempFile : tempFiles) {
-                try {
-                    tempFile.close();
-                } catch (Exception e) {
-                    log.warn("Failed to delete temporary file: {}", tempFile, e);
-                }
+        try {
+            try (PDDocument document = pdfDocumentFactory.load(currentFile.toFile())) {
+                return WebResponseUtils.pdfDocToWebResponse(document, outputFilename);
             }
+        } catch (IOException e) {
+            throw ExceptionUtils.handlePdfException(e, "PDF optimization");
         }
     }
 
-    private Path applyLineArtConversion(
-            Path currentFile, List<TempFile> tempFiles, double threshold, int edgeLevel)
-            throws IOException {
-
-        TempFile lineArtFile = new TempFile(tempFileManager, ".pdf");
-        tempFiles.add(lineArtFile);
+    private boolean applyLineArtConversion(
+            Path currentFile, Path outputFile, double threshold, int edgeLevel) throws IOException {
 
-        try (PDDocument doc = pdfDocumentFactory.load(currentFile.toFile())) {
+        try (PDDocument doc = pdfDocumentFactory.loadKeepingFile(currentFile, false)) {
             Map<ImageIdentity, List<ImageReference>> uniqueImages = findImages(doc);
+            if (uniqueImages.isEmpty()) {
+                log.info("No images found, skipping line art conversion");
+                return false;
+            }
             CompressionStats stats = new CompressionStats();
             stats.uniqueImagesCount = uniqueImages.size();
             calculateImageStats(uniqueImages, stats);
@@ -1138,8 +1151,8 @@ public class CompressController {
                     stats.uniqueImagesCount,
                     stats.totalImages);
 
-            doc.save(lineArtFile.getPath().toString());
-            return lineArtFile.getPath();
+            doc.save(outputFile.toFile());
+            return true;
         }
     }
 
@@ -1185,144 +1198,124 @@ public class CompressController {
     }
 
     // Run Ghostscript compression
-    private void applyGhostscriptCompression(
-            OptimizePdfRequest request, int optimizeLevel, Path currentFile) throws IOException {
-
-        long preGsSize = Files.size(currentFile);
-        log.info("Pre-Ghostscript file size: {}", GeneralUtils.formatBytes(preGsSize));
-
-        try (TempFile gsOutputFile = tempFileManager.createManagedTempFile(".pdf")) {
-            Path gsOutputPath = gsOutputFile.getPath();
-
-            // Build Ghostscript command based on optimization level
-            List<String> command = new ArrayList<>();
-            command.add("gs");
-            command.add("-sDEVICE=pdfwrite");
-            command.add("-dCompatibilityLevel=1.5");
-            command.add("-dNOPAUSE");
-            command.add("-dQUIET");
-            command.add("-dBATCH");
-
-            // General compression enhancements
-            command.add("-dDetectDuplicateImages=true");
-            command.add("-dDownsampleColorImages=true");
-            command.add("-dCompressFonts=true");
-            command.add("-dSubsetFonts=true");
-
-            // Map optimization levels to Ghostscript settings
-            switch (optimizeLevel) {
-                case 1:
-                    command.add("-dPDFSETTINGS=/prepress");
-                    break;
-                case 2:
-                    command.add("-dPDFSETTINGS=/printer");
-                    break;
-                case 3:
-                    command.add("-dPDFSETTINGS=/ebook");
-                    break;
-                case 4:
-                case 5:
-                    command.add("-dPDFSETTINGS=/screen");
-                    break;
-                case 6:
-                case 7:
-                    command.add("-dPDFSETTINGS=/screen");
-                    command.add("-dColorImageResolution=150");
-                    command.add("-dGrayImageResolution=150");
-                    command.add("-dMonoImageResolution=300");
-                    break;
-                case 8:
-                case 9:
-                    command.add("-dPDFSETTINGS=/screen");
-                    // Use stronger downsampling at the highest level
-                    if (optimizeLevel == 9) {
-                        command.add("-dColorImageResolution=72");
-                        command.add("-dGrayImageResolution=72");
-                        command.add("-dMonoImageResolution=150");
-                    } else {
-                        command.add("-dColorImageResolution=100");
-                        command.add("-dGrayImageResolution=100");
-                        command.add("-dMonoImageResolution=200");
-                    }
-                    break;
-                case 10:
-                    command.add("-dPDFSETTINGS=/screen");
+    private boolean applyGhostscriptCompression(
+            OptimizePdfRequest request, int optimizeLevel, Path currentFile, Path gsOutputPath)
+            throws IOException {
+        // Build Ghostscript command based on optimization level
+        List<String> command = new ArrayList<>();
+        command.add("gs");
+        command.add("-sDEVICE=pdfwrite");
+        command.add("-dCompatibilityLevel=1.5");
+        command.add("-dNOPAUSE");
+        command.add("-dQUIET");
+        command.add("-dBATCH");
+
+        // General compression enhancements
+        command.add("-dDetectDuplicateImages=true");
+        command.add("-dDownsampleColorImages=true");
+        command.add("-dCompressFonts=true");
+        command.add("-dSubsetFonts=true");
+
+        // Map optimization levels to Ghostscript settings
+        switch (optimizeLevel) {
+            case 1:
+                command.add("-dPDFSETTINGS=/prepress");
+                break;
+            case 2:
+                command.add("-dPDFSETTINGS=/printer");
+                break;
+            case 3:
+                command.add("-dPDFSETTINGS=/ebook");
+                break;
+            case 4:
+            case 5:
+                command.add("-dPDFSETTINGS=/screen");
+                break;
+            case 6:
+            case 7:
+                command.add("-dPDFSETTINGS=/screen");
+                command.add("-dColorImageResolution=150");
+                command.add("-dGrayImageResolution=150");
+                command.add("-dMonoImageResolution=300");
+                break;
+            case 8:
+            case 9:
+                command.add("-dPDFSETTINGS=/screen");
+                // Use stronger downsampling at the highest level
+                if (optimizeLevel == 9) {
                     command.add("-dColorImageResolution=72");
                     command.add("-dGrayImageResolution=72");
                     command.add("-dMonoImageResolution=150");
-                    break;
-                default:
-                    command.add("-dPDFSETTINGS=/screen");
-                    break;
-            }
-
-            // If grayscale conversion requested, enforce grayscale color processing in Ghostscript
-            boolean grayscaleRequested = Boolean.TRUE.equals(request.getGrayscale());
-            if (grayscaleRequested) {
-                command.add("-dColorConversionStrategy=/Gray");
-                command.add("-dProcessColorModel=/DeviceGray");
-            }
-
-            // Optional conversion: CMYK -> RGB for color output only (avoid conflict with
-            // grayscale)
-            if (optimizeLevel >= 7 && !grayscaleRequested) {
-                command.add("-dConvertCMYKImagesToRGB=true");
-            }
+                } else {
+                    command.add("-dColorImageResolution=100");
+                    command.add("-dGrayImageResolution=100");
+                    command.add("-dMonoImageResolution=200");
+                }
+                break;
+            case 10:
+                command.add("-dPDFSETTINGS=/screen");
+                command.add("-dColorImageResolution=72");
+                command.add("-dGrayImageResolution=72");
+                command.add("-dMonoImageResolution=150");
+                break;
+            default:
+                command.add("-dPDFSETTINGS=/screen");
+                break;
+        }
 
-            command.add("-sOutputFile=" + gsOutputPath.toString());
-            command.add(currentFile.toString());
+        // If grayscale conversion requested, enforce grayscale color processing in Ghostscript
+        boolean grayscaleRequested = Boolean.TRUE.equals(request.getGrayscale());
+        if (grayscaleRequested) {
+            command.add("-dColorConversionStrategy=/Gray");
+            command.add("-dProcessColorModel=/DeviceGray");
+        }
 
-            ProcessExecutorResult returnCode;
-            try {
-                returnCode =
-                        ProcessExecutor.getInstance(ProcessExecutor.Processes.GHOSTSCRIPT)
-                                .runCommandWithOutputHandling(command);
-
-                // Check for critical errors in the output before checking return code
-                String gsOutput = returnCode.getMessages();
-                ExceptionUtils.GhostscriptException criticalError =
-                        ExceptionUtils.detectGhostscriptCriticalError(gsOutput);
-                if (criticalError != null) {
-                    log.error(
-                            "Ghostscript critical error detected: {}", criticalError.getMessage());
-                    throw criticalError;
-                }
+        // Optional conversion: CMYK -> RGB for color output only (avoid conflict with
+        // grayscale)
+        if (optimizeLevel >= 7 && !grayscaleRequested) {
+            command.add("-dConvertCMYKImagesToRGB=true");
+        }
 
-                if (returnCode.getRc() == 0) {
-                    // Update current file to the Ghostscript output
-                    Files.copy(gsOutputPath, currentFile, StandardCopyOption.REPLACE_EXISTING);
+        command.add("-sOutputFile=" + gsOutputPath.toString());
+        command.add(currentFile.toString());
 
-                    long postGsSize = Files.size(currentFile);
-                    double gsReduction = 100.0 - ((postGsSize * 100.0) / preGsSize);
-                    log.info(
-                            "Post-Ghostscript file size: {} (reduced by {}%)",
-                            GeneralUtils.formatBytes(postGsSize),
-                            String.format(Locale.ROOT, "%.1f", gsReduction));
-                } else {
-                    log.warn(
-                            "Ghostscript compression failed with return code: {}",
-                            returnCode.getRc());
-                    throw ExceptionUtils.createGhostscriptCompressionException(gsOutput);
-                }
+        ProcessExecutorResult returnCode;
+        try {
+            returnCode =
+                    ProcessExecutor.getInstance(ProcessExecutor.Processes.GHOSTSCRIPT)
+                            .runCommandWithOutputHandling(command);
+
+            // Check for critical errors in the output before checking return code
+            String gsOutput = returnCode.getMessages();
+            ExceptionUtils.GhostscriptException criticalError =
+                    ExceptionUtils.detectGhostscriptCriticalError(gsOutput);
+            if (criticalError != null) {
+                log.error("Ghostscript critical error detected: {}", criticalError.getMessage());
+                throw criticalError;
+            }
 
-            } catch (InterruptedException e) {
-                throw ExceptionUtils.createProcessingInterruptedException("Ghostscript", e);
-            } catch (ExceptionUtils.GhostscriptException e) {
-                // Re-throw Ghostscript-specific exceptions
-                throw e;
-            } catch (Exception e) {
-                log.warn("Ghostscript compression failed, will fallback to other methods", e);
-                throw ExceptionUtils.createGhostscriptCompressionException(e);
+            if (returnCode.getRc() == 0) {
+                return true;
+            } else {
+                log.warn("Ghostscript compression failed with return code: {}", returnCode.getRc());
+                throw ExceptionUtils.createGhostscriptCompressionException(gsOutput);
             }
+
+        } catch (InterruptedException e) {
+            throw ExceptionUtils.createProcessingInterruptedException("Ghostscript", e);
+        } catch (ExceptionUtils.GhostscriptException e) {
+            // Re-throw Ghostscript-specific exceptions
+            throw e;
+        } catch (Exception e) {
+            log.warn("Ghostscript compression failed, will fallback to other methods", e);
+            throw ExceptionUtils.createGhostscriptCompressionException(e);
         }
     }
 
     // Run QPDF compression
-    private void applyQpdfCompression(
-            OptimizePdfRequest request, int optimizeLevel, Path currentFile) throws IOException {
-
-        long preQpdfSize = Files.size(currentFile);
-        log.info("Pre-QPDF file size: {}", GeneralUtils.formatBytes(preQpdfSize));
+    private boolean applyQpdfCompression(
+            OptimizePdfRequest request, int optimizeLevel, Path currentFile, Path qpdfOutputPath)
+            throws IOException {
 
         // Map optimization levels to QPDF compression levels
         int qpdfCompressionLevel =
@@ -1333,88 +1326,76 @@ public class CompressController {
                     default -> 9; // 6-9 use max
                 };
 
-        try (TempFile qpdfOutputFile = tempFileManager.createManagedTempFile(".pdf")) {
-            Path qpdfOutputPath = qpdfOutputFile.getPath();
-
-            // Build QPDF command
-            List<String> command = new ArrayList<>();
-            command.add("qpdf");
-            if (Boolean.TRUE.equals(request.getNormalize())) {
-                command.add("--normalize-content=y");
-            }
-            if (Boolean.TRUE.equals(request.getLinearize())) {
-                command.add("--linearize");
-            }
-            // Decode/encode settings for maximal recompression
-            command.add("--decode-level=generalized");
-            command.add("--recompress-flate");
-            command.add("--compression-level=" + qpdfCompressionLevel);
-            command.add("--compress-streams=y");
-            command.add("--stream-data=compress");
-            // Preserve unreferenced only at lower levels for safety; skip at highest levels for
-            // size
-            if (optimizeLevel <= 3) {
-                command.add("--preserve-unreferenced");
-            }
-            // Optional image optimization in qpdf (no resampling; lossy JPEG when beneficial)
-            // Enable qpdf image optimization at medium/high levels
-            if (optimizeLevel >= 5) {
-                command.add("--optimize-images");
-                // Map optimize level to JPEG quality (lower number => smaller size)
-                Integer jpegQuality =
-                        switch (optimizeLevel) {
-                            case 5 -> 78;
-                            case 6 -> 68;
-                            case 7 -> 58;
-                            case 8 -> 46;
-                            default -> 34; // 9+
-                        };
-                command.add("--jpeg-quality=" + jpegQuality);
-            }
-            command.add("--object-streams=generate");
-            command.add(currentFile.toString());
-            command.add(qpdfOutputPath.toString());
-
-            ProcessExecutorResult returnCode = null;
-            try {
-                // On high levels, prefer zopfli if platform supports env wrapper
-                if (optimizeLevel >= 8) {
-                    String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
-                    if (!os.contains("win")) {
-                        // Prepend env QPDF_ZOPFLI=silent for Unix-like systems
-                        List<String> zopfliCommand = new ArrayList<>();
-                        zopfliCommand.add("env");
-                        zopfliCommand.add("QPDF_ZOPFLI=silent");
-                        zopfliCommand.addAll(command);
-                        command = zopfliCommand;
-                    }
-                }
-                returnCode =
-                        ProcessExecutor.getInstance(ProcessExecutor.Processes.QPDF)
-                                .runCommandWithOutputHandling(command, null);
-
-                // Update current file to the QPDF output
-                Files.copy(qpdfOutputPath, currentFile, StandardCopyOption.REPLACE_EXISTING);
+        // Build QPDF command
+        List<String> command = new ArrayList<>();
+        command.add("qpdf");
+        if (Boolean.TRUE.equals(request.getNormalize())) {
+            command.add("--normalize-content=y");
+        }
+        if (Boolean.TRUE.equals(request.getLinearize())) {
+            command.add("--linearize");
+        }
+        // Decode/encode settings for maximal recompression
+        command.add("--decode-level=generalized");
+        command.add("--recompress-flate");
+        command.add("--compression-level=" + qpdfCompressionLevel);
+        command.add("--compress-streams=y");
+        command.add("--stream-data=compress");
+        // Preserve unreferenced only at lower levels for safety; skip at highest levels for
+        // size
+        if (optimizeLevel <= 3) {
+            command.add("--preserve-unreferenced");
+        }
+        // Optional image optimization in qpdf (no resampling; lossy JPEG when beneficial)
+        // Enable qpdf image optimization at medium/high levels
+        if (optimizeLevel >= 5) {
+            command.add("--optimize-images");
+            // Map optimize level to JPEG quality (lower number => smaller size)
+            Integer jpegQuality =
+                    switch (optimizeLevel) {
+                        case 5 -> 78;
+                        case 6 -> 68;
+                        case 7 -> 58;
+                        case 8 -> 46;
+                        default -> 34; // 9+
+                    };
+            command.add("--jpeg-quality=" + jpegQuality);
+        }
+        command.add("--object-streams=generate");
+        command.add(currentFile.toString());
+        command.add(qpdfOutputPath.toString());
 
-                long postQpdfSize = Files.size(currentFile);
-                double qpdfReduction = 100.0 - ((postQpdfSize * 100.0) / preQpdfSize);
-                log.info(
-                        "Post-QPDF file size: {} (reduced by {}%)",
-                        GeneralUtils.formatBytes(postQpdfSize),
-                        String.format(Locale.ROOT, "%.1f", qpdfReduction));
-
-            } catch (IOException e) {
-                if (returnCode != null && returnCode.getRc() != 3) {
-                    throw ExceptionUtils.createIOException(
-                            ExceptionUtils.ErrorCode.QPDF_COMPRESSION.getMessageKey(),
-                            ExceptionUtils.ErrorCode.QPDF_COMPRESSION.getDefaultMessage(),
-                            e);
+        ProcessExecutorResult returnCode = null;
+        try {
+            // On high levels, prefer zopfli if platform supports env wrapper
+            if (optimizeLevel >= 8) {
+                String os = System.getProperty("os.name").toLowerCase(Locale.ROOT);
+                if (!os.contains("win")) {
+                    // Prepend env QPDF_ZOPFLI=silent for Unix-like systems
+                    List<String> zopfliCommand = new ArrayList<>();
+                    zopfliCommand.add("env");
+                    zopfliCommand.add("QPDF_ZOPFLI=silent");
+                    zopfliCommand.addAll(command);
+                    command = zopfliCommand;
                 }
-                // If QPDF fails, keep using the current file
-                log.warn("QPDF compression failed, continuing with current file", e);
-            } catch (InterruptedException e) {
-                throw ExceptionUtils.createProcessingInterruptedException("QPDF", e);
             }
+            returnCode =
+                    ProcessExecutor.getInstance(ProcessExecutor.Processes.QPDF)
+                            .runCommandWithOutputHandling(command, null);
+
+            return true;
+        } catch (IOException e) {
+            if (returnCode != null && returnCode.getRc() != 3) {
+                throw ExceptionUtils.createIOException(
+                        ExceptionUtils.ErrorCode.QPDF_COMPRESSION.getMessageKey(),
+                        ExceptionUtils.ErrorCode.QPDF_COMPRESSION.getDefaultMessage(),
+                        e);
+            }
+            // If QPDF fails, keep using the current file
+            log.warn("QPDF compression failed, continuing with current file", e);
+            return false;
+        } catch (InterruptedException e) {
+            throw ExceptionUtils.createProcessingInterruptedException("QPDF", e);
         }
     }
 }
@@ -4,25 +4,48 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.awt.image.RenderedImage;
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.zip.CRC32;
 import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 import javax.imageio.ImageIO;
 
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.multipdf.PDFCloneUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
+import org.apache.pdfbox.pdmodel.graphics.color.PDColorSpace;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceGray;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceRGB;
+import org.apache.pdfbox.pdmodel.graphics.color.PDICCBased;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +54,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import io.swagger.v3.oas.annotations.Operation;
 
+import jakarta.annotation.PreDestroy;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,8 +65,10 @@ import stirling.software.common.annotations.AutoJobPostMapping;
 import stirling.software.common.annotations.api.MiscApi;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
+import stirling.software.common.util.ExecutorFactory;
 import stirling.software.common.util.GeneralUtils;
-import stirling.software.common.util.ImageProcessingUtils;
+import stirling.software.common.util.TempFile;
+import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.WebResponseUtils;
 
 @MiscApi
@@ -49,7 +76,46 @@ import stirling.software.common.util.WebResponseUtils;
 @RequiredArgsConstructor
 public class ExtractImagesController {
 
+    static final int MAX_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int LOOKAHEAD_PER_WORKER = 2;
+    private static final byte[] PNG_SIGNATURE = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+    };
+
     private final CustomPDFDocumentFactory pdfDocumentFactory;
+    private final TempFileManager tempFileManager;
+
+    // Shared by all requests, so concurrent extractions queue for cores instead of each
+    // starting a pool of its own
+    private final ExecutorService encodeExecutor =
+            ExecutorFactory.newBoundedDaemonExecutor("image-extract", MAX_WORKERS);
+
+    /** An image entry of the ZIP; {@code data} is null when the image could not be converted. */
+    private record ImageEntry(String name, byte[] data) {}
+
+    /**
+     * A copy of an image XObject in its own scratch document, so that a worker can decode it while
+     * the request thread reads on in the source document.
+     */
+    private record DetachedImage(PDDocument scratch, PDImageXObject image) implements Closeable {
+
+        static DetachedImage of(PDImageXObject source) throws IOException {
+            PDDocument scratch = new PDDocument();
+            try {
+                COSStream copy =
+                        new PDFCloneUtility(scratch) {}.cloneForNewDocument(source.getCOSObject());
+                return new DetachedImage(scratch, new PDImageXObject(new PDStream(copy), null));
+            } catch (IOException | RuntimeException e) {
+                scratch.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            scratch.close();
+        }
+    }
 
     @AutoJobPostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, value = "/extract-images")
     @MultiFileResponse
@@ -59,177 +125,264 @@ public class ExtractImagesController {
                     "This endpoint extracts images from a given PDF file and returns them in a zip"
                             + " file. Users can specify the output image format. Input:PDF"
                             + " Output:IMAGE/ZIP Type:SIMO")
-    public ResponseEntity<byte[]> extractImages(@ModelAttribute PDFExtractImagesRequest request)
-            throws IOException, InterruptedException, ExecutionException {
+    public ResponseEntity<?> extractImages(@ModelAttribute PDFExtractImagesRequest request)
+            throws IOException {
         MultipartFile file = request.getFileInput();
         String format = request.getFormat();
         boolean allowDuplicates = Boolean.TRUE.equals(request.getAllowDuplicates());
-        PDDocument document = pdfDocumentFactory.load(file);
-
-        // Determine if multithreading should be used based on PDF size or number of pages
-        boolean useMultithreading = shouldUseMultithreading(file, document);
-
-        // Create ByteArrayOutputStream to write zip file to byte array
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        // Create ZipOutputStream to create zip file
-        ZipOutputStream zos = new ZipOutputStream(baos);
-
-        // Set compression level
-        zos.setLevel(Deflater.BEST_COMPRESSION);
-
         String filename = GeneralUtils.removeExtension(file.getOriginalFilename());
-        Set<byte[]> processedImages = new HashSet<>();
 
-        if (useMultithreading) {
-            // Executor service to handle multithreading
-            ExecutorService executor =
-                    Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
-            Set<Future<Void>> futures = new HashSet<>();
+        TempFile zipFile = new TempFile(tempFileManager, ".zip");
+        try (PDDocument document = pdfDocumentFactory.load(file);
+                ZipOutputStream zos =
+                        new ZipOutputStream(Files.newOutputStream(zipFile.getPath()))) {
+            // The entries are compressed images already; spend no time deflating them again
+            zos.setLevel(Deflater.BEST_SPEED);
+            int written = extractImages(document, format, filename, allowDuplicates, zos);
+            log.debug("Extracted {} images from {}", written, filename);
+        } catch (IOException | RuntimeException e) {
+            zipFile.close();
+            throw e;
+        }
+        return WebResponseUtils.zipFileToWebResponse(zipFile, filename + "_extracted-images.zip");
+    }
 
+    /**
+     * Walks the pages on the calling thread. Images whose encoded data already is a file of the
+     * requested format are written as they are; all others are decoded and re-encoded on the shared
+     * executor and written in the order they finish. At most {@code workers * LOOKAHEAD_PER_WORKER}
+     * images of this request are being converted at any time.
+     */
+    int extractImages(
+            PDDocument document,
+            String format,
+            String filename,
+            boolean allowDuplicates,
+            ZipOutputStream zos)
+            throws IOException {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 algorithm not available", e);
+        }
+        Set<COSStream> seenStreams = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> seenHashes = new HashSet<>();
+        CompletionService<ImageEntry> completion = new ExecutorCompletionService<>(encodeExecutor);
+        List<Future<ImageEntry>> pending = new ArrayList<>();
+        int window = MAX_WORKERS * LOOKAHEAD_PER_WORKER;
+        int written = 0;
+        try {
             // Safely iterate over each page, handling corrupt PDFs where page count might be wrong
-            try {
-                int pageCount = document.getPages().getCount();
-                log.debug("Document reports {} pages", pageCount);
-
-                int consecutiveFailures = 0;
-
-                for (int pgNum = 0; pgNum < pageCount; pgNum++) {
+            int pageCount = document.getPages().getCount();
+            log.debug("Document reports {} pages", pageCount);
+            int consecutiveFailures = 0;
+            for (int pgNum = 0; pgNum < pageCount; pgNum++) {
+                PDPage page;
+                try {
+                    page = document.getPage(pgNum);
+                    consecutiveFailures = 0; // Reset on success
+                } catch (Exception e) {
+                    consecutiveFailures++;
+                    ExceptionUtils.logException("page access for page " + (pgNum + 1), e);
+                    if (consecutiveFailures >= 3) {
+                        log.warn("Stopping page iteration after 3 consecutive failures");
+                        break;
+                    }
+                    continue;
+                }
+                PDResources resources = page.getResources();
+                if (resources == null) {
+                    continue;
+                }
+                int count = 1;
+                for (COSName name : resources.getXObjectNames()) {
+                    PDImageXObject image;
+                    byte[] raw;
                     try {
-                        PDPage page = document.getPage(pgNum);
-                        consecutiveFailures = 0; // Reset on success
-                        final int currentPageNum = pgNum + 1; // Convert to 1-based page numbering
-                        Future<Void> future =
-                                executor.submit(
-                                        () -> {
-                                            try {
-                                                // Call the image extraction method for each page
-                                                extractImagesFromPage(
-                                                        page,
-                                                        format,
-                                                        filename,
-                                                        currentPageNum,
-                                                        processedImages,
-                                                        zos,
-                                                        allowDuplicates);
-                                            } catch (Exception e) {
-                                                // Log the error and continue processing other pages
-                                                ExceptionUtils.logException(
-                                                        "image extraction from page "
-                                                                + currentPageNum,
-                                                        e);
-                                            }
-
-                                            return null; // Callable requires a return type
-                                        });
-
-                        // Add the Future object to the list to track completion
-                        futures.add(future);
-                    } catch (Exception e) {
-                        consecutiveFailures++;
-                        ExceptionUtils.logException("page access for page " + (pgNum + 1), e);
-
-                        if (consecutiveFailures >= 3) {
-                            log.warn("Stopping page iteration after 3 consecutive failures");
-                            break;
+                        PDXObject xObject = resources.getXObject(name);
+                        if (!(xObject instanceof PDImageXObject imageXObject)) {
+                            continue;
+                        }
+                        image = imageXObject;
+                        if (!allowDuplicates && !seenStreams.add(image.getCOSObject())) {
+                            continue; // Skip images drawn again on later pages
                         }
+                        try (InputStream in = image.getCOSObject().createRawInputStream()) {
+                            raw = in.readAllBytes();
+                        }
+                    } catch (IOException e) {
+                        ExceptionUtils.logException("image extraction", e);
+                        throw ExceptionUtils.handlePdfException(e, "during image extraction");
+                    }
+                    if (!allowDuplicates
+                            && !seenHashes.add(HexFormat.of().formatHex(md.digest(raw)))) {
+                        continue; // Skip copies of an image stored more than once
                     }
-                }
-            } catch (Exception e) {
-                ExceptionUtils.logException("page count determination", e);
-                throw e;
-            }
 
-            // Wait for all tasks to complete
-            for (Future<Void> future : futures) {
-                future.get();
-            }
+                    String imageName =
+                            filename + "_page_" + (pgNum + 1) + "_" + count++ + "." + format;
+                    byte[] encoded = encodedAs(image, raw, format);
+                    if (encoded != null) {
+                        writeEntry(zos, imageName, encoded);
+                        written++;
+                        continue;
+                    }
 
-            // Close executor service
-            executor.shutdown();
-        } else {
-            // Single-threaded extraction
-            for (int pgNum = 0; pgNum < document.getPages().getCount(); pgNum++) {
-                PDPage page = document.getPage(pgNum);
-                extractImagesFromPage(
-                        page, format, filename, pgNum + 1, processedImages, zos, allowDuplicates);
+                    DetachedImage detached = DetachedImage.of(image);
+                    pending.add(completion.submit(() -> convert(detached, imageName, format)));
+                    if (pending.size() >= window) {
+                        written += writeFinished(completion, pending, zos);
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                written += writeFinished(completion, pending, zos);
             }
+            return written;
+        } finally {
+            // Scratch documents are memory-only, so tasks cancelled before they ran need no
+            // cleanup
+            pending.forEach(future -> future.cancel(true));
         }
+    }
 
-        // Close PDDocument and ZipOutputStream
-        document.close();
-        zos.close();
-
-        // Create ByteArrayResource from byte array
-        byte[] zipContents = baos.toByteArray();
+    private static int writeFinished(
+            CompletionService<ImageEntry> completion,
+            List<Future<ImageEntry>> pending,
+            ZipOutputStream zos)
+            throws IOException {
+        ImageEntry entry;
+        try {
+            Future<ImageEntry> done = completion.take();
+            pending.remove(done);
+            entry = done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting images", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Image extraction failed", e.getCause());
+        }
+        if (entry.data() == null) {
+            return 0;
+        }
+        writeEntry(zos, entry.name(), entry.data());
+        return 1;
+    }
 
-        return WebResponseUtils.baosToWebResponse(
-                baos, filename + "_extracted-images.zip", MediaType.APPLICATION_OCTET_STREAM);
+    private static void writeEntry(ZipOutputStream zos, String name, byte[] data)
+            throws IOException {
+        zos.putNextEntry(new ZipEntry(name));
+        zos.write(data);
+        zos.closeEntry();
     }
 
-    private boolean shouldUseMultithreading(MultipartFile file, PDDocument document) {
-        // Criteria: Use multithreading if file size > 10MB or number of pages > 20
-        long fileSizeInMB = file.getSize() / (1024 * 1024);
-        int numberOfPages = document.getPages().getCount();
-        return fileSizeInMB > 10 || numberOfPages > 20;
+    private ImageEntry convert(DetachedImage detached, String imageName, String format) {
+        try (detached) {
+            // Convert to standard RGB colorspace if needed
+            BufferedImage bufferedImage = convertToRGB(detached.image().getImage(), format);
+            ByteArrayOutputStream imageBaos = new ByteArrayOutputStream();
+            ImageIO.write(bufferedImage, format, imageBaos);
+            return new ImageEntry(imageName, imageBaos.toByteArray());
+        } catch (Exception e) {
+            // Log the error and continue with the other images
+            ExceptionUtils.logException("image extraction of " + imageName, e);
+            return new ImageEntry(imageName, null);
+        }
     }
 
-    private void extractImagesFromPage(
-            PDPage page,
-            String format,
-            String filename,
-            int pageNum,
-            Set<byte[]> processedImages,
-            ZipOutputStream zos,
-            boolean allowDuplicates)
-            throws IOException {
-        MessageDigest md;
-        try {
-            md = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            log.error("MD5 algorithm not available for extractImages hash.", e);
-            return;
+    /**
+     * Returns the image as a file of {@code format} without decoding it, when its encoded data
+     * already is one: DCT data is a JPEG file, and Flate data with PNG predictors is the IDAT of a
+     * PNG file. Returns null when the image has to be decoded, as it is when a mask applies to it.
+     */
+    static byte[] encodedAs(PDImageXObject image, byte[] raw, String format) throws IOException {
+        COSStream stream = image.getCOSObject();
+        List<COSName> filters = image.getStream().getFilters();
+        if (filters.size() != 1
+                || image.isStencil()
+                || stream.getDictionaryObject(COSName.DECODE, COSName.D) != null
+                // The encoded data carries no transparency, so masked images are decoded
+                || stream.containsKey(COSName.SMASK)
+                || stream.containsKey(COSName.MASK)) {
+            return null;
         }
-        if (page.getResources() == null || page.getResources().getXObjectNames() == null) {
-            return;
+        String lowerFormat = format.toLowerCase(Locale.ROOT);
+        COSName filter = filters.get(0);
+        if (COSName.DCT_DECODE.equals(filter)
+                && ("jpeg".equals(lowerFormat) || "jpg".equals(lowerFormat))) {
+            // CMYK JPEGs are often stored inverted, so only grey and RGB data is taken as it is
+            int components = components(image.getColorSpace());
+            return components == 1 || components == 3 ? raw : null;
         }
-        int count = 1;
-        for (COSName name : page.getResources().getXObjectNames()) {
-            try {
-                if (page.getResources().isImageXObject(name)) {
-                    PDImageXObject image = (PDImageXObject) page.getResources().getXObject(name);
-                    if (!allowDuplicates) {
-                        byte[] data = ImageProcessingUtils.getImageData(image.getImage());
-                        byte[] imageHash = md.digest(data);
-                        synchronized (processedImages) {
-                            if (processedImages.stream()
-                                    .anyMatch(hash -> Arrays.equals(hash, imageHash))) {
-                                continue; // Skip already processed images
-                            }
-                            processedImages.add(imageHash);
-                        }
-                    }
+        if (COSName.FLATE_DECODE.equals(filter) && "png".equals(lowerFormat)) {
+            return flateToPng(image, raw);
+        }
+        return null;
+    }
 
-                    RenderedImage renderedImage = image.getImage();
+    private static byte[] flateToPng(PDImageXObject image, byte[] raw) throws IOException {
+        int components = components(image.getColorSpace());
+        int bits = image.getBitsPerComponent();
+        COSBase parms = image.getCOSObject().getDictionaryObject(COSName.DECODE_PARMS, COSName.DP);
+        if (!(parms instanceof COSDictionary decodeParms)
+                || decodeParms.getInt(COSName.PREDICTOR, 1) < 10
+                || decodeParms.getInt(COSName.COLORS, 1) != components
+                || decodeParms.getInt(COSName.BITS_PER_COMPONENT, 8) != bits
+                || decodeParms.getInt(COSName.COLUMNS, 1) != image.getWidth()
+                || !isZlib(raw)) {
+            return null;
+        }
+        boolean pngDepth =
+                components == 1
+                        ? bits == 1 || bits == 2 || bits == 4 || bits == 8 || bits == 16
+                        : components == 3 && (bits == 8 || bits == 16);
+        if (!pngDepth) {
+            return null;
+        }
 
-                    // Convert to standard RGB colorspace if needed
-                    BufferedImage bufferedImage = convertToRGB(renderedImage, format);
+        ByteBuffer header = ByteBuffer.allocate(13);
+        header.putInt(image.getWidth()).putInt(image.getHeight());
+        header.put((byte) bits).put((byte) (components == 1 ? 0 : 2)); // grey or truecolour
+        header.put((byte) 0).put((byte) 0).put((byte) 0); // deflate, adaptive filter, no interlace
+        ByteArrayOutputStream png = new ByteArrayOutputStream(raw.length + 64);
+        png.write(PNG_SIGNATURE);
+        writeChunk(png, "IHDR", header.array());
+        writeChunk(png, "IDAT", raw);
+        writeChunk(png, "IEND", new byte[0]);
+        return png.toByteArray();
+    }
 
-                    // Write image to zip file
-                    String imageName = filename + "_page_" + pageNum + "_" + count++ + "." + format;
-                    synchronized (zos) {
-                        zos.putNextEntry(new ZipEntry(imageName));
-                        ByteArrayOutputStream imageBaos = new ByteArrayOutputStream();
-                        ImageIO.write(bufferedImage, format, imageBaos);
-                        zos.write(imageBaos.toByteArray());
-                        zos.closeEntry();
-                    }
-                }
-            } catch (IOException e) {
-                ExceptionUtils.logException("image extraction", e);
-                throw ExceptionUtils.handlePdfException(e, "during image extraction");
-            }
+    /** Number of components of a grey or RGB colour space, or 0 for any other. */
+    private static int components(PDColorSpace colorSpace) {
+        if (colorSpace instanceof PDDeviceGray) {
+            return 1;
+        }
+        if (colorSpace instanceof PDDeviceRGB) {
+            return 3;
         }
+        if (colorSpace instanceof PDICCBased iccBased) {
+            int components = iccBased.getNumberOfComponents();
+            return components == 1 || components == 3 ? components : 0;
+        }
+        return 0;
+    }
+
+    private static boolean isZlib(byte[] data) {
+        return data.length >= 2
+                && (data[0] & 0x0F) == 8
+                && (((data[0] & 0xFF) << 8) | (data[1] & 0xFF)) % 31 == 0;
+    }
+
+    private static void writeChunk(ByteArrayOutputStream out, String type, byte[] data) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeBytes(ByteBuffer.allocate(4).putInt(data.length).array());
+        out.writeBytes(typeBytes);
+        out.writeBytes(data);
+        out.writeBytes(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
     }
 
     private BufferedImage convertToRGB(RenderedImage renderedImage, String format) {
@@ -252,4 +405,9 @@ public class ExtractImagesController {
         g.dispose();
         return rgbImage;
     }
+
+    @PreDestroy
+    public void shutdown() {
+        encodeExecutor.shutdownNow();
+    }
 }
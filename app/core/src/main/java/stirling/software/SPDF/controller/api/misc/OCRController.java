@@ -15,10 +15,16 @@ import java.util.zip.ZipOutputStream;
 
 import javax.imageio.ImageIO;
 
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.contentstream.operator.OperatorName;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.http.MediaType;
@@ -39,6 +45,7 @@ import stirling.software.common.annotations.api.MiscApi;
 import stirling.software.common.configuration.RuntimePathConfig;
 import stirling.software.common.model.ApplicationProperties;
 import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.TaskManager;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.ProcessExecutor;
@@ -46,6 +53,7 @@ import stirling.software.common.util.ProcessExecutor.ProcessExecutorResult;
 import stirling.software.common.util.TempDirectory;
 import stirling.software.common.util.TempFile;
 import stirling.software.common.util.TempFileManager;
+import stirling.software.common.util.ToolChain;
 import stirling.software.common.util.WebResponseUtils;
 
 @MiscApi
@@ -58,6 +66,7 @@ public class OCRController {
     private final TempFileManager tempFileManager;
     private final EndpointConfiguration endpointConfiguration;
     private final RuntimePathConfig runtimePathConfig;
+    private final TaskManager taskManager;
 
     private boolean isOcrMyPdfEnabled() {
         return endpointConfiguration.isGroupEnabled("OCRmyPDF");
@@ -122,42 +131,59 @@ public class OCRController {
         }
 
         // Use try-with-resources for proper temp file management
+        List<String> languages = selectedLanguages;
         try (TempFile tempInputFile = new TempFile(tempFileManager, ".pdf");
-                TempFile tempOutputFile = new TempFile(tempFileManager, ".pdf");
-                TempFile sidecarTextFile = sidecar ? new TempFile(tempFileManager, ".txt") : null) {
+                TempFile sidecarTextFile = sidecar ? new TempFile(tempFileManager, ".txt") : null;
+                ToolChain chain =
+                        new ToolChain(
+                                tempFileManager,
+                                tempInputFile.getPath(),
+                                ".pdf",
+                                taskManager::addNoteToCurrentJob)) {
 
             inputFile.transferTo(tempInputFile.getFile());
 
             // Use OCRmyPDF if available (no fallback - error if it fails)
             if (isOcrMyPdfEnabled()) {
-                processWithOcrMyPdf(
-                        selectedLanguages,
-                        sidecar,
-                        deskew,
-                        clean,
-                        cleanFinal,
-                        ocrType,
-                        ocrRenderType,
-                        removeImagesAfter,
-                        tempInputFile.getPath(),
-                        tempOutputFile.getPath(),
-                        sidecarTextFile != null ? sidecarTextFile.getPath() : null);
+                chain.run(
+                        "OCRmyPDF",
+                        (in, out) -> {
+                            processWithOcrMyPdf(
+                                    languages,
+                                    sidecar,
+                                    deskew,
+                                    clean,
+                                    cleanFinal,
+                                    ocrType,
+                                    ocrRenderType,
+                                    in,
+                                    out,
+                                    sidecarTextFile != null ? sidecarTextFile.getPath() : null);
+                            return true;
+                        });
                 log.info("OCRmyPDF processing completed successfully");
+
+                // Remove images from the OCR processed PDF if the flag is set to true
+                if (removeImagesAfter != null && removeImagesAfter) {
+                    chain.run(
+                            "Ghostscript image removal", this::containsImages, this::removeImages);
+                }
             }
             // Use Tesseract only if OCRmyPDF is not available
             else if (isTesseractEnabled()) {
-                processWithTesseract(
-                        selectedLanguages,
-                        ocrType,
-                        tempInputFile.getPath(),
-                        tempOutputFile.getPath());
+                chain.run(
+                        "Tesseract",
+                        (in, out) -> {
+                            processWithTesseract(languages, ocrType, in, out);
+                            return true;
+                        });
                 log.info("Tesseract processing completed successfully");
             } else {
                 throw ExceptionUtils.createOcrToolsUnavailableException();
             }
 
             // Read the processed PDF file
-            byte[] pdfBytes = Files.readAllBytes(tempOutputFile.getPath());
+            byte[] pdfBytes = Files.readAllBytes(chain.current());
 
             // Return the OCR processed PDF as a response
             String outputFilename =
@@ -211,7 +237,6 @@ public class OCRController {
             Boolean cleanFinal,
             String ocrType,
             String ocrRenderType,
-            Boolean removeImagesAfter,
             Path tempInputFile,
             Path tempOutputFile,
             Path sidecarTextPath)
@@ -279,29 +304,60 @@ public class OCRController {
         if (result.getRc() != 0) {
             throw ExceptionUtils.createOcrProcessingFailedException(result.getRc());
         }
+    }
 
-        // Remove images from the OCR processed PDF if the flag is set to true
-        if (removeImagesAfter != null && removeImagesAfter) {
-            try (TempFile tempPdfWithoutImages = new TempFile(tempFileManager, "_no_images.pdf")) {
-                List<String> gsCommand =
-                        Arrays.asList(
-                                "gs",
-                                "-sDEVICE=pdfwrite",
-                                "-dFILTERIMAGE",
-                                "-o",
-                                tempPdfWithoutImages.getPath().toString(),
-                                tempOutputFile.toString());
-
-                ProcessExecutor.getInstance(ProcessExecutor.Processes.GHOSTSCRIPT)
-                        .runCommandWithOutputHandling(gsCommand);
-
-                // Replace output file with version without images
-                Files.copy(
-                        tempPdfWithoutImages.getPath(),
-                        tempOutputFile,
-                        java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Whether Ghostscript's image filter would have anything to remove: image XObjects, forms that
+     * may hold them, or inline images in the page content.
+     */
+    private boolean containsImages(Path pdf) throws IOException {
+        try (PDDocument document = pdfDocumentFactory.loadKeepingFile(pdf, true)) {
+            for (PDPage page : document.getPages()) {
+                PDResources resources = page.getResources();
+                if (resources != null) {
+                    for (COSName name : resources.getXObjectNames()) {
+                        if (resources.isImageXObject(name)) {
+                            return true;
+                        }
+                        if (resources.getXObject(name) instanceof PDFormXObject) {
+                            return true;
+                        }
+                    }
+                }
+                if (hasInlineImage(page)) {
+                    return true;
+                }
             }
         }
+        return false;
+    }
+
+    private static boolean hasInlineImage(PDPage page) throws IOException {
+        PDFStreamParser parser = new PDFStreamParser(page);
+        Object token;
+        while ((token = parser.parseNextToken()) != null) {
+            if (token instanceof Operator operator
+                    && OperatorName.BEGIN_INLINE_IMAGE.equals(operator.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean removeImages(Path inputPdf, Path outputPdf)
+            throws IOException, InterruptedException {
+        List<String> gsCommand =
+                Arrays.asList(
+                        "gs",
+                        "-sDEVICE=pdfwrite",
+                        "-dFILTERIMAGE",
+                        "-o",
+                        outputPdf.toString(),
+                        inputPdf.toString());
+
+        ProcessExecutor.getInstance(ProcessExecutor.Processes.GHOSTSCRIPT)
+                .runCommandWithOutputHandling(gsCommand);
+        return true;
     }
 
     private void processWithTesseract(
@@ -311,17 +367,14 @@ public class OCRController {
         // Create temp directory for Tesseract processing
         try (TempDirectory tempDir = new TempDirectory(tempFileManager)) {
             File tempOutputDir = new File(tempDir.getPath().toFile(), "output");
-            File tempImagesDir = new File(tempDir.getPath().toFile(), "images");
-            File finalOutputFile = new File(tempDir.getPath().toFile(), "final_output.pdf");
 
             // Create directories
             tempOutputDir.mkdirs();
-            tempImagesDir.mkdirs();
 
             PDFMergerUtility merger = new PDFMergerUtility();
-            merger.setDestinationFileName(finalOutputFile.toString());
+            merger.setDestinationFileName(tempOutputFile.toString());
 
-            try (PDDocument document = pdfDocumentFactory.load(tempInputFile.toFile())) {
+            try (PDDocument document = pdfDocumentFactory.loadKeepingFile(tempInputFile, false)) {
                 PDFRenderer pdfRenderer = new PDFRenderer(document);
                 pdfRenderer.setSubsamplingAllowed(
                         true); // Enable subsampling to reduce memory usage
@@ -368,16 +421,11 @@ public class OCRController {
                                         currentPageNum + 1,
                                         dpi,
                                         () -> pdfRenderer.renderImageWithDPI(currentPageNum, dpi));
-                        File imagePath =
-                                new File(
-                                        tempImagesDir,
-                                        String.format(Locale.ROOT, "page_%d.png", pageNum));
-                        ImageIO.write(image, "png", imagePath);
 
-                        // Build OCR command
+                        // Build OCR command; the page image is piped in on stdin
                         List<String> command = new ArrayList<>();
                         command.add("tesseract");
-                        command.add(imagePath.toString());
+                        command.add("stdin");
                         command.add(
                                 new File(
                                                 tempOutputDir,
@@ -389,7 +437,10 @@ public class OCRController {
 
                         ProcessExecutorResult result =
                                 ProcessExecutor.getInstance(ProcessExecutor.Processes.TESSERACT)
-                                        .runCommandWithOutputHandling(command);
+                                        .runCommandWithOutputHandling(
+                                                command,
+                                                null,
+                                                stdin -> ImageIO.write(image, "png", stdin));
 
                         if (result.getRc() != 0) {
                             throw ExceptionUtils.createRuntimeException(
@@ -413,14 +464,8 @@ public class OCRController {
                 }
             }
 
-            // Merge all pages into final PDF
+            // Merge all pages straight into the output file
             merger.mergeDocuments(IOUtils.createTempFileOnlyStreamCache());
-
-            // Copy final output to the expected location
-            Files.copy(
-                    finalOutputFile.toPath(),
-                    tempOutputFile,
-                    java.nio.file.StandardCopyOption.REPLACE_EXISTING);
         }
     }
 }
@@ -3,7 +3,6 @@ package stirling.software.SPDF.controller.api.misc;
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.List;
 import java.util.Locale;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -28,6 +27,7 @@ import stirling.software.common.annotations.AutoJobPostMapping;
 import stirling.software.common.annotations.api.MiscApi;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.GeneralUtils;
+import stirling.software.common.util.PageSelection;
 import stirling.software.common.util.WebResponseUtils;
 
 @MiscApi
@@ -86,13 +86,14 @@ public class PageNumbersController {
             if (pagesToNumber == null || pagesToNumber.isEmpty()) {
                 pagesToNumber = "all";
             }
+            PageSelection.validate(pagesToNumber);
             if (customText == null || customText.isEmpty()) {
                 customText = "{n}";
             }
 
-            List<Integer> pagesToNumberList =
-                    GeneralUtils.parsePageList(
-                            pagesToNumber.split(","), document.getNumberOfPages());
+            int[] pagesToNumberList =
+                    PageSelection.compile(pagesToNumber)
+                            .toArray(document.getNumberOfPages(), false);
 
             // Clamp position to 1..9 (1 = top-left, 9 = bottom-right)
             int pos = Math.max(1, Math.min(9, position));
@@ -3,10 +3,7 @@ package stirling.software.SPDF.controller.api.misc;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyEditorSupport;
-import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -17,20 +14,15 @@ import java.util.regex.Pattern;
 
 import javax.imageio.ImageIO;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
 import org.apache.pdfbox.util.Matrix;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.WebDataBinder;
@@ -43,14 +35,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 
 import stirling.software.SPDF.model.api.misc.AddStampRequest;
+import stirling.software.SPDF.service.FontRegistry;
 import stirling.software.common.annotations.AutoJobPostMapping;
 import stirling.software.common.annotations.api.MiscApi;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
 import stirling.software.common.util.RegexPatternUtils;
-import stirling.software.common.util.TempFile;
-import stirling.software.common.util.TempFileManager;
 import stirling.software.common.util.WebResponseUtils;
 
 @MiscApi
@@ -58,7 +49,7 @@ import stirling.software.common.util.WebResponseUtils;
 public class StampController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
-    private final TempFileManager tempFileManager;
+    private final FontRegistry fontRegistry;
 
     private static final int MAX_DATE_FORMAT_LENGTH = 50;
     private static final Pattern SAFE_DATE_FORMAT_PATTERN =
@@ -143,6 +134,11 @@ public class StampController {
 
             List<Integer> pageNumbers = request.getPageNumbersList(document, true);
 
+            PDFont font =
+                    "text".equalsIgnoreCase(stampType)
+                            ? fontRegistry.loadAlphabetFont(document, alphabet)
+                            : null;
+
             for (int pageIndex : pageNumbers) {
                 int zeroBasedIndex = pageIndex - 1;
                 if (zeroBasedIndex >= 0 && zeroBasedIndex < document.getNumberOfPages()) {
@@ -171,7 +167,7 @@ public class StampController {
                                 rotation,
                                 position,
                                 fontSize,
-                                alphabet,
+                                font,
                                 overrideX,
                                 overrideY,
                                 margin,
@@ -210,7 +206,7 @@ public class StampController {
             float rotation,
             int position, // 1-9 positioning logic
             float fontSize,
-            String alphabet,
+            PDFont font,
             float overrideX, // X override
             float overrideY, // Y override
             float margin,
@@ -218,32 +214,6 @@ public class StampController {
             int currentPageNumber,
             String filename)
             throws IOException {
-        String resourceDir;
-        PDFont font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
-        resourceDir =
-                switch (alphabet) {
-                    case "arabic" -> "static/fonts/NotoSansArabic-Regular.ttf";
-                    case "japanese" -> "static/fonts/Meiryo.ttf";
-                    case "korean" -> "static/fonts/malgun.ttf";
-                    case "chinese" -> "static/fonts/SimSun.ttf";
-                    case "thai" -> "static/fonts/NotoSansThai-Regular.ttf";
-                    case "roman" -> "static/fonts/NotoSans-Regular.ttf";
-                    default -> "static/fonts/NotoSans-Regular.ttf";
-                };
-
-        ClassPathResource classPathResource = new ClassPathResource(resourceDir);
-        String fileExtension = resourceDir.substring(resourceDir.lastIndexOf("."));
-
-        // Use TempFile with try-with-resources for automatic cleanup
-        try (TempFile tempFileWrapper = new TempFile(tempFileManager, fileExtension)) {
-            File tempFile = tempFileWrapper.getFile();
-            try (InputStream is = classPathResource.getInputStream();
-                    FileOutputStream os = new FileOutputStream(tempFile)) {
-                IOUtils.copy(is, os);
-                font = PDType0Font.load(document, tempFile);
-            }
-        }
-
         Color redactColor;
         try {
             if (!colorString.startsWith("#")) {
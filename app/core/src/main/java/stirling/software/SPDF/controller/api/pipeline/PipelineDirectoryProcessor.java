@@ -17,20 +17,34 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
 import lombok.extern.slf4j.Slf4j;
 
+import stirling.software.SPDF.model.PipelineCompletedEvent;
 import stirling.software.SPDF.model.PipelineConfig;
 import stirling.software.SPDF.model.PipelineOperation;
 import stirling.software.SPDF.model.PipelineResult;
@@ -39,23 +53,44 @@ import stirling.software.common.configuration.RuntimePathConfig;
 import stirling.software.common.service.PostHogService;
 import stirling.software.common.util.FileMonitor;
 
+/**
+ * Runs the pipelines of the watched folders. Folders are submitted as soon as {@link FileMonitor}
+ * reports settled files and run concurrently on a bounded worker pool, one run at a time per
+ * folder. A {@link PipelineCompletedEvent} is published after every run; a slow periodic scan
+ * catches anything the watch service missed.
+ */
 @Service
 @Slf4j
 public class PipelineDirectoryProcessor {
 
     private static final int MAX_DIRECTORY_DEPTH = 50; // Prevent excessive recursion
+    private static final int MAX_CONCURRENT_FOLDERS =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    private static final long RETRY_DELAY_MS = 60000;
 
     private final ObjectMapper objectMapper;
     private final ApiDocService apiDocService;
     private final PipelineProcessor processor;
     private final FileMonitor fileMonitor;
     private final PostHogService postHogService;
+    private final ApplicationEventPublisher eventPublisher;
     private final List<String> watchedFoldersDirs;
     private final String finishedFoldersDir;
 
-    // Track processed directories in current scan to prevent duplicates
-    private final ThreadLocal<java.util.Set<Path>> processedDirsInScan =
-            ThreadLocal.withInitial(java.util.HashSet::new);
+    private final ExecutorService workers;
+    private final Map<Path, FolderQueue> folderQueues = new ConcurrentHashMap<>();
+    // Folders whose last run failed, mapped to the time their retry is due
+    private final Map<Path, Long> retryAfter = new ConcurrentHashMap<>();
+    // Files handed over complete by submitFile, so they need not wait to settle
+    private final Set<Path> completeFiles = ConcurrentHashMap.newKeySet();
+    private final Map<Path, CompletableFuture<PipelineCompletedEvent>> completionWaiters =
+            new ConcurrentHashMap<>();
+
+    /** Serialises the runs of one folder and coalesces submissions that arrive while queued. */
+    private static final class FolderQueue {
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private CompletableFuture<Void> queued;
+    }
 
     public PipelineDirectoryProcessor(
             ObjectMapper objectMapper,
@@ -63,28 +98,162 @@ public class PipelineDirectoryProcessor {
             PipelineProcessor processor,
             FileMonitor fileMonitor,
             PostHogService postHogService,
+            ApplicationEventPublisher eventPublisher,
             RuntimePathConfig runtimePathConfig) {
         this.objectMapper = objectMapper;
         this.apiDocService = apiDocService;
         this.processor = processor;
         this.fileMonitor = fileMonitor;
         this.postHogService = postHogService;
+        this.eventPublisher = eventPublisher;
         this.watchedFoldersDirs = runtimePathConfig.getPipelineWatchedFoldersPaths();
         this.finishedFoldersDir = runtimePathConfig.getPipelineFinishedFoldersPath();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers =
+                new ThreadPoolExecutor(
+                        MAX_CONCURRENT_FOLDERS,
+                        MAX_CONCURRENT_FOLDERS,
+                        60L,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(),
+                        runnable -> {
+                            Thread thread =
+                                    new Thread(
+                                            runnable,
+                                            "pipeline-folder-" + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        ((ThreadPoolExecutor) workers).allowCoreThreadTimeOut(true);
     }
 
-    @Scheduled(fixedRate = 60000)
-    public void scanFolders() {
-        // Clear the processed directories set for this scan cycle
-        processedDirsInScan.get().clear();
+    @PostConstruct
+    public void registerWithFileMonitor() {
+        fileMonitor.addListener(this::onFilesSettled);
+    }
 
-        try {
-            for (String watchedFoldersDir : watchedFoldersDirs) {
-                scanWatchedFolder(Paths.get(watchedFoldersDir).toAbsolutePath());
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void onFilesSettled(Path dir) {
+        Path folder = dir.toAbsolutePath().normalize();
+        // Files dropped directly into a watched root have no pipeline of their own
+        if (fileMonitor.getRootDirs().contains(folder) || isProcessingDirectory(folder)) {
+            return;
+        }
+        // Files moved back after a failed run would otherwise retrigger it straight away
+        Long notBefore = retryAfter.get(folder);
+        if (notBefore != null && notBefore > System.currentTimeMillis()) {
+            return;
+        }
+        submit(folder);
+    }
+
+    private void scheduleRetry(Path dir) {
+        Path folder = dir.toAbsolutePath().normalize();
+        retryAfter.put(folder, System.currentTimeMillis() + RETRY_DELAY_MS);
+        CompletableFuture.delayedExecutor(RETRY_DELAY_MS, TimeUnit.MILLISECONDS, workers)
+                .execute(
+                        () -> {
+                            retryAfter.remove(folder);
+                            submit(folder);
+                        });
+    }
+
+    private boolean isProcessingDirectory(Path dir) {
+        Path fileName = dir.getFileName();
+        return fileName != null && "processing".equals(fileName.toString());
+    }
+
+    /**
+     * Queues a run of the pipeline in {@code dir}. Runs of the same folder never overlap; if a run
+     * for the folder is already waiting to start, its future is returned instead of queuing
+     * another.
+     *
+     * @return a future completing when the run has finished
+     */
+    public CompletableFuture<Void> submit(Path dir) {
+        Path folder = dir.toAbsolutePath().normalize();
+        FolderQueue queue = folderQueues.computeIfAbsent(folder, key -> new FolderQueue());
+        synchronized (queue) {
+            if (queue.queued != null) {
+                return queue.queued;
             }
-        } finally {
-            // Clean up ThreadLocal to prevent memory leaks
-            processedDirsInScan.remove();
+            CompletableFuture<Void> run = new CompletableFuture<>();
+            queue.queued = run;
+            queue.tail =
+                    queue.tail
+                            .thenRunAsync(
+                                    () -> {
+                                        synchronized (queue) {
+                                            if (queue.queued == run) {
+                                                queue.queued = null;
+                                            }
+                                        }
+                                        try {
+                                            handleDirectory(folder);
+                                            run.complete(null);
+                                        } catch (Exception e) {
+                                            log.error("Error handling directory: {}", folder, e);
+                                            run.completeExceptionally(e);
+                                        }
+                                    },
+                                    workers)
+                            .exceptionally(
+                                    e -> {
+                                        // Rejected by a shut-down pool
+                                        run.completeExceptionally(e);
+                                        return null;
+                                    });
+            return run;
+        }
+    }
+
+    /**
+     * Queues a run for a file that has been fully written into a watched folder, without waiting
+     * for it to settle.
+     *
+     * @param file a complete file inside a watched pipeline folder
+     * @return a future completing with the event of the run that processed the file; a run that did
+     *     not pick the file up completes it with an unsuccessful event
+     */
+    public CompletableFuture<PipelineCompletedEvent> submitFile(Path file) {
+        Path input = file.toAbsolutePath().normalize();
+        Path folder = input.getParent();
+        CompletableFuture<PipelineCompletedEvent> completion = new CompletableFuture<>();
+        completionWaiters.put(input, completion);
+        completeFiles.add(input);
+        submit(folder)
+                .whenComplete(
+                        (ignored, error) -> {
+                            completeFiles.remove(input);
+                            CompletableFuture<PipelineCompletedEvent> waiter =
+                                    completionWaiters.remove(input);
+                            if (waiter == null) {
+                                return;
+                            }
+                            if (error != null) {
+                                waiter.completeExceptionally(error);
+                            } else {
+                                waiter.complete(
+                                        new PipelineCompletedEvent(
+                                                folder, List.of(input), List.of(), false));
+                            }
+                        });
+        return completion;
+    }
+
+    /**
+     * Safety net for events the watch service can miss, such as changes on network mounts. Normal
+     * processing is driven by {@link FileMonitor} events.
+     */
+    @Scheduled(initialDelay = 300000, fixedRate = 300000)
+    public void scanFolders() {
+        for (String watchedFoldersDir : watchedFoldersDirs) {
+            scanWatchedFolder(Paths.get(watchedFoldersDir).toAbsolutePath());
         }
     }
 
@@ -127,7 +296,7 @@ public class PipelineDirectoryProcessor {
                                 // Skip root directory and "processing" subdirectories
                                 if (!dir.equals(watchedFolderPath)
                                         && !"processing".equals(dirName)) {
-                                    handleDirectory(dir);
+                                    submit(dir);
                                 }
                             } catch (Exception e) {
                                 log.error("Error handling directory: {}", dir, e);
@@ -151,14 +320,8 @@ public class PipelineDirectoryProcessor {
     }
 
     public void handleDirectory(Path dir) throws IOException {
-        // Normalize path to absolute to prevent duplicate processing from different path
-        // representations
-        Path normalizedDir = dir.toAbsolutePath().normalize();
-
-        // Check if we've already processed this directory in this scan cycle
-        java.util.Set<Path> processedDirs = processedDirsInScan.get();
-        if (!processedDirs.add(normalizedDir)) {
-            log.debug("Directory already processed in this scan cycle: {}", normalizedDir);
+        if (!Files.isDirectory(dir)) {
+            log.debug("Directory no longer exists: {}", dir);
             return;
         }
 
@@ -212,7 +375,7 @@ public class PipelineDirectoryProcessor {
             properties.put("fileCount", files.length);
             postHogService.captureEvent("pipeline_directory_event", properties);
 
-            List<File> filesToProcess = prepareFilesForProcessing(files, processingDir);
+            Map<File, File> filesToProcess = prepareFilesForProcessing(files, processingDir);
             try (PipelineResult result =
                     runPipelineAgainstFiles(filesToProcess, config, dir, processingDir)) {}
         }
@@ -275,11 +438,13 @@ public class PipelineDirectoryProcessor {
                             .filter(
                                     path -> {
                                         boolean isReady =
-                                                fileMonitor.isFileReadyForProcessing(path);
+                                                completeFiles.contains(path.normalize())
+                                                        || fileMonitor.isFileReadyForProcessing(
+                                                                path);
                                         if (!isReady) {
                                             log.info(
-                                                    "File not ready for processing (locked/created"
-                                                            + " last 5s): {}",
+                                                    "File not ready for processing (locked or"
+                                                            + " still being written): {}",
                                                     path);
                                         }
                                         return isReady;
@@ -294,9 +459,10 @@ public class PipelineDirectoryProcessor {
         }
     }
 
-    private List<File> prepareFilesForProcessing(File[] files, Path processingDir)
+    /** Moves the files into the processing directory, mapping each original to its new file. */
+    private Map<File, File> prepareFilesForProcessing(File[] files, Path processingDir)
             throws IOException {
-        List<File> filesToProcess = new ArrayList<>();
+        Map<File, File> filesToProcess = new LinkedHashMap<>();
         for (File file : files) {
             Path targetPath = resolveUniqueFilePath(processingDir, file.getName());
 
@@ -323,7 +489,7 @@ public class PipelineDirectoryProcessor {
             }
 
             if (moved) {
-                filesToProcess.add(targetPath.toFile());
+                filesToProcess.put(file, targetPath.toFile());
             } else {
                 log.error("Failed to move file after {} attempts: {}", maxRetries, file.getName());
             }
@@ -354,8 +520,10 @@ public class PipelineDirectoryProcessor {
     }
 
     private PipelineResult runPipelineAgainstFiles(
-            List<File> filesToProcess, PipelineConfig config, Path dir, Path processingDir)
+            Map<File, File> movedFiles, PipelineConfig config, Path dir, Path processingDir)
             throws IOException {
+        List<File> filesToProcess = new ArrayList<>(movedFiles.values());
+        List<Path> originals = movedFiles.keySet().stream().map(File::toPath).toList();
         try {
             List<Resource> inputFiles =
                     processor.generateInputFiles(filesToProcess.toArray(new File[0]));
@@ -367,18 +535,42 @@ public class PipelineDirectoryProcessor {
             if (result.isHasErrors()) {
                 log.error("Errors occurred during processing, retaining original files");
                 moveToErrorDirectory(filesToProcess, dir);
+                publishCompletion(dir, originals, List.of(), false);
             } else {
-                moveAndRenameFiles(result.getOutputFiles(), config, dir);
+                List<Path> outputs = moveAndRenameFiles(result.getOutputFiles(), config, dir);
                 deleteOriginalFiles(filesToProcess, processingDir);
+                publishCompletion(dir, originals, outputs, true);
             }
             return result;
         } catch (Exception e) {
             log.error("Error during processing", e);
-            moveFilesBack(filesToProcess, processingDir);
+            moveFilesBack(movedFiles);
+            scheduleRetry(dir);
+            publishCompletion(dir, originals, List.of(), false);
             return new PipelineResult();
         }
     }
 
+    private void publishCompletion(
+            Path dir, List<Path> inputFiles, List<Path> outputFiles, boolean success) {
+        PipelineCompletedEvent event =
+                new PipelineCompletedEvent(dir, inputFiles, outputFiles, success);
+        // Listeners run before waiters are released, so a waiter sees their side effects
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.error("Pipeline completion listener failed for {}", dir, e);
+        }
+        for (Path input : inputFiles) {
+            Path key = input.toAbsolutePath().normalize();
+            completeFiles.remove(key);
+            CompletableFuture<PipelineCompletedEvent> waiter = completionWaiters.remove(key);
+            if (waiter != null) {
+                waiter.complete(event);
+            }
+        }
+    }
+
     private void moveToErrorDirectory(List<File> files, Path originalDir) throws IOException {
         Path errorDir = originalDir.resolve("error");
         if (!Files.exists(errorDir)) {
@@ -392,8 +584,9 @@ public class PipelineDirectoryProcessor {
         }
     }
 
-    private void moveAndRenameFiles(List<Resource> resources, PipelineConfig config, Path dir)
+    private List<Path> moveAndRenameFiles(List<Resource> resources, PipelineConfig config, Path dir)
             throws IOException {
+        List<Path> outputFiles = new ArrayList<>();
         for (Resource resource : resources) {
             String outputFileName = createOutputFileName(resource, config);
             Path outputPath = determineOutputPath(config, dir);
@@ -406,8 +599,10 @@ public class PipelineDirectoryProcessor {
                     InputStream is = resource.getInputStream()) {
                 is.transferTo(os);
             }
+            outputFiles.add(outputFile);
             log.info("File moved and renamed to {}", outputFile);
         }
+        return outputFiles;
     }
 
     private String createOutputFileName(Resource resource, PipelineConfig config) {
@@ -448,16 +643,17 @@ public class PipelineDirectoryProcessor {
         }
     }
 
-    private void moveFilesBack(List<File> filesToProcess, Path processingDir) {
-        for (File file : filesToProcess) {
+    private void moveFilesBack(Map<File, File> movedFiles) {
+        for (Map.Entry<File, File> entry : movedFiles.entrySet()) {
+            File original = entry.getKey();
             try {
-                Files.move(processingDir.resolve(file.getName()), file.toPath());
+                Files.move(entry.getValue().toPath(), original.toPath());
                 log.info(
                         "Moved file back to original location: {} , {}",
-                        file.toPath(),
-                        file.getName());
+                        original.toPath(),
+                        original.getName());
             } catch (IOException e) {
-                log.error("Error moving file back to original location: {}", file.getName(), e);
+                log.error("Error moving file back to original location: {}", original.getName(), e);
             }
         }
     }
@@ -37,6 +37,7 @@ import stirling.software.SPDF.model.PipelineConfig;
 import stirling.software.SPDF.model.PipelineOperation;
 import stirling.software.SPDF.model.PipelineResult;
 import stirling.software.SPDF.service.ApiDocService;
+import stirling.software.common.model.ApiOperation;
 import stirling.software.common.model.enumeration.Role;
 import stirling.software.common.service.UserServiceInterface;
 import stirling.software.common.util.TempFile;
@@ -105,23 +106,28 @@ public class PipelineProcessor {
         boolean filtersApplied = false;
         for (PipelineOperation pipelineOperation : config.getOperations()) {
             String operation = pipelineOperation.getOperation();
-            boolean isMultiInputOperation = apiDocService.isMultiInput(operation);
+            Map<String, Object> parameters = pipelineOperation.getParameters();
+            ApiOperation apiOperation =
+                    apiDocService
+                            .getOperation(operation)
+                            .filter(op -> apiDocService.isValidOperation(op, parameters))
+                            .orElse(null);
+            if (apiOperation == null) {
+                log.error("Invalid operation or parameters: o:{} p:{}", operation, parameters);
+                throw new IllegalArgumentException(
+                        "Invalid operation: " + operation + " with parameters: " + parameters);
+            }
+
+            boolean isMultiInputOperation = apiOperation.isMultiInput();
             log.info(
                     "Running operation: {} isMultiInputOperation {}",
                     operation,
                     isMultiInputOperation);
-            Map<String, Object> parameters = pipelineOperation.getParameters();
-            List<String> inputFileTypes = apiDocService.getExtensionTypes(false, operation);
+            List<String> inputFileTypes = apiDocService.getExtensionTypes(false, apiOperation);
             if (inputFileTypes == null) {
                 inputFileTypes = new ArrayList<>(List.of("ALL"));
             }
 
-            if (!apiDocService.isValidOperation(operation, parameters)) {
-                log.error("Invalid operation or parameters: o:{} p:{}", operation, parameters);
-                throw new IllegalArgumentException(
-                        "Invalid operation: " + operation + " with parameters: " + parameters);
-            }
-
             String url = getBaseUrl() + operation;
             List<Resource> newOutputFiles = new ArrayList<>();
             if (!isMultiInputOperation) {
@@ -3,6 +3,7 @@ package stirling.software.SPDF.controller.api.security;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -37,7 +38,6 @@ import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlin
 import org.apache.pdfbox.pdmodel.interactive.documentnavigation.outline.PDOutlineNode;
 import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
 import org.apache.pdfbox.pdmodel.interactive.form.PDField;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.xmpbox.XMPMetadata;
 import org.apache.xmpbox.xml.DomXmpParser;
 import org.apache.xmpbox.xml.XmpParsingException;
@@ -56,13 +56,15 @@ import io.swagger.v3.oas.annotations.Operation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import stirling.software.SPDF.model.api.security.PDFInfoRequest;
 import stirling.software.SPDF.model.api.security.PDFVerificationResult;
+import stirling.software.SPDF.service.PdfInspectionService;
 import stirling.software.SPDF.service.VeraPDFService;
 import stirling.software.common.annotations.AutoJobPostMapping;
 import stirling.software.common.annotations.api.SecurityApi;
-import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
+import stirling.software.common.util.PathMultipartFile;
 import stirling.software.common.util.RegexPatternUtils;
 import stirling.software.common.util.WebResponseUtils;
 
@@ -81,6 +83,7 @@ public class GetInfoOnPDF {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final VeraPDFService veraPDFService;
+    private final PdfInspectionService pdfInspectionService;
 
     private static void addOutlinesToArray(PDOutlineItem outline, ArrayNode arrayNode) {
         if (outline == null) return;
@@ -364,7 +367,7 @@ public class GetInfoOnPDF {
     }
 
     private static ObjectNode extractComplianceInfo(
-            PDDocument doc, List<PDFVerificationResult> verificationResults) {
+            PDDocument doc, List<PDFVerificationResult> verificationResults, DocumentScan scan) {
         ObjectNode compliancy = objectMapper.createObjectNode();
 
         boolean isPdfA = false;
@@ -408,7 +411,7 @@ public class GetInfoOnPDF {
             compliancy.put("PDF/AConformanceLevel", pdfAConformanceLevel);
         }
 
-        compliancy.put("IsPDF/SECCompliant", isSECCompliant(doc));
+        compliancy.put("IsPDF/SECCompliant", isSECCompliant(doc, scan));
 
         if (verificationResults != null && !verificationResults.isEmpty()) {
             // Keep original simple structure as backup or extra info
@@ -428,7 +431,7 @@ public class GetInfoOnPDF {
         return compliancy;
     }
 
-    private static boolean isSECCompliant(PDDocument doc) {
+    private static boolean isSECCompliant(PDDocument doc, DocumentScan scan) {
         try {
             // 1. Check Encryption
             if (doc.isEncrypted()) return false;
@@ -447,21 +450,8 @@ public class GetInfoOnPDF {
             if (catalog.getNames() != null && catalog.getNames().getEmbeddedFiles() != null)
                 return false;
 
-            // 4. Check for External Links or Navigation Actions
-            for (PDPage page : doc.getPages()) {
-                for (PDAnnotation annotation : page.getAnnotations()) {
-                    if (annotation instanceof PDAnnotationLink) {
-                        PDAnnotationLink link = (PDAnnotationLink) annotation;
-                        PDAction action = link.getAction();
-                        if (action instanceof PDActionURI
-                                || action instanceof PDActionLaunch
-                                || action instanceof PDActionRemoteGoTo
-                                || action instanceof PDActionSubmitForm) {
-                            return false;
-                        }
-                    }
-                }
-            }
+            // 4. Check for External Links or Navigation Actions, collected by the page scan
+            if (scan.hasExternalActions()) return false;
 
             return true;
         } catch (Exception e) {
@@ -524,7 +514,7 @@ public class GetInfoOnPDF {
         return formFieldsNode;
     }
 
-    private static ObjectNode extractOtherInfo(PDDocument document) {
+    private static ObjectNode extractOtherInfo(PDDocument document, DocumentScan scan) {
         ObjectNode other = objectMapper.createObjectNode();
 
         try {
@@ -535,8 +525,7 @@ public class GetInfoOnPDF {
             other.set("EmbeddedFiles", embeddedFilesArray);
 
             // Attachments
-            ArrayNode attachmentsArray = extractAttachments(document);
-            other.set("Attachments", attachmentsArray);
+            other.set("Attachments", scan.attachments());
 
             // JavaScript with security analysis
             ArrayNode javascriptArray = extractJavaScript(catalog);
@@ -618,38 +607,24 @@ public class GetInfoOnPDF {
         return embeddedFilesArray;
     }
 
-    private static ArrayNode extractAttachments(PDDocument document) {
-        ArrayNode attachmentsArray = objectMapper.createArrayNode();
+    private static ObjectNode toAttachmentNode(
+            PDAnnotationFileAttachment fileAttachmentAnnotation) {
+        ObjectNode attachmentNode = objectMapper.createObjectNode();
+        attachmentNode.put("Name", fileAttachmentAnnotation.getAttachmentName());
+        attachmentNode.put("Description", fileAttachmentAnnotation.getContents());
 
+        // Try to get file size
         try {
-            for (PDPage page : document.getPages()) {
-                for (PDAnnotation annotation : page.getAnnotations()) {
-                    if (annotation instanceof PDAnnotationFileAttachment fileAttachmentAnnotation) {
-                        ObjectNode attachmentNode = objectMapper.createObjectNode();
-                        attachmentNode.put("Name", fileAttachmentAnnotation.getAttachmentName());
-                        attachmentNode.put("Description", fileAttachmentAnnotation.getContents());
-
-                        // Try to get file size
-                        try {
-                            PDComplexFileSpecification fileSpec =
-                                    (PDComplexFileSpecification) fileAttachmentAnnotation.getFile();
-                            if (fileSpec != null && fileSpec.getEmbeddedFile() != null) {
-                                attachmentNode.put(
-                                        "FileSize", fileSpec.getEmbeddedFile().getLength());
-                            }
-                        } catch (Exception e) {
-                            log.debug("Could not get attachment file size: {}", e.getMessage());
-                        }
-
-                        attachmentsArray.add(attachmentNode);
-                    }
-                }
+            PDComplexFileSpecification fileSpec =
+                    (PDComplexFileSpecification) fileAttachmentAnnotation.getFile();
+            if (fileSpec != null && fileSpec.getEmbeddedFile() != null) {
+                attachmentNode.put("FileSize", fileSpec.getEmbeddedFile().getLength());
             }
         } catch (Exception e) {
-            log.error("Error extracting attachments: {}", e.getMessage());
+            log.debug("Could not get attachment file size: {}", e.getMessage());
         }
 
-        return attachmentsArray;
+        return attachmentNode;
     }
 
     private static ArrayNode extractJavaScript(PDDocumentCatalog catalog) {
@@ -756,34 +731,168 @@ public class GetInfoOnPDF {
         return xmpString;
     }
 
-    private static ObjectNode extractPerPageInfo(PDDocument document) {
+    /**
+     * Walks the pages once, collecting the document-wide totals and, unless {@code
+     * includePageDetails} is off, the per-page details.
+     */
+    private DocumentScan scanDocument(
+            PDDocument document, Path source, boolean includePageDetails) {
+        List<PageScan> pages;
+        String text;
+        try {
+            PdfInspectionService.Inspection<PageScan> inspection =
+                    pdfInspectionService.inspect(
+                            document,
+                            source,
+                            (page, pageIndex, textLength) ->
+                                    inspectPage(page, pageIndex, textLength, includePageDetails));
+            pages = inspection.pages();
+            text = inspection.text();
+        } catch (Exception e) {
+            log.error("Error inspecting pages: {}", e.getMessage());
+            pages = List.of();
+            text = null;
+        }
+
         ObjectNode pageInfoParent = objectMapper.createObjectNode();
+        ArrayNode attachmentsArray = objectMapper.createArrayNode();
+        Set<String> uniqueImageHashes = new HashSet<>();
+        int totalImages = 0;
+        // Treat pages that could not be inspected as having external actions
+        boolean hasExternalActions = text == null;
+        StringBuilder keyBuilder = new StringBuilder(PAGE_PREFIX.length() + 8);
+
+        for (int pageNum = 0; pageNum < pages.size(); pageNum++) {
+            PageScan pageScan = pages.get(pageNum);
+            if (pageScan.details() != null) {
+                keyBuilder.setLength(0);
+                keyBuilder.append(PAGE_PREFIX).append(pageNum + 1);
+                pageInfoParent.set(keyBuilder.toString(), pageScan.details());
+            }
+            totalImages += pageScan.imageCount();
+            uniqueImageHashes.addAll(pageScan.imageHashes());
+            pageScan.attachments().forEach(attachmentsArray::add);
+            hasExternalActions |= pageScan.hasExternalActions();
+        }
+
+        return new DocumentScan(
+                text,
+                includePageDetails ? pageInfoParent : null,
+                totalImages,
+                uniqueImageHashes.size(),
+                attachmentsArray,
+                hasExternalActions);
+    }
 
+    /**
+     * Collects everything needed from one page, reading its annotations and resources once. Called
+     * by the inspection workers, possibly on several threads at once.
+     */
+    private static PageScan inspectPage(
+            PDPage page, int pageNum, int textLength, boolean includePageDetails) {
         try {
-            int pageCount = document.getNumberOfPages();
-            StringBuilder keyBuilder = new StringBuilder(PAGE_PREFIX.length() + 8);
+            // Annotations
+            List<PDAnnotation> annotations = page.getAnnotations();
+            int subtypeCount = 0;
+            int contentsCount = 0;
+            Set<String> uniqueURIs = new LinkedHashSet<>();
+            ArrayNode multimediaArray = objectMapper.createArrayNode();
+            List<ObjectNode> attachments = new ArrayList<>();
+            boolean hasExternalActions = false;
+
+            for (PDAnnotation annotation : annotations) {
+                if (annotation.getSubtype() != null) {
+                    subtypeCount++;
+                }
+                if (annotation.getContents() != null) {
+                    contentsCount++;
+                }
+                if (annotation instanceof PDAnnotationLink link) {
+                    PDAction action = link.getAction();
+                    if (action instanceof PDActionURI uriAction) {
+                        uniqueURIs.add(uriAction.getURI());
+                    }
+                    if (action instanceof PDActionURI
+                            || action instanceof PDActionLaunch
+                            || action instanceof PDActionRemoteGoTo
+                            || action instanceof PDActionSubmitForm) {
+                        hasExternalActions = true;
+                    }
+                } else if (annotation instanceof PDAnnotationFileAttachment fileAttachment) {
+                    attachments.add(toAttachmentNode(fileAttachment));
+                }
+                if ("RichMedia".equals(annotation.getSubtype())) {
+                    ObjectNode multimediaNode = objectMapper.createObjectNode();
+                    multimediaNode.put("Subtype", annotation.getSubtype());
+                    multimediaNode.put("Contents", annotation.getContents());
+                    multimediaArray.add(multimediaNode);
+                }
+            }
 
-            for (int pageNum = 0; pageNum < pageCount; pageNum++) {
-                try {
-                    PDPage page = document.getPage(pageNum);
-                    ObjectNode pageInfo = extractSinglePageInfo(document, page, pageNum);
-
-                    keyBuilder.setLength(0);
-                    keyBuilder.append(PAGE_PREFIX).append(pageNum + 1);
-                    pageInfoParent.set(keyBuilder.toString(), pageInfo);
-                } catch (Exception e) {
-                    log.error("Error extracting info for page {}: {}", pageNum + 1, e.getMessage());
+            // XObjects
+            PDResources resources = page.getResources();
+            List<PDImageXObject> images = new ArrayList<>();
+            Set<String> imageHashes = new HashSet<>();
+            Map<String, Integer> xObjectCountMap = new HashMap<>();
+            if (resources != null) {
+                for (COSName name : resources.getXObjectNames()) {
+                    PDXObject xObject = resources.getXObject(name);
+                    String xObjectType;
+
+                    if (xObject instanceof PDImageXObject image) {
+                        xObjectType = "Image";
+                        images.add(image);
+                        // Create a hash based on image properties
+                        imageHashes.add(
+                                String.format(
+                                        "%d_%d_%d_%s",
+                                        image.getWidth(),
+                                        image.getHeight(),
+                                        image.getBitsPerComponent(),
+                                        image.getSuffix()));
+                    } else if (xObject instanceof PDFormXObject) {
+                        xObjectType = "Form";
+                    } else {
+                        xObjectType = "Other";
+                    }
+
+                    xObjectCountMap.merge(xObjectType, 1, Integer::sum);
                 }
             }
+
+            ObjectNode pageInfo = null;
+            if (includePageDetails) {
+                pageInfo = extractPageBoxInfo(page);
+                pageInfo.put("Text Characters Count", textLength);
+
+                ObjectNode annotationsObject = objectMapper.createObjectNode();
+                annotationsObject.put("AnnotationsCount", annotations.size());
+                annotationsObject.put("SubtypeCount", subtypeCount);
+                annotationsObject.put("ContentsCount", contentsCount);
+                pageInfo.set("Annotations", annotationsObject);
+
+                if (resources != null) {
+                    pageInfo.set("Images", toImagesArray(images));
+                    pageInfo.set("Links", toLinksArray(uniqueURIs));
+                    pageInfo.set("Fonts", extractPageFonts(resources));
+
+                    ObjectNode xObjectCountNode = objectMapper.createObjectNode();
+                    xObjectCountMap.forEach(xObjectCountNode::put);
+                    pageInfo.set("XObjectCounts", xObjectCountNode);
+                }
+
+                pageInfo.set("Multimedia", multimediaArray);
+            }
+
+            return new PageScan(
+                    pageInfo, images.size(), imageHashes, attachments, hasExternalActions);
         } catch (Exception e) {
-            log.error("Error extracting per-page info: {}", e.getMessage());
+            log.error("Error extracting info for page {}: {}", pageNum + 1, e.getMessage());
+            return new PageScan(null, 0, Set.of(), List.of(), true);
         }
-
-        return pageInfoParent;
     }
 
-    private static ObjectNode extractSinglePageInfo(PDDocument document, PDPage page, int pageNum)
-            throws IOException {
+    private static ObjectNode extractPageBoxInfo(PDPage page) {
         ObjectNode pageInfo = objectMapper.createObjectNode();
 
         // Page size and dimensions
@@ -811,92 +920,31 @@ public class GetInfoOnPDF {
         pageInfo.put(
                 "ArtBox", page.getArtBox() == null ? "Undefined" : page.getArtBox().toString());
 
-        // Text content
-        PDFTextStripper textStripper = new PDFTextStripper();
-        textStripper.setStartPage(pageNum + 1);
-        textStripper.setEndPage(pageNum + 1);
-        String pageText = textStripper.getText(document);
-        pageInfo.put("Text Characters Count", pageText.length());
-
-        // Annotations
-        ObjectNode annotationsObject = extractPageAnnotations(page);
-        pageInfo.set("Annotations", annotationsObject);
-
-        // Resources
-        PDResources resources = page.getResources();
-        if (resources != null) {
-            // Images
-            ArrayNode imagesArray = extractPageImages(resources);
-            pageInfo.set("Images", imagesArray);
-
-            // Links
-            ArrayNode linksArray = extractPageLinks(page);
-            pageInfo.set("Links", linksArray);
-
-            // Fonts
-            ArrayNode fontsArray = extractPageFonts(resources);
-            pageInfo.set("Fonts", fontsArray);
-
-            // XObjects count
-            ObjectNode xObjectCountNode = extractPageXObjects(resources);
-            pageInfo.set("XObjectCounts", xObjectCountNode);
-        }
-
-        // Multimedia
-        ArrayNode multimediaArray = extractPageMultimedia(page);
-        pageInfo.set("Multimedia", multimediaArray);
-
         return pageInfo;
     }
 
-    private static ObjectNode extractPageAnnotations(PDPage page) throws IOException {
-        ObjectNode annotationsObject = objectMapper.createObjectNode();
-
-        List<PDAnnotation> annotations = page.getAnnotations();
-        int subtypeCount = 0;
-        int contentsCount = 0;
-
-        for (PDAnnotation annotation : annotations) {
-            if (annotation.getSubtype() != null) {
-                subtypeCount++;
-            }
-            if (annotation.getContents() != null) {
-                contentsCount++;
-            }
-        }
-
-        annotationsObject.put("AnnotationsCount", annotations.size());
-        annotationsObject.put("SubtypeCount", subtypeCount);
-        annotationsObject.put("ContentsCount", contentsCount);
-
-        return annotationsObject;
-    }
-
-    private static ArrayNode extractPageImages(PDResources resources) {
+    private static ArrayNode toImagesArray(List<PDImageXObject> images) {
         ArrayNode imagesArray = objectMapper.createArrayNode();
 
         try {
-            for (COSName name : resources.getXObjectNames()) {
-                PDXObject xObject = resources.getXObject(name);
-                if (xObject instanceof PDImageXObject image) {
-                    ObjectNode imageNode = objectMapper.createObjectNode();
-                    imageNode.put("Width", image.getWidth());
-                    imageNode.put("Height", image.getHeight());
-
-                    if (image.getMetadata() != null
-                            && image.getMetadata().getFile() != null
-                            && image.getMetadata().getFile().getFile() != null) {
-                        imageNode.put("Name", image.getMetadata().getFile().getFile());
-                    }
+            for (PDImageXObject image : images) {
+                ObjectNode imageNode = objectMapper.createObjectNode();
+                imageNode.put("Width", image.getWidth());
+                imageNode.put("Height", image.getHeight());
+
+                if (image.getMetadata() != null
+                        && image.getMetadata().getFile() != null
+                        && image.getMetadata().getFile().getFile() != null) {
+                    imageNode.put("Name", image.getMetadata().getFile().getFile());
+                }
 
-                    if (image.getColorSpace() != null) {
-                        imageNode.put("ColorSpace", image.getColorSpace().getName());
-                    }
+                if (image.getColorSpace() != null) {
+                    imageNode.put("ColorSpace", image.getColorSpace().getName());
+                }
 
-                    imageNode.put("BitsPerComponent", image.getBitsPerComponent());
+                imageNode.put("BitsPerComponent", image.getBitsPerComponent());
 
-                    imagesArray.add(imageNode);
-                }
+                imagesArray.add(imageNode);
             }
         } catch (Exception e) {
             log.error("Error extracting page images: {}", e.getMessage());
@@ -905,18 +953,8 @@ public class GetInfoOnPDF {
         return imagesArray;
     }
 
-    private static ArrayNode extractPageLinks(PDPage page) throws IOException {
+    private static ArrayNode toLinksArray(Set<String> uniqueURIs) {
         ArrayNode linksArray = objectMapper.createArrayNode();
-        Set<String> uniqueURIs = new HashSet<>();
-
-        List<PDAnnotation> annotations = page.getAnnotations();
-        for (PDAnnotation annotation : annotations) {
-            if (annotation instanceof PDAnnotationLink linkAnnotation
-                    && linkAnnotation.getAction() instanceof PDActionURI uriAction) {
-                String uri = uriAction.getURI();
-                uniqueURIs.add(uri);
-            }
-        }
 
         for (String uri : uniqueURIs) {
             ObjectNode linkNode = objectMapper.createObjectNode();
@@ -976,97 +1014,15 @@ public class GetInfoOnPDF {
         return fontsArray;
     }
 
-    private static ObjectNode extractPageXObjects(PDResources resources) {
-        ObjectNode xObjectCountNode = objectMapper.createObjectNode();
-        Map<String, Integer> xObjectCountMap = new HashMap<>();
-
-        try {
-            for (COSName name : resources.getXObjectNames()) {
-                PDXObject xObject = resources.getXObject(name);
-                String xObjectType;
-
-                if (xObject instanceof PDImageXObject) {
-                    xObjectType = "Image";
-                } else if (xObject instanceof PDFormXObject) {
-                    xObjectType = "Form";
-                } else {
-                    xObjectType = "Other";
-                }
-
-                xObjectCountMap.put(xObjectType, xObjectCountMap.getOrDefault(xObjectType, 0) + 1);
-            }
-
-            for (Map.Entry<String, Integer> entry : xObjectCountMap.entrySet()) {
-                xObjectCountNode.put(entry.getKey(), entry.getValue());
-            }
-        } catch (Exception e) {
-            log.error("Error extracting page XObjects: {}", e.getMessage());
-        }
-
-        return xObjectCountNode;
-    }
-
-    private static ArrayNode extractPageMultimedia(PDPage page) throws IOException {
-        ArrayNode multimediaArray = objectMapper.createArrayNode();
-
-        List<PDAnnotation> annotations = page.getAnnotations();
-        for (PDAnnotation annotation : annotations) {
-            if ("RichMedia".equals(annotation.getSubtype())) {
-                ObjectNode multimediaNode = objectMapper.createObjectNode();
-                multimediaNode.put("Subtype", annotation.getSubtype());
-                multimediaNode.put("Contents", annotation.getContents());
-                multimediaArray.add(multimediaNode);
-            }
-        }
-
-        return multimediaArray;
-    }
-
-    private static ImageStatistics calculateImageStatistics(PDDocument document) {
-        ImageStatistics stats = new ImageStatistics();
-        stats.totalImages = 0;
-        stats.uniqueImages = 0;
-
-        try {
-            Set<String> uniqueImageHashes = new HashSet<>();
-
-            for (PDPage page : document.getPages()) {
-                PDResources resources = page.getResources();
-                if (resources != null) {
-                    for (COSName xObjectName : resources.getXObjectNames()) {
-                        PDXObject xObject = resources.getXObject(xObjectName);
-                        if (xObject instanceof PDImageXObject image) {
-                            stats.totalImages++;
-
-                            // Create a hash based on image properties
-                            String imageHash =
-                                    String.format(
-                                            "%d_%d_%d_%s",
-                                            image.getWidth(),
-                                            image.getHeight(),
-                                            image.getBitsPerComponent(),
-                                            image.getSuffix());
-                            uniqueImageHashes.add(imageHash);
-                        }
-                    }
-                }
-            }
-
-            stats.uniqueImages = uniqueImageHashes.size();
-        } catch (Exception e) {
-            log.error("Error calculating image statistics: {}", e.getMessage());
-        }
-
-        return stats;
-    }
-
     @AutoJobPostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE, value = "/get-info-on-pdf")
     @Operation(
             summary = "Get comprehensive PDF information",
             description =
                     "Extracts all available information from a PDF file. Input:PDF Output:JSON Type:SISO")
-    public ResponseEntity<byte[]> getPdfInfo(@ModelAttribute PDFFile request) throws IOException {
+    public ResponseEntity<byte[]> getPdfInfo(@ModelAttribute PDFInfoRequest request)
+            throws IOException {
         MultipartFile inputFile = request.getFileInput();
+        boolean includePerPageInfo = !Boolean.FALSE.equals(request.getIncludePerPageInfo());
 
         // Validate input
         try {
@@ -1088,20 +1044,21 @@ public class GetInfoOnPDF {
         try (PDDocument pdfBoxDoc = pdfDocumentFactory.load(inputFile, readonly)) {
             ObjectNode jsonOutput = objectMapper.createObjectNode();
 
+            // Spooled uploads can be reopened by further workers to scan page ranges in parallel
+            Path source = inputFile instanceof PathMultipartFile spooled ? spooled.getPath() : null;
+            DocumentScan scan = scanDocument(pdfBoxDoc, source, includePerPageInfo);
+
             ObjectNode metadata = extractMetadata(pdfBoxDoc);
-            ObjectNode basicInfo = extractBasicInfo(pdfBoxDoc, inputFile.getSize());
+            ObjectNode basicInfo = extractBasicInfo(pdfBoxDoc, inputFile.getSize(), scan);
             ObjectNode docInfoNode = extractDocumentInfo(pdfBoxDoc);
-            ObjectNode compliancy = extractComplianceInfo(pdfBoxDoc, verificationResults);
+            ObjectNode compliancy = extractComplianceInfo(pdfBoxDoc, verificationResults, scan);
             ObjectNode encryption = extractEncryptionInfo(pdfBoxDoc);
             ObjectNode permissionsNode = extractPermissions(pdfBoxDoc);
-            ObjectNode other = extractOtherInfo(pdfBoxDoc);
+            ObjectNode other = extractOtherInfo(pdfBoxDoc, scan);
             ObjectNode formFieldsNode = extractFormFields(pdfBoxDoc);
 
             ObjectNode summaryData = generatePDFSummaryData(pdfBoxDoc, verificationResults);
 
-            // Extract per-page information
-            ObjectNode pageInfoParent = extractPerPageInfo(pdfBoxDoc);
-
             // Assemble final JSON output
             jsonOutput.set("Metadata", metadata);
             jsonOutput.set("BasicInfo", basicInfo);
@@ -1111,7 +1068,9 @@ public class GetInfoOnPDF {
             jsonOutput.set("Permissions", permissionsNode);
             jsonOutput.set("FormFields", formFieldsNode);
             jsonOutput.set("Other", other);
-            jsonOutput.set("PerPageInfo", pageInfoParent);
+            if (scan.perPageInfo() != null) {
+                jsonOutput.set("PerPageInfo", scan.perPageInfo());
+            }
 
             if (summaryData != null && !summaryData.isEmpty()) {
                 jsonOutput.set("SummaryData", summaryData);
@@ -1135,23 +1094,27 @@ public class GetInfoOnPDF {
         }
     }
 
-    private ObjectNode extractBasicInfo(PDDocument document, long fileSizeInBytes) {
+    private ObjectNode extractBasicInfo(
+            PDDocument document, long fileSizeInBytes, DocumentScan scan) {
         ObjectNode basicInfo = objectMapper.createObjectNode();
 
         try {
             basicInfo.put("FileSizeInBytes", fileSizeInBytes);
 
-            String fullText = new PDFTextStripper().getText(document);
-            String[] words = RegexPatternUtils.getInstance().getWhitespacePattern().split(fullText);
-            int paragraphCount =
-                    RegexPatternUtils.getInstance()
-                            .getMultiFormatNewlinePattern()
-                            .split(fullText)
-                            .length;
-
-            basicInfo.put("WordCount", words.length);
-            basicInfo.put("ParagraphCount", paragraphCount);
-            basicInfo.put("CharacterCount", fullText.length());
+            String fullText = scan.text();
+            if (fullText != null) {
+                String[] words =
+                        RegexPatternUtils.getInstance().getWhitespacePattern().split(fullText);
+                int paragraphCount =
+                        RegexPatternUtils.getInstance()
+                                .getMultiFormatNewlinePattern()
+                                .split(fullText)
+                                .length;
+
+                basicInfo.put("WordCount", words.length);
+                basicInfo.put("ParagraphCount", paragraphCount);
+                basicInfo.put("CharacterCount", fullText.length());
+            }
 
             String language = document.getDocumentCatalog().getLanguage();
             if (language != null) {
@@ -1159,9 +1122,8 @@ public class GetInfoOnPDF {
             }
             basicInfo.put("Number of pages", document.getNumberOfPages());
 
-            ImageStatistics imageStats = calculateImageStatistics(document);
-            basicInfo.put("TotalImages", imageStats.totalImages);
-            basicInfo.put("UniqueImages", imageStats.uniqueImages);
+            basicInfo.put("TotalImages", scan.totalImages());
+            basicInfo.put("UniqueImages", scan.uniqueImages());
 
         } catch (Exception e) {
             log.error("Error extracting basic info: {}", e.getMessage());
@@ -1170,10 +1132,21 @@ public class GetInfoOnPDF {
         return basicInfo;
     }
 
-    private static class ImageStatistics {
-        int totalImages;
-        int uniqueImages;
-    }
+    /** What one walk over the pages found; see {@link #scanDocument}. */
+    private record DocumentScan(
+            String text,
+            ObjectNode perPageInfo,
+            int totalImages,
+            int uniqueImages,
+            ArrayNode attachments,
+            boolean hasExternalActions) {}
+
+    private record PageScan(
+            ObjectNode details,
+            int imageCount,
+            Set<String> imageHashes,
+            List<ObjectNode> attachments,
+            boolean hasExternalActions) {}
 
     private static String getPageModeDescription(String pageMode) {
         if (pageMode == null) return "Unknown";
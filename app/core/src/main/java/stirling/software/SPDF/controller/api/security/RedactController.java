@@ -53,7 +53,7 @@ import stirling.software.SPDF.config.swagger.StandardPdfResponse;
 import stirling.software.SPDF.model.PDFText;
 import stirling.software.SPDF.model.api.security.ManualRedactPdfRequest;
 import stirling.software.SPDF.model.api.security.RedactPdfRequest;
-import stirling.software.SPDF.pdf.TextFinder;
+import stirling.software.SPDF.pdf.MultiPatternTextFinder;
 import stirling.software.SPDF.utils.text.TextEncodingHelper;
 import stirling.software.SPDF.utils.text.TextFinderUtils;
 import stirling.software.SPDF.utils.text.WidthCalculator;
@@ -63,6 +63,7 @@ import stirling.software.common.model.api.security.RedactionArea;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.GeneralUtils;
+import stirling.software.common.util.PageSelection;
 import stirling.software.common.util.PdfUtils;
 import stirling.software.common.util.WebResponseUtils;
 import stirling.software.common.util.propertyeditor.StringToArrayListPropertyEditor;
@@ -487,12 +488,13 @@ public class RedactController {
 
     private List<Integer> getPageNumbers(ManualRedactPdfRequest request, int pagesCount) {
         String pageNumbersInput = request.getPageNumbers();
-        String[] parsedPageNumbers =
-                pageNumbersInput != null ? pageNumbersInput.split(",") : new String[0];
-        List<Integer> pageNumbers =
-                GeneralUtils.parsePageList(parsedPageNumbers, pagesCount, false);
-        Collections.sort(pageNumbers);
-        return pageNumbers;
+        if (pageNumbersInput == null) {
+            return List.of();
+        }
+        request.validatePageNumbers();
+        return PageSelection.compile(pageNumbersInput).toBitSet(pagesCount).stream()
+                .boxed()
+                .toList();
     }
 
     @AutoJobPostMapping(value = "/auto-redact", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -650,44 +652,21 @@ public class RedactController {
 
     private Map<Integer, List<PDFText>> findTextToRedact(
             PDDocument document, String[] listOfText, boolean useRegex, boolean wholeWordSearch) {
-        Map<Integer, List<PDFText>> allFoundTextsByPage = new HashMap<>();
-
-        for (String text : listOfText) {
-            text = text.trim();
-            if (text.isEmpty()) continue;
-
-            log.debug(
-                    "Searching for text: '{}' (regex: {}, wholeWord: {})",
-                    text,
-                    useRegex,
-                    wholeWordSearch);
-
-            try {
-                TextFinder textFinder = new TextFinder(text, useRegex, wholeWordSearch);
-                textFinder.getText(document);
-
-                List<PDFText> foundTexts = textFinder.getFoundTexts();
-                log.debug("TextFinder found {} instances of '{}'", foundTexts.size(), text);
+        log.debug(
+                "Searching for {} terms (regex: {}, wholeWord: {})",
+                listOfText.length,
+                useRegex,
+                wholeWordSearch);
 
-                for (PDFText found : foundTexts) {
-                    allFoundTextsByPage
-                            .computeIfAbsent(found.getPageIndex(), k -> new ArrayList<>())
-                            .add(found);
-                    log.debug(
-                            "Added match on page {} at ({},{},{},{}): '{}'",
-                            found.getPageIndex(),
-                            found.getX1(),
-                            found.getY1(),
-                            found.getX2(),
-                            found.getY2(),
-                            found.getText());
-                }
-            } catch (Exception e) {
-                log.error("Error processing search term '{}': {}", text, e.getMessage());
-            }
+        try {
+            MultiPatternTextFinder finder =
+                    new MultiPatternTextFinder(
+                            Arrays.asList(listOfText), useRegex, wholeWordSearch);
+            return finder.find(document);
+        } catch (Exception e) {
+            log.error("Error searching for redaction terms: {}", e.getMessage());
+            return new HashMap<>();
         }
-
-        return allFoundTextsByPage;
     }
 
     private boolean performTextReplacement(
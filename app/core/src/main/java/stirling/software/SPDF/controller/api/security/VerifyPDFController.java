@@ -51,7 +51,7 @@ public class VerifyPDFController {
         try {
             log.info("Detecting and verifying standards in PDF '{}'", file.getOriginalFilename());
 
-            List<PDFVerificationResult> results = veraPDFService.validatePDF(file.getInputStream());
+            List<PDFVerificationResult> results = veraPDFService.validatePDF(file);
 
             log.info(
                     "Verification complete for '{}': {} standard(s) checked",
@@ -9,8 +9,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 
@@ -21,8 +19,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import stirling.software.SPDF.config.EndpointInspector;
 import stirling.software.SPDF.config.StartupApplicationListener;
+import stirling.software.SPDF.service.RequestMetricsService;
 import stirling.software.SPDF.service.WeeklyActiveUsersService;
 import stirling.software.common.annotations.api.InfoApi;
 import stirling.software.common.model.ApplicationProperties;
@@ -33,8 +31,7 @@ import stirling.software.common.model.ApplicationProperties;
 public class MetricsController {
 
     private final ApplicationProperties applicationProperties;
-    private final MeterRegistry meterRegistry;
-    private final EndpointInspector endpointInspector;
+    private final RequestMetricsService requestMetricsService;
     private final Optional<WeeklyActiveUsersService> wauService;
     private boolean metricsEnabled;
 
@@ -201,144 +198,24 @@ public class MetricsController {
     }
 
     private double getRequestCount(String method, Optional<String> endpoint) {
-        return meterRegistry.find("http.requests").tag("method", method).counters().stream()
-                .filter(
-                        counter -> {
-                            String uri = counter.getId().getTag("uri");
-
-                            // Apply filtering logic - Skip if uri is null
-                            if (uri == null) {
-                                return false;
-                            }
-
-                            // For POST requests, only include if they start with /api/v1
-                            if ("POST".equals(method) && !uri.contains("api/v1")) {
-                                return false;
-                            }
-
-                            if (uri.contains(".txt")) {
-                                return false;
-                            }
-
-                            // For GET requests, validate if we have a list of valid endpoints
-                            final boolean validateGetEndpoints =
-                                    endpointInspector.getValidGetEndpoints().size() != 0;
-                            if ("GET".equals(method)
-                                    && validateGetEndpoints
-                                    && !endpointInspector.isValidGetEndpoint(uri)) {
-                                log.debug("Skipping invalid GET endpoint: {}", uri);
-                                return false;
-                            }
-
-                            // Filter for specific endpoint if provided
-                            return !endpoint.isPresent() || endpoint.get().equals(uri);
-                        })
-                .mapToDouble(Counter::count)
-                .sum();
+        return requestMetricsService.getRequestCount(method, endpoint);
     }
 
     private List<EndpointCount> getEndpointCounts(String method) {
-        Map<String, Double> counts = new HashMap<>();
-        meterRegistry
-                .find("http.requests")
-                .tag("method", method)
-                .counters()
-                .forEach(
-                        counter -> {
-                            String uri = counter.getId().getTag("uri");
-
-                            // Skip if uri is null
-                            if (uri == null) {
-                                return;
-                            }
-
-                            // For POST requests, only include if they start with /api/v1
-                            if ("POST".equals(method) && !uri.contains("api/v1")) {
-                                return;
-                            }
-
-                            if (uri.contains(".txt")) {
-                                return;
-                            }
-
-                            // For GET requests, validate if we have a list of valid endpoints
-                            final boolean validateGetEndpoints =
-                                    endpointInspector.getValidGetEndpoints().size() != 0;
-                            if ("GET".equals(method)
-                                    && validateGetEndpoints
-                                    && !endpointInspector.isValidGetEndpoint(uri)) {
-                                log.debug("Skipping invalid GET endpoint: {}", uri);
-                                return;
-                            }
-
-                            counts.merge(uri, counter.count(), Double::sum);
-                        });
-
-        return counts.entrySet().stream()
-                .map(entry -> new EndpointCount(entry.getKey(), entry.getValue()))
-                .sorted(Comparator.comparing(EndpointCount::getCount).reversed())
-                .toList();
+        return toEndpointCounts(requestMetricsService.getRequestCounts(method));
     }
 
     private double getUniqueUserCount(String method, Optional<String> endpoint) {
-        Set<String> uniqueUsers = new HashSet<>();
-        meterRegistry.find("http.requests").tag("method", method).counters().stream()
-                .filter(
-                        counter -> {
-                            String uri = counter.getId().getTag("uri");
-
-                            // Skip if uri is null
-                            if (uri == null) {
-                                return false;
-                            }
-
-                            // For POST requests, only include if they start with /api/v1
-                            if ("POST".equals(method) && !uri.contains("api/v1")) {
-                                return false;
-                            }
-
-                            if (uri.contains(".txt")) {
-                                return false;
-                            }
-
-                            // For GET requests, validate if we have a list of valid endpoints
-                            final boolean validateGetEndpoints =
-                                    endpointInspector.getValidGetEndpoints().size() != 0;
-                            if ("GET".equals(method)
-                                    && validateGetEndpoints
-                                    && !endpointInspector.isValidGetEndpoint(uri)) {
-                                log.debug("Skipping invalid GET endpoint: {}", uri);
-                                return false;
-                            }
-                            return !endpoint.isPresent() || endpoint.get().equals(uri);
-                        })
-                .forEach(
-                        counter -> {
-                            String session = counter.getId().getTag("session");
-                            if (session != null) {
-                                uniqueUsers.add(session);
-                            }
-                        });
-        return uniqueUsers.size();
+        return requestMetricsService.getUniqueVisitorCount(method, endpoint);
     }
 
     private List<EndpointCount> getUniqueUserCounts(String method) {
-        Map<String, Set<String>> uniqueUsers = new HashMap<>();
-        meterRegistry
-                .find("http.requests")
-                .tag("method", method)
-                .counters()
-                .forEach(
-                        counter -> {
-                            String uri = counter.getId().getTag("uri");
-                            String session = counter.getId().getTag("session");
-                            if (uri != null && session != null) {
-                                uniqueUsers.computeIfAbsent(uri, k -> new HashSet<>()).add(session);
-                            }
-                        });
-        return uniqueUsers.entrySet().stream()
-                .map(entry -> new EndpointCount(entry.getKey(), entry.getValue().size()))
-                .sorted(Comparator.comparing(EndpointCount::getCount).reversed())
+        return toEndpointCounts(requestMetricsService.getUniqueVisitorCounts(method));
+    }
+
+    private static List<EndpointCount> toEndpointCounts(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .map(entry -> new EndpointCount(entry.getKey(), entry.getValue()))
                 .toList();
     }
 
@@ -0,0 +1,21 @@
+package stirling.software.SPDF.model;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Published once a watched-folder pipeline run has finished, whether it succeeded or not.
+ *
+ * @param folder the watched folder the inputs were taken from
+ * @param inputFiles the original locations of the files that were processed
+ * @param outputFiles the files written to the output directory, empty when the run failed
+ * @param success false when the pipeline reported errors or threw
+ */
+public record PipelineCompletedEvent(
+        Path folder, List<Path> inputFiles, List<Path> outputFiles, boolean success) {
+
+    public PipelineCompletedEvent {
+        inputFiles = List.copyOf(inputFiles);
+        outputFiles = List.copyOf(outputFiles);
+    }
+}
@@ -13,6 +13,7 @@ import lombok.EqualsAndHashCode;
 
 import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.util.GeneralUtils;
+import stirling.software.common.util.PageSelection;
 
 @Data
 @EqualsAndHashCode(callSuper = true)
@@ -27,8 +28,22 @@ public class PDFWithPageNums extends PDFFile {
             requiredMode = RequiredMode.REQUIRED)
     private String pageNumbers;
 
+    /**
+     * Rejects a selection with parts that are not a page, range, {@code all} or n-function, instead
+     * of silently skipping them. An empty selection selects no pages.
+     *
+     * @throws IllegalArgumentException naming the parts that cannot be parsed
+     */
+    @Hidden
+    public void validatePageNumbers() {
+        if (pageNumbers != null && !pageNumbers.isBlank()) {
+            PageSelection.validate(pageNumbers);
+        }
+    }
+
     @Hidden
     public List<Integer> getPageNumbersList(PDDocument doc, boolean oneBased) {
+        validatePageNumbers();
         int pageCount = doc.getNumberOfPages();
         return GeneralUtils.parsePageList(pageNumbers, pageCount, oneBased);
     }
@@ -0,0 +1,20 @@
+package stirling.software.SPDF.model.api.security;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import stirling.software.common.model.api.PDFFile;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PDFInfoRequest extends PDFFile {
+
+    @Schema(
+            description =
+                    "Whether to include the per-page details (sizes, fonts, images, links)."
+                            + " Turn off for a faster document-level summary",
+            defaultValue = "true")
+    private Boolean includePerPageInfo;
+}
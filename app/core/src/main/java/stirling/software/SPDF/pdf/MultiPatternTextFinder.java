@@ -0,0 +1,345 @@
+package stirling.software.SPDF.pdf;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.IntStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.SPDF.model.PDFText;
+import stirling.software.common.util.RegexPatternUtils;
+
+/**
+ * Searches a document for many terms at once. Text and glyph positions are extracted a single time
+ * per page; literal terms are then matched together through an Aho–Corasick automaton and regex
+ * terms are run over the same extracted text. Matching runs on pages in parallel.
+ *
+ * <p>Results are identical to running one {@link TextFinder} per term: matching is
+ * case-insensitive, matches of the same term never overlap and whole-word search uses the same
+ * boundary rules. Within a page, matches are ordered by term and then by position.
+ */
+@Slf4j
+public class MultiPatternTextFinder {
+
+    private final List<String> terms;
+    private final boolean wholeWordSearch;
+
+    private final Automaton automaton;
+    private final Pattern[] termPatterns;
+
+    public MultiPatternTextFinder(
+            List<String> searchTerms, boolean useRegex, boolean wholeWordSearch) {
+        this.wholeWordSearch = wholeWordSearch;
+
+        List<String> trimmed = new ArrayList<>();
+        for (String term : searchTerms) {
+            if (term == null) continue;
+            String t = term.trim();
+            if (!t.isEmpty()) {
+                trimmed.add(t);
+            }
+        }
+        this.terms = Collections.unmodifiableList(trimmed);
+
+        // Regex terms and whole-word literals keep a compiled pattern; for literals it is only
+        // used to verify word boundaries around candidates found by the automaton.
+        this.termPatterns = new Pattern[terms.size()];
+        if (useRegex || wholeWordSearch) {
+            for (int i = 0; i < terms.size(); i++) {
+                String regex = TextFinder.buildSearchRegex(terms.get(i), useRegex, wholeWordSearch);
+                try {
+                    termPatterns[i] =
+                            RegexPatternUtils.getInstance().createSearchPattern(regex, true);
+                } catch (PatternSyntaxException e) {
+                    log.error(
+                            "Error processing search term '{}': {}", terms.get(i), e.getMessage());
+                }
+            }
+        }
+        this.automaton = useRegex ? null : new Automaton(terms);
+    }
+
+    /**
+     * Finds every occurrence of the configured terms.
+     *
+     * @return matches keyed by zero-based page index; pages without matches are absent
+     */
+    public Map<Integer, List<PDFText>> find(PDDocument document) throws IOException {
+        if (terms.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        List<PageText> pages = extractPages(document);
+
+        List<List<PDFText>> results =
+                IntStream.range(0, pages.size())
+                        .parallel()
+                        .mapToObj(i -> matchPage(pages.get(i)))
+                        .toList();
+
+        Map<Integer, List<PDFText>> byPage = new HashMap<>();
+        for (int i = 0; i < pages.size(); i++) {
+            List<PDFText> found = results.get(i);
+            if (!found.isEmpty()) {
+                byPage.put(pages.get(i).pageIndex(), new ArrayList<>(found));
+            }
+        }
+        log.debug(
+                "Multi-pattern search over {} pages for {} terms found matches on {} pages",
+                pages.size(),
+                terms.size(),
+                byPage.size());
+        return byPage;
+    }
+
+    private List<PageText> extractPages(PDDocument document) throws IOException {
+        PageCollector collector = new PageCollector();
+        collector.getText(document);
+        return collector.pages;
+    }
+
+    private List<PDFText> matchPage(PageText page) {
+        if (page.text().isEmpty()) {
+            return List.of();
+        }
+        List<List<PDFText>> perTerm = new ArrayList<>(terms.size());
+        for (int i = 0; i < terms.size(); i++) {
+            perTerm.add(new ArrayList<>());
+        }
+
+        if (automaton != null) {
+            matchLiterals(page, perTerm);
+        } else {
+            matchRegexes(page, perTerm);
+        }
+
+        List<PDFText> found = new ArrayList<>();
+        for (List<PDFText> termMatches : perTerm) {
+            found.addAll(termMatches);
+        }
+        return found;
+    }
+
+    private void matchLiterals(PageText page, List<List<PDFText>> perTerm) {
+        String text = page.text();
+        int[] lastEnd = new int[terms.size()];
+        Matcher[] verifiers = new Matcher[terms.size()];
+
+        automaton.scan(
+                text,
+                (termIndex, start, end) -> {
+                    // Same-term matches are reported in start order; skip overlapping ones so the
+                    // result mirrors a left-to-right regex scan.
+                    if (start < lastEnd[termIndex]) {
+                        return;
+                    }
+                    if (wholeWordSearch) {
+                        Pattern pattern = termPatterns[termIndex];
+                        if (pattern == null) {
+                            return;
+                        }
+                        Matcher verifier = verifiers[termIndex];
+                        if (verifier == null) {
+                            verifier =
+                                    pattern.matcher(text)
+                                            .useTransparentBounds(true)
+                                            .useAnchoringBounds(false);
+                            verifiers[termIndex] = verifier;
+                        }
+                        verifier.region(start, end);
+                        if (!verifier.matches()) {
+                            return;
+                        }
+                    }
+                    lastEnd[termIndex] = end;
+                    addMatch(page, perTerm.get(termIndex), start, end, text.substring(start, end));
+                });
+    }
+
+    private void matchRegexes(PageText page, List<List<PDFText>> perTerm) {
+        for (int i = 0; i < terms.size(); i++) {
+            Pattern pattern = termPatterns[i];
+            if (pattern == null) {
+                continue;
+            }
+            Matcher matcher = pattern.matcher(page.text());
+            while (matcher.find()) {
+                addMatch(page, perTerm.get(i), matcher.start(), matcher.end(), matcher.group());
+            }
+        }
+    }
+
+    private void addMatch(PageText page, List<PDFText> target, int start, int end, String match) {
+        PDFText found = TextFinder.toPDFText(page.pageIndex(), page.positions(), start, end, match);
+        if (found != null) {
+            target.add(found);
+        } else {
+            log.warn(
+                    "Found text match '{}' but no valid position data at {}-{}", match, start, end);
+        }
+    }
+
+    private record PageText(int pageIndex, String text, List<TextPosition> positions) {}
+
+    /** Collects each page's text and its per-character positions in one extraction pass. */
+    private static class PageCollector extends PDFTextStripper {
+
+        private final List<PageText> pages = new ArrayList<>();
+        private List<TextPosition> positions = new ArrayList<>();
+        private final StringBuilder textBuilder = new StringBuilder();
+
+        PageCollector() {
+            setWordSeparator(" ");
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            super.startPage(page);
+            positions = new ArrayList<>();
+            textBuilder.setLength(0);
+        }
+
+        @Override
+        protected void writeString(String text, List<TextPosition> textPositions) {
+            textBuilder.append(text);
+            positions.addAll(textPositions);
+        }
+
+        @Override
+        protected void writeWordSeparator() {
+            textBuilder.append(getWordSeparator());
+            positions.add(null);
+        }
+
+        @Override
+        protected void writeLineSeparator() {
+            textBuilder.append(getLineSeparator());
+            positions.add(null);
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            pages.add(new PageText(getCurrentPageNo() - 1, textBuilder.toString(), positions));
+            super.endPage(page);
+        }
+    }
+
+    @FunctionalInterface
+    private interface MatchListener {
+        void onMatch(int termIndex, int start, int end);
+    }
+
+    /**
+     * Aho–Corasick automaton over case-folded characters. Folding mirrors {@code CASE_INSENSITIVE |
+     * UNICODE_CASE} so candidates agree with the regex based {@link TextFinder}.
+     */
+    private static final class Automaton {
+
+        private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+        private final List<int[]> outputs = new ArrayList<>();
+        private final List<Integer> failure = new ArrayList<>();
+        private final int[] termLengths;
+
+        Automaton(List<String> terms) {
+            termLengths = new int[terms.size()];
+            newState();
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                termLengths[i] = term.length();
+                int state = 0;
+                for (int c = 0; c < term.length(); c++) {
+                    char ch = fold(term.charAt(c));
+                    Integer next = transitions.get(state).get(ch);
+                    if (next == null) {
+                        next = newState();
+                        transitions.get(state).put(ch, next);
+                    }
+                    state = next;
+                }
+                outputs.set(state, append(outputs.get(state), i));
+            }
+            buildFailureLinks();
+        }
+
+        void scan(String text, MatchListener listener) {
+            int state = 0;
+            for (int pos = 0; pos < text.length(); pos++) {
+                char ch = fold(text.charAt(pos));
+                Integer next;
+                while ((next = transitions.get(state).get(ch)) == null && state != 0) {
+                    state = failure.get(state);
+                }
+                state = next == null ? 0 : next;
+                for (int termIndex : outputs.get(state)) {
+                    int end = pos + 1;
+                    listener.onMatch(termIndex, end - termLengths[termIndex], end);
+                }
+            }
+        }
+
+        private int newState() {
+            transitions.add(new HashMap<>(4));
+            outputs.add(new int[0]);
+            failure.add(0);
+            return transitions.size() - 1;
+        }
+
+        private void buildFailureLinks() {
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child : transitions.get(0).values()) {
+                failure.set(child, 0);
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : transitions.get(state).entrySet()) {
+                    char ch = edge.getKey();
+                    int child = edge.getValue();
+                    int fallback = failure.get(state);
+                    while (fallback != 0 && !transitions.get(fallback).containsKey(ch)) {
+                        fallback = failure.get(fallback);
+                    }
+                    Integer target = transitions.get(fallback).get(ch);
+                    int link = target == null || target == child ? 0 : target;
+                    failure.set(child, link);
+                    outputs.set(child, merge(outputs.get(child), outputs.get(link)));
+                    queue.add(child);
+                }
+            }
+        }
+
+        private static char fold(char ch) {
+            return Character.toLowerCase(Character.toUpperCase(ch));
+        }
+
+        private static int[] append(int[] values, int value) {
+            int[] result = Arrays.copyOf(values, values.length + 1);
+            result[values.length] = value;
+            return result;
+        }
+
+        private static int[] merge(int[] own, int[] inherited) {
+            if (inherited.length == 0) {
+                return own;
+            }
+            int[] result = Arrays.copyOf(own, own.length + inherited.length);
+            System.arraycopy(inherited, 0, result, own.length, inherited.length);
+            return result;
+        }
+    }
+}
@@ -74,17 +74,7 @@ public class TextFinder extends PDFTextStripper {
             super.endPage(page);
             return;
         }
-        String regex = this.useRegex ? processedSearchTerm : "\\Q" + processedSearchTerm + "\\E";
-        if (this.wholeWordSearch) {
-            if (processedSearchTerm.length() == 1
-                    && Character.isDigit(processedSearchTerm.charAt(0))) {
-                regex = "(?<![\\w])(?<!\\d[\\.,])" + regex + "(?![\\w])(?![\\.,]\\d)";
-            } else if (processedSearchTerm.length() == 1) {
-                regex = "(?<![\\w])" + regex + "(?![\\w])";
-            } else {
-                regex = "\\b" + regex + "\\b";
-            }
-        }
+        String regex = buildSearchRegex(processedSearchTerm, useRegex, wholeWordSearch);
 
         // Use cached pattern compilation for better performance
         Pattern pattern = RegexPatternUtils.getInstance().createSearchPattern(regex, true);
@@ -111,68 +101,23 @@ public class TextFinder extends PDFTextStripper {
                     matchEnd,
                     matcher.group());
 
-            float minX = Float.MAX_VALUE;
-            float minY = Float.MAX_VALUE;
-            float maxX = Float.MIN_VALUE;
-            float maxY = Float.MIN_VALUE;
-            boolean foundPosition = false;
-
-            for (int i = matchStart; i < matchEnd; i++) {
-                if (i >= pageTextPositions.size()) {
-                    log.debug(
-                            "Position index {} exceeds available positions ({})",
-                            i,
-                            pageTextPositions.size());
-                    continue;
-                }
-                TextPosition pos = pageTextPositions.get(i);
-                if (pos != null) {
-                    foundPosition = true;
-                    minX = Math.min(minX, pos.getX());
-                    maxX = Math.max(maxX, pos.getX() + pos.getWidth());
-                    minY = Math.min(minY, pos.getY() - pos.getHeight());
-                    maxY = Math.max(maxY, pos.getY());
-                }
-            }
-
-            if (!foundPosition && matchStart < pageTextPositions.size()) {
-                log.debug(
-                        "Attempting to find nearby positions for match at {}-{}",
-                        matchStart,
-                        matchEnd);
-
-                for (int i = Math.max(0, matchStart - 5);
-                        i < Math.min(pageTextPositions.size(), matchEnd + 5);
-                        i++) {
-                    TextPosition pos = pageTextPositions.get(i);
-                    if (pos != null) {
-                        foundPosition = true;
-                        minX = Math.min(minX, pos.getX());
-                        maxX = Math.max(maxX, pos.getX() + pos.getWidth());
-                        minY = Math.min(minY, pos.getY() - pos.getHeight());
-                        maxY = Math.max(maxY, pos.getY());
-                        break;
-                    }
-                }
-            }
-
-            if (foundPosition) {
-                foundTexts.add(
-                        new PDFText(
-                                this.getCurrentPageNo() - 1,
-                                minX,
-                                minY,
-                                maxX,
-                                maxY,
-                                matcher.group()));
+            PDFText found =
+                    toPDFText(
+                            getCurrentPageNo() - 1,
+                            pageTextPositions,
+                            matchStart,
+                            matchEnd,
+                            matcher.group());
+            if (found != null) {
+                foundTexts.add(found);
                 log.debug(
                         "Added PDFText for match: page={}, bounds=({},{},{},{}), text='{}'",
-                        getCurrentPageNo() - 1,
-                        minX,
-                        minY,
-                        maxX,
-                        maxY,
-                        matcher.group());
+                        found.getPageIndex(),
+                        found.getX1(),
+                        found.getY1(),
+                        found.getX2(),
+                        found.getY2(),
+                        found.getText());
             } else {
                 log.warn(
                         "Found text match '{}' but no valid position data at {}-{}",
@@ -191,6 +136,82 @@ public class TextFinder extends PDFTextStripper {
         super.endPage(page);
     }
 
+    /**
+     * Returns the regex used to search for a trimmed term, quoting literal terms and adding the
+     * word-boundary guards used for whole-word search.
+     */
+    static String buildSearchRegex(String term, boolean useRegex, boolean wholeWordSearch) {
+        String regex = useRegex ? term : "\\Q" + term + "\\E";
+        if (wholeWordSearch) {
+            if (term.length() == 1 && Character.isDigit(term.charAt(0))) {
+                regex = "(?<![\\w])(?<!\\d[\\.,])" + regex + "(?![\\w])(?![\\.,]\\d)";
+            } else if (term.length() == 1) {
+                regex = "(?<![\\w])" + regex + "(?![\\w])";
+            } else {
+                regex = "\\b" + regex + "\\b";
+            }
+        }
+        return regex;
+    }
+
+    /**
+     * Builds the bounding box of a match from the positions collected for a page. Separator
+     * placeholders ({@code null}) are skipped; if the match covers only separators, the closest
+     * real glyph is used instead. Returns {@code null} when no position data is available.
+     */
+    static PDFText toPDFText(
+            int pageIndex,
+            List<TextPosition> positions,
+            int matchStart,
+            int matchEnd,
+            String matchedText) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = Float.MIN_VALUE;
+        float maxY = Float.MIN_VALUE;
+        boolean foundPosition = false;
+
+        for (int i = matchStart; i < matchEnd; i++) {
+            if (i >= positions.size()) {
+                log.debug(
+                        "Position index {} exceeds available positions ({})", i, positions.size());
+                continue;
+            }
+            TextPosition pos = positions.get(i);
+            if (pos != null) {
+                foundPosition = true;
+                minX = Math.min(minX, pos.getX());
+                maxX = Math.max(maxX, pos.getX() + pos.getWidth());
+                minY = Math.min(minY, pos.getY() - pos.getHeight());
+                maxY = Math.max(maxY, pos.getY());
+            }
+        }
+
+        if (!foundPosition && matchStart < positions.size()) {
+            log.debug(
+                    "Attempting to find nearby positions for match at {}-{}", matchStart, matchEnd);
+
+            for (int i = Math.max(0, matchStart - 5);
+                    i < Math.min(positions.size(), matchEnd + 5);
+                    i++) {
+                TextPosition pos = positions.get(i);
+                if (pos != null) {
+                    foundPosition = true;
+                    minX = Math.min(minX, pos.getX());
+                    maxX = Math.max(maxX, pos.getX() + pos.getWidth());
+                    minY = Math.min(minY, pos.getY() - pos.getHeight());
+                    maxY = Math.max(maxY, pos.getY());
+                    break;
+                }
+            }
+        }
+
+        if (!foundPosition) {
+            return null;
+        }
+        return new PDFText(pageIndex, minX, minY, maxX, maxY, matchedText);
+    }
+
     public String getDebugInfo() {
         StringBuilder debug = new StringBuilder();
         debug.append("Extracted text length: ").append(pageTextBuilder.length()).append("\n");
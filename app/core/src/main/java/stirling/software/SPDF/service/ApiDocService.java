@@ -1,168 +1,83 @@
 package stirling.software.SPDF.service;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
+import java.util.Optional;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import jakarta.servlet.ServletContext;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import stirling.software.SPDF.SPDFApplication;
-import stirling.software.SPDF.model.ApiEndpoint;
-import stirling.software.common.model.enumeration.Role;
-import stirling.software.common.service.UserServiceInterface;
-import stirling.software.common.util.RegexPatternUtils;
+import stirling.software.common.model.ApiOperation;
+import stirling.software.common.service.ApiOperationRegistry;
 
+/** Answers pipeline questions about API operations from the in-process operation registry. */
 @Service
 @Slf4j
+@RequiredArgsConstructor
 public class ApiDocService {
 
-    private final Map<String, ApiEndpoint> apiDocumentation = new HashMap<>();
-
-    private final ServletContext servletContext;
-    private final UserServiceInterface userService;
-    Map<String, List<String>> outputToFileTypes = new HashMap<>();
-    JsonNode apiDocsJsonRootNode;
-
-    public ApiDocService(
-            ServletContext servletContext,
-            @Autowired(required = false) UserServiceInterface userService) {
-        this.servletContext = servletContext;
-        this.userService = userService;
-    }
-
-    private String getApiDocsUrl() {
-        String contextPath = servletContext.getContextPath();
-        String port = SPDFApplication.getStaticPort();
-        return "http://localhost:" + port + contextPath + "/v1/api-docs";
+    private static final Map<String, List<String>> OUTPUT_TO_FILE_TYPES =
+            Map.ofEntries(
+                    Map.entry("PDF", List.of("pdf")),
+                    Map.entry(
+                            "IMAGE",
+                            Arrays.asList(
+                                    "png", "jpg", "jpeg", "gif", "webp", "bmp", "tif", "tiff",
+                                    "svg", "psd", "ai", "eps")),
+                    Map.entry(
+                            "ZIP",
+                            Arrays.asList(
+                                    "zip", "rar", "7z", "tar", "gz", "bz2", "xz", "lz", "lzma",
+                                    "z")),
+                    Map.entry("WORD", Arrays.asList("doc", "docx", "odt", "rtf")),
+                    Map.entry("CSV", List.of("csv")),
+                    Map.entry("JS", Arrays.asList("js", "jsx")),
+                    Map.entry("HTML", Arrays.asList("html", "htm", "xhtml")),
+                    Map.entry("JSON", List.of("json")),
+                    Map.entry("TXT", Arrays.asList("txt", "text", "md", "markdown")),
+                    Map.entry("PPT", Arrays.asList("ppt", "pptx", "odp")),
+                    Map.entry("XML", Arrays.asList("xml", "xsd", "xsl")),
+                    Map.entry("BOOK", Arrays.asList("epub", "mobi", "azw3", "fb2", "txt", "docx")));
+
+    private final ApiOperationRegistry operationRegistry;
+
+    public Optional<ApiOperation> getOperation(String operationName) {
+        return operationRegistry.find(operationName);
     }
 
     public List<String> getExtensionTypes(boolean output, String operationName) {
-        if (outputToFileTypes.isEmpty()) {
-            outputToFileTypes.put("PDF", List.of("pdf"));
-            outputToFileTypes.put(
-                    "IMAGE",
-                    Arrays.asList(
-                            "png", "jpg", "jpeg", "gif", "webp", "bmp", "tif", "tiff", "svg", "psd",
-                            "ai", "eps"));
-            outputToFileTypes.put(
-                    "ZIP",
-                    Arrays.asList("zip", "rar", "7z", "tar", "gz", "bz2", "xz", "lz", "lzma", "z"));
-            outputToFileTypes.put("WORD", Arrays.asList("doc", "docx", "odt", "rtf"));
-            outputToFileTypes.put("CSV", List.of("csv"));
-            outputToFileTypes.put("JS", Arrays.asList("js", "jsx"));
-            outputToFileTypes.put("HTML", Arrays.asList("html", "htm", "xhtml"));
-            outputToFileTypes.put("JSON", List.of("json"));
-            outputToFileTypes.put("TXT", Arrays.asList("txt", "text", "md", "markdown"));
-            outputToFileTypes.put("PPT", Arrays.asList("ppt", "pptx", "odp"));
-            outputToFileTypes.put("XML", Arrays.asList("xml", "xsd", "xsl"));
-            outputToFileTypes.put(
-                    "BOOK", Arrays.asList("epub", "mobi", "azw3", "fb2", "txt", "docx"));
-            // type.
-        }
-        if (apiDocsJsonRootNode == null || apiDocumentation.isEmpty()) {
-            loadApiDocumentation();
-        }
-        if (!apiDocumentation.containsKey(operationName)) {
-            return null;
-        }
-        ApiEndpoint endpoint = apiDocumentation.get(operationName);
-        String description = endpoint.getDescription();
-        Matcher matcher =
-                (output
-                                ? RegexPatternUtils.getInstance().getApiDocOutputTypePattern()
-                                : RegexPatternUtils.getInstance().getApiDocInputTypePattern())
-                        .matcher(description);
-        while (matcher.find()) {
-            String type = matcher.group(1).toUpperCase(Locale.ROOT);
-            if (outputToFileTypes.containsKey(type)) {
-                return outputToFileTypes.get(type);
-            }
-        }
-        return null;
+        return operationRegistry
+                .find(operationName)
+                .map(operation -> getExtensionTypes(output, operation))
+                .orElse(null);
     }
 
-    private String getApiKeyForUser() {
-        if (userService == null) return "";
-        return userService.getApiKeyForUser(Role.INTERNAL_API_USER.getRoleId());
-    }
-
-    // @EventListener(ApplicationReadyEvent.class)
-    private synchronized void loadApiDocumentation() {
-        String apiDocsJson = "";
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            String apiKey = getApiKeyForUser();
-            if (!apiKey.isEmpty()) {
-                headers.set("X-API-KEY", apiKey);
+    /** File extensions for the first known input or output type of {@code operation}, or null. */
+    public List<String> getExtensionTypes(boolean output, ApiOperation operation) {
+        List<String> types = output ? operation.getOutputTypes() : operation.getInputTypes();
+        for (String type : types) {
+            List<String> extensions = OUTPUT_TO_FILE_TYPES.get(type);
+            if (extensions != null) {
+                return extensions;
             }
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-            RestTemplate restTemplate = new RestTemplate();
-            ResponseEntity<String> response =
-                    restTemplate.exchange(getApiDocsUrl(), HttpMethod.GET, entity, String.class);
-            apiDocsJson = response.getBody();
-            ObjectMapper mapper = new ObjectMapper();
-            apiDocsJsonRootNode = mapper.readTree(apiDocsJson);
-            JsonNode paths = apiDocsJsonRootNode.path("paths");
-            paths.propertyStream()
-                    .forEach(
-                            entry -> {
-                                String path = entry.getKey();
-                                JsonNode pathNode = entry.getValue();
-                                if (pathNode.has("post")) {
-                                    JsonNode postNode = pathNode.get("post");
-                                    ApiEndpoint endpoint = new ApiEndpoint(path, postNode);
-                                    apiDocumentation.put(path, endpoint);
-                                }
-                            });
-        } catch (Exception e) {
-            // Handle exceptions
-            log.error("Error grabbing swagger doc, body result {}", apiDocsJson);
         }
+        return null;
     }
 
     public boolean isValidOperation(String operationName, Map<String, Object> parameters) {
-        if (apiDocumentation.isEmpty()) {
-            loadApiDocumentation();
-        }
-        if (!apiDocumentation.containsKey(operationName)) {
+        Optional<ApiOperation> operation = operationRegistry.find(operationName);
+        if (operation.isEmpty()) {
+            log.debug("Unknown operation {}", operationName);
             return false;
         }
-        ApiEndpoint endpoint = apiDocumentation.get(operationName);
-        return endpoint.areParametersValid(parameters);
+        return isValidOperation(operation.get(), parameters);
     }
 
-    public boolean isMultiInput(String operationName) {
-        if (apiDocsJsonRootNode == null || apiDocumentation.isEmpty()) {
-            loadApiDocumentation();
-        }
-        if (!apiDocumentation.containsKey(operationName)) {
-            return false;
-        }
-        ApiEndpoint endpoint = apiDocumentation.get(operationName);
-        String description = endpoint.getDescription();
-        Matcher matcher =
-                RegexPatternUtils.getInstance().getApiDocTypePattern().matcher(description);
-        if (matcher.find()) {
-            String type = matcher.group(1);
-            return type.startsWith("MI");
-        }
-        return false;
+    /** Whether {@code parameters} supplies every parameter the operation lists. */
+    public boolean isValidOperation(ApiOperation operation, Map<String, Object> parameters) {
+        return parameters.keySet().containsAll(operation.getParameters());
     }
 }
-// Model class for API Endpoint
@@ -0,0 +1,267 @@
+package stirling.software.SPDF.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.fontbox.ttf.CmapLookup;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDCIDFontType2;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Process-wide cache of parsed TrueType fonts. Each font file is parsed once and shared; documents
+ * get their own {@link PDType0Font} built from the shared {@link TrueTypeFont}, so only the
+ * per-document subset is created on each request. The cache is bounded by the total size of the
+ * font programs it holds and evicts the least recently used font first; an evicted font is closed
+ * once no font created from it is reachable any more.
+ */
+@Slf4j
+@Service
+public class FontRegistry {
+
+    static final long DEFAULT_MAX_CACHED_BYTES = 128L * 1024 * 1024;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final ResourceLoader resourceLoader;
+    private final long maxCachedBytes;
+
+    private final LinkedHashMap<String, CachedFont> fonts = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes = 0;
+    // Evicted fonts that documents are still using
+    private final Set<CachedFont> retired = new HashSet<>();
+
+    // Lookup from a shared TrueTypeFont back to its coverage, for fonts created by this registry
+    private final Map<TrueTypeFont, GlyphCoverage> coverageByFont = new ConcurrentHashMap<>();
+
+    public FontRegistry(ResourceLoader resourceLoader) {
+        this(resourceLoader, DEFAULT_MAX_CACHED_BYTES);
+    }
+
+    FontRegistry(ResourceLoader resourceLoader, long maxCachedBytes) {
+        this.resourceLoader = resourceLoader;
+        this.maxCachedBytes = maxCachedBytes;
+    }
+
+    /**
+     * Create a subset-embedded font for the document from the font at the given resource location
+     * (e.g. {@code classpath:static/fonts/NotoSans-Regular.ttf}).
+     */
+    public PDType0Font loadFont(PDDocument document, String location) throws IOException {
+        return loadFont(document, location, true);
+    }
+
+    public PDType0Font loadFont(PDDocument document, String location, boolean embedSubset)
+            throws IOException {
+        CachedFont cached = acquire(location);
+        try {
+            // The shared TrueTypeFont is not closed with the document
+            PDType0Font font = PDType0Font.load(document, cached.trueTypeFont(), embedSubset);
+            CLEANER.register(font, () -> release(cached));
+            return font;
+        } catch (IOException | RuntimeException e) {
+            release(cached);
+            throw e;
+        }
+    }
+
+    /**
+     * Create a subset-embedded font for text in the given alphabet ({@code arabic}, {@code
+     * japanese}, {@code korean}, {@code chinese}, {@code thai}; anything else is Latin), as chosen
+     * by the stamp and watermark tools. Callers create one font per document and reuse it for every
+     * page.
+     */
+    public PDType0Font loadAlphabetFont(PDDocument document, String alphabet) throws IOException {
+        return loadFont(document, alphabetFontLocation(alphabet));
+    }
+
+    static String alphabetFontLocation(String alphabet) {
+        return switch (alphabet == null ? "" : alphabet) {
+            case "arabic" -> "classpath:static/fonts/NotoSansArabic-Regular.ttf";
+            case "japanese" -> "classpath:static/fonts/NotoSansJP-Regular.ttf";
+            case "korean" -> "classpath:static/fonts/NotoSansKR-Regular.ttf";
+            case "chinese" -> "classpath:static/fonts/NotoSansSC-Regular.ttf";
+            case "thai" -> "classpath:static/fonts/NotoSansThai-Regular.ttf";
+            default -> "classpath:static/fonts/NotoSans-Regular.ttf";
+        };
+    }
+
+    /** Raw font program bytes for the font at the given resource location. */
+    public byte[] getFontBytes(String location) throws IOException {
+        return getFont(location).bytes();
+    }
+
+    /**
+     * Precomputed glyph coverage for a font created by this registry, or null for any other font.
+     */
+    public GlyphCoverage getCoverage(PDFont font) {
+        if (font instanceof PDType0Font type0
+                && type0.getDescendantFont() instanceof PDCIDFontType2 cidFont) {
+            TrueTypeFont ttf = cidFont.getTrueTypeFont();
+            return ttf != null ? coverageByFont.get(ttf) : null;
+        }
+        return null;
+    }
+
+    private synchronized CachedFont acquire(String location) throws IOException {
+        CachedFont cached = getFont(location);
+        cached.users++;
+        return cached;
+    }
+
+    private synchronized void release(CachedFont cached) {
+        if (--cached.users == 0 && cached.evicted) {
+            close(cached);
+        }
+    }
+
+    private synchronized CachedFont getFont(String location) throws IOException {
+        CachedFont cached = fonts.get(location);
+        if (cached != null) {
+            return cached;
+        }
+
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            throw new IOException("Font resource not found at " + location);
+        }
+        byte[] bytes;
+        try (InputStream inputStream = resource.getInputStream()) {
+            bytes = inputStream.readAllBytes();
+        }
+        TrueTypeFont ttf = new TTFParser().parse(new RandomAccessReadBuffer(bytes));
+        GlyphCoverage coverage = GlyphCoverage.of(ttf);
+        cached = new CachedFont(bytes, ttf);
+
+        fonts.put(location, cached);
+        coverageByFont.put(ttf, coverage);
+        cachedBytes += bytes.length;
+        evictIfNeeded(location);
+        log.debug("Parsed and cached font {} ({} bytes)", location, bytes.length);
+        return cached;
+    }
+
+    private void evictIfNeeded(String keep) {
+        Iterator<Map.Entry<String, CachedFont>> it = fonts.entrySet().iterator();
+        while (cachedBytes > maxCachedBytes && it.hasNext()) {
+            Map.Entry<String, CachedFont> eldest = it.next();
+            if (eldest.getKey().equals(keep)) {
+                continue;
+            }
+            it.remove();
+            CachedFont evicted = eldest.getValue();
+            coverageByFont.remove(evicted.trueTypeFont());
+            cachedBytes -= evicted.bytes().length;
+            // Documents still using the font keep it open until their fonts are unreachable
+            evicted.evicted = true;
+            if (evicted.users == 0) {
+                close(evicted);
+            } else {
+                retired.add(evicted);
+            }
+            log.debug("Evicted cached font {}", eldest.getKey());
+        }
+    }
+
+    private void close(CachedFont cached) {
+        retired.remove(cached);
+        try {
+            cached.trueTypeFont().close();
+        } catch (IOException e) {
+            log.debug("Failed to close evicted font", e);
+        }
+    }
+
+    synchronized int size() {
+        return fonts.size();
+    }
+
+    /** Number of evicted fonts still held open by fonts created from them. */
+    synchronized int retiredCount() {
+        return retired.size();
+    }
+
+    private static final class CachedFont {
+
+        private final byte[] bytes;
+        private final TrueTypeFont trueTypeFont;
+
+        // Guarded by the registry
+        private int users;
+        private boolean evicted;
+
+        CachedFont(byte[] bytes, TrueTypeFont trueTypeFont) {
+            this.bytes = bytes;
+            this.trueTypeFont = trueTypeFont;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        TrueTypeFont trueTypeFont() {
+            return trueTypeFont;
+        }
+    }
+
+    /** Set of Unicode code points a font has a glyph for. */
+    public static final class GlyphCoverage {
+
+        private final BitSet codePoints;
+
+        private GlyphCoverage(BitSet codePoints) {
+            this.codePoints = codePoints;
+        }
+
+        static GlyphCoverage of(TrueTypeFont ttf) throws IOException {
+            BitSet codePoints = new BitSet();
+            CmapLookup cmap = ttf.getUnicodeCmapLookup(false);
+            if (cmap != null) {
+                int numGlyphs = ttf.getNumberOfGlyphs();
+                for (int gid = 1; gid < numGlyphs; gid++) {
+                    List<Integer> codes = cmap.getCharCodes(gid);
+                    if (codes != null) {
+                        for (Integer code : codes) {
+                            codePoints.set(code);
+                        }
+                    }
+                }
+            }
+            return new GlyphCoverage(codePoints);
+        }
+
+        public boolean contains(int codePoint) {
+            return codePoint >= 0 && codePoints.get(codePoint);
+        }
+
+        /** True if every code point of the text has a glyph. */
+        public boolean canEncode(String text) {
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                if (!contains(codePoint)) {
+                    return false;
+                }
+                i += Character.charCount(codePoint);
+            }
+            return true;
+        }
+    }
+}
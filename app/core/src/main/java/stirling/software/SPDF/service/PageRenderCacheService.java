@@ -0,0 +1,566 @@
+package stirling.software.SPDF.service;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.util.ExceptionUtils;
+import stirling.software.common.util.LruFileIndex;
+
+/**
+ * Caches rendered page rasters keyed by the SHA-256 of the document, the page index, the DPI and
+ * the colour type. Uploaded documents and rendered PNGs live in a size-bounded directory that
+ * evicts the least recently used files; recently served PNGs are also kept in a small in-memory
+ * LRU. Because a key always renders to the same image, cached pages can be handed to browsers with
+ * a strong ETag and long-lived cache headers.
+ *
+ * <p>Pages are rendered lazily: {@link #schedulePages} queues background renders, and the pages of
+ * the most recent request are rendered first, in the order they were given. A page that is asked
+ * for before its background render has started is rendered on the calling thread instead.
+ */
+@Service
+@Slf4j
+public class PageRenderCacheService {
+
+    private static final Pattern DOCUMENT_ID = Pattern.compile("[0-9a-f]{64}");
+    private static final String SOURCE_SUFFIX = ".pdf";
+    private static final String PAGE_SUFFIX = ".png";
+    private static final String PARTIAL_SUFFIX = ".part";
+    // Bump when rendering changes so that browsers drop images cached under the old ETags
+    private static final String RENDER_VERSION = "1";
+    private static final long RENDER_WAIT_MINUTES = 5;
+    private static final long MB = 1024L * 1024L;
+
+    private final CustomPDFDocumentFactory pdfDocumentFactory;
+    private final ApplicationProperties applicationProperties;
+    private final Path sourceDir;
+    private final Path pageDir;
+    private final MemoryCache memoryCache;
+    private final LruFileIndex diskIndex;
+    private final ThreadPoolExecutor renderExecutor;
+    private final Map<String, Integer> pageCounts = new ConcurrentHashMap<>();
+    private final Map<PageKey, RenderTask> queuedRenders = new ConcurrentHashMap<>();
+    private final Map<PageKey, CompletableFuture<byte[]>> inFlightRenders =
+            new ConcurrentHashMap<>();
+    private final AtomicLong scheduleGeneration = new AtomicLong();
+
+    @Autowired
+    public PageRenderCacheService(
+            CustomPDFDocumentFactory pdfDocumentFactory,
+            ApplicationProperties applicationProperties,
+            @Value("${stirling.pageRenderCache.dir:}") String cacheDir,
+            @Value("${stirling.pageRenderCache.maxDiskMb:512}") long maxDiskMb,
+            @Value("${stirling.pageRenderCache.maxMemoryMb:64}") long maxMemoryMb,
+            @Value("${stirling.pageRenderCache.renderThreads:2}") int renderThreads)
+            throws IOException {
+        this(
+                pdfDocumentFactory,
+                applicationProperties,
+                cacheDir == null || cacheDir.isBlank()
+                        ? Paths.get(System.getProperty("java.io.tmpdir"), "stirling-page-cache")
+                        : Paths.get(cacheDir),
+                maxDiskMb * MB,
+                maxMemoryMb * MB,
+                renderThreads);
+    }
+
+    PageRenderCacheService(
+            CustomPDFDocumentFactory pdfDocumentFactory,
+            ApplicationProperties applicationProperties,
+            Path cacheDir,
+            long maxDiskBytes,
+            long maxMemoryBytes,
+            int renderThreads)
+            throws IOException {
+        this.pdfDocumentFactory = pdfDocumentFactory;
+        this.applicationProperties = applicationProperties;
+        this.sourceDir = cacheDir.resolve("sources");
+        this.pageDir = cacheDir.resolve("pages");
+        Files.createDirectories(sourceDir);
+        Files.createDirectories(pageDir);
+        this.memoryCache = new MemoryCache(maxMemoryBytes);
+        this.diskIndex = new LruFileIndex(maxDiskBytes);
+        rebuildDiskIndex();
+
+        int threads = Math.max(1, renderThreads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.renderExecutor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        60,
+                        TimeUnit.SECONDS,
+                        new PriorityBlockingQueue<>(),
+                        runnable -> {
+                            Thread thread =
+                                    new Thread(
+                                            runnable,
+                                            "page-render-" + threadNumber.incrementAndGet());
+                            thread.setDaemon(true);
+                            thread.setPriority(Thread.NORM_PRIORITY - 1);
+                            return thread;
+                        });
+        this.renderExecutor.allowCoreThreadTimeOut(true);
+        log.info("Page render cache directory: {}", cacheDir);
+    }
+
+    /**
+     * Identifies one cached raster.
+     *
+     * @param documentId lowercase hex SHA-256 of the document
+     * @param pageIndex 0-based page index
+     */
+    public record PageKey(String documentId, int pageIndex, int dpi, ImageType colorType) {
+
+        String fileName() {
+            return documentId
+                    + "-"
+                    + pageIndex
+                    + "-"
+                    + dpi
+                    + "-"
+                    + colorType.name().toLowerCase(Locale.ROOT)
+                    + PAGE_SUFFIX;
+        }
+
+        /** Strong validator for the rendered image; equal keys always render the same bytes. */
+        public String etag() {
+            return "\"" + fileName().replace(PAGE_SUFFIX, "") + "-v" + RENDER_VERSION + "\"";
+        }
+    }
+
+    public record DocumentInfo(String documentId, int pageCount) {}
+
+    /**
+     * Maps the colour type names used by the image conversion tools to a PDFBox image type.
+     *
+     * @param colorType {@code color}, {@code greyscale} or {@code blackwhite}
+     */
+    public static ImageType parseColorType(String colorType) {
+        String normalized = colorType == null ? "color" : colorType.toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case "color" -> ImageType.RGB;
+            case "greyscale" -> ImageType.GRAY;
+            case "blackwhite" -> ImageType.BINARY;
+            default ->
+                    throw ExceptionUtils.createIllegalArgumentException(
+                            "error.invalidFormat",
+                            "Invalid {0} format: {1}",
+                            "colour type",
+                            colorType);
+        };
+    }
+
+    /**
+     * Stores an uploaded PDF under its content hash. Uploading the same bytes again reuses the
+     * stored copy and every page already rendered from it.
+     */
+    public DocumentInfo register(MultipartFile file) throws IOException {
+        Path partial = Files.createTempFile(sourceDir, "upload-", PARTIAL_SUFFIX);
+        try {
+            String documentId;
+            try (InputStream in = file.getInputStream();
+                    DigestInputStream digestIn = new DigestInputStream(in, sha256())) {
+                Files.copy(digestIn, partial, StandardCopyOption.REPLACE_EXISTING);
+                documentId = HexFormat.of().formatHex(digestIn.getMessageDigest().digest());
+            }
+
+            Path source = sourcePath(documentId);
+            if (Files.isRegularFile(source)) {
+                diskIndex.touch(source);
+            } else {
+                int pageCount = countPages(partial);
+                try {
+                    Files.move(partial, source, StandardCopyOption.ATOMIC_MOVE);
+                    pageCounts.put(documentId, pageCount);
+                    deleteEvicted(diskIndex.add(source, Files.size(source)));
+                } catch (FileAlreadyExistsException e) {
+                    // A concurrent upload of the same bytes stored the document first
+                    diskIndex.touch(source);
+                }
+            }
+            return new DocumentInfo(documentId, pageCount(documentId).orElse(0));
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /** Page count of a registered document, or empty if it is unknown or has been evicted. */
+    public Optional<Integer> pageCount(String documentId) throws IOException {
+        Path source = sourcePath(documentId);
+        if (!Files.isRegularFile(source)) {
+            pageCounts.remove(documentId);
+            return Optional.empty();
+        }
+        Integer known = pageCounts.get(documentId);
+        if (known != null) {
+            return Optional.of(known);
+        }
+        int counted = countPages(source);
+        pageCounts.put(documentId, counted);
+        return Optional.of(counted);
+    }
+
+    /**
+     * Queues background renders for the given pages. Pages of the latest call are rendered before
+     * any page queued earlier, in list order, so callers should pass the pages on screen first.
+     *
+     * @param pageIndexes 0-based page indexes, most important first
+     * @return false if the document is unknown
+     */
+    public boolean schedulePages(
+            String documentId, List<Integer> pageIndexes, int dpi, ImageType colorType)
+            throws IOException {
+        Optional<Integer> pageCount = pageCount(documentId);
+        if (pageCount.isEmpty()) {
+            return false;
+        }
+        validateDpi(dpi);
+        long generation = scheduleGeneration.incrementAndGet();
+        int rank = 0;
+        for (Integer pageIndex : pageIndexes) {
+            if (pageIndex == null || pageIndex < 0 || pageIndex >= pageCount.get()) {
+                continue;
+            }
+            PageKey key = new PageKey(documentId, pageIndex, dpi, colorType);
+            if (memoryCache.contains(key) || Files.isRegularFile(pagePath(key))) {
+                continue;
+            }
+            RenderTask task = new RenderTask(key, generation, rank++);
+            RenderTask previous = queuedRenders.put(key, task);
+            if (previous != null) {
+                renderExecutor.remove(previous);
+            }
+            renderExecutor.execute(task);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the PNG for a page, rendering it now if it is neither cached nor being rendered.
+     *
+     * @return empty if the document is unknown or has been evicted
+     */
+    public Optional<byte[]> getPage(PageKey key) throws IOException {
+        validateDpi(key.dpi());
+        byte[] cached = readCached(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Integer> pageCount = pageCount(key.documentId());
+        if (pageCount.isEmpty()) {
+            return Optional.empty();
+        }
+        if (key.pageIndex() < 0 || key.pageIndex() >= pageCount.get()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "page " + (key.pageIndex() + 1) + " of " + pageCount.get());
+        }
+        RenderTask queued = queuedRenders.remove(key);
+        if (queued != null) {
+            renderExecutor.remove(queued);
+        }
+        return Optional.of(render(key));
+    }
+
+    private byte[] readCached(PageKey key) throws IOException {
+        byte[] png = memoryCache.get(key);
+        if (png != null) {
+            return png;
+        }
+        Path path = pagePath(key);
+        try {
+            png = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        diskIndex.touch(path);
+        memoryCache.put(key, png);
+        return png;
+    }
+
+    /** Renders a page once, however many threads ask for it at the same time. */
+    private byte[] render(PageKey key) throws IOException {
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlightRenders.putIfAbsent(key, mine);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            byte[] png = readCached(key);
+            if (png == null) {
+                png = renderPage(key);
+                store(key, png);
+            }
+            mine.complete(png);
+            return png;
+        } catch (IOException | RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRenders.remove(key, mine);
+        }
+    }
+
+    private byte[] renderPage(PageKey key) throws IOException {
+        Path source = sourcePath(key.documentId());
+        diskIndex.touch(source);
+        int pageNumber = key.pageIndex() + 1;
+        try (PDDocument document = pdfDocumentFactory.loadKeepingFile(source, true)) {
+            PDPage page = document.getPage(key.pageIndex());
+            ExceptionUtils.validateRenderingDimensions(page, pageNumber, key.dpi());
+            PDFRenderer renderer = new PDFRenderer(document);
+            renderer.setSubsamplingAllowed(true);
+            BufferedImage image =
+                    ExceptionUtils.handleOomRendering(
+                            pageNumber,
+                            key.dpi(),
+                            () ->
+                                    renderer.renderImageWithDPI(
+                                            key.pageIndex(), key.dpi(), key.colorType()));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+    }
+
+    private void store(PageKey key, byte[] png) throws IOException {
+        memoryCache.put(key, png);
+        Path path = pagePath(key);
+        Path partial = Files.createTempFile(pageDir, "render-", PARTIAL_SUFFIX);
+        try {
+            Files.write(partial, png);
+            Files.move(
+                    partial,
+                    path,
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+        deleteEvicted(diskIndex.add(path, png.length));
+    }
+
+    private int countPages(Path pdf) throws IOException {
+        try (PDDocument document = pdfDocumentFactory.loadKeepingFile(pdf, true)) {
+            return document.getNumberOfPages();
+        }
+    }
+
+    private void validateDpi(int dpi) {
+        int maxDpi = applicationProperties.getSystem().getMaxDPI();
+        if (dpi <= 0 || dpi > maxDpi) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.dpiExceedsLimit",
+                    "DPI value {0} exceeds maximum safe limit of {1}. High DPI values can cause"
+                            + " memory issues and crashes. Please use a lower DPI value.",
+                    dpi,
+                    maxDpi);
+        }
+    }
+
+    private Path sourcePath(String documentId) {
+        if (documentId == null || !DOCUMENT_ID.matcher(documentId).matches()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidFormat", "Invalid {0} format: {1}", "document id", documentId);
+        }
+        return sourceDir.resolve(documentId + SOURCE_SUFFIX);
+    }
+
+    private Path pagePath(PageKey key) {
+        sourcePath(key.documentId());
+        return pageDir.resolve(key.fileName());
+    }
+
+    private void deleteEvicted(List<Path> evicted) {
+        for (Path path : evicted) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete evicted page cache file {}", path, e);
+            }
+            if (path.getParent().equals(sourceDir)) {
+                String name = path.getFileName().toString();
+                pageCounts.remove(name.substring(0, name.length() - SOURCE_SUFFIX.length()));
+            }
+        }
+        if (!evicted.isEmpty()) {
+            log.debug("Evicted {} files from the page render cache", evicted.size());
+        }
+    }
+
+    /** Indexes what an earlier run left on disk, oldest first, and drops unfinished writes. */
+    private void rebuildDiskIndex() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path dir : List.of(sourceDir, pageDir)) {
+            try (Stream<Path> entries = Files.list(dir)) {
+                entries.filter(Files::isRegularFile).forEach(files::add);
+            }
+        }
+        Map<Path, BasicFileAttributes> attributes = new LinkedHashMap<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(PARTIAL_SUFFIX)) {
+                Files.deleteIfExists(file);
+            } else {
+                attributes.put(file, Files.readAttributes(file, BasicFileAttributes.class));
+            }
+        }
+        List<Path> evicted = new ArrayList<>();
+        attributes.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getValue().lastAccessTime()))
+                .forEach(e -> evicted.addAll(diskIndex.add(e.getKey(), e.getValue().size())));
+        deleteEvicted(evicted);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> render) throws IOException {
+        try {
+            return render.get(RENDER_WAIT_MINUTES, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for page render", e);
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out waiting for page render", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IOException("Page render failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    /**
+     * A queued background render. Newer requests sort before older ones, and within one request the
+     * caller's order is kept.
+     */
+    private final class RenderTask implements Runnable, Comparable<RenderTask> {
+        private final PageKey key;
+        private final long generation;
+        private final int rank;
+
+        private RenderTask(PageKey key, long generation, int rank) {
+            this.key = key;
+            this.generation = generation;
+            this.rank = rank;
+        }
+
+        @Override
+        public void run() {
+            // Superseded by a newer request for the same page, or taken over by getPage
+            if (!queuedRenders.remove(key, this)) {
+                return;
+            }
+            try {
+                render(key);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Background render of {} failed: {}", key, e.getMessage());
+            }
+        }
+
+        @Override
+        public int compareTo(RenderTask other) {
+            int byGeneration = Long.compare(other.generation, generation);
+            return byGeneration != 0 ? byGeneration : Integer.compare(rank, other.rank);
+        }
+    }
+
+    /** Least recently used PNGs, bounded by their total size. */
+    private static final class MemoryCache {
+        private final long maxBytes;
+        private final LinkedHashMap<PageKey, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long totalBytes;
+
+        private MemoryCache(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized byte[] get(PageKey key) {
+            return entries.get(key);
+        }
+
+        synchronized boolean contains(PageKey key) {
+            return entries.containsKey(key);
+        }
+
+        synchronized void put(PageKey key, byte[] png) {
+            if (png.length > maxBytes) {
+                return;
+            }
+            byte[] previous = entries.put(key, png);
+            totalBytes += png.length - (previous != null ? previous.length : 0);
+            Iterator<byte[]> iterator = entries.values().iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                totalBytes -= iterator.next().length;
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package stirling.software.SPDF.service;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.util.ParallelPageWorkers;
+
+/**
+ * Visits every page of a document once. A single text extraction pass runs over the pages, and each
+ * page is handed to a {@link PageInspector} together with the length of its text as soon as the
+ * text of that page has been written, so callers can collect annotations, resources and other page
+ * details without walking the page tree again. Large documents are split into contiguous page
+ * ranges that are inspected in parallel on {@link ParallelPageWorkers}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PdfInspectionService {
+
+    static final int MAX_WORKERS = ParallelPageWorkers.MAX_WORKERS;
+    // Opening another copy of the document only pays off with this many pages per worker
+    static final int MIN_PAGES_PER_WORKER = 16;
+
+    private final CustomPDFDocumentFactory pdfDocumentFactory;
+
+    /**
+     * Inspects one page. May be called from several threads at once, but never twice for the same
+     * page.
+     */
+    @FunctionalInterface
+    public interface PageInspector<T> {
+        /**
+         * @param page the page, owned by the calling thread's copy of the document
+         * @param pageIndex 0-based index of the page
+         * @param textLength number of characters the text extraction produced for the page
+         */
+        T inspect(PDPage page, int pageIndex, int textLength) throws IOException;
+    }
+
+    /**
+     * The result of an inspection.
+     *
+     * @param text the extracted text of the whole document
+     * @param pages what the inspector returned for each page, in page order
+     */
+    public record Inspection<T>(String text, List<T> pages) {}
+
+    /**
+     * Extracts the text of {@code document} and inspects each of its pages.
+     *
+     * @param document the document to inspect; stays open when the method returns
+     * @param source the file {@code document} was loaded from, or {@code null} if there is none.
+     *     Further copies for parallel workers are only opened when a file is given
+     * @param inspector called once per page
+     */
+    public <T> Inspection<T> inspect(PDDocument document, Path source, PageInspector<T> inspector)
+            throws IOException {
+        int pageCount = document.getNumberOfPages();
+        int workers = source == null ? 1 : workerCount(pageCount);
+        if (workers == 1) {
+            return inspectRange(document, 0, pageCount, inspector);
+        }
+
+        int rangeSize = (pageCount + workers - 1) / workers;
+        try (ParallelPageWorkers pageWorkers =
+                ParallelPageWorkers.open(pdfDocumentFactory, document, source, workers)) {
+            log.debug("Inspecting {} pages with {} workers", pageCount, workers);
+
+            List<Future<Inspection<T>>> ranges = new ArrayList<>(workers - 1);
+            for (int w = 1; w < workers; w++) {
+                PDDocument workerDocument = pageWorkers.documents().get(w);
+                int start = w * rangeSize;
+                int end = Math.min(pageCount, start + rangeSize);
+                ranges.add(
+                        pageWorkers.submit(
+                                () -> inspectRange(workerDocument, start, end, inspector)));
+            }
+            // The calling thread takes the first range on the document it was given
+            Inspection<T> first = inspectRange(document, 0, rangeSize, inspector);
+
+            StringBuilder text = new StringBuilder(first.text());
+            List<T> pages = new ArrayList<>(pageCount);
+            pages.addAll(first.pages());
+            for (Future<Inspection<T>> range : ranges) {
+                Inspection<T> inspection = ParallelPageWorkers.await(range, "Page inspection");
+                text.append(inspection.text());
+                pages.addAll(inspection.pages());
+            }
+            return new Inspection<>(text.toString(), pages);
+        }
+    }
+
+    static int workerCount(int pageCount) {
+        return ParallelPageWorkers.workerCount(pageCount, MIN_PAGES_PER_WORKER);
+    }
+
+    /** Inspects the pages {@code [start, end)} of {@code document} with one text extraction. */
+    private static <T> Inspection<T> inspectRange(
+            PDDocument document, int start, int end, PageInspector<T> inspector)
+            throws IOException {
+        if (start >= end) {
+            return new Inspection<>("", List.of());
+        }
+        Object[] results = new Object[end - start];
+        StringWriter writer = new StringWriter();
+        InspectingTextStripper<T> stripper =
+                new InspectingTextStripper<>(inspector, start, results, writer);
+        stripper.setStartPage(start + 1);
+        stripper.setEndPage(end);
+        stripper.writeText(document, writer);
+
+        // The text pass skips pages without a content stream; they still have annotations
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = inspector.inspect(document.getPage(start + i), start + i, 0);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        List<T> pages = (List<T>) Arrays.asList(results);
+        return new Inspection<>(writer.toString(), pages);
+    }
+
+    /** Hands each page to the inspector right after its text has been written. */
+    private static class InspectingTextStripper<T> extends PDFTextStripper {
+
+        private final PageInspector<T> inspector;
+        private final int firstPageIndex;
+        private final Object[] results;
+        private final StringBuffer text;
+        private int pageStartOffset;
+
+        InspectingTextStripper(
+                PageInspector<T> inspector,
+                int firstPageIndex,
+                Object[] results,
+                StringWriter writer) {
+            this.inspector = inspector;
+            this.firstPageIndex = firstPageIndex;
+            this.results = results;
+            this.text = writer.getBuffer();
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            super.startPage(page);
+            pageStartOffset = text.length();
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            super.endPage(page);
+            int pageIndex = getCurrentPageNo() - 1;
+            results[pageIndex - firstPageIndex] =
+                    inspector.inspect(page, pageIndex, text.length() - pageStartOffset);
+        }
+    }
+}
@@ -1,20 +1,13 @@
 package stirling.software.SPDF.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
 import org.apache.pdfbox.pdmodel.font.PDType3Font;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Component;
 
 import lombok.RequiredArgsConstructor;
@@ -311,7 +304,7 @@ public class PdfJsonFallbackFontService {
                                     "DejaVuSansMono-BoldOblique",
                                     "ttf")));
 
-    private final ResourceLoader resourceLoader;
+    private final FontRegistry fontRegistry;
     private final stirling.software.common.model.ApplicationProperties applicationProperties;
 
     @Value("${stirling.pdf.fallback-font:" + DEFAULT_FALLBACK_FONT_LOCATION + "}")
@@ -319,8 +312,6 @@ public class PdfJsonFallbackFontService {
 
     private String fallbackFontLocation;
 
-    private final Map<String, byte[]> fallbackFontCache = new ConcurrentHashMap<>();
-
     @jakarta.annotation.PostConstruct
     private void loadConfig() {
         String configured = null;
@@ -366,12 +357,9 @@ public class PdfJsonFallbackFontService {
         if (spec == null) {
             throw new IOException("Unknown fallback font id " + fallbackId);
         }
-        byte[] bytes = loadFallbackFontBytes(fallbackId, spec);
-        try (InputStream stream = new ByteArrayInputStream(bytes)) {
-            // Load with embedSubset=false to ensure full glyph coverage
-            // Fallback fonts need all glyphs available for substituting missing characters
-            return PDType0Font.load(document, stream, false);
-        }
+        // Load with embedSubset=false to ensure full glyph coverage
+        // Fallback fonts need all glyphs available for substituting missing characters
+        return fontRegistry.loadFont(document, spec.resourceLocation(), false);
     }
 
     public boolean canEncodeFully(PDFont font, String text) {
@@ -389,6 +377,10 @@ public class PdfJsonFallbackFontService {
         if (font instanceof PDType3Font) {
             return false;
         }
+        FontRegistry.GlyphCoverage coverage = fontRegistry.getCoverage(font);
+        if (coverage != null) {
+            return coverage.canEncode(text);
+        }
         try {
             font.encode(text);
             return true;
@@ -610,21 +602,7 @@ public class PdfJsonFallbackFontService {
         if (spec == null) {
             throw new IOException("No fallback font specification for " + fallbackId);
         }
-        byte[] cached = fallbackFontCache.get(fallbackId);
-        if (cached != null) {
-            return cached;
-        }
-        Resource resource = resourceLoader.getResource(spec.resourceLocation());
-        if (!resource.exists()) {
-            throw new IOException("Fallback font resource not found at " + spec.resourceLocation());
-        }
-        try (InputStream inputStream = resource.getInputStream();
-                ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            inputStream.transferTo(baos);
-            byte[] bytes = baos.toByteArray();
-            fallbackFontCache.put(fallbackId, bytes);
-            return bytes;
-        }
+        return fontRegistry.getFontBytes(spec.resourceLocation());
     }
 
     private String inferBaseName(String location, String defaultName) {
@@ -0,0 +1,203 @@
+package stirling.software.SPDF.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.SPDF.config.EndpointInspector;
+import stirling.software.common.util.HyperLogLog;
+
+/**
+ * Pre-aggregated request metrics. Requests are grouped by HTTP method and route template, so the
+ * number of meters is bounded by the number of mapped endpoints rather than by the number of
+ * distinct URIs or sessions. Each route gets a request counter, a latency histogram and a request
+ * payload size histogram in the meter registry, plus a HyperLogLog sketch of the visitors that used
+ * it. Running totals per method are kept alongside, so the metrics endpoints can answer without
+ * scanning the registry.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RequestMetricsService {
+
+    /** Route recorded for requests that did not match any handler mapping. */
+    public static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private static final String OTHER_METHOD = "OTHER";
+    private static final Set<String> KNOWN_METHODS =
+            Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE");
+    // 1024 registers (4 KB) per sketch, about 3% standard error
+    private static final int SKETCH_PRECISION = 10;
+
+    private final MeterRegistry meterRegistry;
+    private final EndpointInspector endpointInspector;
+    private final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+
+    private static class MethodStats {
+        private final LongAdder requests = new LongAdder();
+        private final HyperLogLog visitors = new HyperLogLog(SKETCH_PRECISION);
+        private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    }
+
+    private record RouteStats(
+            boolean reported,
+            LongAdder count,
+            Counter requests,
+            Timer latency,
+            DistributionSummary payloadSize,
+            HyperLogLog visitors) {}
+
+    /**
+     * Records a finished request.
+     *
+     * @param method the HTTP method
+     * @param route the route template that handled the request, or {@link #UNMATCHED_ROUTE}
+     * @param visitorId identifies the visitor for unique counts, e.g. the session ID
+     * @param durationNanos how long the request took
+     * @param payloadBytes the size of the request body, 0 if unknown
+     */
+    public void record(
+            String method, String route, String visitorId, long durationNanos, long payloadBytes) {
+        String normalizedMethod = normalizeMethod(method);
+        MethodStats methodStats = methods.computeIfAbsent(normalizedMethod, m -> new MethodStats());
+        RouteStats routeStats =
+                methodStats.routes.computeIfAbsent(
+                        route, r -> createRouteStats(normalizedMethod, r));
+
+        routeStats.count().increment();
+        routeStats.requests().increment();
+        routeStats.latency().record(durationNanos, TimeUnit.NANOSECONDS);
+        routeStats.payloadSize().record(payloadBytes);
+        routeStats.visitors().offer(visitorId);
+        if (routeStats.reported()) {
+            methodStats.requests.increment();
+            methodStats.visitors.offer(visitorId);
+        }
+    }
+
+    /** Number of requests for one route, or for all reported routes if none is given. */
+    public long getRequestCount(String method, Optional<String> endpoint) {
+        MethodStats methodStats = methods.get(normalizeMethod(method));
+        if (methodStats == null) {
+            return 0;
+        }
+        if (endpoint.isEmpty()) {
+            return methodStats.requests.sum();
+        }
+        RouteStats routeStats = methodStats.routes.get(endpoint.get());
+        return routeStats != null && routeStats.reported() ? countOf(routeStats) : 0;
+    }
+
+    /** Estimated unique visitors for one route, or across all reported routes if none is given. */
+    public long getUniqueVisitorCount(String method, Optional<String> endpoint) {
+        MethodStats methodStats = methods.get(normalizeMethod(method));
+        if (methodStats == null) {
+            return 0;
+        }
+        if (endpoint.isEmpty()) {
+            return methodStats.visitors.estimate();
+        }
+        RouteStats routeStats = methodStats.routes.get(endpoint.get());
+        return routeStats != null && routeStats.reported() ? routeStats.visitors().estimate() : 0;
+    }
+
+    /** Request counts of every reported route, highest first. */
+    public Map<String, Long> getRequestCounts(String method) {
+        return perRoute(method, RequestMetricsService::countOf);
+    }
+
+    /** Estimated unique visitors of every reported route, highest first. */
+    public Map<String, Long> getUniqueVisitorCounts(String method) {
+        return perRoute(method, routeStats -> routeStats.visitors().estimate());
+    }
+
+    private Map<String, Long> perRoute(String method, ToLongFunction<RouteStats> metric) {
+        MethodStats methodStats = methods.get(normalizeMethod(method));
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (methodStats == null) {
+            return counts;
+        }
+        methodStats.routes.entrySet().stream()
+                .filter(entry -> entry.getValue().reported())
+                .map(entry -> Map.entry(entry.getKey(), metric.applyAsLong(entry.getValue())))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+        return counts;
+    }
+
+    private RouteStats createRouteStats(String method, String route) {
+        return new RouteStats(
+                isReported(method, route),
+                new LongAdder(),
+                Counter.builder("http.requests")
+                        .tag("method", method)
+                        .tag("uri", route)
+                        .register(meterRegistry),
+                Timer.builder("http.requests.duration")
+                        .description("Time taken to serve requests")
+                        .tag("method", method)
+                        .tag("uri", route)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofMinutes(10))
+                        .register(meterRegistry),
+                DistributionSummary.builder("http.requests.payload")
+                        .description("Size of request bodies")
+                        .baseUnit(BaseUnits.BYTES)
+                        .tag("method", method)
+                        .tag("uri", route)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(1024.0)
+                        .maximumExpectedValue(2.0 * 1024 * 1024 * 1024)
+                        .register(meterRegistry),
+                new HyperLogLog(SKETCH_PRECISION));
+    }
+
+    /**
+     * Whether a route counts towards the reported usage: API calls for POST, known pages for GET.
+     * Decided once per route when it is first seen.
+     */
+    private boolean isReported(String method, String route) {
+        if (UNMATCHED_ROUTE.equals(route) || route.contains(".txt")) {
+            return false;
+        }
+        if ("POST".equals(method)) {
+            return route.contains("api/v1");
+        }
+        if ("GET".equals(method)
+                && !endpointInspector.getValidGetEndpoints().isEmpty()
+                && !endpointInspector.isValidGetEndpoint(route)) {
+            log.debug("Not reporting invalid GET endpoint: {}", route);
+            return false;
+        }
+        return true;
+    }
+
+    private static long countOf(RouteStats routeStats) {
+        return routeStats.count().sum();
+    }
+
+    // Clients can send arbitrary method names; collapse them so they cannot add meters
+    private static String normalizeMethod(String method) {
+        String upper = method == null ? "" : method.toUpperCase(Locale.ROOT);
+        return KNOWN_METHODS.contains(upper) ? upper : OTHER_METHOD;
+    }
+}
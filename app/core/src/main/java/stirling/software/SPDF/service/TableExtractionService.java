@@ -0,0 +1,130 @@
+package stirling.software.SPDF.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.util.ParallelPageWorkers;
+
+import technology.tabula.ObjectExtractor;
+import technology.tabula.Table;
+import technology.tabula.extractors.SpreadsheetExtractionAlgorithm;
+
+/**
+ * Extracts Tabula spreadsheet tables from many pages in parallel on {@link ParallelPageWorkers}.
+ * Each worker owns one copy of the document and one {@link ObjectExtractor} that it reuses for
+ * every page it handles. Results are handed to the caller in page order while later pages are still
+ * being extracted, with a bounded look-ahead so that memory stays flat for documents with thousands
+ * of pages.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class TableExtractionService {
+
+    static final int MAX_WORKERS = ParallelPageWorkers.MAX_WORKERS;
+    // Opening another copy of the document only pays off with this many pages per worker
+    static final int MIN_PAGES_PER_WORKER = 8;
+    private static final int LOOKAHEAD_PER_WORKER = 2;
+
+    private final CustomPDFDocumentFactory pdfDocumentFactory;
+
+    /** Receives the tables of one page. Called on the thread that invoked the extraction. */
+    @FunctionalInterface
+    public interface PageTablesConsumer {
+        void accept(int pageNumber, List<Table> tables) throws IOException;
+    }
+
+    /**
+     * Extracts the tables on the given pages and passes them to {@code consumer} in the order of
+     * {@code pageNumbers}.
+     *
+     * @param document an open copy of {@code source}; used by one worker and not touched by this
+     *     thread, it stays open when the method returns
+     * @param source the PDF file further workers open their own copies from
+     * @param pageNumbers 1-based page numbers
+     * @param consumer receives each page's tables as soon as it and all earlier pages are done
+     */
+    public void extractTables(
+            PDDocument document,
+            Path source,
+            List<Integer> pageNumbers,
+            PageTablesConsumer consumer)
+            throws IOException {
+        int pageCount = pageNumbers.size();
+        if (pageCount == 0) {
+            return;
+        }
+        int workers = workerCount(pageCount);
+
+        List<CompletableFuture<List<Table>>> results = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            results.add(new CompletableFuture<>());
+        }
+        AtomicInteger cursor = new AtomicInteger();
+        Semaphore window = new Semaphore(workers * LOOKAHEAD_PER_WORKER);
+
+        try (ParallelPageWorkers pageWorkers =
+                ParallelPageWorkers.open(pdfDocumentFactory, document, source, workers)) {
+            for (PDDocument workerDocument : pageWorkers.documents()) {
+                pageWorkers.submit(
+                        () -> {
+                            runWorker(workerDocument, pageNumbers, results, cursor, window);
+                            return null;
+                        });
+            }
+            log.debug("Extracting tables from {} pages with {} workers", pageCount, workers);
+
+            for (int i = 0; i < pageCount; i++) {
+                List<Table> tables = ParallelPageWorkers.await(results.get(i), "Table extraction");
+                window.release();
+                consumer.accept(pageNumbers.get(i), tables);
+            }
+        }
+    }
+
+    static int workerCount(int pageCount) {
+        return ParallelPageWorkers.workerCount(pageCount, MIN_PAGES_PER_WORKER);
+    }
+
+    private static void runWorker(
+            PDDocument document,
+            List<Integer> pageNumbers,
+            List<CompletableFuture<List<Table>>> results,
+            AtomicInteger cursor,
+            Semaphore window) {
+        // Not closed: ObjectExtractor.close() closes the underlying document
+        ObjectExtractor extractor = new ObjectExtractor(document);
+        SpreadsheetExtractionAlgorithm algorithm = new SpreadsheetExtractionAlgorithm();
+        while (true) {
+            try {
+                window.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            int index = cursor.getAndIncrement();
+            if (index >= pageNumbers.size()) {
+                window.release();
+                return;
+            }
+            CompletableFuture<List<Table>> result = results.get(index);
+            try {
+                result.complete(algorithm.extract(extractor.extract(pageNumbers.get(index))));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 import org.verapdf.core.EncryptedPdfException;
 import org.verapdf.core.ModelParsingException;
 import org.verapdf.core.ValidationException;
@@ -191,15 +192,35 @@ public class VeraPDFService {
 
     public List<PDFVerificationResult> validatePDF(InputStream pdfStream)
             throws IOException, ValidationException, ModelParsingException, EncryptedPdfException {
-
         byte[] pdfBytes = pdfStream.readAllBytes();
+        return validatePDF(() -> new ByteArrayInputStream(pdfBytes));
+    }
+
+    /**
+     * Validates an uploaded PDF. The upload is reopened for every parse instead of being held in
+     * memory, which avoids a heap copy when it is already spooled to disk.
+     */
+    public List<PDFVerificationResult> validatePDF(MultipartFile file)
+            throws IOException, ValidationException, ModelParsingException, EncryptedPdfException {
+        return validatePDF(file::getInputStream);
+    }
+
+    /** Opens a fresh stream over the PDF being validated; it is parsed several times. */
+    @FunctionalInterface
+    private interface PdfSource {
+        InputStream open() throws IOException;
+    }
+
+    private List<PDFVerificationResult> validatePDF(PdfSource source)
+            throws IOException, ValidationException, ModelParsingException, EncryptedPdfException {
+
         List<PDFVerificationResult> results = new ArrayList<>();
 
         PDFAFlavour declaredFlavour;
         List<PDFAFlavour> detectedFlavours;
 
-        try (PDFAParser detectionParser =
-                Foundries.defaultInstance().createParser(new ByteArrayInputStream(pdfBytes))) {
+        try (InputStream pdf = source.open();
+                PDFAParser detectionParser = Foundries.defaultInstance().createParser(pdf)) {
             declaredFlavour = detectionParser.getFlavour();
             detectedFlavours = detectionParser.getFlavours();
         }
@@ -210,9 +231,9 @@ public class VeraPDFService {
         // schema
         boolean hasValidPdfaMetadata = false;
         if (isPdfaFlavour(declaredFlavour)) {
-            try (PDFAParser quickParser =
-                    Foundries.defaultInstance()
-                            .createParser(new ByteArrayInputStream(pdfBytes), declaredFlavour)) {
+            try (InputStream pdf = source.open();
+                    PDFAParser quickParser =
+                            Foundries.defaultInstance().createParser(pdf, declaredFlavour)) {
                 PDFAValidator quickValidator =
                         Foundries.defaultInstance().createValidator(declaredFlavour, false);
                 ValidationResult quickResult = quickValidator.validate(quickParser);
@@ -295,9 +316,8 @@ public class VeraPDFService {
         }
 
         for (PDFAFlavour flavour : flavoursToValidate) {
-            try (PDFAParser parser =
-                    Foundries.defaultInstance()
-                            .createParser(new ByteArrayInputStream(pdfBytes), flavour)) {
+            try (InputStream pdf = source.open();
+                    PDFAParser parser = Foundries.defaultInstance().createParser(pdf, flavour)) {
 
                 PDFAFlavour parserDeclared = parser.getFlavour();
                 PDFAValidator validator =
@@ -9,13 +9,15 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
+import java.nio.file.StandardCopyOption;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.FilenameUtils;
@@ -37,11 +39,15 @@ import org.telegram.telegrambots.meta.api.objects.User;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 import lombok.extern.slf4j.Slf4j;
 
+import stirling.software.SPDF.controller.api.pipeline.PipelineDirectoryProcessor;
+import stirling.software.SPDF.model.PipelineCompletedEvent;
 import stirling.software.common.configuration.RuntimePathConfig;
 import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.util.ExecutorFactory;
 
 /**
  * Telegram bot that processes incoming files through a defined pipeline.
@@ -63,21 +69,25 @@ public class TelegramPipelineBot extends TelegramLongPollingBot {
 
     private static final Set<String> ALLOWED_MIME_TYPES = Set.of("application/pdf");
 
-    private final Object pipelinePollMonitor = new Object();
-
     private final ApplicationProperties.Telegram telegramProperties;
     private final RuntimePathConfig runtimePathConfig;
     private final TelegramBotsApi telegramBotsApi;
+    private final PipelineDirectoryProcessor pipelineDirectoryProcessor;
+    // Sends results back once their pipeline run completes
+    private final ExecutorService deliveryExecutor =
+            ExecutorFactory.newVirtualOrCachedThreadExecutor();
 
     public TelegramPipelineBot(
             ApplicationProperties applicationProperties,
             RuntimePathConfig runtimePathConfig,
-            TelegramBotsApi telegramBotsApi) {
+            TelegramBotsApi telegramBotsApi,
+            PipelineDirectoryProcessor pipelineDirectoryProcessor) {
 
         super(applicationProperties.getTelegram().getBotToken());
         this.telegramProperties = applicationProperties.getTelegram();
         this.runtimePathConfig = runtimePathConfig;
         this.telegramBotsApi = telegramBotsApi;
+        this.pipelineDirectoryProcessor = pipelineDirectoryProcessor;
     }
 
     @PostConstruct
@@ -94,6 +104,11 @@ public class TelegramPipelineBot extends TelegramLongPollingBot {
         }
     }
 
+    @PreDestroy
+    public void shutdownDelivery() {
+        deliveryExecutor.shutdownNow();
+    }
+
     @Override
     public void onUpdateReceived(Update update) {
         Message message = extractMessage(update);
@@ -309,24 +324,13 @@ public class TelegramPipelineBot extends TelegramLongPollingBot {
             }
 
             PipelineFileInfo info = downloadMessageFile(message);
-            List<Path> outputs = waitForPipelineOutputs(info);
-
-            if (outputs.isEmpty()) {
-                if (feedback(FeedbackEnum.ERROR_PROCESSING, chatType)) {
-                    sendMessage(
-                            chatId,
-                            "No results were found in the pipeline output folder. Check"
-                                    + " configuration.");
-                }
-                return;
-            }
-
-            for (Path file : outputs) {
-                SendDocument out = new SendDocument();
-                out.setChatId(chatId);
-                out.setDocument(new InputFile(file.toFile(), file.getFileName().toString()));
-                execute(out);
-            }
+            // Hand the file straight to the pipeline; results are sent when the run completes
+            pipelineDirectoryProcessor
+                    .submitFile(info.originalFile())
+                    .orTimeout(telegramProperties.getProcessingTimeoutSeconds(), TimeUnit.SECONDS)
+                    .whenCompleteAsync(
+                            (event, error) -> deliverResults(chatId, chatType, info, event, error),
+                            deliveryExecutor);
 
         } catch (TelegramApiException e) {
             log.error("Telegram API error", e);
@@ -377,13 +381,20 @@ public class TelegramPipelineBot extends TelegramLongPollingBot {
         String outFile = ext.isBlank() ? base : base + "." + ext;
 
         Path targetFile = inboxFolder.resolve(outFile);
+        // Stream into the unwatched processing folder first so the inbox never exposes an
+        // incomplete upload, then move it in
+        Path stagingFolder = Files.createDirectories(inboxFolder.resolve("processing"));
+        Path partialFile = stagingFolder.resolve(outFile + ".part");
 
         try (InputStream in = url.openStream()) {
-            Files.copy(in, targetFile);
+            Files.copy(in, partialFile);
+            Files.move(partialFile, targetFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partialFile);
         }
 
         log.info("Saved Telegram file {} to {}", originalName, targetFile);
-        return new PipelineFileInfo(targetFile, base, Instant.now());
+        return new PipelineFileInfo(targetFile, base);
     }
 
     private URL buildDownloadUrl(String filePath) throws MalformedURLException {
@@ -440,59 +451,78 @@ public class TelegramPipelineBot extends TelegramLongPollingBot {
     }
 
     // ---------------------------
-    // Pipeline polling
+    // Pipeline results
     // ---------------------------
 
-    private List<Path> waitForPipelineOutputs(PipelineFileInfo info) throws IOException {
-
-        Path finishedDir = Paths.get(runtimePathConfig.getPipelineFinishedFoldersPath());
-        Files.createDirectories(finishedDir);
-
-        Instant start = info.savedAt();
-        Duration timeout = Duration.ofSeconds(telegramProperties.getProcessingTimeoutSeconds());
-        Duration poll = Duration.ofMillis(telegramProperties.getPollingIntervalMillis());
-        List<Path> results = new ArrayList<>();
-
-        while (Duration.between(start, Instant.now()).compareTo(timeout) <= 0) {
-            try (Stream<Path> s = Files.list(finishedDir)) {
-                results =
-                        s.filter(Files::isRegularFile)
-                                .filter(path -> matchesBaseName(info.uniqueBaseName(), path))
-                                .filter(path -> isNewerThan(path, start))
-                                .sorted(Comparator.comparing(Path::toString))
-                                .toList();
+    private void deliverResults(
+            Long chatId,
+            String chatType,
+            PipelineFileInfo info,
+            PipelineCompletedEvent event,
+            Throwable error) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            log.warn("Pipeline did not finish {} in time", info.originalFile());
+            if (feedback(FeedbackEnum.ERROR_PROCESSING, chatType)) {
+                sendMessage(chatId, "Processing timed out. Please try again later.");
+            }
+            return;
+        }
+        if (cause != null) {
+            log.error("Pipeline failed for {}", info.originalFile(), cause);
+            if (feedback(FeedbackEnum.ERROR_MESSAGE, chatType)) {
+                sendMessage(chatId, "Unexpected error occurred.");
             }
+            return;
+        }
 
-            if (!results.isEmpty()) {
-                break;
+        List<Path> outputs = outputsFor(info, event);
+        if (outputs.isEmpty()) {
+            if (feedback(FeedbackEnum.ERROR_PROCESSING, chatType)) {
+                sendMessage(
+                        chatId,
+                        "No results were found in the pipeline output folder. Check"
+                                + " configuration.");
             }
+            return;
+        }
 
-            synchronized (pipelinePollMonitor) {
-                try {
-                    pipelinePollMonitor.wait(poll.toMillis());
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                }
+        try {
+            for (Path file : outputs) {
+                SendDocument out = new SendDocument();
+                out.setChatId(chatId);
+                out.setDocument(new InputFile(file.toFile(), file.getFileName().toString()));
+                execute(out);
+            }
+        } catch (TelegramApiException e) {
+            log.error("Telegram API error", e);
+            if (feedback(FeedbackEnum.ERROR_MESSAGE, chatType)) {
+                sendMessage(chatId, "Telegram API error occurred.");
             }
         }
+    }
 
-        return results;
+    /**
+     * Picks this upload's results from a run that may have processed other uploads from the same
+     * folder alongside it.
+     */
+    private List<Path> outputsFor(PipelineFileInfo info, PipelineCompletedEvent event) {
+        if (!event.success()) {
+            return List.of();
+        }
+        if (event.inputFiles().size() == 1) {
+            return event.outputFiles();
+        }
+        return event.outputFiles().stream()
+                .filter(path -> matchesBaseName(info.uniqueBaseName(), path))
+                .sorted(Comparator.comparing(Path::toString))
+                .toList();
     }
 
     private boolean matchesBaseName(String base, Path file) {
         return file.getFileName().toString().contains(base);
     }
 
-    private boolean isNewerThan(Path path, Instant since) {
-        try {
-            return Files.getLastModifiedTime(path).toInstant().isAfter(since);
-        } catch (IOException e) {
-            log.info("Could not read modification time for {}", path);
-            return false;
-        }
-    }
-
     // ---------------------------
     // Messaging
     // ---------------------------
@@ -510,7 +540,7 @@ public class TelegramPipelineBot extends TelegramLongPollingBot {
         }
     }
 
-    private record PipelineFileInfo(Path originalFile, String uniqueBaseName, Instant savedAt) {}
+    private record PipelineFileInfo(Path originalFile, String uniqueBaseName) {}
 
     @Override
     public String getBotUsername() {
@@ -0,0 +1,164 @@
+package stirling.software.common.controller;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.service.ChunkedUploadService;
+
+/**
+ * REST controller for chunked, resumable uploads. Large files are sent as raw chunks rather than
+ * one multipart request, so nothing is buffered by the servlet and a failed chunk is simply sent
+ * again. The finished file's ID can be passed as {@code fileId} to any processing endpoint.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/api/v1/general")
+@Tag(name = "Job Management", description = "Job Management API")
+public class ChunkedUploadController {
+
+    static final String CHECKSUM_HEADER = "X-Chunk-Checksum";
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final HttpServletRequest request;
+
+    /**
+     * Start a chunked upload
+     *
+     * @param totalSize The size of the file in bytes
+     * @param chunkSize The chunk size in bytes, or none for the default of 8 MB
+     * @param checksumAlgorithm The algorithm of the chunk checksums (default SHA-256)
+     * @return The upload session, including the chunk size to use
+     */
+    @PostMapping("/uploads")
+    @Operation(
+            summary = "Start a chunked upload",
+            description =
+                    "Reserves space for a file of totalSize bytes. Send its chunks with PUT"
+                            + " /uploads/{uploadId}/chunks/{index}, then finish with POST"
+                            + " /uploads/{uploadId}/complete.")
+    public ResponseEntity<?> createUpload(
+            @RequestParam("totalSize") long totalSize,
+            @RequestParam(value = "chunkSize", required = false) Integer chunkSize,
+            @RequestParam(value = "checksumAlgorithm", required = false) String checksumAlgorithm)
+            throws IOException {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(chunkedUploadService.createSession(totalSize, chunkSize, checksumAlgorithm));
+    }
+
+    /**
+     * Get the state of a chunked upload, to resume it after an interruption
+     *
+     * @param uploadId The upload ID
+     * @return The upload session, including the chunks still missing
+     */
+    @GetMapping("/uploads/{uploadId}")
+    @Operation(summary = "Get chunked upload status")
+    public ResponseEntity<?> getUpload(@PathVariable("uploadId") String uploadId) {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.getStatus(uploadId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Upload one chunk as the raw request body
+     *
+     * @param uploadId The upload ID
+     * @param index The zero-based chunk number
+     * @param checksum The hex checksum of the chunk
+     * @return The upload session after the chunk
+     */
+    @PutMapping(
+            value = "/uploads/{uploadId}/chunks/{index}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(
+            summary = "Upload a chunk",
+            description =
+                    "The body is the raw chunk; the X-Chunk-Checksum header carries its checksum."
+                            + " Chunks may be sent in any order and in parallel. A chunk whose"
+                            + " checksum does not match is rejected and must be sent again.")
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable("uploadId") String uploadId,
+            @PathVariable("index") int index,
+            @RequestHeader(CHECKSUM_HEADER) String checksum)
+            throws IOException {
+        try {
+            return ResponseEntity.ok(
+                    chunkedUploadService.writeChunk(
+                            uploadId, index, request.getInputStream(), checksum));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Finish a chunked upload
+     *
+     * @param uploadId The upload ID
+     * @param checksum Optional checksum of the whole file
+     * @return The file ID of the uploaded file
+     */
+    @PostMapping("/uploads/{uploadId}/complete")
+    @Operation(summary = "Complete a chunked upload")
+    public ResponseEntity<?> completeUpload(
+            @PathVariable("uploadId") String uploadId,
+            @RequestParam(value = "checksum", required = false) String checksum)
+            throws IOException {
+        try {
+            return ResponseEntity.ok(chunkedUploadService.complete(uploadId, checksum));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Abandon a chunked upload
+     *
+     * @param uploadId The upload ID
+     * @return Response indicating whether the upload was removed
+     */
+    @DeleteMapping("/uploads/{uploadId}")
+    @Operation(summary = "Cancel a chunked upload")
+    public ResponseEntity<?> abortUpload(@PathVariable("uploadId") String uploadId) {
+        try {
+            if (!chunkedUploadService.abort(uploadId)) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", e.getMessage()));
+        }
+        log.debug("Upload {} cancelled by client", uploadId);
+        return ResponseEntity.ok(Map.of("message", "Upload cancelled"));
+    }
+}
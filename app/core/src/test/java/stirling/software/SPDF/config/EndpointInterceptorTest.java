@@ -0,0 +1,74 @@
+package stirling.software.SPDF.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import stirling.software.common.model.ApplicationProperties;
+
+class EndpointInterceptorTest {
+
+    private EndpointConfiguration endpointConfiguration;
+    private EndpointInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        endpointConfiguration = new EndpointConfiguration(new ApplicationProperties(), true);
+        interceptor = new EndpointInterceptor(endpointConfiguration);
+    }
+
+    @Test
+    void toEndpointNameHandlesConvertAndPlainPaths() {
+        assertEquals(
+                "remove-pages", EndpointInterceptor.toEndpointName("/api/v1/general/remove-pages"));
+        assertEquals("pdf-to-img", EndpointInterceptor.toEndpointName("/api/v1/convert/pdf/img"));
+        assertEquals("/login", EndpointInterceptor.toEndpointName("/login"));
+    }
+
+    @Test
+    void rejectsDisabledEndpointResolvedFromMappingPattern() throws Exception {
+        endpointConfiguration.disableEndpoint("remove-pages");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("/api/v1/general/remove-pages"), response, null));
+        assertEquals(403, response.getStatus());
+    }
+
+    @Test
+    void reflectsConfigurationChangesAfterFirstLookup() throws Exception {
+        assertTrue(
+                interceptor.preHandle(
+                        request("/api/v1/convert/pdf/img"), new MockHttpServletResponse(), null));
+
+        endpointConfiguration.disableGroup("Convert");
+        assertFalse(
+                interceptor.preHandle(
+                        request("/api/v1/convert/pdf/img"), new MockHttpServletResponse(), null));
+
+        endpointConfiguration.enableGroup("Convert");
+        assertTrue(
+                interceptor.preHandle(
+                        request("/api/v1/convert/pdf/img"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void toolGroupAlternativesKeepEndpointEnabled() {
+        endpointConfiguration.disableGroup("qpdf");
+        assertTrue(endpointConfiguration.isEndpointEnabled("compress-pdf"));
+
+        endpointConfiguration.disableGroup("Ghostscript");
+        endpointConfiguration.disableGroup("Java");
+        assertFalse(endpointConfiguration.isEndpointEnabled("compress-pdf"));
+        assertFalse(endpointConfiguration.isEndpointEnabled("/compress-pdf"));
+    }
+
+    private MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, uri);
+        return request;
+    }
+}
@@ -0,0 +1,97 @@
+package stirling.software.SPDF.controller.api;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.Optional;
+
+import org.apache.pdfbox.rendering.ImageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import stirling.software.SPDF.service.PageRenderCacheService;
+import stirling.software.SPDF.service.PageRenderCacheService.PageKey;
+
+class PageRenderControllerTest {
+
+    private static final String DOCUMENT_ID = "a".repeat(64);
+    private static final byte[] PNG = "0123456789abcdef".getBytes();
+
+    private PageRenderCacheService service;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = mock(PageRenderCacheService.class);
+        when(service.pageCount(DOCUMENT_ID)).thenReturn(Optional.of(3));
+        mvc = MockMvcBuilders.standaloneSetup(new PageRenderController(service)).build();
+    }
+
+    @Test
+    void getPage_returnsCacheableImage() throws Exception {
+        PageKey key = new PageKey(DOCUMENT_ID, 1, 72, ImageType.GRAY);
+        when(service.getPage(key)).thenReturn(Optional.of(PNG));
+
+        mvc.perform(
+                        get("/api/v1/page-renders/{id}/pages/2", DOCUMENT_ID)
+                                .param("dpi", "72")
+                                .param("colorType", "greyscale"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string(HttpHeaders.ETAG, key.etag()))
+                .andExpect(
+                        header().string(
+                                        HttpHeaders.CACHE_CONTROL,
+                                        "max-age=31536000, private, immutable"))
+                .andExpect(content().bytes(PNG));
+    }
+
+    @Test
+    void getPage_matchingEtagSkipsRendering() throws Exception {
+        PageKey key = new PageKey(DOCUMENT_ID, 0, 96, ImageType.RGB);
+
+        mvc.perform(
+                        get("/api/v1/page-renders/{id}/pages/1", DOCUMENT_ID)
+                                .header(HttpHeaders.IF_NONE_MATCH, key.etag()))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).getPage(any());
+    }
+
+    @Test
+    void getPage_evictedDocumentIsNotFoundEvenWithMatchingEtag() throws Exception {
+        PageKey key = new PageKey(DOCUMENT_ID, 0, 96, ImageType.RGB);
+        when(service.pageCount(DOCUMENT_ID)).thenReturn(Optional.empty());
+
+        mvc.perform(
+                        get("/api/v1/page-renders/{id}/pages/1", DOCUMENT_ID)
+                                .header(HttpHeaders.IF_NONE_MATCH, key.etag()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getPage_servesByteRanges() throws Exception {
+        when(service.getPage(any())).thenReturn(Optional.of(PNG));
+
+        mvc.perform(
+                        get("/api/v1/page-renders/{id}/pages/1", DOCUMENT_ID)
+                                .header(HttpHeaders.RANGE, "bytes=4-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 4-7/16"))
+                .andExpect(content().string("4567"));
+    }
+
+    @Test
+    void getPage_unknownDocumentIsNotFound() throws Exception {
+        when(service.getPage(any())).thenReturn(Optional.empty());
+
+        mvc.perform(get("/api/v1/page-renders/{id}/pages/1", DOCUMENT_ID))
+                .andExpect(status().isNotFound());
+    }
+}
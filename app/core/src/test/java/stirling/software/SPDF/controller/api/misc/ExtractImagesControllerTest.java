@@ -0,0 +1,279 @@
+package stirling.software.SPDF.controller.api.misc;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.color.PDDeviceRGB;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import stirling.software.SPDF.model.api.PDFExtractImagesRequest;
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.PdfMetadataService;
+import stirling.software.common.util.TempFileManager;
+import stirling.software.common.util.TempFileRegistry;
+
+class ExtractImagesControllerTest {
+
+    @TempDir Path tempDir;
+
+    private ExtractImagesController controller;
+    private byte[] jpeg;
+    private BufferedImage photo;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        PdfMetadataService meta =
+                new PdfMetadataService(new ApplicationProperties(), "label", false, null);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSystem().getTempFileManagement().setBaseTmpDir(tempDir.toString());
+        controller =
+                new ExtractImagesController(
+                        new CustomPDFDocumentFactory(meta),
+                        new TempFileManager(new TempFileRegistry(), properties));
+
+        photo = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = photo.createGraphics();
+        g.setColor(Color.BLUE);
+        g.fillRect(0, 0, 40, 30);
+        g.setColor(Color.YELLOW);
+        g.fillRect(10, 5, 15, 10);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(photo, "jpg", out);
+        jpeg = out.toByteArray();
+    }
+
+    @AfterEach
+    void tearDown() {
+        controller.shutdown();
+    }
+
+    @Test
+    void extractImages_writesJpegDataUnchangedAndSkipsDuplicates() throws Exception {
+        Map<String, byte[]> entries = extract(samplePdf(), "jpeg", false);
+
+        assertEquals(3, entries.size());
+        assertArrayEquals(jpeg, entries.get("sample_page_1_1.jpeg"));
+        // The Flate images are decoded and written as JPEGs
+        for (String name : new String[] {"sample_page_1_2.jpeg", "sample_page_1_3.jpeg"}) {
+            BufferedImage converted = ImageIO.read(new ByteArrayInputStream(entries.get(name)));
+            assertEquals(40, converted.getWidth());
+        }
+    }
+
+    @Test
+    void extractImages_wrapsPredictorFlateDataAsPng() throws Exception {
+        Map<String, byte[]> entries = extract(samplePdf(), "png", false);
+
+        assertEquals(3, entries.size());
+        for (String name : new String[] {"sample_page_1_2.png", "sample_page_1_3.png"}) {
+            BufferedImage lossless = ImageIO.read(new ByteArrayInputStream(entries.get(name)));
+            assertEquals(40, lossless.getWidth());
+            assertEquals(30, lossless.getHeight());
+            assertEquals(photo.getRGB(12, 7), lossless.getRGB(12, 7));
+            assertEquals(photo.getRGB(0, 0), lossless.getRGB(0, 0));
+        }
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(entries.get("sample_page_1_1.png"))));
+    }
+
+    @Test
+    void encodedAs_usesRawDataOnlyWhenFormatMatches() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDImageXObject dct = JPEGFactory.createFromByteArray(document, jpeg);
+            PDImageXObject plainFlate = LosslessFactory.createFromImage(document, photo);
+            PDImageXObject flate = predictorImage(document, photo);
+            byte[] flateRaw = rawData(flate);
+
+            assertSame(jpeg, ExtractImagesController.encodedAs(dct, jpeg, "jpeg"));
+            assertNull(ExtractImagesController.encodedAs(dct, jpeg, "png"));
+            assertNull(ExtractImagesController.encodedAs(flate, flateRaw, "jpeg"));
+            // Rows without predictor tags are no PNG data
+            assertNull(ExtractImagesController.encodedAs(plainFlate, rawData(plainFlate), "png"));
+            byte[] png = ExtractImagesController.encodedAs(flate, flateRaw, "png");
+            assertNotNull(png);
+            assertEquals(
+                    photo.getRGB(12, 7), ImageIO.read(new ByteArrayInputStream(png)).getRGB(12, 7));
+        }
+    }
+
+    @Test
+    void extractImages_decodesSoftMaskedImagesToKeepTheirTransparency() throws Exception {
+        BufferedImage alpha = new BufferedImage(40, 30, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = alpha.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 20, 30); // left half opaque, right half transparent
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            PDImageXObject masked = predictorImage(document, photo);
+            masked.getCOSObject()
+                    .setItem(
+                            COSName.SMASK,
+                            LosslessFactory.createFromImage(document, alpha).getCOSObject());
+            assertNull(ExtractImagesController.encodedAs(masked, rawData(masked), "png"));
+            addPage(document, masked);
+            document.save(out);
+        }
+
+        Map<String, byte[]> entries = extract(out.toByteArray(), "png", false);
+
+        BufferedImage extracted =
+                ImageIO.read(new ByteArrayInputStream(entries.get("sample_page_1_1.png")));
+        assertEquals(photo.getRGB(12, 7), extracted.getRGB(12, 7));
+        assertEquals(0, extracted.getRGB(30, 20) >>> 24);
+    }
+
+    @Test
+    void extractImages_keepsDuplicatesWhenAllowed() throws Exception {
+        Map<String, byte[]> entries = extract(samplePdf(), "jpeg", true);
+
+        assertEquals(5, entries.size());
+        assertArrayEquals(jpeg, entries.get("sample_page_2_1.jpeg"));
+        assertArrayEquals(jpeg, entries.get("sample_page_2_2.jpeg"));
+    }
+
+    @Test
+    void extractImages_handlesManyPagesOnTheSharedExecutor() throws Exception {
+        int pages = ExtractImagesController.MAX_WORKERS * 3;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 0; i < pages; i++) {
+                BufferedImage image = new BufferedImage(10 + i, 10, BufferedImage.TYPE_INT_RGB);
+                addPage(document, LosslessFactory.createFromImage(document, image));
+            }
+            document.save(out);
+        }
+
+        Map<String, byte[]> entries = extract(out.toByteArray(), "gif", false);
+
+        assertEquals(pages, entries.size());
+        for (int i = 0; i < pages; i++) {
+            BufferedImage image =
+                    ImageIO.read(
+                            new ByteArrayInputStream(
+                                    entries.get("sample_page_" + (i + 1) + "_1.gif")));
+            assertEquals(10 + i, image.getWidth());
+        }
+    }
+
+    /**
+     * Page 1 holds a JPEG and two Flate images, without and with PNG predictors; page 2 draws the
+     * same JPEG object again and a second object with the same JPEG data.
+     */
+    private byte[] samplePdf() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            PDImageXObject shared = JPEGFactory.createFromByteArray(document, jpeg);
+            addPage(
+                    document,
+                    shared,
+                    LosslessFactory.createFromImage(document, photo),
+                    predictorImage(document, photo));
+            addPage(document, shared, JPEGFactory.createFromByteArray(document, jpeg));
+            document.save(out);
+        }
+        return out.toByteArray();
+    }
+
+    /** Flate data with a PNG predictor tag on every row, as many PDF producers write it. */
+    private static PDImageXObject predictorImage(PDDocument document, BufferedImage image)
+            throws IOException {
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(deflated)) {
+            for (int y = 0; y < image.getHeight(); y++) {
+                out.write(0); // PNG filter type None
+                for (int x = 0; x < image.getWidth(); x++) {
+                    int rgb = image.getRGB(x, y);
+                    out.write(rgb >> 16);
+                    out.write(rgb >> 8);
+                    out.write(rgb);
+                }
+            }
+        }
+        PDImageXObject flate =
+                new PDImageXObject(
+                        document,
+                        new ByteArrayInputStream(deflated.toByteArray()),
+                        COSName.FLATE_DECODE,
+                        image.getWidth(),
+                        image.getHeight(),
+                        8,
+                        PDDeviceRGB.INSTANCE);
+        COSDictionary decodeParms = new COSDictionary();
+        decodeParms.setInt(COSName.PREDICTOR, 15);
+        decodeParms.setInt(COSName.COLORS, 3);
+        decodeParms.setInt(COSName.COLUMNS, image.getWidth());
+        flate.getCOSObject().setItem(COSName.DECODE_PARMS, decodeParms);
+        return flate;
+    }
+
+    private static byte[] rawData(PDImageXObject image) throws IOException {
+        try (InputStream in = image.getCOSObject().createRawInputStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void addPage(PDDocument document, PDImageXObject... images) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            float x = 0;
+            for (PDImageXObject image : images) {
+                content.drawImage(image, x, 0);
+                x += image.getWidth();
+            }
+        }
+    }
+
+    private Map<String, byte[]> extract(byte[] pdf, String format, boolean allowDuplicates)
+            throws Exception {
+        PDFExtractImagesRequest request = new PDFExtractImagesRequest();
+        request.setFileInput(
+                new MockMultipartFile("fileInput", "sample.pdf", "application/pdf", pdf));
+        request.setFormat(format);
+        request.setAllowDuplicates(allowDuplicates);
+
+        ResponseEntity<?> response = controller.extractImages(request);
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(zip);
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                entries.put(entry.getName(), zis.readAllBytes());
+            }
+        }
+        return entries;
+    }
+}
@@ -20,14 +20,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import stirling.software.SPDF.service.FontRegistry;
 import stirling.software.common.service.CustomPDFDocumentFactory;
-import stirling.software.common.util.TempFileManager;
 
 @ExtendWith(MockitoExtension.class)
 class StampControllerTest {
 
     @Mock private CustomPDFDocumentFactory pdfDocumentFactory;
-    @Mock private TempFileManager tempFileManager;
+    @Mock private FontRegistry fontRegistry;
 
     @InjectMocks private StampController stampController;
 
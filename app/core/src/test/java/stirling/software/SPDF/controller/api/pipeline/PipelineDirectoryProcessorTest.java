@@ -0,0 +1,130 @@
+package stirling.software.SPDF.controller.api.pipeline;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import stirling.software.SPDF.model.PipelineCompletedEvent;
+import stirling.software.SPDF.model.PipelineResult;
+import stirling.software.SPDF.service.ApiDocService;
+import stirling.software.common.configuration.RuntimePathConfig;
+import stirling.software.common.service.PostHogService;
+import stirling.software.common.util.FileMonitor;
+
+@ExtendWith(MockitoExtension.class)
+class PipelineDirectoryProcessorTest {
+
+    @TempDir Path tempDir;
+
+    @Mock private ApiDocService apiDocService;
+    @Mock private PipelineProcessor pipelineProcessor;
+    @Mock private FileMonitor fileMonitor;
+    @Mock private PostHogService postHogService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private RuntimePathConfig runtimePathConfig;
+
+    private PipelineDirectoryProcessor directoryProcessor;
+
+    @BeforeEach
+    void setUp() {
+        when(runtimePathConfig.getPipelineWatchedFoldersPaths())
+                .thenReturn(List.of(tempDir.toString()));
+        when(runtimePathConfig.getPipelineFinishedFoldersPath())
+                .thenReturn(tempDir.resolve("finished").toString());
+        directoryProcessor =
+                new PipelineDirectoryProcessor(
+                        new ObjectMapper(),
+                        apiDocService,
+                        pipelineProcessor,
+                        fileMonitor,
+                        postHogService,
+                        eventPublisher,
+                        runtimePathConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        directoryProcessor.shutdown();
+    }
+
+    @Test
+    void submitFileCompletesWithOutputsWithoutWaitingForSettle() throws Exception {
+        Path folder = Files.createDirectory(tempDir.resolve("inbox"));
+        Files.writeString(
+                folder.resolve("config.json"),
+                """
+                {"name":"test","pipeline":[{"operation":"/api/v1/misc/compress-pdf",
+                "parameters":{}}],"outputDir":"%s","outputFileName":"{filename}-done"}
+                """
+                        .formatted(tempDir.resolve("finished").toString().replace("\\", "/")),
+                StandardCharsets.UTF_8);
+        Path input = folder.resolve("upload.pdf");
+        Files.writeString(input, "pdf", StandardCharsets.UTF_8);
+
+        when(apiDocService.isValidOperation(anyString(), anyMap())).thenReturn(true);
+        when(apiDocService.getExtensionTypes(eq(false), anyString())).thenReturn(List.of("pdf"));
+        when(pipelineProcessor.generateInputFiles(any(File[].class)))
+                .thenReturn(List.of(namedResource("upload.pdf")));
+        PipelineResult result = new PipelineResult();
+        result.setOutputFiles(List.of(namedResource("upload.pdf")));
+        when(pipelineProcessor.runPipelineAgainstFiles(any(), any())).thenReturn(result);
+
+        PipelineCompletedEvent event =
+                directoryProcessor.submitFile(input).get(10, TimeUnit.SECONDS);
+
+        assertTrue(event.success());
+        assertEquals(List.of(input.toAbsolutePath()), event.inputFiles());
+        assertEquals(1, event.outputFiles().size());
+        assertTrue(Files.exists(event.outputFiles().get(0)));
+        assertEquals("upload-done.pdf", event.outputFiles().get(0).getFileName().toString());
+        assertFalse(Files.exists(input));
+        verify(eventPublisher).publishEvent(event);
+    }
+
+    @Test
+    void submitFileCompletesUnsuccessfullyWhenFolderHasNoPipeline() throws Exception {
+        Path folder = Files.createDirectory(tempDir.resolve("no-config"));
+        Path input = folder.resolve("upload.pdf");
+        Files.writeString(input, "pdf", StandardCharsets.UTF_8);
+
+        PipelineCompletedEvent event =
+                directoryProcessor.submitFile(input).get(10, TimeUnit.SECONDS);
+
+        assertFalse(event.success());
+        assertTrue(event.outputFiles().isEmpty());
+        assertTrue(Files.exists(input));
+    }
+
+    private static Resource namedResource(String filename) {
+        return new ByteArrayResource("pdf".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+}
@@ -10,6 +10,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -32,6 +33,7 @@ import stirling.software.SPDF.model.PipelineConfig;
 import stirling.software.SPDF.model.PipelineOperation;
 import stirling.software.SPDF.model.PipelineResult;
 import stirling.software.SPDF.service.ApiDocService;
+import stirling.software.common.model.ApiOperation;
 import stirling.software.common.service.UserServiceInterface;
 import stirling.software.common.util.TempFileManager;
 
@@ -68,11 +70,12 @@ class PipelineProcessorTest {
 
         List<Resource> files = List.of(file);
 
-        when(apiDocService.isMultiInput("/api/v1/filter/filter-page-count")).thenReturn(false);
-        when(apiDocService.getExtensionTypes(false, "/api/v1/filter/filter-page-count"))
-                .thenReturn(List.of("pdf"));
-        when(apiDocService.isValidOperation(eq("/api/v1/filter/filter-page-count"), anyMap()))
-                .thenReturn(true);
+        ApiOperation pageCount =
+                ApiOperation.builder().path("/api/v1/filter/filter-page-count").build();
+        when(apiDocService.getOperation("/api/v1/filter/filter-page-count"))
+                .thenReturn(Optional.of(pageCount));
+        when(apiDocService.getExtensionTypes(false, pageCount)).thenReturn(List.of("pdf"));
+        when(apiDocService.isValidOperation(eq(pageCount), anyMap())).thenReturn(true);
 
         // Use a FileSystemResource backed by a temp file to avoid FileNotFoundException
         Path emptyTemp = Files.createTempFile("empty", ".tmp");
@@ -114,9 +117,10 @@ class PipelineProcessorTest {
                     }
                 };
 
-        when(apiDocService.isMultiInput(anyString())).thenReturn(false);
-        when(apiDocService.getExtensionTypes(anyBoolean(), anyString())).thenReturn(List.of("pdf"));
-        when(apiDocService.isValidOperation(anyString(), anyMap())).thenReturn(true);
+        ApiOperation compress = ApiOperation.builder().path("/api/v1/misc/compress").build();
+        when(apiDocService.getOperation("/api/v1/misc/compress")).thenReturn(Optional.of(compress));
+        when(apiDocService.getExtensionTypes(false, compress)).thenReturn(List.of("pdf"));
+        when(apiDocService.isValidOperation(eq(compress), anyMap())).thenReturn(true);
 
         doReturn(new ResponseEntity<>(outputResource, HttpStatus.OK))
                 .when(pipelineProcessor)
@@ -30,7 +30,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentMatchers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -43,9 +42,10 @@ import org.springframework.web.multipart.MultipartFile;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import stirling.software.SPDF.model.api.security.PDFInfoRequest;
 import stirling.software.SPDF.model.api.security.PDFVerificationResult;
+import stirling.software.SPDF.service.PdfInspectionService;
 import stirling.software.SPDF.service.VeraPDFService;
-import stirling.software.common.model.api.PDFFile;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 
 @DisplayName("GetInfoOnPDF Controller Tests")
@@ -55,7 +55,7 @@ class GetInfoOnPDFTest {
     @Mock private CustomPDFDocumentFactory pdfDocumentFactory;
     @Mock private VeraPDFService veraPDFService;
 
-    @InjectMocks private GetInfoOnPDF getInfoOnPDF;
+    private GetInfoOnPDF getInfoOnPDF;
 
     private ObjectMapper objectMapper;
 
@@ -65,6 +65,11 @@ class GetInfoOnPDFTest {
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
+        getInfoOnPDF =
+                new GetInfoOnPDF(
+                        pdfDocumentFactory,
+                        veraPDFService,
+                        new PdfInspectionService(pdfDocumentFactory));
     }
 
     /** Helper method to load a PDF file from test resources */
@@ -189,7 +194,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createPdfWithMetadata();
             MockMultipartFile mockFile = documentToMultipartFile(document, "test.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             try (PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes())) {
@@ -227,7 +232,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createSimplePdfWithText("Test content with some words");
             MockMultipartFile mockFile = documentToMultipartFile(document, "basic.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             try (PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes())) {
@@ -262,7 +267,7 @@ class GetInfoOnPDFTest {
             document.addPage(new PDPage(PDRectangle.LETTER));
 
             MockMultipartFile mockFile = documentToMultipartFile(document, "multipage.pdf");
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             try (PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes())) {
@@ -299,7 +304,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createPdfWithMetadata();
             MockMultipartFile mockFile = documentToMultipartFile(document, "metadata.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -333,7 +338,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createSimplePdfWithText("No metadata");
             MockMultipartFile mockFile = documentToMultipartFile(document, "no-metadata.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -368,7 +373,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createSimplePdfWithText("Not encrypted");
             MockMultipartFile mockFile = documentToMultipartFile(document, "unencrypted.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -395,7 +400,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createSimplePdfWithText("Test permissions");
             MockMultipartFile mockFile = documentToMultipartFile(document, "permissions.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -431,7 +436,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createSimplePdfWithText("Document to test form fields section");
             MockMultipartFile mockFile = documentToMultipartFile(document, "test-forms.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -459,7 +464,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createSimplePdfWithText("No form fields");
             MockMultipartFile mockFile = documentToMultipartFile(document, "no-forms.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -493,7 +498,7 @@ class GetInfoOnPDFTest {
             document.addPage(new PDPage(PDRectangle.LETTER));
 
             MockMultipartFile mockFile = documentToMultipartFile(document, "dimensions.pdf");
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -529,7 +534,7 @@ class GetInfoOnPDFTest {
             document.addPage(page);
 
             MockMultipartFile mockFile = documentToMultipartFile(document, "rotated.pdf");
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -549,6 +554,68 @@ class GetInfoOnPDFTest {
 
             loadedDoc.close();
         }
+
+        @Test
+        @DisplayName("Should count text characters per page")
+        void testPerPageInfo_TextCharactersCount() throws IOException {
+            PDDocument document = createSimplePdfWithText("Hello");
+            document.addPage(new PDPage(PDRectangle.A4));
+
+            MockMultipartFile mockFile = documentToMultipartFile(document, "text.pdf");
+            PDFInfoRequest request = new PDFInfoRequest();
+            request.setFileInput(mockFile);
+
+            PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
+            Mockito.when(
+                            pdfDocumentFactory.load(
+                                    ArgumentMatchers.any(MultipartFile.class),
+                                    ArgumentMatchers.anyBoolean()))
+                    .thenReturn(loadedDoc);
+
+            ResponseEntity<byte[]> response = getInfoOnPDF.getPdfInfo(request);
+
+            String jsonResponse = new String(response.getBody(), StandardCharsets.UTF_8);
+            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
+            JsonNode perPageInfo = jsonNode.get("PerPageInfo");
+
+            int page1Chars = perPageInfo.get("Page 1").get("Text Characters Count").asInt();
+            Assertions.assertTrue(page1Chars >= "Hello".length());
+            Assertions.assertEquals(
+                    0, perPageInfo.get("Page 2").get("Text Characters Count").asInt());
+            Assertions.assertEquals(
+                    page1Chars, jsonNode.get("BasicInfo").get("CharacterCount").asInt());
+
+            loadedDoc.close();
+        }
+
+        @Test
+        @DisplayName("Should skip per-page details when they are not requested")
+        void testPerPageInfo_Omitted() throws IOException {
+            PDDocument document = createSimplePdfWithText("Summary only");
+
+            MockMultipartFile mockFile = documentToMultipartFile(document, "summary.pdf");
+            PDFInfoRequest request = new PDFInfoRequest();
+            request.setFileInput(mockFile);
+            request.setIncludePerPageInfo(false);
+
+            PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
+            Mockito.when(
+                            pdfDocumentFactory.load(
+                                    ArgumentMatchers.any(MultipartFile.class),
+                                    ArgumentMatchers.anyBoolean()))
+                    .thenReturn(loadedDoc);
+
+            ResponseEntity<byte[]> response = getInfoOnPDF.getPdfInfo(request);
+
+            String jsonResponse = new String(response.getBody(), StandardCharsets.UTF_8);
+            JsonNode jsonNode = objectMapper.readTree(jsonResponse);
+
+            Assertions.assertFalse(jsonNode.has("PerPageInfo"));
+            Assertions.assertEquals(2, jsonNode.get("BasicInfo").get("WordCount").asInt());
+            Assertions.assertEquals(1, jsonNode.get("BasicInfo").get("Number of pages").asInt());
+
+            loadedDoc.close();
+        }
     }
 
     @Nested
@@ -558,7 +625,7 @@ class GetInfoOnPDFTest {
         @Test
         @DisplayName("Should reject null file")
         void testValidation_NullFile() throws IOException {
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(null);
 
             ResponseEntity<byte[]> response = getInfoOnPDF.getPdfInfo(request);
@@ -579,7 +646,7 @@ class GetInfoOnPDFTest {
                     new MockMultipartFile(
                             "file", "empty.pdf", MediaType.APPLICATION_PDF_VALUE, new byte[0]);
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(emptyFile);
 
             ResponseEntity<byte[]> response = getInfoOnPDF.getPdfInfo(request);
@@ -635,7 +702,7 @@ class GetInfoOnPDFTest {
                         public void transferTo(java.io.File dest) throws IllegalStateException {}
                     };
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(largeFile);
 
             ResponseEntity<byte[]> response = getInfoOnPDF.getPdfInfo(request);
@@ -684,7 +751,7 @@ class GetInfoOnPDFTest {
             try {
                 MockMultipartFile mockFile = loadPdfFromResources("example.pdf");
 
-                PDFFile request = new PDFFile();
+                PDFInfoRequest request = new PDFInfoRequest();
                 request.setFileInput(mockFile);
 
                 try (PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes())) {
@@ -721,7 +788,7 @@ class GetInfoOnPDFTest {
             try {
                 MockMultipartFile mockFile = loadPdfFromResources("tables.pdf");
 
-                PDFFile request = new PDFFile();
+                PDFInfoRequest request = new PDFInfoRequest();
                 request.setFileInput(mockFile);
 
                 try (PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes())) {
@@ -757,7 +824,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createSimplePdfWithText("Test PDF/A");
             MockMultipartFile mockFile = documentToMultipartFile(document, "pdfa.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -798,7 +865,7 @@ class GetInfoOnPDFTest {
             PDDocument document = createSimplePdfWithText("Document for image statistics");
             MockMultipartFile mockFile = documentToMultipartFile(document, "no-images.pdf");
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(mockFile);
 
             PDDocument loadedDoc = Loader.loadPDF(mockFile.getBytes());
@@ -910,7 +977,7 @@ class GetInfoOnPDFTest {
                                     ArgumentMatchers.anyBoolean()))
                     .thenReturn(Loader.loadPDF(bytes));
 
-            PDFFile request = new PDFFile();
+            PDFInfoRequest request = new PDFInfoRequest();
             request.setFileInput(
                     new MockMultipartFile("file", "test.pdf", "application/pdf", bytes));
             ResponseEntity<byte[]> response = getInfoOnPDF.getPdfInfo(request);
@@ -81,4 +81,16 @@ class PDFWithPageNumsTest {
                     pdfWithPageNums.getPageNumbersList(mockDocument, true);
                 });
     }
+
+    @Test
+    void testGetPageNumbersList_RejectsUnparseableParts() {
+        pdfWithPageNums.setPageNumbers("1,abc,3");
+        when(mockDocument.getNumberOfPages()).thenReturn(10);
+
+        IllegalArgumentException e =
+                assertThrows(
+                        IllegalArgumentException.class,
+                        () -> pdfWithPageNums.getPageNumbersList(mockDocument, true));
+        assertTrue(e.getMessage().contains("abc"));
+    }
 }
@@ -0,0 +1,134 @@
+package stirling.software.SPDF.pdf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import stirling.software.SPDF.model.PDFText;
+
+@DisplayName("Multi-pattern text finder tests")
+class MultiPatternTextFinderTest {
+
+    private PDDocument document;
+
+    @BeforeEach
+    void setUp() {
+        document = new PDDocument();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        document.close();
+    }
+
+    @Test
+    @DisplayName("Should match the per-term TextFinder results for literal terms")
+    void literalTermsMatchTextFinder() throws IOException {
+        addPage("The secret code is secret123. Keep this SECRET safe!");
+        addPage("Call 555-1234 or email john@example.com about the secret.");
+
+        assertSameAsTextFinder(List.of("secret", "555-1234", "john@example.com"), false, false);
+    }
+
+    @Test
+    @DisplayName("Should match the per-term TextFinder results for whole-word search")
+    void wholeWordTermsMatchTextFinder() throws IOException {
+        addPage("Item 1 costs 1.50, item 10 and (1) and Item1 are different.");
+        addPage("test testing tested test-case");
+
+        assertSameAsTextFinder(List.of("1", "test", "item"), false, true);
+    }
+
+    @Test
+    @DisplayName("Should match the per-term TextFinder results for regex terms")
+    void regexTermsMatchTextFinder() throws IOException {
+        addPage("SSN 123-45-6789 and phone 555-123-4567.");
+        addPage("Contact: jane.doe@example.org");
+
+        assertSameAsTextFinder(List.of("\\d{3}-\\d{2}-\\d{4}", "[a-z.]+@[a-z.]+"), true, false);
+    }
+
+    @Test
+    @DisplayName("Should find overlapping terms independently but not overlap a single term")
+    void overlappingTerms() throws IOException {
+        addPage("aaaa abcd");
+
+        Map<Integer, List<PDFText>> found =
+                new MultiPatternTextFinder(List.of("aa", "abc", "bcd"), false, false)
+                        .find(document);
+
+        List<String> texts = found.get(0).stream().map(PDFText::getText).toList();
+        assertEquals(List.of("aa", "aa", "abc", "bcd"), texts);
+    }
+
+    @Test
+    @DisplayName("Should skip blank and invalid terms")
+    void skipsBlankAndInvalidTerms() throws IOException {
+        addPage("keep this text");
+
+        Map<Integer, List<PDFText>> found =
+                new MultiPatternTextFinder(List.of(" ", "[invalid(", "text"), true, false)
+                        .find(document);
+
+        assertEquals(1, found.size());
+        assertEquals("text", found.get(0).get(0).getText());
+    }
+
+    @Test
+    @DisplayName("Should omit pages without matches")
+    void omitsPagesWithoutMatches() throws IOException {
+        addPage("nothing here");
+        addPage("confidential");
+
+        Map<Integer, List<PDFText>> found =
+                new MultiPatternTextFinder(List.of("confidential"), false, false).find(document);
+
+        assertFalse(found.containsKey(0));
+        assertEquals(1, found.get(1).size());
+    }
+
+    private void assertSameAsTextFinder(List<String> terms, boolean useRegex, boolean wholeWord)
+            throws IOException {
+        Map<Integer, List<PDFText>> expected = new HashMap<>();
+        for (String term : terms) {
+            TextFinder finder = new TextFinder(term, useRegex, wholeWord);
+            finder.getText(document);
+            for (PDFText text : finder.getFoundTexts()) {
+                expected.computeIfAbsent(text.getPageIndex(), k -> new ArrayList<>()).add(text);
+            }
+        }
+
+        Map<Integer, List<PDFText>> actual =
+                new MultiPatternTextFinder(terms, useRegex, wholeWord).find(document);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    private void addPage(String text) throws IOException {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+            contentStream.beginText();
+            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+            contentStream.newLineAtOffset(50, 750);
+            contentStream.showText(text);
+            contentStream.endText();
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package stirling.software.SPDF.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
 
-import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,113 +13,84 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import jakarta.servlet.ServletContext;
-
-import stirling.software.SPDF.model.ApiEndpoint;
-import stirling.software.common.service.UserServiceInterface;
+import stirling.software.common.model.ApiOperation;
+import stirling.software.common.service.ApiOperationRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class ApiDocServiceTest {
 
-    @Mock ServletContext servletContext;
-    @Mock UserServiceInterface userService;
+    @Mock ApiOperationRegistry operationRegistry;
 
     ApiDocService apiDocService;
-    ObjectMapper mapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
-        apiDocService = new ApiDocService(servletContext, userService);
-    }
-
-    private void setApiDocumentation(Map<String, ApiEndpoint> docs) throws Exception {
-        Field field = ApiDocService.class.getDeclaredField("apiDocumentation");
-        field.setAccessible(true);
-        @SuppressWarnings("unchecked")
-        Map<String, ApiEndpoint> map = (Map<String, ApiEndpoint>) field.get(apiDocService);
-        map.clear();
-        map.putAll(docs);
+        apiDocService = new ApiDocService(operationRegistry);
     }
 
-    private void setApiDocsJsonRootNode() throws Exception {
-        Field field = ApiDocService.class.getDeclaredField("apiDocsJsonRootNode");
-        field.setAccessible(true);
-        field.set(apiDocService, mapper.createObjectNode());
+    private void register(ApiOperation operation) {
+        when(operationRegistry.find(operation.getPath())).thenReturn(Optional.of(operation));
     }
 
     @Test
-    void getExtensionTypesReturnsExpectedList() throws Exception {
-        String json = "{\"description\": \"Output:PDF\"}";
-        JsonNode postNode = mapper.readTree(json);
-        ApiEndpoint endpoint = new ApiEndpoint("/test", postNode);
-
-        setApiDocumentation(Map.of("/test", endpoint));
-        setApiDocsJsonRootNode();
+    void getExtensionTypesReturnsExpectedList() {
+        register(ApiOperation.builder().path("/test").outputType("PDF").build());
 
         List<String> extensions = apiDocService.getExtensionTypes(true, "/test");
         assertEquals(List.of("pdf"), extensions);
     }
 
     @Test
-    void getExtensionTypesHandlesUnknownOperation() throws Exception {
-        setApiDocumentation(Map.of());
+    void getExtensionTypesSkipsUnknownTypes() {
+        register(
+                ApiOperation.builder().path("/test").inputType("UNKNOWN").inputType("CSV").build());
+
+        assertEquals(List.of("csv"), apiDocService.getExtensionTypes(false, "/test"));
+        assertNull(apiDocService.getExtensionTypes(true, "/test"));
+    }
+
+    @Test
+    void getExtensionTypesHandlesUnknownOperation() {
+        when(operationRegistry.find("/unknown")).thenReturn(Optional.empty());
 
         List<String> extensions = apiDocService.getExtensionTypes(true, "/unknown");
         assertNull(extensions);
     }
 
     @Test
-    void isValidOperationChecksRequiredParameters() throws Exception {
-        String json =
-                "{\"description\": \"desc\", \"parameters\": [{\"name\":\"param1\"}, {\"name\":\"param2\"}]}";
-        JsonNode postNode = mapper.readTree(json);
-        ApiEndpoint endpoint = new ApiEndpoint("/op", postNode);
-
-        setApiDocumentation(Map.of("/op", endpoint));
-        setApiDocsJsonRootNode();
+    void isValidOperationChecksListedParameters() {
+        register(
+                ApiOperation.builder().path("/op").parameter("param1").parameter("param2").build());
 
         assertTrue(apiDocService.isValidOperation("/op", Map.of("param1", "a", "param2", "b")));
         assertFalse(apiDocService.isValidOperation("/op", Map.of("param1", "a")));
     }
 
     @Test
-    void isValidOperationHandlesUnknownOperation() throws Exception {
-        setApiDocumentation(Map.of());
+    void isValidOperationHandlesUnknownOperation() {
+        when(operationRegistry.find("/unknown")).thenReturn(Optional.empty());
 
         assertFalse(apiDocService.isValidOperation("/unknown", Map.of("param1", "a")));
     }
 
     @Test
-    void isMultiInputDetectsTypeMI() throws Exception {
-        String json = "{\"description\": \"Type:MI\"}";
-        JsonNode postNode = mapper.readTree(json);
-        ApiEndpoint endpoint = new ApiEndpoint("/multi", postNode);
-
-        setApiDocumentation(Map.of("/multi", endpoint));
-        setApiDocsJsonRootNode();
+    void isMultiInputDetectsTypeMI() {
+        register(ApiOperation.builder().path("/multi").type("MI").build());
 
-        assertTrue(apiDocService.isMultiInput("/multi"));
+        assertTrue(apiDocService.getOperation("/multi").orElseThrow().isMultiInput());
     }
 
     @Test
-    void isMultiInputDetectsUnknownOperation() throws Exception {
-        setApiDocumentation(Map.of());
+    void isMultiInputDetectsUnknownOperation() {
+        when(operationRegistry.find("/unknown")).thenReturn(Optional.empty());
 
-        assertFalse(apiDocService.isMultiInput("/unknown"));
+        assertTrue(apiDocService.getOperation("/unknown").isEmpty());
     }
 
     @Test
-    void isMultiInputHandlesNoDescription() throws Exception {
-        String json = "{\"parameters\": [{\"name\":\"param1\"}, {\"name\":\"param2\"}]}";
-        JsonNode postNode = mapper.readTree(json);
-        ApiEndpoint endpoint = new ApiEndpoint("/multi", postNode);
-
-        setApiDocumentation(Map.of("/multi", endpoint));
-        setApiDocsJsonRootNode();
+    void isMultiInputHandlesNoType() {
+        register(ApiOperation.builder().path("/multi").parameter("param1").build());
 
-        assertFalse(apiDocService.isMultiInput("/multi"));
+        assertFalse(apiDocService.getOperation("/multi").orElseThrow().isMultiInput());
     }
 }
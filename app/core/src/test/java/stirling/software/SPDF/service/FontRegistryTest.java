@@ -0,0 +1,157 @@
+package stirling.software.SPDF.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDCIDFontType2;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class FontRegistryTest {
+
+    private static final String NOTO_SANS = "classpath:static/fonts/NotoSans-Regular.ttf";
+    private static final String DEJAVU_SANS = "classpath:static/fonts/DejaVuSans.ttf";
+
+    @Test
+    void parsesEachFontOnceAndSharesIt() throws IOException {
+        FontRegistry registry = new FontRegistry(new DefaultResourceLoader());
+
+        try (PDDocument first = new PDDocument();
+                PDDocument second = new PDDocument()) {
+            PDType0Font a = registry.loadFont(first, NOTO_SANS);
+            PDType0Font b = registry.loadFont(second, NOTO_SANS);
+
+            assertNotSame(a, b);
+            assertSame(trueTypeFont(a), trueTypeFont(b));
+            assertEquals(1, registry.size());
+        }
+    }
+
+    @Test
+    void documentsUsingSharedFontSaveAndReload() throws IOException {
+        FontRegistry registry = new FontRegistry(new DefaultResourceLoader());
+
+        for (int i = 0; i < 2; i++) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (PDDocument document = new PDDocument()) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                PDType0Font font = registry.loadFont(document, NOTO_SANS);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    stream.beginText();
+                    stream.setFont(font, 12);
+                    stream.showText("Watermark " + i);
+                    stream.endText();
+                }
+                document.save(out);
+            }
+            try (PDDocument reloaded = Loader.loadPDF(out.toByteArray())) {
+                assertEquals(1, reloaded.getNumberOfPages());
+            }
+        }
+    }
+
+    @Test
+    void coverageMatchesFontEncoding() throws IOException {
+        FontRegistry registry = new FontRegistry(new DefaultResourceLoader());
+
+        try (PDDocument document = new PDDocument()) {
+            PDType0Font font = registry.loadFont(document, NOTO_SANS, false);
+            FontRegistry.GlyphCoverage coverage = registry.getCoverage(font);
+            assertNotNull(coverage);
+
+            for (String text : new String[] {"Hello", "Ünïcödé", "Ωμέγα", "中文", "aก"}) {
+                assertEquals(canEncode(font, text), coverage.canEncode(text), text);
+            }
+            assertNull(registry.getCoverage(new PDType1Font(Standard14Fonts.FontName.HELVETICA)));
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedFontWhenOverCap() throws IOException {
+        FontRegistry registry = new FontRegistry(new DefaultResourceLoader(), 1);
+
+        try (PDDocument document = new PDDocument()) {
+            PDType0Font noto = registry.loadFont(document, NOTO_SANS);
+            registry.loadFont(document, DEJAVU_SANS);
+
+            assertEquals(1, registry.size());
+            assertNull(registry.getCoverage(noto));
+        }
+    }
+
+    @Test
+    void evictedFontStaysOpenWhileDocumentsUseIt() throws IOException {
+        FontRegistry registry = new FontRegistry(new DefaultResourceLoader(), 1);
+
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            PDType0Font noto = registry.loadFont(document, NOTO_SANS);
+            registry.getFontBytes(DEJAVU_SANS);
+            assertEquals(1, registry.retiredCount());
+
+            // The subset is embedded on save, which still reads the evicted font
+            try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                stream.beginText();
+                stream.setFont(noto, 12);
+                stream.showText("Stamp");
+                stream.endText();
+            }
+            document.save(new ByteArrayOutputStream());
+        }
+    }
+
+    @Test
+    void unusedEvictedFontIsClosedRightAway() throws IOException {
+        FontRegistry registry = new FontRegistry(new DefaultResourceLoader(), 1);
+
+        registry.getFontBytes(NOTO_SANS);
+        registry.getFontBytes(DEJAVU_SANS);
+
+        assertEquals(1, registry.size());
+        assertEquals(0, registry.retiredCount());
+    }
+
+    @Test
+    void alphabetsMapToNotoFonts() {
+        assertEquals(
+                "classpath:static/fonts/NotoSansArabic-Regular.ttf",
+                FontRegistry.alphabetFontLocation("arabic"));
+        assertEquals(
+                "classpath:static/fonts/NotoSansJP-Regular.ttf",
+                FontRegistry.alphabetFontLocation("japanese"));
+        assertEquals(NOTO_SANS, FontRegistry.alphabetFontLocation("roman"));
+        assertEquals(NOTO_SANS, FontRegistry.alphabetFontLocation(null));
+    }
+
+    @Test
+    void missingFontFails() {
+        FontRegistry registry = new FontRegistry(new DefaultResourceLoader());
+        assertThrows(
+                IOException.class,
+                () -> registry.getFontBytes("classpath:static/fonts/does-not-exist.ttf"));
+    }
+
+    private static Object trueTypeFont(PDType0Font font) {
+        return ((PDCIDFontType2) font.getDescendantFont()).getTrueTypeFont();
+    }
+
+    private static boolean canEncode(PDType0Font font, String text) {
+        try {
+            font.encode(text);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package stirling.software.SPDF.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+
+import stirling.software.SPDF.service.PageRenderCacheService.DocumentInfo;
+import stirling.software.SPDF.service.PageRenderCacheService.PageKey;
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.PdfMetadataService;
+
+class PageRenderCacheServiceTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @TempDir Path cacheDir;
+
+    private CustomPDFDocumentFactory factory;
+    private ApplicationProperties properties;
+    private PageRenderCacheService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new ApplicationProperties();
+        properties.getSystem().setMaxDPI(300);
+        factory =
+                new CustomPDFDocumentFactory(
+                        new PdfMetadataService(properties, "label", false, null));
+        service = newService(64 * MB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void register_usesContentHashAsDocumentId() throws IOException {
+        byte[] pdf = createPdf(3);
+
+        DocumentInfo first = service.register(upload(pdf));
+        DocumentInfo second = service.register(upload(pdf));
+
+        assertEquals(3, first.pageCount());
+        assertEquals(first, second);
+        assertTrue(first.documentId().matches("[0-9a-f]{64}"));
+        assertNotEquals(first.documentId(), service.register(upload(createPdf(2))).documentId());
+    }
+
+    @Test
+    void register_concurrentUploadsOfTheSameDocumentAllSucceed() throws Exception {
+        byte[] pdf = createPdf(4);
+        ExecutorService uploads = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<DocumentInfo>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(uploads.submit(() -> service.register(upload(pdf))));
+            }
+            DocumentInfo expected = results.get(0).get();
+            for (Future<DocumentInfo> result : results) {
+                assertEquals(expected, result.get());
+            }
+            assertEquals(4, expected.pageCount());
+        } finally {
+            uploads.shutdownNow();
+        }
+    }
+
+    @Test
+    void getPage_rendersOnceAndServesFromCache() throws IOException {
+        DocumentInfo document = service.register(upload(createPdf(2)));
+        PageKey key = new PageKey(document.documentId(), 1, 72, ImageType.GRAY);
+
+        byte[] png = service.getPage(key).orElseThrow();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertEquals(612, image.getWidth());
+        assertEquals(792, image.getHeight());
+
+        // Rendered pages outlive the source document
+        Files.delete(cacheDir.resolve("sources").resolve(document.documentId() + ".pdf"));
+        assertArrayEquals(png, service.getPage(key).orElseThrow());
+    }
+
+    @Test
+    void getPage_unknownDocumentIsEmpty() throws IOException {
+        PageKey unknown = new PageKey("0".repeat(64), 0, 72, ImageType.RGB);
+        assertEquals(Optional.empty(), service.getPage(unknown));
+
+        PageKey traversal = new PageKey("../sources/x", 0, 72, ImageType.RGB);
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(traversal));
+    }
+
+    @Test
+    void getPage_rejectsPagesOutsideDocumentAndExcessiveDpi() throws IOException {
+        DocumentInfo document = service.register(upload(createPdf(1)));
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.getPage(new PageKey(document.documentId(), 1, 72, ImageType.RGB)));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.getPage(new PageKey(document.documentId(), 0, 301, ImageType.RGB)));
+    }
+
+    @Test
+    void schedulePages_rendersInBackground() throws Exception {
+        DocumentInfo document = service.register(upload(createPdf(3)));
+
+        assertTrue(service.schedulePages(document.documentId(), List.of(2, 0), 36, ImageType.RGB));
+        assertFalse(service.schedulePages("f".repeat(64), List.of(0), 36, ImageType.RGB));
+
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (countPageFiles() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(2, countPageFiles());
+    }
+
+    @Test
+    void diskStore_evictsLeastRecentlyUsedFiles() throws IOException {
+        byte[] pdf = createPdf(6);
+        String documentId = service.register(upload(pdf)).documentId();
+        long pageBytes =
+                service.getPage(new PageKey(documentId, 0, 150, ImageType.RGB))
+                        .orElseThrow()
+                        .length;
+
+        Path smallDir = cacheDir.resolve("small");
+        long limit = pdf.length + pageBytes * 5 / 2;
+        service.shutdown();
+        service = new PageRenderCacheService(factory, properties, smallDir, limit, MB, 2);
+        service.register(upload(pdf));
+        for (int page = 0; page < 6; page++) {
+            service.getPage(new PageKey(documentId, page, 150, ImageType.RGB));
+        }
+
+        assertTrue(directorySize(smallDir) <= limit, "cache directory stays within its limit");
+        assertEquals(2, countPageFiles(smallDir), "older renders were evicted");
+        assertTrue(
+                Files.exists(smallDir.resolve("pages").resolve(documentId + "-5-150-rgb.png")),
+                "most recent render is kept");
+    }
+
+    private PageRenderCacheService newService(long maxDiskBytes) throws IOException {
+        return new PageRenderCacheService(factory, properties, cacheDir, maxDiskBytes, MB, 2);
+    }
+
+    private long countPageFiles() throws IOException {
+        return countPageFiles(cacheDir);
+    }
+
+    private static long countPageFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve("pages"))) {
+            return files.filter(f -> f.toString().endsWith(".png")).count();
+        }
+    }
+
+    private static long directorySize(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            long total = 0;
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                total += Files.size(file);
+            }
+            return total;
+        }
+    }
+
+    private static MockMultipartFile upload(byte[] pdf) {
+        return new MockMultipartFile("fileInput", "test.pdf", MediaType.APPLICATION_PDF_VALUE, pdf);
+    }
+
+    static byte[] createPdf(int pageCount) throws IOException {
+        try (PDDocument document = new PDDocument();
+                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pageCount; i++) {
+                document.addPage(new PDPage(PDRectangle.LETTER));
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package stirling.software.SPDF.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.PdfMetadataService;
+
+class PdfInspectionServiceTest {
+
+    @TempDir Path tempDir;
+
+    private CustomPDFDocumentFactory factory;
+    private PdfInspectionService service;
+
+    private record PageResult(int pageIndex, int textLength) {}
+
+    @BeforeEach
+    void setUp() {
+        PdfMetadataService meta =
+                new PdfMetadataService(new ApplicationProperties(), "label", false, null);
+        factory = new CustomPDFDocumentFactory(meta);
+        service = new PdfInspectionService(factory);
+    }
+
+    @Test
+    void inspect_visitsEveryPageOnceInOrder() throws IOException {
+        int pageCount = PdfInspectionService.MIN_PAGES_PER_WORKER * 4 + 3;
+        Path pdf = createPdf(pageCount);
+
+        try (PDDocument document = factory.loadKeepingFile(pdf, true)) {
+            PdfInspectionService.Inspection<PageResult> inspection =
+                    service.inspect(
+                            document, pdf, (page, index, length) -> new PageResult(index, length));
+
+            assertEquals(
+                    IntStream.range(0, pageCount).boxed().toList(),
+                    inspection.pages().stream().map(PageResult::pageIndex).toList());
+            assertEquals(new PDFTextStripper().getText(document), inspection.text());
+            assertEquals(
+                    inspection.text().length(),
+                    inspection.pages().stream().mapToInt(PageResult::textLength).sum());
+            assertDoesNotThrow(document::getNumberOfPages, "caller's document stays open");
+        }
+    }
+
+    @Test
+    void inspect_reportsPerPageTextLengthAndPagesWithoutContent() throws IOException {
+        Path pdf = createPdf(4);
+
+        try (PDDocument document = factory.loadKeepingFile(pdf, true)) {
+            List<PageResult> pages =
+                    service.inspect(
+                                    document,
+                                    null,
+                                    (page, index, length) -> new PageResult(index, length))
+                            .pages();
+
+            for (int pageIndex = 0; pageIndex < 4; pageIndex++) {
+                PDFTextStripper stripper = new PDFTextStripper();
+                stripper.setStartPage(pageIndex + 1);
+                stripper.setEndPage(pageIndex + 1);
+                assertEquals(
+                        stripper.getText(document).length(),
+                        pages.get(pageIndex).textLength(),
+                        "page " + (pageIndex + 1));
+            }
+            // Every third page has no content stream
+            assertEquals(0, pages.get(2).textLength());
+        }
+    }
+
+    @Test
+    void workerCount_scalesWithPagesUpToLimit() {
+        assertEquals(1, PdfInspectionService.workerCount(1));
+        assertEquals(
+                1, PdfInspectionService.workerCount(PdfInspectionService.MIN_PAGES_PER_WORKER));
+        assertEquals(PdfInspectionService.MAX_WORKERS, PdfInspectionService.workerCount(100_000));
+    }
+
+    private Path createPdf(int pageCount) throws IOException {
+        Path pdf = Files.createTempFile(tempDir, "inspect", ".pdf");
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 1; p <= pageCount; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                if (p % 3 == 0) {
+                    continue;
+                }
+                try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+                    cs.beginText();
+                    cs.setFont(font, 12);
+                    cs.newLineAtOffset(100, 700);
+                    cs.showText("Page " + p);
+                    cs.endText();
+                }
+            }
+            document.save(pdf.toFile());
+        }
+        return pdf;
+    }
+}
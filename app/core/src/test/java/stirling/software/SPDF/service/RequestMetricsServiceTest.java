@@ -0,0 +1,98 @@
+package stirling.software.SPDF.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import stirling.software.SPDF.config.EndpointInspector;
+
+class RequestMetricsServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMetricsService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        EndpointInspector endpointInspector = mock(EndpointInspector.class);
+        when(endpointInspector.getValidGetEndpoints()).thenReturn(Set.of("/compress-pdf"));
+        when(endpointInspector.isValidGetEndpoint("/compress-pdf")).thenReturn(true);
+        service = new RequestMetricsService(meterRegistry, endpointInspector);
+    }
+
+    @Test
+    void record_registersOneSetOfMetersPerRoute() {
+        for (int i = 0; i < 50; i++) {
+            service.record("POST", "/api/v1/misc/compress-pdf", "session-" + i, 1_000_000, 2048);
+        }
+
+        assertEquals(1, meterRegistry.find("http.requests").counters().size());
+        assertEquals(
+                50,
+                meterRegistry
+                        .get("http.requests")
+                        .tag("uri", "/api/v1/misc/compress-pdf")
+                        .counter()
+                        .count());
+        Timer latency = meterRegistry.get("http.requests.duration").timer();
+        assertEquals(50, latency.count());
+        assertEquals(
+                2048 * 50,
+                meterRegistry.get("http.requests.payload").summary().totalAmount(),
+                0.001);
+        assertTrue(
+                meterRegistry.getMeters().stream()
+                        .noneMatch(m -> m.getId().getTag("session") != null));
+    }
+
+    @Test
+    void counts_areAggregatedPerMethodAndRoute() {
+        service.record("POST", "/api/v1/misc/compress-pdf", "a", 1, 0);
+        service.record("POST", "/api/v1/misc/compress-pdf", "b", 1, 0);
+        service.record("POST", "/api/v1/general/merge-pdfs", "a", 1, 0);
+        service.record("GET", "/compress-pdf", "a", 1, 0);
+
+        assertEquals(3, service.getRequestCount("POST", Optional.empty()));
+        assertEquals(2, service.getRequestCount("POST", Optional.of("/api/v1/misc/compress-pdf")));
+        assertEquals(2, service.getUniqueVisitorCount("POST", Optional.empty()));
+        assertEquals(
+                1,
+                service.getUniqueVisitorCount("POST", Optional.of("/api/v1/general/merge-pdfs")));
+        assertEquals(1, service.getRequestCount("GET", Optional.empty()));
+        assertEquals(
+                List.of("/api/v1/misc/compress-pdf", "/api/v1/general/merge-pdfs"),
+                List.copyOf(service.getRequestCounts("POST").keySet()));
+    }
+
+    @Test
+    void unreportedRoutesAreTrackedButNotCounted() {
+        service.record("POST", "/login", "a", 1, 0);
+        service.record("GET", "/unknown-page", "a", 1, 0);
+        service.record("GET", RequestMetricsService.UNMATCHED_ROUTE, "a", 1, 0);
+
+        assertEquals(0, service.getRequestCount("POST", Optional.empty()));
+        assertEquals(0, service.getRequestCount("POST", Optional.of("/login")));
+        assertEquals(Map.of(), service.getRequestCounts("GET"));
+        assertEquals(3, meterRegistry.find("http.requests").counters().size());
+    }
+
+    @Test
+    void unknownMethodsShareOneBucket() {
+        service.record("FOO", "/api/v1/x", "a", 1, 0);
+        service.record("BAR", "/api/v1/x", "a", 1, 0);
+
+        assertEquals(1, meterRegistry.find("http.requests").counters().size());
+        assertEquals(
+                2, meterRegistry.get("http.requests").tag("method", "OTHER").counter().count());
+    }
+}
@@ -0,0 +1,144 @@
+package stirling.software.SPDF.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.PdfMetadataService;
+
+import technology.tabula.Table;
+
+class TableExtractionServiceTest {
+
+    private static final int ROWS = 2;
+    private static final int COLUMNS = 2;
+
+    @TempDir Path tempDir;
+
+    private CustomPDFDocumentFactory factory;
+    private TableExtractionService service;
+
+    @BeforeEach
+    void setUp() {
+        PdfMetadataService meta =
+                new PdfMetadataService(new ApplicationProperties(), "label", false, null);
+        factory = new CustomPDFDocumentFactory(meta);
+        service = new TableExtractionService(factory);
+    }
+
+    @Test
+    void extractTables_deliversPagesInRequestedOrder() throws IOException {
+        int pageCount = TableExtractionService.MIN_PAGES_PER_WORKER * 3;
+        Path pdf = createTablePdf(pageCount);
+        List<Integer> pages = IntStream.rangeClosed(1, pageCount).boxed().toList();
+
+        List<Integer> seenPages = new ArrayList<>();
+        List<String> firstCells = new ArrayList<>();
+        try (PDDocument document = factory.loadKeepingFile(pdf, true)) {
+            service.extractTables(
+                    document,
+                    pdf,
+                    pages,
+                    (pageNumber, tables) -> {
+                        seenPages.add(pageNumber);
+                        assertEquals(1, tables.size(), "tables on page " + pageNumber);
+                        firstCells.add(cellText(tables.get(0), 0, 0));
+                    });
+        }
+
+        assertEquals(pages, seenPages);
+        for (int page = 1; page <= pageCount; page++) {
+            assertEquals("P" + page + "R1C1", firstCells.get(page - 1));
+        }
+    }
+
+    @Test
+    void extractTables_honoursPageSelection() throws IOException {
+        Path pdf = createTablePdf(5);
+        List<Integer> pages = List.of(4, 2);
+
+        List<Integer> seenPages = new ArrayList<>();
+        try (PDDocument document = factory.loadKeepingFile(pdf, true)) {
+            service.extractTables(
+                    document,
+                    pdf,
+                    pages,
+                    (pageNumber, tables) -> {
+                        seenPages.add(pageNumber);
+                        assertEquals("P" + pageNumber + "R2C2", cellText(tables.get(0), 1, 1));
+                    });
+            assertDoesNotThrow(document::getNumberOfPages, "caller's document stays open");
+        }
+
+        assertEquals(pages, seenPages);
+    }
+
+    @Test
+    void workerCount_scalesWithPagesUpToLimit() {
+        assertEquals(1, TableExtractionService.workerCount(1));
+        assertEquals(
+                1, TableExtractionService.workerCount(TableExtractionService.MIN_PAGES_PER_WORKER));
+        assertEquals(
+                TableExtractionService.MAX_WORKERS, TableExtractionService.workerCount(100_000));
+    }
+
+    private static String cellText(Table table, int row, int column) {
+        return table.getCell(row, column).getText().trim();
+    }
+
+    private Path createTablePdf(int pageCount) throws IOException {
+        Path pdf = Files.createTempFile(tempDir, "tables", ".pdf");
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        float left = 100;
+        float top = 700;
+        float cellWidth = 150;
+        float cellHeight = 40;
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 1; p <= pageCount; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+                    cs.setLineWidth(1);
+                    for (int r = 0; r <= ROWS; r++) {
+                        cs.moveTo(left, top - r * cellHeight);
+                        cs.lineTo(left + COLUMNS * cellWidth, top - r * cellHeight);
+                    }
+                    for (int c = 0; c <= COLUMNS; c++) {
+                        cs.moveTo(left + c * cellWidth, top);
+                        cs.lineTo(left + c * cellWidth, top - ROWS * cellHeight);
+                    }
+                    cs.stroke();
+                    for (int r = 0; r < ROWS; r++) {
+                        for (int c = 0; c < COLUMNS; c++) {
+                            cs.beginText();
+                            cs.setFont(font, 12);
+                            cs.newLineAtOffset(
+                                    left + c * cellWidth + 10, top - (r + 1) * cellHeight + 15);
+                            cs.showText("P" + p + "R" + (r + 1) + "C" + (c + 1));
+                            cs.endText();
+                        }
+                    }
+                }
+            }
+            document.save(pdf.toFile());
+        }
+        return pdf;
+    }
+}
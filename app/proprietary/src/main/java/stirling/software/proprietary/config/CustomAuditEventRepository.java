@@ -8,7 +8,6 @@ import org.slf4j.MDC;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.context.annotation.Primary;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
@@ -17,8 +16,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import stirling.software.proprietary.audit.AuditLevel;
 import stirling.software.proprietary.model.security.PersistentAuditEvent;
-import stirling.software.proprietary.repository.PersistentAuditEventRepository;
+import stirling.software.proprietary.service.AuditEventWriter;
 import stirling.software.proprietary.util.SecretMasker;
 
 @Component
@@ -27,8 +27,8 @@ import stirling.software.proprietary.util.SecretMasker;
 @Slf4j
 public class CustomAuditEventRepository implements AuditEventRepository {
 
-    private final PersistentAuditEventRepository repo;
     private final ObjectMapper mapper;
+    private final AuditEventWriter writer;
 
     /* ── READ side intentionally inert (endpoint disabled) ── */
     @Override
@@ -36,10 +36,18 @@ public class CustomAuditEventRepository implements AuditEventRepository {
         return List.of();
     }
 
-    /* ── WRITE side (async) ───────────────────────────────── */
-    @Async("auditExecutor")
+    /* ── WRITE side (buffered, batched by AuditEventWriter) ── */
     @Override
     public void add(AuditEvent ev) {
+        // Events published by Spring itself are authentication events, keep them like BASIC ones
+        add(ev, AuditLevel.BASIC);
+    }
+
+    /**
+     * Mask and queue an event for the background writer. The level decides whether the event may be
+     * dropped when the writer falls behind.
+     */
+    public void add(AuditEvent ev, AuditLevel level) {
         try {
             Map<String, Object> clean =
                     CollectionUtils.isEmpty(ev.getData())
@@ -66,7 +74,7 @@ public class CustomAuditEventRepository implements AuditEventRepository {
                             .data(auditEventData)
                             .timestamp(ev.getTimestamp())
                             .build();
-            repo.save(ent);
+            writer.enqueue(ent, level);
         } catch (Exception e) {
             e.printStackTrace(); // fail-open
         }
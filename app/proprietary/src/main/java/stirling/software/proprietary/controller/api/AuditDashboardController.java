@@ -2,9 +2,7 @@ package stirling.software.proprietary.controller.api;
 
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -27,9 +25,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -46,6 +42,8 @@ import stirling.software.proprietary.model.api.audit.AuditStatsResponse;
 import stirling.software.proprietary.model.security.PersistentAuditEvent;
 import stirling.software.proprietary.repository.PersistentAuditEventRepository;
 import stirling.software.proprietary.security.config.EnterpriseEndpoint;
+import stirling.software.proprietary.service.AuditExportService;
+import stirling.software.proprietary.service.AuditRollupService;
 
 /** REST endpoints for the audit dashboard. */
 @Slf4j
@@ -58,7 +56,8 @@ import stirling.software.proprietary.security.config.EnterpriseEndpoint;
 public class AuditDashboardController {
 
     private final PersistentAuditEventRepository auditRepository;
-    private final ObjectMapper objectMapper;
+    private final AuditExportService exportService;
+    private final AuditRollupService rollupService;
 
     /** Get audit events data for the dashboard tables. */
     @GetMapping("/data")
@@ -112,7 +111,7 @@ public class AuditDashboardController {
                 content, events.getTotalPages(), events.getTotalElements(), events.getNumber());
     }
 
-    /** Get statistics for charts (last X days). Existing behavior preserved. */
+    /** Get statistics for charts (last X days), summed from the hourly rollups. */
     @GetMapping("/stats")
     @Operation(summary = "Get audit statistics for the last N days")
     public AuditStatsResponse getAuditStats(
@@ -123,37 +122,7 @@ public class AuditDashboardController {
                     @RequestParam(value = "days", defaultValue = "7")
                     int days) {
 
-        // Get events from the last X days
-        Instant startDate = Instant.now().minus(java.time.Duration.ofDays(days));
-        List<PersistentAuditEvent> events = auditRepository.findByTimestampAfter(startDate);
-
-        // Count events by type
-        Map<String, Long> eventsByType =
-                events.stream()
-                        .collect(
-                                Collectors.groupingBy(
-                                        PersistentAuditEvent::getType, Collectors.counting()));
-
-        // Count events by principal
-        Map<String, Long> eventsByPrincipal =
-                events.stream()
-                        .collect(
-                                Collectors.groupingBy(
-                                        PersistentAuditEvent::getPrincipal, Collectors.counting()));
-
-        // Count events by day
-        Map<String, Long> eventsByDay =
-                events.stream()
-                        .collect(
-                                Collectors.groupingBy(
-                                        e ->
-                                                LocalDateTime.ofInstant(
-                                                                e.getTimestamp(),
-                                                                ZoneId.systemDefault())
-                                                        .format(DateTimeFormatter.ISO_LOCAL_DATE),
-                                        Collectors.counting()));
-
-        return new AuditStatsResponse(eventsByType, eventsByPrincipal, eventsByDay, events.size());
+        return rollupService.getStats(days);
     }
 
     // /** Advanced statistics using repository aggregations, with explicit date range. */
@@ -221,55 +190,31 @@ public class AuditDashboardController {
     /** Export audit data as CSV. */
     @GetMapping("/export/csv")
     @Operation(summary = "Export audit data as CSV")
-    public ResponseEntity<byte[]> exportAuditData(@ParameterObject AuditExportRequest request) {
-
-        List<PersistentAuditEvent> events = getAuditEventsByCriteria(request);
-
-        // Convert to CSV
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Principal,Type,Timestamp,Data\n");
-
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_INSTANT;
-
-        for (PersistentAuditEvent event : events) {
-            csv.append(event.getId()).append(",");
-            csv.append(escapeCSV(event.getPrincipal())).append(",");
-            csv.append(escapeCSV(event.getType())).append(",");
-            csv.append(formatter.format(event.getTimestamp())).append(",");
-            csv.append(escapeCSV(event.getData())).append("\n");
-        }
-
-        byte[] csvBytes = csv.toString().getBytes();
+    public ResponseEntity<StreamingResponseBody> exportAuditData(
+            @ParameterObject AuditExportRequest request) {
 
         // Set up HTTP headers for download
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
         headers.setContentDispositionFormData("attachment", "audit_export.csv");
 
-        return ResponseEntity.ok().headers(headers).body(csvBytes);
+        StreamingResponseBody body = out -> exportService.writeCsv(request, out);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 
     /** Export audit data as JSON. */
     @GetMapping("/export/json")
     @Operation(summary = "Export audit data as JSON")
-    public ResponseEntity<byte[]> exportAuditDataJson(@ParameterObject AuditExportRequest request) {
-
-        List<PersistentAuditEvent> events = getAuditEventsByCriteria(request);
-
-        // Convert to JSON
-        try {
-            byte[] jsonBytes = objectMapper.writeValueAsBytes(events);
+    public ResponseEntity<StreamingResponseBody> exportAuditDataJson(
+            @ParameterObject AuditExportRequest request) {
 
-            // Set up HTTP headers for download
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setContentDispositionFormData("attachment", "audit_export.json");
+        // Set up HTTP headers for download
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentDispositionFormData("attachment", "audit_export.json");
 
-            return ResponseEntity.ok().headers(headers).body(jsonBytes);
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing audit events to JSON", e);
-            return ResponseEntity.internalServerError().build();
-        }
+        StreamingResponseBody body = out -> exportService.writeJson(request, out);
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 
     // /** Get all unique principals. */
@@ -325,6 +270,7 @@ public class AuditDashboardController {
         if (date != null && !date.isAfter(LocalDate.now())) {
             Instant cutoff = date.atStartOfDay(ZoneId.systemDefault()).toInstant();
             int deleted = auditRepository.deleteByTimestampBefore(cutoff);
+            rollupService.deleteBefore(cutoff);
             return Map.of("deleted", deleted, "cutoffDate", date.toString());
         }
         return Map.of(
@@ -343,54 +289,4 @@ public class AuditDashboardController {
     //     }
     //     return map;
     // }
-
-    /** Helper method to escape CSV fields. */
-    private String escapeCSV(String field) {
-        if (field == null) {
-            return "";
-        }
-        // Replace double quotes with two double quotes and wrap in quotes
-        return "\"" + field.replace("\"", "\"\"") + "\"";
-    }
-
-    private List<PersistentAuditEvent> getAuditEventsByCriteria(AuditExportRequest request) {
-        String type = request.getType();
-        String principal = request.getPrincipal();
-        LocalDate startDate = request.getStartDate();
-        LocalDate endDate = request.getEndDate();
-
-        // Get data with same filtering as getAuditData
-        List<PersistentAuditEvent> events;
-
-        if (type != null && principal != null && startDate != null && endDate != null) {
-            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-            events =
-                    auditRepository.findAllByPrincipalAndTypeAndTimestampBetweenForExport(
-                            principal, type, start, end);
-        } else if (type != null && principal != null) {
-            events = auditRepository.findAllByPrincipalAndTypeForExport(principal, type);
-        } else if (type != null && startDate != null && endDate != null) {
-            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-            events = auditRepository.findAllByTypeAndTimestampBetweenForExport(type, start, end);
-        } else if (principal != null && startDate != null && endDate != null) {
-            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-            events =
-                    auditRepository.findAllByPrincipalAndTimestampBetweenForExport(
-                            principal, start, end);
-        } else if (startDate != null && endDate != null) {
-            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-            events = auditRepository.findAllByTimestampBetweenForExport(start, end);
-        } else if (type != null) {
-            events = auditRepository.findByTypeForExport(type);
-        } else if (principal != null) {
-            events = auditRepository.findAllByPrincipalForExport(principal);
-        } else {
-            events = auditRepository.findAll();
-        }
-        return events;
-    }
 }
@@ -2,9 +2,7 @@ package stirling.software.proprietary.controller.api;
 
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -19,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -28,9 +27,13 @@ import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.common.annotations.api.ProprietaryUiDataApi;
 import stirling.software.proprietary.audit.AuditEventType;
+import stirling.software.proprietary.model.api.audit.AuditExportRequest;
+import stirling.software.proprietary.model.api.audit.AuditStatsResponse;
 import stirling.software.proprietary.model.security.PersistentAuditEvent;
 import stirling.software.proprietary.repository.PersistentAuditEventRepository;
 import stirling.software.proprietary.security.config.EnterpriseEndpoint;
+import stirling.software.proprietary.service.AuditExportService;
+import stirling.software.proprietary.service.AuditRollupService;
 
 /** REST API controller for audit data used by React frontend. */
 @Slf4j
@@ -42,6 +45,8 @@ public class AuditRestController {
 
     private final PersistentAuditEventRepository auditRepository;
     private final ObjectMapper objectMapper;
+    private final AuditExportService exportService;
+    private final AuditRollupService rollupService;
 
     /**
      * Get audit events with pagination and filters. Maps to frontend's getEvents() call.
@@ -142,35 +147,11 @@ public class AuditRestController {
                 break;
         }
 
-        // Get events from the specified period
-        Instant startDate = Instant.now().minus(java.time.Duration.ofDays(days));
-        List<PersistentAuditEvent> events = auditRepository.findByTimestampAfter(startDate);
-
-        // Count events by type
-        Map<String, Long> eventsByType =
-                events.stream()
-                        .collect(
-                                Collectors.groupingBy(
-                                        PersistentAuditEvent::getType, Collectors.counting()));
-
-        // Count events by principal (user)
-        Map<String, Long> eventsByUser =
-                events.stream()
-                        .collect(
-                                Collectors.groupingBy(
-                                        PersistentAuditEvent::getPrincipal, Collectors.counting()));
-
-        // Count events by day
-        Map<String, Long> eventsByDay =
-                events.stream()
-                        .collect(
-                                Collectors.groupingBy(
-                                        e ->
-                                                LocalDateTime.ofInstant(
-                                                                e.getTimestamp(),
-                                                                ZoneId.systemDefault())
-                                                        .format(DateTimeFormatter.ISO_LOCAL_DATE),
-                                        Collectors.counting()));
+        // Aggregate the specified period from the hourly rollups
+        AuditStatsResponse stats = rollupService.getStats(days);
+        Map<String, Long> eventsByType = stats.getEventsByType();
+        Map<String, Long> eventsByUser = stats.getEventsByPrincipal();
+        Map<String, Long> eventsByDay = stats.getEventsByDay();
 
         // Convert to ChartData format
         ChartData eventsByTypeChart =
@@ -268,7 +249,7 @@ public class AuditRestController {
      * @return File download response
      */
     @GetMapping("/audit-export")
-    public ResponseEntity<byte[]> exportAuditData(
+    public ResponseEntity<StreamingResponseBody> exportAuditData(
             @RequestParam(value = "format", defaultValue = "csv") String format,
             @RequestParam(value = "eventType", required = false) String eventType,
             @RequestParam(value = "username", required = false) String username,
@@ -279,47 +260,23 @@ public class AuditRestController {
                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
                     LocalDate endDate) {
 
-        // Get data with same filtering as getAuditEvents
-        List<PersistentAuditEvent> events;
-
-        if (eventType != null && username != null && startDate != null && endDate != null) {
-            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-            events =
-                    auditRepository.findAllByPrincipalAndTypeAndTimestampBetweenForExport(
-                            username, eventType, start, end);
-        } else if (eventType != null && username != null) {
-            events = auditRepository.findAllByPrincipalAndTypeForExport(username, eventType);
-        } else if (eventType != null && startDate != null && endDate != null) {
-            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-            events =
-                    auditRepository.findAllByTypeAndTimestampBetweenForExport(
-                            eventType, start, end);
-        } else if (username != null && startDate != null && endDate != null) {
-            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-            events =
-                    auditRepository.findAllByPrincipalAndTimestampBetweenForExport(
-                            username, start, end);
-        } else if (startDate != null && endDate != null) {
-            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
-            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
-            events = auditRepository.findAllByTimestampBetweenForExport(start, end);
-        } else if (eventType != null) {
-            events = auditRepository.findByTypeForExport(eventType);
-        } else if (username != null) {
-            events = auditRepository.findAllByPrincipalForExport(username);
-        } else {
-            events = auditRepository.findAll();
-        }
+        AuditExportRequest request = new AuditExportRequest(eventType, username);
+        request.setStartDate(startDate);
+        request.setEndDate(endDate);
 
         // Export based on format
+        HttpHeaders headers = new HttpHeaders();
+        StreamingResponseBody body;
         if ("json".equalsIgnoreCase(format)) {
-            return exportAsJson(events);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentDispositionFormData("attachment", "audit_export.json");
+            body = out -> exportService.writeJson(request, out);
         } else {
-            return exportAsCsv(events);
+            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+            headers.setContentDispositionFormData("attachment", "audit_export.csv");
+            body = out -> exportService.writeCsv(request, out);
         }
+        return ResponseEntity.ok().headers(headers).body(body);
     }
 
     // Helper methods
@@ -348,52 +305,6 @@ public class AuditRestController {
                 .build();
     }
 
-    private ResponseEntity<byte[]> exportAsCsv(List<PersistentAuditEvent> events) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("ID,Principal,Type,Timestamp,Data\n");
-
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_INSTANT;
-
-        for (PersistentAuditEvent event : events) {
-            csv.append(event.getId()).append(",");
-            csv.append(escapeCSV(event.getPrincipal())).append(",");
-            csv.append(escapeCSV(event.getType())).append(",");
-            csv.append(formatter.format(event.getTimestamp())).append(",");
-            csv.append(escapeCSV(event.getData())).append("\n");
-        }
-
-        byte[] csvBytes = csv.toString().getBytes();
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.setContentDispositionFormData("attachment", "audit_export.csv");
-
-        return ResponseEntity.ok().headers(headers).body(csvBytes);
-    }
-
-    private ResponseEntity<byte[]> exportAsJson(List<PersistentAuditEvent> events) {
-        try {
-            byte[] jsonBytes = objectMapper.writeValueAsBytes(events);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setContentDispositionFormData("attachment", "audit_export.json");
-
-            return ResponseEntity.ok().headers(headers).body(jsonBytes);
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing audit events to JSON", e);
-            return ResponseEntity.internalServerError().build();
-        }
-    }
-
-    private String escapeCSV(String field) {
-        if (field == null) {
-            return "";
-        }
-        // Replace double quotes with two double quotes and wrap in quotes
-        return "\"" + field.replace("\"", "\"\"") + "\"";
-    }
-
     // DTOs for response formatting
 
     @lombok.Data
@@ -2,9 +2,11 @@ package stirling.software.proprietary.controller.api;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -16,7 +18,6 @@ import lombok.extern.slf4j.Slf4j;
 
 import stirling.software.common.annotations.api.ProprietaryUiDataApi;
 import stirling.software.proprietary.audit.AuditEventType;
-import stirling.software.proprietary.model.security.PersistentAuditEvent;
 import stirling.software.proprietary.repository.PersistentAuditEventRepository;
 import stirling.software.proprietary.security.config.EnterpriseEndpoint;
 
@@ -41,27 +42,24 @@ public class UsageRestController {
      * @return Endpoint statistics response
      */
     @GetMapping("/usage-endpoint-statistics")
+    @Transactional(readOnly = true)
     public ResponseEntity<EndpointStatisticsResponse> getEndpointStatistics(
             @RequestParam(value = "limit", required = false) Integer limit,
             @RequestParam(value = "dataType", defaultValue = "all") String dataType) {
 
-        // Get all HTTP_REQUEST audit events
-        List<PersistentAuditEvent> httpEvents =
-                auditRepository.findByTypeForExport(AuditEventType.HTTP_REQUEST.name());
-
-        // Count visits per endpoint
+        // Count visits per endpoint, streaming the data of HTTP_REQUEST audit events
         Map<String, Long> endpointCounts = new HashMap<>();
 
-        for (PersistentAuditEvent event : httpEvents) {
-            String endpoint = extractEndpointFromAuditData(event.getData());
-            if (endpoint != null) {
-                // Apply data type filter
-                if (!shouldIncludeEndpoint(endpoint, dataType)) {
-                    continue;
-                }
-
-                endpointCounts.merge(endpoint, 1L, Long::sum);
-            }
+        try (Stream<String> httpEventData =
+                auditRepository.streamDataByType(AuditEventType.HTTP_REQUEST.name())) {
+            httpEventData.forEach(
+                    data -> {
+                        String endpoint = extractEndpointFromAuditData(data);
+                        // Apply data type filter
+                        if (endpoint != null && shouldIncludeEndpoint(endpoint, dataType)) {
+                            endpointCounts.merge(endpoint, 1L, Long::sum);
+                        }
+                    });
         }
 
         // Calculate totals
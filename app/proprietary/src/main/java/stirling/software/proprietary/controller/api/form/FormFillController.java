@@ -4,6 +4,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -30,6 +32,7 @@ import lombok.RequiredArgsConstructor;
 import stirling.software.common.service.CustomPDFDocumentFactory;
 import stirling.software.common.util.ExceptionUtils;
 import stirling.software.common.util.WebResponseUtils;
+import stirling.software.proprietary.service.FormBatchFillService;
 import stirling.software.proprietary.util.FormUtils;
 
 @RestController
@@ -52,6 +55,7 @@ public class FormFillController {
 
     private final CustomPDFDocumentFactory pdfDocumentFactory;
     private final ObjectMapper objectMapper;
+    private final FormBatchFillService formBatchFillService;
 
     private static ResponseEntity<byte[]> saveDocument(PDDocument document, String baseName)
             throws IOException {
@@ -209,6 +213,79 @@ public class FormFillController {
                 document -> FormUtils.applyFieldValues(document, values, flatten, true));
     }
 
+    @PostMapping(value = "/fill-batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Fill a PDF form with many records",
+            description =
+                    "Fills the supplied PDF form once per record of a CSV (header row of field"
+                            + " names) or JSON Lines file and returns the filled PDFs as a ZIP"
+                            + " archive or as one merged PDF. The number of records and the"
+                            + " throughput are reported in the X-Records-Filled and"
+                            + " X-Records-Per-Second headers")
+    public ResponseEntity<StreamingResponseBody> fillFormBatch(
+            @Parameter(
+                            description = "The input PDF form used as the template",
+                            required = true,
+                            content =
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_PDF_VALUE,
+                                            schema = @Schema(type = "string", format = "binary")))
+                    @RequestParam("file")
+                    MultipartFile file,
+            @Parameter(
+                            description = "CSV or JSON Lines file with one record per row or line",
+                            required = true,
+                            content =
+                                    @Content(schema = @Schema(type = "string", format = "binary")))
+                    @RequestParam("records")
+                    MultipartFile records,
+            @Parameter(
+                            description =
+                                    "Format of the records file; detected from its name or"
+                                            + " content when omitted",
+                            schema = @Schema(allowableValues = {"csv", "jsonl"}))
+                    @RequestParam(value = "recordsFormat", required = false)
+                    String recordsFormat,
+            @Parameter(
+                            description =
+                                    "Whether to return a ZIP of PDFs or one merged PDF. A merged"
+                                            + " PDF is assembled in memory, so very large"
+                                            + " batches should use zip",
+                            schema = @Schema(allowableValues = {"zip", "merged"}))
+                    @RequestParam(value = "output", defaultValue = "zip")
+                    String output,
+            @RequestParam(value = "flatten", defaultValue = "false") boolean flatten)
+            throws IOException {
+        requirePdf(file);
+        if (records == null || records.isEmpty()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.dataRequired", "{0} must contain at least one value", "records");
+        }
+        FormBatchFillService.OutputMode mode =
+                "merged".equalsIgnoreCase(output)
+                        ? FormBatchFillService.OutputMode.MERGED
+                        : FormBatchFillService.OutputMode.ZIP;
+
+        String baseName = buildBaseName(file, "filled");
+        FormBatchFillService.BatchFillResult result;
+        try (FormRecordReader reader =
+                FormRecordReader.open(records, recordsFormat, objectMapper)) {
+            result = formBatchFillService.fill(file.getBytes(), reader, flatten, mode, baseName);
+        }
+
+        ResponseEntity<StreamingResponseBody> response =
+                mode == FormBatchFillService.OutputMode.MERGED
+                        ? WebResponseUtils.pdfFileToWebResponse(result.output(), baseName + ".pdf")
+                        : WebResponseUtils.zipFileToWebResponse(result.output(), baseName + ".zip");
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header("X-Records-Filled", String.valueOf(result.records()))
+                .header(
+                        "X-Records-Per-Second",
+                        String.format(Locale.ROOT, "%.1f", result.recordsPerSecond()))
+                .body(response.getBody());
+    }
+
     private ResponseEntity<byte[]> processSingleFile(
             MultipartFile file, String suffix, DocumentProcessor processor) throws IOException {
         requirePdf(file);
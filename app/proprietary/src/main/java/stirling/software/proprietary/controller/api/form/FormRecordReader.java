@@ -0,0 +1,184 @@
+package stirling.software.proprietary.controller.api.form;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import stirling.software.common.util.ExceptionUtils;
+import stirling.software.proprietary.service.FormBatchFillService;
+
+/**
+ * Reads form records one at a time from an uploaded CSV file (header row with the field names, then
+ * one row per record) or JSON Lines file (one JSON object per line, in any shape accepted by the
+ * single-record fill endpoint). Records are parsed lazily so large files are never held in memory.
+ */
+final class FormRecordReader implements FormBatchFillService.RecordSource, Closeable {
+
+    private static final int BYTE_ORDER_MARK = '\uFEFF';
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private final boolean csv;
+    private List<String> header;
+    private int recordNumber;
+
+    private FormRecordReader(BufferedReader reader, ObjectMapper objectMapper, boolean csv) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+        this.csv = csv;
+    }
+
+    /**
+     * @param format "csv" or "jsonl"; detected from the file name or content when blank
+     */
+    static FormRecordReader open(MultipartFile records, String format, ObjectMapper objectMapper)
+            throws IOException {
+        BufferedReader reader =
+                new BufferedReader(
+                        new InputStreamReader(records.getInputStream(), StandardCharsets.UTF_8));
+        try {
+            reader.mark(1);
+            if (reader.read() != BYTE_ORDER_MARK) {
+                reader.reset();
+            }
+            return new FormRecordReader(
+                    reader, objectMapper, isCsv(format, records.getOriginalFilename(), reader));
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    private static boolean isCsv(String format, String filename, BufferedReader reader)
+            throws IOException {
+        if (format != null && !format.isBlank()) {
+            String normalized = format.trim().toLowerCase(Locale.ROOT);
+            return switch (normalized) {
+                case "csv" -> true;
+                case "jsonl", "ndjson", "json" -> false;
+                default ->
+                        throw ExceptionUtils.createIllegalArgumentException(
+                                "error.invalidFormat",
+                                "Invalid {0} format: {1}",
+                                "records",
+                                format);
+            };
+        }
+        String name = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return true;
+        }
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json")) {
+            return false;
+        }
+        // Sniff the first non-blank character
+        reader.mark(4096);
+        int c;
+        do {
+            c = reader.read();
+        } while (c != -1 && Character.isWhitespace(c));
+        reader.reset();
+        return c != '{';
+    }
+
+    @Override
+    public Map<String, ?> next() throws IOException {
+        return csv ? nextCsvRecord() : nextJsonRecord();
+    }
+
+    private Map<String, ?> nextJsonRecord() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            recordNumber++;
+            if (!line.isBlank()) {
+                return FormPayloadParser.parseValueMap(objectMapper, line);
+            }
+        }
+        return null;
+    }
+
+    private Map<String, ?> nextCsvRecord() throws IOException {
+        if (header == null) {
+            header = readCsvRow();
+            if (header == null) {
+                return null;
+            }
+        }
+        List<String> row;
+        do {
+            row = readCsvRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isEmpty());
+        recordNumber++;
+
+        if (row.size() > header.size()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidFormat",
+                    "Invalid {0} format: {1}",
+                    "records",
+                    "row " + recordNumber + " has more columns than the header");
+        }
+        Map<String, String> record = new LinkedHashMap<>();
+        for (int i = 0; i < row.size(); i++) {
+            record.put(header.get(i).trim(), row.get(i));
+        }
+        return record;
+    }
+
+    /** Reads one RFC 4180 row; quoted values may contain separators, quotes and line breaks. */
+    private List<String> readCsvRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        value.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    value.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                value.append((char) c);
+            }
+            c = reader.read();
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -29,5 +29,5 @@ public class AuditStatsResponse {
     private Map<String, Long> eventsByDay;
 
     @Schema(description = "Total number of events in the period", example = "42")
-    private int totalEvents;
+    private long totalEvents;
 }
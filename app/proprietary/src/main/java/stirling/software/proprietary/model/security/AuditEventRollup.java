@@ -0,0 +1,47 @@
+package stirling.software.proprietary.model.security;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+
+/**
+ * Hourly count of audit events per type and principal, maintained alongside {@link
+ * PersistentAuditEvent} so dashboard statistics do not have to scan the event table.
+ */
+@Entity
+@Table(
+        name = "audit_event_rollups",
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_audit_rollup_bucket_type_principal",
+                        columnNames = {"bucket_start", "type", "principal"}),
+        indexes = {
+            @jakarta.persistence.Index(
+                    name = "idx_audit_rollup_bucket",
+                    columnList = "bucket_start")
+        })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEventRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** Start of the hour (UTC) the events fall into. */
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String principal;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+}
@@ -0,0 +1,31 @@
+package stirling.software.proprietary.model.security;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+
+/**
+ * Highest audit event id already counted into {@link AuditEventRollup}s. Kept in a single row so a
+ * restart only rolls up events stored after it, instead of relying on the rollup table being empty.
+ */
+@Entity
+@Table(name = "audit_rollup_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditRollupWatermark {
+
+    public static final long ID = 1L;
+
+    @Id private Long id;
+
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+
+    /**
+     * End of a backfill range that has not been rolled up yet, or null. Events above it were
+     * counted live while the backfill ran, so a retry after a failure stops here.
+     */
+    @Column(name = "backfill_up_to_id")
+    private Long backfillUpToId;
+}
@@ -0,0 +1,50 @@
+package stirling.software.proprietary.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import stirling.software.proprietary.model.security.AuditEventRollup;
+
+@Repository
+public interface AuditEventRollupRepository extends JpaRepository<AuditEventRollup, Long> {
+
+    @Query(
+            "UPDATE AuditEventRollup r SET r.eventCount = r.eventCount + :delta WHERE"
+                    + " r.bucketStart = :bucketStart AND r.type = :type AND r.principal ="
+                    + " :principal")
+    @Modifying
+    @Transactional
+    int incrementCount(
+            @Param("bucketStart") Instant bucketStart,
+            @Param("type") String type,
+            @Param("principal") String principal,
+            @Param("delta") long delta);
+
+    @Query("DELETE FROM AuditEventRollup r WHERE r.bucketStart < ?1")
+    @Modifying
+    @Transactional
+    int deleteByBucketStartBefore(Instant cutoff);
+
+    // Stats queries
+    @Query(
+            "SELECT r.type, SUM(r.eventCount) FROM AuditEventRollup r WHERE r.bucketStart >="
+                    + " :startDate GROUP BY r.type")
+    List<Object[]> sumByTypeSince(@Param("startDate") Instant startDate);
+
+    @Query(
+            "SELECT r.principal, SUM(r.eventCount) FROM AuditEventRollup r WHERE r.bucketStart"
+                    + " >= :startDate GROUP BY r.principal")
+    List<Object[]> sumByPrincipalSince(@Param("startDate") Instant startDate);
+
+    @Query(
+            "SELECT r.bucketStart, SUM(r.eventCount) FROM AuditEventRollup r WHERE r.bucketStart"
+                    + " >= :startDate GROUP BY r.bucketStart")
+    List<Object[]> sumByBucketSince(@Param("startDate") Instant startDate);
+}
@@ -0,0 +1,28 @@
+package stirling.software.proprietary.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import stirling.software.proprietary.model.security.AuditRollupWatermark;
+
+@Repository
+public interface AuditRollupWatermarkRepository extends JpaRepository<AuditRollupWatermark, Long> {
+
+    /** Move the watermark forward; never moves it back. */
+    @Query(
+            "UPDATE AuditRollupWatermark w SET w.lastEventId = :eventId WHERE w.id = :id AND"
+                    + " w.lastEventId < :eventId")
+    @Modifying
+    @Transactional
+    int advance(@Param("id") long id, @Param("eventId") long eventId);
+
+    /** Record the end of a pending backfill range, or clear it with null. */
+    @Query("UPDATE AuditRollupWatermark w SET w.backfillUpToId = :eventId WHERE w.id = :id")
+    @Modifying
+    @Transactional
+    int setBackfillUpTo(@Param("id") long id, @Param("eventId") Long eventId);
+}
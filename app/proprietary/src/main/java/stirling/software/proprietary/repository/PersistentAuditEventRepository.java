@@ -3,21 +3,29 @@ package stirling.software.proprietary.repository;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.QueryHint;
+
 import stirling.software.proprietary.model.security.PersistentAuditEvent;
 
 @Repository
 public interface PersistentAuditEventRepository extends JpaRepository<PersistentAuditEvent, Long> {
 
+    /** Rows fetched per JDBC round trip when streaming exports. */
+    String EXPORT_FETCH_SIZE = "500";
+
     // Basic queries
     @Query(
             "SELECT e FROM PersistentAuditEvent e WHERE UPPER(e.principal) LIKE UPPER(CONCAT('%',"
@@ -59,54 +67,108 @@ public interface PersistentAuditEventRepository extends JpaRepository<Persistent
             @Param("endDate") Instant endDate,
             Pageable pageable);
 
-    // Non-paged versions for export
+    // Usage statistics: only the data column, streamed like the exports below
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e.data FROM PersistentAuditEvent e WHERE e.type = :type")
+    Stream<String> streamDataByType(@Param("type") String type);
+
+    // Cursor-backed streams for export; callers must hold a read-only transaction and close them
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM PersistentAuditEvent e")
+    Stream<PersistentAuditEvent> streamAllForExport();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query(
             "SELECT e FROM PersistentAuditEvent e WHERE UPPER(e.principal) LIKE UPPER(CONCAT('%',"
                     + " :principal, '%'))")
-    List<PersistentAuditEvent> findAllByPrincipalForExport(@Param("principal") String principal);
+    Stream<PersistentAuditEvent> streamByPrincipalForExport(@Param("principal") String principal);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query("SELECT e FROM PersistentAuditEvent e WHERE e.type = :type")
-    List<PersistentAuditEvent> findByTypeForExport(@Param("type") String type);
+    Stream<PersistentAuditEvent> streamByTypeForExport(@Param("type") String type);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query("SELECT e FROM PersistentAuditEvent e WHERE e.timestamp BETWEEN :startDate AND :endDate")
-    List<PersistentAuditEvent> findAllByTimestampBetweenForExport(
+    Stream<PersistentAuditEvent> streamByTimestampBetweenForExport(
             @Param("startDate") Instant startDate, @Param("endDate") Instant endDate);
 
-    @Query("SELECT e FROM PersistentAuditEvent e WHERE e.timestamp > :startDate")
-    List<PersistentAuditEvent> findByTimestampAfter(@Param("startDate") Instant startDate);
-
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query(
             "SELECT e FROM PersistentAuditEvent e WHERE UPPER(e.principal) LIKE UPPER(CONCAT('%',"
                     + " :principal, '%')) AND e.type = :type")
-    List<PersistentAuditEvent> findAllByPrincipalAndTypeForExport(
+    Stream<PersistentAuditEvent> streamByPrincipalAndTypeForExport(
             @Param("principal") String principal, @Param("type") String type);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query(
             "SELECT e FROM PersistentAuditEvent e WHERE UPPER(e.principal) LIKE UPPER(CONCAT('%',"
                     + " :principal, '%')) AND e.timestamp BETWEEN :startDate AND :endDate")
-    List<PersistentAuditEvent> findAllByPrincipalAndTimestampBetweenForExport(
+    Stream<PersistentAuditEvent> streamByPrincipalAndTimestampBetweenForExport(
             @Param("principal") String principal,
             @Param("startDate") Instant startDate,
             @Param("endDate") Instant endDate);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query(
             "SELECT e FROM PersistentAuditEvent e WHERE e.type = :type AND e.timestamp BETWEEN"
                     + " :startDate AND :endDate")
-    List<PersistentAuditEvent> findAllByTypeAndTimestampBetweenForExport(
+    Stream<PersistentAuditEvent> streamByTypeAndTimestampBetweenForExport(
             @Param("type") String type,
             @Param("startDate") Instant startDate,
             @Param("endDate") Instant endDate);
 
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     @Query(
             "SELECT e FROM PersistentAuditEvent e WHERE UPPER(e.principal) LIKE UPPER(CONCAT('%',"
                     + " :principal, '%')) AND e.type = :type AND e.timestamp BETWEEN :startDate AND"
                     + " :endDate")
-    List<PersistentAuditEvent> findAllByPrincipalAndTypeAndTimestampBetweenForExport(
+    Stream<PersistentAuditEvent> streamByPrincipalAndTypeAndTimestampBetweenForExport(
             @Param("principal") String principal,
             @Param("type") String type,
             @Param("startDate") Instant startDate,
             @Param("endDate") Instant endDate);
 
+    // Rollup backfill: only the columns the hourly rollup needs
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(
+            "SELECT e.timestamp, e.type, e.principal FROM PersistentAuditEvent e WHERE e.id >"
+                    + " :afterId AND e.id <= :maxId")
+    Stream<Object[]> streamRollupSourceBetween(
+            @Param("afterId") long afterId, @Param("maxId") long maxId);
+
+    @Query("SELECT MAX(e.id) FROM PersistentAuditEvent e")
+    Optional<Long> findMaxId();
+
     // Cleanup queries
     @Query("DELETE FROM PersistentAuditEvent e WHERE e.timestamp < ?1")
     @Modifying
@@ -25,6 +25,7 @@ public class AuditCleanupService {
 
     private final PersistentAuditEventRepository auditRepository;
     private final AuditConfigurationProperties auditConfig;
+    private final AuditRollupService rollupService;
 
     // Default batch size for deletions
     private static final int BATCH_SIZE = 10000;
@@ -49,6 +50,7 @@ public class AuditCleanupService {
         try {
             Instant cutoffDate = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
             int totalDeleted = batchDeleteEvents(cutoffDate);
+            rollupService.deleteBefore(cutoffDate);
             log.info(
                     "Successfully cleaned up {} audit events older than {}",
                     totalDeleted,
@@ -0,0 +1,331 @@
+package stirling.software.proprietary.service;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.configuration.InstallationPathConfig;
+import stirling.software.proprietary.audit.AuditLevel;
+import stirling.software.proprietary.model.security.PersistentAuditEvent;
+
+/**
+ * Buffers audit events in memory and writes them to the database in JDBC batches from a single
+ * background thread, so callers never wait on the database.
+ *
+ * <p>When the buffer is full the event's {@link AuditLevel} decides what happens: {@code VERBOSE}
+ * events are dropped early to keep headroom, {@code STANDARD} events wait briefly for room before
+ * being dropped, and {@code BASIC} (security) events are appended to a local spill file. Failed
+ * batches, events queued while the writer is not running and anything still buffered at shutdown
+ * are spilled too; the spill file is replayed when the writer starts and after the next successful
+ * flush.
+ */
+@Slf4j
+@Service
+public class AuditEventWriter implements SmartLifecycle {
+
+    static final int CAPACITY = 10_000;
+    static final int BATCH_SIZE = 500;
+    private static final int VERBOSE_LIMIT = CAPACITY * 8 / 10;
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long BACKPRESSURE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SHUTDOWN_WAIT_MS = 10_000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_events (principal, type, data, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditRollupService rollupService;
+    private final ObjectMapper mapper;
+    private final Path spillFile;
+
+    private final ConcurrentLinkedQueue<PersistentAuditEvent> buffer =
+            new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Object spillLock = new Object();
+
+    private volatile boolean running = false;
+    private volatile Thread writerThread;
+
+    public AuditEventWriter(
+            JdbcTemplate jdbcTemplate, AuditRollupService rollupService, ObjectMapper mapper) {
+        this(
+                jdbcTemplate,
+                rollupService,
+                mapper,
+                Paths.get(InstallationPathConfig.getConfigPath(), "audit-spill.jsonl"));
+    }
+
+    AuditEventWriter(
+            JdbcTemplate jdbcTemplate,
+            AuditRollupService rollupService,
+            ObjectMapper mapper,
+            Path spillFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rollupService = rollupService;
+        this.mapper = mapper;
+        this.spillFile = spillFile;
+    }
+
+    /**
+     * Queue an event for writing. Never blocks for longer than the short {@code STANDARD}
+     * backpressure wait.
+     *
+     * @return false if the event was dropped
+     */
+    public boolean enqueue(PersistentAuditEvent event, AuditLevel level) {
+        if (!running) {
+            // Nothing would drain the buffer, so the event waits on disk for the next start
+            spill(List.of(event));
+            return true;
+        }
+        if (tryOffer(event, level == AuditLevel.VERBOSE ? VERBOSE_LIMIT : CAPACITY)) {
+            return true;
+        }
+        switch (level) {
+            case VERBOSE:
+                return drop(level);
+            case STANDARD:
+                long deadline = System.nanoTime() + BACKPRESSURE_WAIT_NANOS;
+                while (System.nanoTime() < deadline) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    if (tryOffer(event, CAPACITY)) {
+                        return true;
+                    }
+                }
+                return drop(level);
+            default:
+                spill(List.of(event));
+                return true;
+        }
+    }
+
+    /** Number of events waiting to be written. */
+    public int getPendingCount() {
+        return size.get();
+    }
+
+    /** Number of events dropped because the buffer was full. */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private boolean tryOffer(PersistentAuditEvent event, int limit) {
+        int current;
+        do {
+            current = size.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        buffer.offer(event);
+        if (current + 1 >= BATCH_SIZE) {
+            Thread writer = writerThread;
+            if (writer != null) {
+                LockSupport.unpark(writer);
+            }
+        }
+        return true;
+    }
+
+    private boolean drop(AuditLevel level) {
+        long total = dropped.incrementAndGet();
+        // Log at 1, 2, 4, 8, ... drops so a sustained overload does not flood the log
+        if (Long.bitCount(total) == 1) {
+            log.warn(
+                    "Audit buffer full, dropped {} event(s) so far (latest level {})",
+                    total,
+                    level);
+        }
+        return false;
+    }
+
+    private void runWriter() {
+        replaySpill();
+        while (running || size.get() > 0) {
+            List<PersistentAuditEvent> batch = drain();
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+                continue;
+            }
+            if (flush(batch) && Files.exists(spillFile)) {
+                replaySpill();
+            }
+        }
+    }
+
+    private List<PersistentAuditEvent> drain() {
+        List<PersistentAuditEvent> batch = new ArrayList<>(Math.min(size.get(), BATCH_SIZE));
+        PersistentAuditEvent event;
+        while (batch.size() < BATCH_SIZE && (event = buffer.poll()) != null) {
+            size.decrementAndGet();
+            batch.add(event);
+        }
+        return batch;
+    }
+
+    /** Insert one batch; on failure the batch is spilled so it can be retried later. */
+    boolean flush(List<PersistentAuditEvent> batch) {
+        try {
+            insert(batch);
+        } catch (Exception e) {
+            log.warn("Failed to write {} audit events, spilling to disk", batch.size(), e);
+            spill(batch);
+            return false;
+        }
+        try {
+            rollupService.record(batch);
+        } catch (Exception e) {
+            log.warn("Failed to update audit rollups", e);
+        }
+        return true;
+    }
+
+    private void insert(List<PersistentAuditEvent> batch) {
+        jdbcTemplate.batchUpdate(
+                INSERT_SQL,
+                batch,
+                batch.size(),
+                (ps, event) -> {
+                    ps.setString(1, event.getPrincipal());
+                    ps.setString(2, event.getType());
+                    ps.setString(3, event.getData());
+                    ps.setTimestamp(4, Timestamp.from(event.getTimestamp()));
+                });
+    }
+
+    void spill(List<PersistentAuditEvent> events) {
+        synchronized (spillLock) {
+            try (FileOutputStream out = new FileOutputStream(spillFile.toFile(), true)) {
+                for (PersistentAuditEvent event : events) {
+                    writeLine(out, event);
+                }
+                out.getChannel().force(false);
+            } catch (IOException e) {
+                log.error("Failed to spill {} audit events to {}", events.size(), spillFile, e);
+            }
+        }
+    }
+
+    private void writeLine(OutputStream out, PersistentAuditEvent event) throws IOException {
+        out.write(mapper.writeValueAsBytes(event));
+        out.write('\n');
+    }
+
+    /** Move spilled events back into the database. */
+    void replaySpill() {
+        List<PersistentAuditEvent> events = new ArrayList<>();
+        synchronized (spillLock) {
+            if (!Files.exists(spillFile)) {
+                return;
+            }
+            Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+            try {
+                Files.move(spillFile, replaying, StandardCopyOption.REPLACE_EXISTING);
+                try (BufferedReader reader =
+                        Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank()) {
+                            continue;
+                        }
+                        try {
+                            events.add(mapper.readValue(line, PersistentAuditEvent.class));
+                        } catch (IOException e) {
+                            log.warn("Skipping unreadable spilled audit event: {}", line);
+                        }
+                    }
+                }
+                Files.delete(replaying);
+            } catch (IOException e) {
+                log.error("Failed to read spilled audit events from {}", spillFile, e);
+                return;
+            }
+        }
+
+        for (int from = 0; from < events.size(); from += BATCH_SIZE) {
+            List<PersistentAuditEvent> batch =
+                    events.subList(from, Math.min(from + BATCH_SIZE, events.size()));
+            if (!flush(batch)) {
+                // flush() spilled the failed batch; put the rest back behind it
+                spill(events.subList(from + batch.size(), events.size()));
+                return;
+            }
+        }
+        if (!events.isEmpty()) {
+            log.info("Replayed {} spilled audit events", events.size());
+        }
+    }
+
+    // SmartLifecycle methods
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread writer = writerThread;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(SHUTDOWN_WAIT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Anything the writer could not get to in time is kept on disk for the next start
+        List<PersistentAuditEvent> remaining = new ArrayList<>();
+        PersistentAuditEvent event;
+        while ((event = buffer.poll()) != null) {
+            size.decrementAndGet();
+            remaining.add(event);
+        }
+        if (!remaining.isEmpty()) {
+            spill(remaining);
+            log.info("Spilled {} pending audit events at shutdown", remaining.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Stop only after the web server has drained its requests, which still audit events
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
+    }
+}
@@ -0,0 +1,129 @@
+package stirling.software.proprietary.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+
+import lombok.RequiredArgsConstructor;
+
+import stirling.software.proprietary.model.api.audit.AuditExportRequest;
+import stirling.software.proprietary.model.security.PersistentAuditEvent;
+import stirling.software.proprietary.repository.PersistentAuditEventRepository;
+
+/**
+ * Writes filtered audit events straight from a database cursor to an output stream, so exports use
+ * constant memory regardless of how many events match.
+ */
+@Service
+@RequiredArgsConstructor
+public class AuditExportService {
+
+    private final PersistentAuditEventRepository auditRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /** Write matching events as CSV ({@code ID,Principal,Type,Timestamp,Data}). */
+    @Transactional(readOnly = true)
+    public void writeCsv(AuditExportRequest request, OutputStream out) throws IOException {
+        Writer writer =
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("ID,Principal,Type,Timestamp,Data\n");
+
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_INSTANT;
+        try (Stream<PersistentAuditEvent> events = streamEvents(request)) {
+            Iterator<PersistentAuditEvent> it = events.iterator();
+            while (it.hasNext()) {
+                PersistentAuditEvent event = it.next();
+                writer.write(String.valueOf(event.getId()));
+                writer.write(',');
+                writer.write(escapeCSV(event.getPrincipal()));
+                writer.write(',');
+                writer.write(escapeCSV(event.getType()));
+                writer.write(',');
+                writer.write(formatter.format(event.getTimestamp()));
+                writer.write(',');
+                writer.write(escapeCSV(event.getData()));
+                writer.write('\n');
+                entityManager.detach(event);
+            }
+        }
+        writer.flush();
+    }
+
+    /** Write matching events as a JSON array of {@link PersistentAuditEvent} objects. */
+    @Transactional(readOnly = true)
+    public void writeJson(AuditExportRequest request, OutputStream out) throws IOException {
+        ObjectWriter eventWriter =
+                objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.createGenerator(out);
+                Stream<PersistentAuditEvent> events = streamEvents(request)) {
+            generator.writeStartArray();
+            Iterator<PersistentAuditEvent> it = events.iterator();
+            while (it.hasNext()) {
+                PersistentAuditEvent event = it.next();
+                eventWriter.writeValue(generator, event);
+                entityManager.detach(event);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private Stream<PersistentAuditEvent> streamEvents(AuditExportRequest request) {
+        String type = request.getType();
+        String principal = request.getPrincipal();
+        LocalDate startDate = request.getStartDate();
+        LocalDate endDate = request.getEndDate();
+
+        if (startDate != null && endDate != null) {
+            Instant start = startDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+            Instant end = endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant();
+            if (type != null && principal != null) {
+                return auditRepository.streamByPrincipalAndTypeAndTimestampBetweenForExport(
+                        principal, type, start, end);
+            } else if (type != null) {
+                return auditRepository.streamByTypeAndTimestampBetweenForExport(type, start, end);
+            } else if (principal != null) {
+                return auditRepository.streamByPrincipalAndTimestampBetweenForExport(
+                        principal, start, end);
+            }
+            return auditRepository.streamByTimestampBetweenForExport(start, end);
+        }
+
+        if (type != null && principal != null) {
+            return auditRepository.streamByPrincipalAndTypeForExport(principal, type);
+        } else if (type != null) {
+            return auditRepository.streamByTypeForExport(type);
+        } else if (principal != null) {
+            return auditRepository.streamByPrincipalForExport(principal);
+        }
+        return auditRepository.streamAllForExport();
+    }
+
+    /** Helper method to escape CSV fields. */
+    static String escapeCSV(String field) {
+        if (field == null) {
+            return "";
+        }
+        // Replace double quotes with two double quotes and wrap in quotes
+        return "\"" + field.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,255 @@
+package stirling.software.proprietary.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.util.ExecutorFactory;
+import stirling.software.proprietary.model.api.audit.AuditStatsResponse;
+import stirling.software.proprietary.model.security.AuditEventRollup;
+import stirling.software.proprietary.model.security.AuditRollupWatermark;
+import stirling.software.proprietary.model.security.PersistentAuditEvent;
+import stirling.software.proprietary.repository.AuditEventRollupRepository;
+import stirling.software.proprietary.repository.AuditRollupWatermarkRepository;
+import stirling.software.proprietary.repository.PersistentAuditEventRepository;
+
+/**
+ * Maintains hourly per-type/per-principal event counts as audit events are stored, and answers
+ * dashboard statistics from them instead of loading events. The id of the last counted event is
+ * kept as a watermark; on startup any events stored above it, such as those written before rollups
+ * existed, are rolled up in the background. The end of that backfill range is stored with the
+ * watermark, so a backfill that fails is retried on the next start without counting the events
+ * recorded live in the meantime again.
+ */
+@Slf4j
+@Service
+public class AuditRollupService implements SmartInitializingSingleton {
+
+    private final AuditEventRollupRepository rollupRepository;
+    private final PersistentAuditEventRepository auditRepository;
+    private final AuditRollupWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate newTransaction;
+
+    // Guards the rollup counts and the watermark, which live recording and the backfill both move
+    private final Object lock = new Object();
+    private boolean backfilling = false;
+    private long liveHighWater = 0;
+
+    public AuditRollupService(
+            AuditEventRollupRepository rollupRepository,
+            PersistentAuditEventRepository auditRepository,
+            AuditRollupWatermarkRepository watermarkRepository,
+            PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.auditRepository = auditRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            AuditRollupWatermark state = currentWatermark();
+            long watermark = state.getLastEventId();
+            // Taken before the audit writer starts, so every later event is recorded live
+            long maxId = auditRepository.findMaxId().orElse(0L);
+            Long pending = state.getBackfillUpToId();
+            long upToId;
+            if (pending != null && pending > watermark) {
+                // An earlier backfill failed; the events above its range were counted live
+                upToId = pending;
+            } else if (maxId > watermark) {
+                upToId = maxId;
+                watermarkRepository.setBackfillUpTo(AuditRollupWatermark.ID, upToId);
+            } else {
+                return;
+            }
+            synchronized (lock) {
+                backfilling = true;
+                liveHighWater = maxId;
+            }
+            ExecutorService executor = ExecutorFactory.newVirtualOrCachedThreadExecutor();
+            executor.execute(() -> backfill(watermark, upToId));
+            executor.shutdown();
+        } catch (Exception e) {
+            log.error("Unable to initialise audit rollups", e);
+        }
+    }
+
+    /**
+     * Count a batch of newly stored events into their hourly buckets and move the watermark past
+     * them. Called by the single audit writer straight after the batch is inserted, so the highest
+     * stored id belongs to this batch or an earlier one.
+     */
+    public void record(List<PersistentAuditEvent> events) {
+        Map<RollupKey, Long> counts = new HashMap<>();
+        for (PersistentAuditEvent event : events) {
+            counts.merge(
+                    new RollupKey(
+                            bucketOf(event.getTimestamp()), event.getType(), event.getPrincipal()),
+                    1L,
+                    Long::sum);
+        }
+        synchronized (lock) {
+            transaction.executeWithoutResult(
+                    status -> {
+                        counts.forEach(
+                                (key, count) ->
+                                        increment(
+                                                key.bucket(), key.type(), key.principal(), count));
+                        long maxId = auditRepository.findMaxId().orElse(0L);
+                        if (backfilling) {
+                            // The backfill may still fail, so it publishes the watermark when done
+                            liveHighWater = Math.max(liveHighWater, maxId);
+                        } else {
+                            advanceWatermark(maxId);
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Statistics for the last {@code days} days, aggregated in the database. Buckets are hourly, so
+     * the window starts at the beginning of the hour {@code days} days ago.
+     */
+    public AuditStatsResponse getStats(int days) {
+        Instant since = bucketOf(Instant.now().minus(Duration.ofDays(days)));
+
+        Map<String, Long> eventsByType = toStringLongMap(rollupRepository.sumByTypeSince(since));
+        Map<String, Long> eventsByPrincipal =
+                toStringLongMap(rollupRepository.sumByPrincipalSince(since));
+
+        Map<String, Long> eventsByDay = new HashMap<>();
+        for (Object[] row : rollupRepository.sumByBucketSince(since)) {
+            String day =
+                    ((Instant) row[0])
+                            .atZone(ZoneId.systemDefault())
+                            .format(DateTimeFormatter.ISO_LOCAL_DATE);
+            eventsByDay.merge(day, ((Number) row[1]).longValue(), Long::sum);
+        }
+
+        long total = eventsByType.values().stream().mapToLong(Long::longValue).sum();
+        return new AuditStatsResponse(eventsByType, eventsByPrincipal, eventsByDay, total);
+    }
+
+    /** Drop buckets that end before the cutoff, mirroring event retention. */
+    public int deleteBefore(Instant cutoff) {
+        return rollupRepository.deleteByBucketStartBefore(bucketOf(cutoff));
+    }
+
+    private void backfill(long afterId, long upToId) {
+        try {
+            Map<RollupKey, Long> counts = new HashMap<>();
+            readOnlyTransaction.executeWithoutResult(
+                    status -> {
+                        try (Stream<Object[]> rows =
+                                auditRepository.streamRollupSourceBetween(afterId, upToId)) {
+                            rows.forEach(
+                                    row ->
+                                            counts.merge(
+                                                    new RollupKey(
+                                                            bucketOf((Instant) row[0]),
+                                                            (String) row[1],
+                                                            (String) row[2]),
+                                                    1L,
+                                                    Long::sum));
+                        }
+                    });
+            synchronized (lock) {
+                transaction.executeWithoutResult(
+                        status -> {
+                            counts.forEach(
+                                    (key, count) ->
+                                            increment(
+                                                    key.bucket(),
+                                                    key.type(),
+                                                    key.principal(),
+                                                    count));
+                            advanceWatermark(Math.max(upToId, liveHighWater));
+                            watermarkRepository.setBackfillUpTo(AuditRollupWatermark.ID, null);
+                        });
+                backfilling = false;
+            }
+            long total = counts.values().stream().mapToLong(Long::longValue).sum();
+            log.info("Rolled up {} existing audit events into {} buckets", total, counts.size());
+        } catch (Exception e) {
+            // The watermark and the range end are left as they are, so the next start retries
+            // exactly this range
+            log.error("Failed to roll up existing audit events", e);
+        }
+    }
+
+    private AuditRollupWatermark currentWatermark() {
+        return watermarkRepository
+                .findById(AuditRollupWatermark.ID)
+                .orElseGet(
+                        () ->
+                                watermarkRepository.save(
+                                        new AuditRollupWatermark(
+                                                AuditRollupWatermark.ID, 0, null)));
+    }
+
+    private void advanceWatermark(long eventId) {
+        watermarkRepository.advance(AuditRollupWatermark.ID, eventId);
+    }
+
+    private void increment(Instant bucket, String type, String principal, long delta) {
+        String safeType = type != null ? type : "";
+        String safePrincipal = principal != null ? principal : "";
+        if (rollupRepository.incrementCount(bucket, safeType, safePrincipal, delta) > 0) {
+            return;
+        }
+        try {
+            // The empty bucket is created in a transaction of its own, so a duplicate insert
+            // cannot mark the caller's transaction rollback-only
+            newTransaction.executeWithoutResult(
+                    status ->
+                            rollupRepository.saveAndFlush(
+                                    AuditEventRollup.builder()
+                                            .bucketStart(bucket)
+                                            .type(safeType)
+                                            .principal(safePrincipal)
+                                            .eventCount(0)
+                                            .build()));
+        } catch (DataIntegrityViolationException e) {
+            // Another writer created the bucket first
+        }
+        rollupRepository.incrementCount(bucket, safeType, safePrincipal, delta);
+    }
+
+    private static Instant bucketOf(Instant timestamp) {
+        return timestamp.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static Map<String, Long> toStringLongMap(List<Object[]> rows) {
+        Map<String, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put(String.valueOf(row[0]), ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+
+    private record RollupKey(Instant bucket, String type, String principal) {}
+}
@@ -4,7 +4,6 @@ import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.actuate.audit.AuditEvent;
-import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -14,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import stirling.software.proprietary.audit.AuditEventType;
 import stirling.software.proprietary.audit.AuditLevel;
 import stirling.software.proprietary.config.AuditConfigurationProperties;
+import stirling.software.proprietary.config.CustomAuditEventRepository;
 
 /**
  * Service for creating manual audit events throughout the application. This provides easy access to
@@ -23,12 +23,12 @@ import stirling.software.proprietary.config.AuditConfigurationProperties;
 @Service
 public class AuditService {
 
-    private final AuditEventRepository repository;
+    private final CustomAuditEventRepository repository;
     private final AuditConfigurationProperties auditConfig;
     private final boolean runningEE;
 
     public AuditService(
-            AuditEventRepository repository,
+            CustomAuditEventRepository repository,
             AuditConfigurationProperties auditConfig,
             @Qualifier("runningEE") boolean runningEE) {
         this.repository = repository;
@@ -53,7 +53,7 @@ public class AuditService {
         }
 
         String principal = getCurrentUsername();
-        repository.add(new AuditEvent(principal, type.name(), data));
+        repository.add(new AuditEvent(principal, type.name(), data), level);
     }
 
     /**
@@ -84,7 +84,7 @@ public class AuditService {
             return;
         }
 
-        repository.add(new AuditEvent(principal, type.name(), data));
+        repository.add(new AuditEvent(principal, type.name(), data), level);
     }
 
     /**
@@ -115,7 +115,7 @@ public class AuditService {
         }
 
         String principal = getCurrentUsername();
-        repository.add(new AuditEvent(principal, type, data));
+        repository.add(new AuditEvent(principal, type, data), level);
     }
 
     /**
@@ -145,7 +145,7 @@ public class AuditService {
             return;
         }
 
-        repository.add(new AuditEvent(principal, type, data));
+        repository.add(new AuditEvent(principal, type, data), level);
     }
 
     /**
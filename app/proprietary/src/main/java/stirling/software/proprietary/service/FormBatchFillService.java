@@ -0,0 +1,309 @@
+package stirling.software.proprietary.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.pdfbox.multipdf.PDFMergerUtility;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.util.ExceptionUtils;
+import stirling.software.common.util.ExecutorFactory;
+import stirling.software.common.util.ParallelPageWorkers;
+import stirling.software.common.util.TempFile;
+import stirling.software.common.util.TempFileManager;
+import stirling.software.proprietary.util.FormUtils;
+
+/**
+ * Fills one form template with many records (mail merge). The template is read and its fields are
+ * analysed once; every record is then filled on its own copy parsed from the in-memory template, in
+ * parallel, and the results are written in record order to a ZIP archive or appended to a single
+ * merged PDF. Only a bounded number of filled records is held in memory at any time, so a ZIP can
+ * be built from an arbitrarily long record stream.
+ *
+ * <p>A merged PDF cannot be written incrementally: its stream data is spooled to a temp-file cache,
+ * but the object structure of every appended page and field stays in memory until it is saved, so
+ * memory grows with the number of records. Very large batches should use {@link OutputMode#ZIP}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FormBatchFillService {
+
+    static final int MAX_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final int LOOKAHEAD_PER_WORKER = 2;
+
+    private final CustomPDFDocumentFactory pdfDocumentFactory;
+    private final TempFileManager tempFileManager;
+
+    // Shared by all requests, so concurrent batches queue for cores instead of each starting
+    // threads of their own
+    private final ExecutorService fillExecutor =
+            ExecutorFactory.newBoundedDaemonExecutor("form-fill", MAX_WORKERS);
+
+    public enum OutputMode {
+        ZIP,
+        MERGED
+    }
+
+    /** Supplies the records to fill, one value map per call. */
+    @FunctionalInterface
+    public interface RecordSource {
+        /**
+         * @return the next record, or {@code null} when there are no more records
+         */
+        Map<String, ?> next() throws IOException;
+    }
+
+    /**
+     * The outcome of a batch fill. The caller owns {@code output} and must close it.
+     *
+     * @param output the ZIP archive or merged PDF
+     * @param records number of records filled
+     * @param elapsedNanos time taken to fill and write all records
+     */
+    public record BatchFillResult(TempFile output, int records, long elapsedNanos) {
+        public double recordsPerSecond() {
+            return elapsedNanos == 0 ? 0 : records * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+
+    /** Template fields, resolved once: accepted record keys mapped to the field they fill. */
+    private record Template(byte[] bytes, Map<String, String> fieldsByKey) {}
+
+    @FunctionalInterface
+    private interface FilledRecordSink {
+        void accept(int recordNumber, byte[] filledPdf) throws IOException;
+    }
+
+    /**
+     * Fills {@code template} once per record.
+     *
+     * @param template the PDF form
+     * @param records the records; keys are field names as listed by {@link
+     *     FormUtils#extractFormFields}, or their partial names
+     * @param flatten whether to flatten each filled copy
+     * @param mode whether to return a ZIP of individual PDFs or one merged PDF
+     * @param baseName name the individual PDFs are derived from
+     */
+    public BatchFillResult fill(
+            byte[] template,
+            RecordSource records,
+            boolean flatten,
+            OutputMode mode,
+            String baseName)
+            throws IOException {
+        Template analysed = analyse(template);
+        long start = System.nanoTime();
+
+        TempFile output = new TempFile(tempFileManager, mode == OutputMode.ZIP ? ".zip" : ".pdf");
+        try {
+            int count =
+                    mode == OutputMode.ZIP
+                            ? fillToZip(analysed, records, flatten, baseName, output)
+                            : fillToMergedPdf(analysed, records, flatten, output);
+            if (count == 0) {
+                throw ExceptionUtils.createIllegalArgumentException(
+                        "error.dataRequired", "{0} must contain at least one value", "records");
+            }
+            long elapsed = System.nanoTime() - start;
+            BatchFillResult result = new BatchFillResult(output, count, elapsed);
+            log.info(
+                    "Filled {} form records in {} ms ({} records/s)",
+                    count,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed),
+                    String.format(Locale.ROOT, "%.1f", result.recordsPerSecond()));
+            return result;
+        } catch (IOException | RuntimeException e) {
+            output.close();
+            throw e;
+        }
+    }
+
+    private Template analyse(byte[] template) throws IOException {
+        Map<String, String> fieldsByKey = new LinkedHashMap<>();
+        Map<String, String> fieldsByPartialName = new LinkedHashMap<>();
+        Set<String> ambiguous = new TreeSet<>();
+        try (PDDocument document = pdfDocumentFactory.load(template, true)) {
+            for (FormUtils.FormFieldInfo field : FormUtils.extractFormFields(document)) {
+                if (FormUtils.FIELD_TYPE_BUTTON.equals(field.type())
+                        || FormUtils.FIELD_TYPE_SIGNATURE.equals(field.type())) {
+                    continue;
+                }
+                String name = field.name();
+                fieldsByKey.put(name, name);
+                int dot = name.lastIndexOf('.');
+                if (dot >= 0) {
+                    String previous =
+                            fieldsByPartialName.putIfAbsent(name.substring(dot + 1), name);
+                    if (previous != null && !previous.equals(name)) {
+                        ambiguous.add(name.substring(dot + 1));
+                    }
+                }
+            }
+        }
+        // Partial names are accepted as well, as long as they are unambiguous; full names win
+        fieldsByPartialName.keySet().removeAll(ambiguous);
+        fieldsByPartialName.forEach(fieldsByKey::putIfAbsent);
+        if (!ambiguous.isEmpty()) {
+            log.debug("Partial field names {} match several fields and are ignored", ambiguous);
+        }
+        if (fieldsByKey.isEmpty()) {
+            throw ExceptionUtils.createIllegalArgumentException(
+                    "error.invalidArgument",
+                    "Invalid argument: {0}",
+                    "template has no fillable form fields");
+        }
+        return new Template(template, fieldsByKey);
+    }
+
+    private int fillToZip(
+            Template template,
+            RecordSource records,
+            boolean flatten,
+            String baseName,
+            TempFile output)
+            throws IOException {
+        try (ZipOutputStream zipOut =
+                new ZipOutputStream(Files.newOutputStream(output.getPath()))) {
+            return fillInOrder(
+                    template,
+                    records,
+                    flatten,
+                    (recordNumber, filledPdf) -> {
+                        zipOut.putNextEntry(
+                                new ZipEntry(
+                                        String.format(
+                                                Locale.ROOT,
+                                                "%s_%05d.pdf",
+                                                baseName,
+                                                recordNumber)));
+                        zipOut.write(filledPdf);
+                        zipOut.closeEntry();
+                    });
+        }
+    }
+
+    private int fillToMergedPdf(
+            Template template, RecordSource records, boolean flatten, TempFile output)
+            throws IOException {
+        PDFMergerUtility merger = new PDFMergerUtility();
+        // Keep the fields of different records apart instead of joining same-named fields
+        merger.setAcroFormMergeMode(PDFMergerUtility.AcroFormMergeMode.PDFBOX_LEGACY_MODE);
+        try (PDDocument merged = pdfDocumentFactory.createNewDocument()) {
+            int count =
+                    fillInOrder(
+                            template,
+                            records,
+                            flatten,
+                            (recordNumber, filledPdf) -> {
+                                try (PDDocument filled = pdfDocumentFactory.load(filledPdf, true)) {
+                                    merger.appendDocument(merged, filled);
+                                }
+                            });
+            try (OutputStream out = Files.newOutputStream(output.getPath())) {
+                merged.save(out);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Reads the records on the calling thread, fills them on worker threads and hands the results
+     * to {@code sink} in record order. At most {@code workers * LOOKAHEAD_PER_WORKER} filled
+     * records wait to be written at any time.
+     */
+    private int fillInOrder(
+            Template template, RecordSource records, boolean flatten, FilledRecordSink sink)
+            throws IOException {
+        int window = MAX_WORKERS * LOOKAHEAD_PER_WORKER;
+        ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>(window);
+        Set<String> unknownKeys = new HashSet<>();
+        int submitted = 0;
+        int written = 0;
+        try {
+            Map<String, ?> record;
+            while ((record = records.next()) != null) {
+                Map<String, Object> values = toFieldValues(template, record, unknownKeys);
+                int recordNumber = ++submitted;
+                pending.add(
+                        fillExecutor.submit(
+                                () -> fillRecord(template, values, flatten, recordNumber)));
+                if (pending.size() >= window) {
+                    sink.accept(++written, await(pending.poll()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                sink.accept(++written, await(pending.poll()));
+            }
+            return written;
+        } finally {
+            // Each record works on its own copy, so abandoned fills need not be waited for
+            for (Future<byte[]> fill : pending) {
+                fill.cancel(true);
+            }
+        }
+    }
+
+    private Map<String, Object> toFieldValues(
+            Template template, Map<String, ?> record, Set<String> unknownKeys) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> entry : record.entrySet()) {
+            String field =
+                    entry.getKey() == null ? null : template.fieldsByKey().get(entry.getKey());
+            if (field != null) {
+                values.put(field, entry.getValue());
+            } else if (entry.getKey() != null && unknownKeys.add(entry.getKey())) {
+                log.debug("No matching field found for '{}', skipping", entry.getKey());
+            }
+        }
+        return values;
+    }
+
+    private byte[] fillRecord(
+            Template template, Map<String, Object> values, boolean flatten, int recordNumber)
+            throws IOException {
+        try (PDDocument document = pdfDocumentFactory.load(template.bytes())) {
+            FormUtils.applyFieldValues(document, values, flatten, true);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos);
+            return baos.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            throw ExceptionUtils.createIOException(
+                    "error.formRecordFailed",
+                    "Record {0} could not be filled: {1}",
+                    e,
+                    recordNumber,
+                    e.getMessage());
+        }
+    }
+
+    private static byte[] await(Future<byte[]> result) throws IOException {
+        return ParallelPageWorkers.await(result, "Form record fill");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fillExecutor.shutdownNow();
+    }
+}
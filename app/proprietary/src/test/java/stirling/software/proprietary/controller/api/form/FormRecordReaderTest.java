@@ -0,0 +1,64 @@
+package stirling.software.proprietary.controller.api.form;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class FormRecordReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsCsvWithQuotedValues() throws IOException {
+        String csv =
+                "\uFEFFname,address\r\n"
+                        + "Ada,\"12 Analytical Way, London\"\r\n"
+                        + "\n"
+                        + "\"Grace \"\"Amazing\"\" Hopper\",\"Line one\nLine two\"\n";
+
+        try (FormRecordReader reader = open("records.csv", csv)) {
+            assertEquals(
+                    Map.of("name", "Ada", "address", "12 Analytical Way, London"), reader.next());
+            assertEquals(
+                    Map.of("name", "Grace \"Amazing\" Hopper", "address", "Line one\nLine two"),
+                    reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void detectsJsonLinesFromContent() throws IOException {
+        String jsonl = "{\"name\":\"Ada\"}\n\n{\"name\":\"Grace\",\"age\":36}\n";
+
+        try (FormRecordReader reader = open("records", jsonl)) {
+            assertEquals(Map.of("name", "Ada"), reader.next());
+            assertEquals(Map.of("name", "Grace", "age", "36"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void rejectsRowsWiderThanHeader() throws IOException {
+        try (FormRecordReader reader = open("records.csv", "name\nAda,extra\n")) {
+            assertThrows(IllegalArgumentException.class, reader::next);
+        }
+    }
+
+    private FormRecordReader open(String filename, String content) throws IOException {
+        return FormRecordReader.open(
+                new MockMultipartFile(
+                        "records",
+                        filename,
+                        "text/plain",
+                        content.getBytes(StandardCharsets.UTF_8)),
+                null,
+                objectMapper);
+    }
+}
@@ -0,0 +1,146 @@
+package stirling.software.proprietary.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import stirling.software.proprietary.audit.AuditLevel;
+import stirling.software.proprietary.model.security.PersistentAuditEvent;
+
+@ExtendWith(MockitoExtension.class)
+class AuditEventWriterTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private AuditRollupService rollupService;
+
+    @TempDir Path tempDir;
+
+    private Path spillFile;
+    private AuditEventWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = tempDir.resolve("audit-spill.jsonl");
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        writer = new AuditEventWriter(jdbcTemplate, rollupService, mapper, spillFile);
+    }
+
+    /** Lets events into the buffer without a writer thread draining it. */
+    private void markRunning() {
+        ReflectionTestUtils.setField(writer, "running", true);
+    }
+
+    @Test
+    void verboseEventsAreDroppedBeforeTheBufferIsFull() {
+        markRunning();
+        int accepted = 0;
+        for (int i = 0; i < AuditEventWriter.CAPACITY; i++) {
+            if (writer.enqueue(event(i), AuditLevel.VERBOSE)) {
+                accepted++;
+            }
+        }
+
+        assertTrue(accepted < AuditEventWriter.CAPACITY);
+        assertEquals(AuditEventWriter.CAPACITY - accepted, writer.getDroppedCount());
+        // Room is still left for more important events
+        assertTrue(writer.enqueue(event(-1), AuditLevel.STANDARD));
+    }
+
+    @Test
+    void basicEventsAreSpilledWhenBufferIsFull() throws Exception {
+        markRunning();
+        for (int i = 0; i < AuditEventWriter.CAPACITY; i++) {
+            assertTrue(writer.enqueue(event(i), AuditLevel.BASIC));
+        }
+
+        assertTrue(writer.enqueue(event(-1), AuditLevel.BASIC));
+        assertEquals(1, Files.readAllLines(spillFile).size());
+        assertFalse(writer.enqueue(event(-2), AuditLevel.STANDARD));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedBatchesAreSpilledAndReplayed() throws Exception {
+        when(jdbcTemplate.batchUpdate(
+                        anyString(),
+                        any(List.class),
+                        anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(new int[][] {{1, 1}});
+
+        List<PersistentAuditEvent> batch = List.of(event(1), event(2));
+        assertFalse(writer.flush(batch));
+        verify(rollupService, never()).record(any());
+        assertEquals(2, Files.readAllLines(spillFile).size());
+
+        writer.replaySpill();
+
+        ArgumentCaptor<List<PersistentAuditEvent>> replayed = ArgumentCaptor.forClass(List.class);
+        verify(rollupService).record(replayed.capture());
+        assertEquals(batch, replayed.getValue());
+        assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void eventsQueuedWhileStoppedAreSpilledAndReplayedOnStart() throws Exception {
+        when(jdbcTemplate.batchUpdate(
+                        anyString(),
+                        any(List.class),
+                        anyInt(),
+                        any(ParameterizedPreparedStatementSetter.class)))
+                .thenReturn(new int[][] {{1}});
+
+        assertTrue(writer.enqueue(event(1), AuditLevel.VERBOSE));
+        assertEquals(0, writer.getPendingCount());
+        assertEquals(1, Files.readAllLines(spillFile).size());
+
+        writer.start();
+        try {
+            ArgumentCaptor<List<PersistentAuditEvent>> replayed =
+                    ArgumentCaptor.forClass(List.class);
+            verify(rollupService, timeout(5000)).record(replayed.capture());
+            assertEquals(List.of(event(1)), replayed.getValue());
+            assertFalse(Files.exists(spillFile));
+        } finally {
+            writer.stop();
+        }
+    }
+
+    private PersistentAuditEvent event(int i) {
+        return PersistentAuditEvent.builder()
+                .principal("user" + i)
+                .type("PDF_PROCESS")
+                .data("{\"n\":" + i + "}")
+                .timestamp(Instant.parse("2025-01-01T10:00:00Z").plusSeconds(i))
+                .build();
+    }
+}
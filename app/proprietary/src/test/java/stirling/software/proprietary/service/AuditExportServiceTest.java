@@ -0,0 +1,102 @@
+package stirling.software.proprietary.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.persistence.EntityManager;
+
+import stirling.software.proprietary.model.api.audit.AuditExportRequest;
+import stirling.software.proprietary.model.security.PersistentAuditEvent;
+import stirling.software.proprietary.repository.PersistentAuditEventRepository;
+
+@ExtendWith(MockitoExtension.class)
+class AuditExportServiceTest {
+
+    @Mock private PersistentAuditEventRepository auditRepository;
+    @Mock private EntityManager entityManager;
+
+    private ObjectMapper objectMapper;
+    private AuditExportService service;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper =
+                new ObjectMapper()
+                        .registerModule(new JavaTimeModule())
+                        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        service = new AuditExportService(auditRepository, objectMapper, entityManager);
+    }
+
+    @Test
+    void writesCsvRowsFromStream() throws Exception {
+        when(auditRepository.streamAllForExport()).thenReturn(events().stream());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeCsv(new AuditExportRequest(), out);
+
+        assertEquals(
+                "ID,Principal,Type,Timestamp,Data\n"
+                        + "1,\"admin\",\"USER_LOGIN\",2025-01-01T10:00:00Z,\"{\"\"ip\"\":\"\"1\"\"}\"\n"
+                        + "2,\"bob\",\"PDF_PROCESS\",2025-01-02T11:30:00Z,\n",
+                out.toString(StandardCharsets.UTF_8));
+        verify(entityManager, times(2)).detach(any());
+    }
+
+    @Test
+    void writesJsonArrayMatchingListSerialization() throws Exception {
+        List<PersistentAuditEvent> events = events();
+        when(auditRepository.streamByTypeForExport("USER_LOGIN")).thenReturn(events.stream());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeJson(new AuditExportRequest("USER_LOGIN", null), out);
+
+        assertEquals(objectMapper.writeValueAsString(events), out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void selectsQueryFromFilters() throws Exception {
+        AuditExportRequest request = new AuditExportRequest("USER_LOGIN", "admin");
+        request.setStartDate(LocalDate.of(2025, 1, 1));
+        request.setEndDate(LocalDate.of(2025, 1, 31));
+        when(auditRepository.streamByPrincipalAndTypeAndTimestampBetweenForExport(
+                        any(), any(), any(), any()))
+                .thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeCsv(request, out);
+
+        assertEquals("ID,Principal,Type,Timestamp,Data\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    private List<PersistentAuditEvent> events() {
+        return List.of(
+                new PersistentAuditEvent(
+                        1L,
+                        "admin",
+                        "USER_LOGIN",
+                        "{\"ip\":\"1\"}",
+                        Instant.parse("2025-01-01T10:00:00Z")),
+                new PersistentAuditEvent(
+                        2L, "bob", "PDF_PROCESS", null, Instant.parse("2025-01-02T11:30:00Z")));
+    }
+}
@@ -0,0 +1,227 @@
+package stirling.software.proprietary.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationWidget;
+import org.apache.pdfbox.pdmodel.interactive.form.PDAcroForm;
+import org.apache.pdfbox.pdmodel.interactive.form.PDField;
+import org.apache.pdfbox.pdmodel.interactive.form.PDNonTerminalField;
+import org.apache.pdfbox.pdmodel.interactive.form.PDTextField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import stirling.software.common.model.ApplicationProperties;
+import stirling.software.common.service.CustomPDFDocumentFactory;
+import stirling.software.common.service.PdfMetadataService;
+import stirling.software.common.util.TempFile;
+import stirling.software.common.util.TempFileManager;
+import stirling.software.common.util.TempFileRegistry;
+
+class FormBatchFillServiceTest {
+
+    private FormBatchFillService service;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        PdfMetadataService meta = new PdfMetadataService(properties, "label", false, null);
+        service =
+                new FormBatchFillService(
+                        new CustomPDFDocumentFactory(meta),
+                        new TempFileManager(new TempFileRegistry(), properties));
+    }
+
+    @Test
+    void fill_writesOneEntryPerRecordInOrder() throws IOException {
+        List<Map<String, ?>> records = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            records.add(Map.of("name", "Person " + i, "unknown", "ignored"));
+        }
+
+        FormBatchFillService.BatchFillResult result =
+                service.fill(
+                        createTemplate(),
+                        source(records),
+                        false,
+                        FormBatchFillService.OutputMode.ZIP,
+                        "certificate");
+
+        try (TempFile output = result.output();
+                ZipInputStream zip = new ZipInputStream(Files.newInputStream(output.getPath()))) {
+            assertEquals(12, result.records());
+            int index = 0;
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                index++;
+                assertEquals(String.format("certificate_%05d.pdf", index), entry.getName());
+                try (PDDocument filled = Loader.loadPDF(zip.readAllBytes())) {
+                    PDAcroForm form = filled.getDocumentCatalog().getAcroForm();
+                    assertEquals("Person " + index, form.getField("name").getValueAsString());
+                }
+            }
+            assertEquals(12, index);
+        }
+    }
+
+    @Test
+    void fill_mergesRecordsIntoOneDocument() throws IOException {
+        List<Map<String, ?>> records =
+                List.of(Map.of("name", "Ada"), Map.of("name", "Grace"), Map.of("name", "Linus"));
+
+        FormBatchFillService.BatchFillResult result =
+                service.fill(
+                        createTemplate(),
+                        source(records),
+                        false,
+                        FormBatchFillService.OutputMode.MERGED,
+                        "certificate");
+
+        try (TempFile output = result.output();
+                PDDocument merged = Loader.loadPDF(output.getFile())) {
+            assertEquals(3, result.records());
+            assertEquals(3, merged.getNumberOfPages());
+            assertTrue(result.recordsPerSecond() > 0);
+        }
+    }
+
+    @Test
+    void fill_ignoresAmbiguousPartialNames() throws IOException {
+        List<Map<String, ?>> records = List.of(Map.of("city", "Paris", "zip", "75001"));
+
+        FormBatchFillService.BatchFillResult result =
+                service.fill(
+                        createNestedTemplate(),
+                        source(records),
+                        false,
+                        FormBatchFillService.OutputMode.ZIP,
+                        "address");
+
+        try (TempFile output = result.output();
+                ZipInputStream zip = new ZipInputStream(Files.newInputStream(output.getPath()))) {
+            assertNotNull(zip.getNextEntry());
+            try (PDDocument filled = Loader.loadPDF(zip.readAllBytes())) {
+                PDAcroForm form = filled.getDocumentCatalog().getAcroForm();
+                // "city" could mean either address, so neither is filled
+                assertEquals("", form.getField("home.city").getValueAsString());
+                assertEquals("", form.getField("work.city").getValueAsString());
+                assertEquals("75001", form.getField("home.zip").getValueAsString());
+            }
+        }
+    }
+
+    @Test
+    void fill_rejectsEmptyRecordStream() throws IOException {
+        byte[] template = createTemplate();
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        service.fill(
+                                template,
+                                source(List.of()),
+                                false,
+                                FormBatchFillService.OutputMode.ZIP,
+                                "certificate"));
+    }
+
+    private static FormBatchFillService.RecordSource source(List<Map<String, ?>> records) {
+        Iterator<Map<String, ?>> iterator = records.iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /** Fields {@code home.city}, {@code home.zip} and {@code work.city}. */
+    private static byte[] createNestedTemplate() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            PDAcroForm acroForm = newAcroForm(document);
+
+            float y = 700;
+            for (String parentName : new String[] {"home", "work"}) {
+                PDNonTerminalField parent = new PDNonTerminalField(acroForm);
+                parent.setPartialName(parentName);
+                List<PDField> children = new ArrayList<>();
+                for (String childName :
+                        "home".equals(parentName)
+                                ? new String[] {"city", "zip"}
+                                : new String[] {"city"}) {
+                    PDTextField child = new PDTextField(acroForm);
+                    child.setPartialName(childName);
+                    child.getCOSObject().setItem(COSName.PARENT, parent);
+                    addWidget(page, child, y);
+                    y -= 30;
+                    children.add(child);
+                }
+                parent.setChildren(children);
+                acroForm.getFields().add(parent);
+            }
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos);
+            return baos.toByteArray();
+        }
+    }
+
+    private static PDAcroForm newAcroForm(PDDocument document) {
+        PDAcroForm acroForm = new PDAcroForm(document);
+        PDResources resources = new PDResources();
+        resources.put(
+                COSName.getPDFName("Helv"), new PDType1Font(Standard14Fonts.FontName.HELVETICA));
+        acroForm.setDefaultResources(resources);
+        acroForm.setDefaultAppearance("/Helv 12 Tf 0 g");
+        document.getDocumentCatalog().setAcroForm(acroForm);
+        return acroForm;
+    }
+
+    private static void addWidget(PDPage page, PDTextField field, float y) throws IOException {
+        PDAnnotationWidget widget = field.getWidgets().get(0);
+        widget.setRectangle(new PDRectangle(50, y, 200, 20));
+        widget.setPage(page);
+        page.getAnnotations().add(widget);
+    }
+
+    private static byte[] createTemplate() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+
+            PDAcroForm acroForm = new PDAcroForm(document);
+            PDResources resources = new PDResources();
+            resources.put(
+                    COSName.getPDFName("Helv"),
+                    new PDType1Font(Standard14Fonts.FontName.HELVETICA));
+            acroForm.setDefaultResources(resources);
+            acroForm.setDefaultAppearance("/Helv 12 Tf 0 g");
+            document.getDocumentCatalog().setAcroForm(acroForm);
+
+            PDTextField field = new PDTextField(acroForm);
+            field.setPartialName("name");
+            PDAnnotationWidget widget = field.getWidgets().get(0);
+            widget.setRectangle(new PDRectangle(50, 700, 200, 20));
+            widget.setPage(page);
+            page.getAnnotations().add(widget);
+            acroForm.getFields().add(field);
+
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            document.save(baos);
+            return baos.toByteArray();
+        }
+    }
+}